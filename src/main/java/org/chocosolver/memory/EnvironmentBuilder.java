@@ -9,6 +9,8 @@
 package org.chocosolver.memory;
 
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.memory.trailing.pool.IntPool;
+import org.chocosolver.memory.trailing.pool.LongPool;
 import org.chocosolver.memory.trailing.trail.*;
 import org.chocosolver.memory.trailing.trail.chunck.*;
 import org.chocosolver.memory.trailing.trail.flatten.*;
@@ -59,6 +61,14 @@ public class EnvironmentBuilder {
      * Trail to consider to manage operations
      */
     private IOperationTrail ot;
+    /**
+     * Pool to consider to store integers and booleans, may be null
+     */
+    private IntPool ip;
+    /**
+     * Pool to consider to store longs, may be null
+     */
+    private LongPool lp;
 
     /**
      * The maximum numbers of updates that a
@@ -143,6 +153,26 @@ public class EnvironmentBuilder {
         return this;
     }
 
+    /**
+     * Set the int pool, which stores both integers and booleans.
+     * @param p the pool to use
+     * @return {@code this}
+     */
+    public EnvironmentBuilder setPool(IntPool p) {
+        ip = p;
+        return this;
+    }
+
+    /**
+     * Set the long pool.
+     * @param p the pool to use
+     * @return {@code this}
+     */
+    public EnvironmentBuilder setPool(LongPool p) {
+        lp = p;
+        return this;
+    }
+
     /**
      * Build the environment
      * @return the resulting environment
@@ -174,6 +204,12 @@ public class EnvironmentBuilder {
         env.setDoubleTrail(dt);
         env.setOperationTrail(ot);
         env.setLongTrail(lt);
+        if (ip != null) {
+            env.setIntPool(ip);
+        }
+        if (lp != null) {
+            env.setLongPool(lp);
+        }
         return env;
     }
 
@@ -202,4 +238,16 @@ public class EnvironmentBuilder {
         setTrail(new OperationTrail(worldsize, worldnumber, loadfactor));
         return this;
     }
-}
\ No newline at end of file
+
+    /**
+     * Build a pooled environment: backtrackable integers, booleans and longs are stored
+     * in large primitive arrays and addressed by index, other data are managed as in a flat environment.
+     * @return {@code this}
+     */
+    public EnvironmentBuilder fromPool(){
+        fromFlat();
+        setPool(new IntPool(worldsize, worldnumber, loadfactor));
+        setPool(new LongPool(worldsize, worldnumber, loadfactor));
+        return this;
+    }
+}
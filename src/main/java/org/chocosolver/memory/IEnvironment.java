@@ -47,6 +47,16 @@ public interface IEnvironment  {
      */
     void worldPopUntil(int w);
 
+    /**
+     * Records the state of the current world, so that backtracking to it with {@link #worldPopUntil(int)}
+     * can be done in bulk, instead of reverting updates one by one.
+     * The state of the current world is expected not to change afterwards, only those of the next worlds.
+     * <p>
+     * Does nothing by default.
+     */
+    default void checkpoint() {
+    }
+
     /**
      * Comitting the current world: merging it with the previous one.
      * <p>
@@ -118,4 +118,35 @@ public interface IStateBitSet  {
     int prevClearBit(int fromIndex);
 
     boolean isEmpty();
+
+    /**
+     * Returns the word at index <code>wordIndex</code>,
+     * that is, the bits from <code>64 * wordIndex</code> to <code>64 * wordIndex + 63</code>.
+     *
+     * @param wordIndex index of the word, positive
+     * @return the word, 0 if it is beyond the last bit set
+     */
+    default long getWord(int wordIndex) {
+        long word = 0L;
+        int from = wordIndex << 6;
+        for (int i = nextSetBit(from); i > -1 && i < from + 64; i = nextSetBit(i + 1)) {
+            word |= 1L << i;
+        }
+        return word;
+    }
+
+    /**
+     * Puts off the bits of the word at index <code>wordIndex</code> which are not on in <code>mask</code>.
+     *
+     * @param wordIndex index of the word, positive
+     * @param mask      the bits to keep
+     */
+    default void andWord(int wordIndex, long mask) {
+        long removed = getWord(wordIndex) & ~mask;
+        int from = wordIndex << 6;
+        while (removed != 0L) {
+            clear(from + Long.numberOfTrailingZeros(removed));
+            removed &= removed - 1;
+        }
+    }
 }
@@ -32,8 +32,9 @@ public abstract class IStateBool  {
 
     /**
      * Returns the current value.
+     * Only overridden by the backtrackable values which are not stored in this object.
      */
-    public final boolean get() {
+    public boolean get() {
         return currentValue;
     }
 
@@ -61,6 +62,6 @@ public abstract class IStateBool  {
 
     @Override
     public String toString() {
-        return String.valueOf(currentValue);
+        return String.valueOf(get());
     }
 }
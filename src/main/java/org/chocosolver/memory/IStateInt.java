@@ -32,8 +32,9 @@ public abstract class IStateInt  {
 
     /**
      * Returns the current value.
+     * Only overridden by the backtrackable values which are not stored in this object.
      */
-    public final int get() {
+    public int get() {
         return currentValue;
     }
 
@@ -51,7 +52,7 @@ public abstract class IStateInt  {
      * @return the new value
      */
     public final int add(int delta) {
-        int res = currentValue + delta;
+        int res = get() + delta;
         set(res);
         return res;
     }
@@ -73,6 +74,6 @@ public abstract class IStateInt  {
 
     @Override
     public String toString() {
-        return String.valueOf(currentValue);
+        return String.valueOf(get());
     }
 }
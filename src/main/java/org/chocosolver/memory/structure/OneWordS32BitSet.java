@@ -387,6 +387,21 @@ public class OneWordS32BitSet implements IStateBitSet {
         return word == set.word;
     }
 
+    @Override
+    public long getWord(int wordIndex) {
+        return wordIndex == 0 ? word.get() & 0xffffffffL : 0L;
+    }
+
+    @Override
+    public void andWord(int wordIndex, long mask) {
+        if (wordIndex == 0) {
+            int w = word.get();
+            if ((w & (int) mask) != w) {
+                word.set(w & (int) mask);
+            }
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder b = new StringBuilder(6 * BITS_PER_WORD + 2);
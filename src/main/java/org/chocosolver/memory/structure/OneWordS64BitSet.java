@@ -382,6 +382,21 @@ public class OneWordS64BitSet implements IStateBitSet {
         return word == set.word;
     }
 
+    @Override
+    public long getWord(int wordIndex) {
+        return wordIndex == 0 ? word.get() : 0L;
+    }
+
+    @Override
+    public void andWord(int wordIndex, long mask) {
+        if (wordIndex == 0) {
+            long w = word.get();
+            if ((w & mask) != w) {
+                word.set(w & mask);
+            }
+        }
+    }
+
     public String toString() {
         StringBuilder b = new StringBuilder(6 * BITS_PER_WORD + 2);
         b.append('{');
@@ -602,6 +602,26 @@ public class S64BitSet implements IStateBitSet {
         return true;
     }
 
+    @Override
+    public long getWord(int wordIndex) {
+        return wordIndex < wordsInUse.get() ? words[wordIndex].get() : 0L;
+    }
+
+    @Override
+    public void andWord(int wordIndex, long mask) {
+        int n = wordsInUse.get();
+        if (wordIndex < n) {
+            long word = words[wordIndex].get();
+            if ((word & mask) != word) {
+                words[wordIndex].set(word & mask);
+                if (wordIndex == n - 1) {
+                    recalculateWordsInUse();
+                }
+            }
+        }
+        if (CHECK) checkInvariants();
+    }
+
     public String toString() {
         if (CHECK) checkInvariants();
 
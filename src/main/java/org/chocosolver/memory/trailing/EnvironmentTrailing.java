@@ -11,6 +11,8 @@ package org.chocosolver.memory.trailing;
 
 import org.chocosolver.memory.*;
 import org.chocosolver.memory.structure.IOperation;
+import org.chocosolver.memory.trailing.pool.IntPool;
+import org.chocosolver.memory.trailing.pool.LongPool;
 import org.chocosolver.memory.trailing.trail.*;
 import org.chocosolver.memory.trailing.trail.flatten.*;
 
@@ -50,6 +52,14 @@ public class EnvironmentTrailing extends AbstractEnvironment {
     private StoredIntVectorTrail intVectorTrail;
     private StoredDoubleVectorTrail doubleVectorTrail;
 
+    /**
+     * Pools of backtrackable ints (and booleans) and longs, may be null.
+     * When declared, backtrackable ints, booleans and longs are stored in them
+     * instead of being trailed individually.
+     */
+    private IntPool intPool;
+    private LongPool longPool;
+
     /**
      * Contains all the {@link org.chocosolver.memory.IStorage} trails for
      * storing different kinds of data.
@@ -87,6 +97,50 @@ public class EnvironmentTrailing extends AbstractEnvironment {
         assert currentWorld>=0;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pools, if any, are restored at once, by copy when a checkpoint of world <i>w</i> exists,
+     * other trails are reverted world by world.
+     */
+    @Override
+    public void worldPopUntil(int w) {
+        if (currentWorld > w && (intPool != null || longPool != null)) {
+            timestamp += currentWorld - w;
+            if (longPool != null) {
+                longPool.worldPopUntil(w);
+            }
+            if (intPool != null) {
+                intPool.worldPopUntil(w);
+            }
+            for (int wi = currentWorld; wi > w; wi--) {
+                for (int i = trailSize - 1; i >= 0; i--) {
+                    if (trails[i] != intPool && trails[i] != longPool) {
+                        trails[i].worldPop(wi);
+                    }
+                }
+            }
+            currentWorld = w;
+        } else {
+            super.worldPopUntil(w);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only pools, if any, are concerned.
+     */
+    @Override
+    public void checkpoint() {
+        if (intPool != null) {
+            intPool.checkpoint(currentWorld);
+        }
+        if (longPool != null) {
+            longPool.checkpoint(currentWorld);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -97,7 +151,7 @@ public class EnvironmentTrailing extends AbstractEnvironment {
             throw new IllegalStateException("Commit in world 0?");
         }
         final int wi = currentWorld;
-        for (int i = trailSize; i >= 0; i--) {
+        for (int i = trailSize - 1; i >= 0; i--) {
             trails[i].worldCommit(wi);
         }
         currentWorld--;
@@ -116,6 +170,9 @@ public class EnvironmentTrailing extends AbstractEnvironment {
      */
     @Override
     public IStateInt makeInt(final int initialValue) {
+        if (intPool != null) {
+            return new PooledInt(this, intPool, initialValue);
+        }
         return new StoredInt(this, initialValue);
     }
 
@@ -124,6 +181,9 @@ public class EnvironmentTrailing extends AbstractEnvironment {
      */
     @Override
     public IStateBool makeBool(final boolean initialValue) {
+        if (intPool != null) {
+            return new PooledBool(this, intPool, initialValue);
+        }
         return new StoredBool(this, initialValue);
     }
 
@@ -172,6 +232,9 @@ public class EnvironmentTrailing extends AbstractEnvironment {
      */
     @Override
     public IStateLong makeLong(final long init) {
+        if (longPool != null) {
+            return new PooledLong(this, longPool, init);
+        }
         return new StoredLong(this, init);
     }
 
@@ -263,6 +326,32 @@ public class EnvironmentTrailing extends AbstractEnvironment {
         return operationTrail;
     }
 
+    public void setIntPool(IntPool ipool){
+        if(intPool == null) {
+            increaseTrail();
+            trails[trailSize++] = intPool = ipool;
+        }else{
+            throw new UnsupportedOperationException("A pool has already been declared.");
+        }
+    }
+
+    public IntPool getIntPool() {
+        return intPool;
+    }
+
+    public void setLongPool(LongPool lpool){
+        if(longPool == null) {
+            increaseTrail();
+            trails[trailSize++] = longPool = lpool;
+        }else{
+            throw new UnsupportedOperationException("A pool has already been declared.");
+        }
+    }
+
+    public LongPool getLongPool() {
+        return longPool;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // SPECIFIC DATA STRUCTURES                                                                                       //
     // NOTE: this data structures should not be used...
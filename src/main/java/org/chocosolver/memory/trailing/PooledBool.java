@@ -0,0 +1,67 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.trailing;
+
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.trailing.pool.IntPool;
+
+
+/**
+ * A class implementing backtrackable boolean whose value is stored in a {@link IntPool}, as 0 or 1.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PooledBool extends IStateBool {
+
+    /**
+     * Pool storing the value
+     */
+    private final IntPool pool;
+
+    /**
+     * Handle of the value in {@link #pool}
+     */
+    private final int handle;
+
+    /**
+     * Constructs a pooled search with an initial value.
+     * Note: this constructor should not be used directly: one should instead
+     * use the IEnvironment factory
+     */
+    public PooledBool(final EnvironmentTrailing env, final IntPool pool, final boolean i) {
+        super(env, i);
+        this.pool = pool;
+        final int wi = env.getWorldIndex();
+        this.handle = pool.allocate(i ? 1 : 0, wi);
+        if (env.fakeHistoryNeeded()) {
+            pool.buildFakeHistory(handle, i ? 1 : 0, wi);
+        }
+    }
+
+    @Override
+    public final boolean get() {
+        return pool.get(handle) != 0;
+    }
+
+    @Override
+    public final void set(final boolean y) {
+        pool.set(handle, y ? 1 : 0, environment.getWorldIndex());
+    }
+
+    @Override
+    public void _set(final boolean y, final int wstamp) {
+        pool._set(handle, y ? 1 : 0, wstamp);
+    }
+
+    @Override
+    public void overrideTimeStamp(int aTimeStamp) {
+        pool.overrideTimeStamp(handle, aTimeStamp);
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.trailing;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.trailing.pool.IntPool;
+
+
+/**
+ * A class implementing backtrackable int whose value is stored in a {@link IntPool}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PooledInt extends IStateInt {
+
+    /**
+     * Pool storing the value
+     */
+    private final IntPool pool;
+
+    /**
+     * Handle of the value in {@link #pool}
+     */
+    private final int handle;
+
+    /**
+     * Constructs a pooled search with an initial value.
+     * Note: this constructor should not be used directly: one should instead
+     * use the IEnvironment factory
+     */
+    public PooledInt(final EnvironmentTrailing env, final IntPool pool, final int i) {
+        super(env, i);
+        this.pool = pool;
+        final int wi = env.getWorldIndex();
+        this.handle = pool.allocate(i, wi);
+        if (env.fakeHistoryNeeded()) {
+            pool.buildFakeHistory(handle, i, wi);
+        }
+    }
+
+    @Override
+    public final int get() {
+        return pool.get(handle);
+    }
+
+    @Override
+    public final void set(final int y) {
+        pool.set(handle, y, environment.getWorldIndex());
+    }
+
+    @Override
+    public void _set(final int y, final int wstamp) {
+        pool._set(handle, y, wstamp);
+    }
+
+    @Override
+    public void overrideTimeStamp(int aTimeStamp) {
+        pool.overrideTimeStamp(handle, aTimeStamp);
+    }
+}
@@ -0,0 +1,336 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.trailing.pool;
+
+import org.chocosolver.memory.IStorage;
+
+/**
+ * A pool of backtrackable ints, stored in a structure-of-arrays layout.
+ * <p/>
+ * Current values and world stamps are kept in two primitive arrays and each backtrackable int
+ * is addressed by its index, or handle, in these arrays.
+ * The pool is also its own trail: former values are saved with the handle they belong to,
+ * so that restoring a world only iterates over primitive arrays.
+ * <p/>
+ * Handles are never released, a pool is thus better suited to data created before the search.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class IntPool implements IStorage {
+
+    /**
+     * A checkpoint is restored by copy when the number of updates to revert exceeds <code>size >> BULK_RATIO</code>.
+     */
+    private static final int BULK_RATIO = 3;
+
+    /**
+     * Load factor
+     */
+    private final double loadfactor;
+
+    /**
+     * Current values, indexed by handle.
+     */
+    private int[] values;
+
+    /**
+     * World stamps of the current values, indexed by handle.
+     */
+    private int[] stamps;
+
+    /**
+     * Number of handles allocated.
+     */
+    private int size;
+
+    /**
+     * Stack of handles whose former value needs to be restored upon backtracking.
+     */
+    private int[] handleStack;
+
+    /**
+     * Stack of former values.
+     */
+    private int[] valueStack;
+
+    /**
+     * Stack of timestamps indicating the world where the former value had been written.
+     */
+    private int[] stampStack;
+
+    /**
+     * Points the level of the last entry.
+     */
+    private int currentLevel;
+
+    /**
+     * A stack of pointers (for each start of a world).
+     */
+    private int[] worldStartLevels;
+
+    /**
+     * Copy of the values and stamps when the checkpoint was taken, see {@link #checkpoint(int)}.
+     */
+    private int[] ckValues;
+    private int[] ckStamps;
+
+    /**
+     * World of the checkpoint, -1 if none, number of handles and level of the trail when it was taken.
+     */
+    private int ckWorld = -1, ckSize, ckLevel;
+
+    /**
+     * Constructs a pool with predefined sizes.
+     *
+     * @param nUpdates   maximal number of updates that will be stored
+     * @param nWorlds    maximal number of worlds that will be stored
+     * @param loadfactor load factor for structures
+     */
+    public IntPool(int nUpdates, int nWorlds, double loadfactor) {
+        this.loadfactor = loadfactor;
+        values = new int[nUpdates];
+        stamps = new int[nUpdates];
+        handleStack = new int[nUpdates];
+        valueStack = new int[nUpdates];
+        stampStack = new int[nUpdates];
+        worldStartLevels = new int[nWorlds];
+    }
+
+    /**
+     * Allocates a new backtrackable int.
+     *
+     * @param initValue initial value
+     * @param stamp     current world index
+     * @return the handle of the new backtrackable int
+     */
+    public int allocate(int initValue, int stamp) {
+        if (size == values.length) {
+            int capacity = Math.max(size + 1, (int) (size * loadfactor));
+            int[] tmp = new int[capacity];
+            System.arraycopy(values, 0, tmp, 0, size);
+            values = tmp;
+            tmp = new int[capacity];
+            System.arraycopy(stamps, 0, tmp, 0, size);
+            stamps = tmp;
+        }
+        values[size] = initValue;
+        stamps[size] = stamp;
+        return size++;
+    }
+
+    /**
+     * @return the number of handles allocated
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param handle a handle
+     * @return the current value of <i>handle</i>
+     */
+    public int get(int handle) {
+        return values[handle];
+    }
+
+    /**
+     * Modifies the value of <i>handle</i> and stores if needed the former value on the trailing stack.
+     *
+     * @param handle a handle
+     * @param y      the new value
+     * @param wi     the current world index
+     */
+    public void set(int handle, int y, int wi) {
+        if (y != values[handle]) {
+            if (stamps[handle] < wi) {
+                savePreviousState(handle, values[handle], stamps[handle]);
+                stamps[handle] = wi;
+            }
+            values[handle] = y;
+        }
+    }
+
+    /**
+     * Modifies the value of <i>handle</i> without storing the former value on the trailing stack.
+     *
+     * @param handle a handle
+     * @param y      the new value
+     * @param wstamp the stamp of the world in which the update is performed
+     */
+    public void _set(int handle, int y, int wstamp) {
+        values[handle] = y;
+        stamps[handle] = wstamp;
+    }
+
+    /**
+     * Modifies the stamp of the world in which the last update of <i>handle</i> was performed.
+     *
+     * @param handle a handle
+     * @param stamp  the new stamp
+     */
+    public void overrideTimeStamp(int handle, int stamp) {
+        stamps[handle] = stamp;
+    }
+
+    @Override
+    public void worldPush(int worldIndex) {
+        worldStartLevels[worldIndex] = currentLevel;
+        if (worldIndex == worldStartLevels.length - 1) {
+            resizeWorldCapacity((int) (worldStartLevels.length * loadfactor));
+        }
+    }
+
+    @Override
+    public void worldPop(int worldIndex) {
+        if (worldIndex <= ckWorld) {
+            ckWorld = -1;
+        }
+        final int wsl = worldStartLevels[worldIndex];
+        final int[] hs = handleStack, vs = valueStack, ss = stampStack;
+        final int[] vals = values, sts = stamps;
+        for (int level = currentLevel - 1; level >= wsl; level--) {
+            final int h = hs[level];
+            vals[h] = vs[level];
+            sts[h] = ss[level];
+        }
+        currentLevel = wsl;
+    }
+
+    /**
+     * Records the current values of the pool, which are the ones of world <i>worldIndex</i>,
+     * so that a backtrack to this world can be done by copying them back instead of walking the trail,
+     * see {@link #worldPopUntil(int)}.
+     * The values of world <i>worldIndex</i> are expected not to change afterwards, only those of the next worlds.
+     * <p/>
+     * The checkpoint is forgotten when backtracking to or before <i>worldIndex</i> or when committing the next world.
+     *
+     * @param worldIndex the current world index
+     */
+    public void checkpoint(int worldIndex) {
+        if (ckValues == null || ckValues.length < size) {
+            ckValues = new int[values.length];
+            ckStamps = new int[values.length];
+        }
+        System.arraycopy(values, 0, ckValues, 0, size);
+        System.arraycopy(stamps, 0, ckStamps, 0, size);
+        ckWorld = worldIndex;
+        ckSize = size;
+        ckLevel = currentLevel;
+    }
+
+    /**
+     * Moving down to world <i>worldIndex</i>, no matter how many worlds are above.
+     * When a checkpoint of this world exists and many updates have to be reverted, values are copied back
+     * from the checkpoint, otherwise the trail is walked.
+     *
+     * @param worldIndex index of the world to restore, strictly less than the current world index
+     */
+    public void worldPopUntil(int worldIndex) {
+        final int wsl = worldStartLevels[worldIndex + 1];
+        if (worldIndex == ckWorld && wsl == ckLevel && size == ckSize
+                && currentLevel - wsl > (size >> BULK_RATIO)) {
+            System.arraycopy(ckValues, 0, values, 0, size);
+            System.arraycopy(ckStamps, 0, stamps, 0, size);
+            currentLevel = wsl;
+        } else {
+            worldPop(worldIndex + 1);
+        }
+    }
+
+    @Override
+    public void worldCommit(int worldIndex) {
+        if (worldIndex <= ckWorld + 1) {
+            ckWorld = -1;
+        }
+        // see StoredIntTrail#worldCommit
+        final int startLevel = worldStartLevels[worldIndex];
+        final int prevWorld = worldIndex - 1;
+        int writeIdx = startLevel;
+        for (int level = startLevel; level < currentLevel; level++) {
+            final int h = handleStack[level];
+            final int val = valueStack[level];
+            final int stamp = stampStack[level];
+            stamps[h] = prevWorld;
+            if (stamp != prevWorld) {
+                if (writeIdx != level) {
+                    handleStack[writeIdx] = h;
+                    valueStack[writeIdx] = val;
+                    stampStack[writeIdx] = stamp;
+                }
+                writeIdx++;
+            }
+        }
+        currentLevel = writeIdx;
+    }
+
+    /**
+     * Pushes the former value and timestamp of <i>handle</i> on the stacks.
+     */
+    private void savePreviousState(int handle, int oldValue, int oldStamp) {
+        handleStack[currentLevel] = handle;
+        valueStack[currentLevel] = oldValue;
+        stampStack[currentLevel] = oldStamp;
+        currentLevel++;
+        if (currentLevel == handleStack.length) {
+            resizeUpdateCapacity();
+        }
+    }
+
+    /**
+     * From world 1 to <i>olderStamp</i> (excluded), creates a fake history of <i>handle</i>
+     * based on <i>initValue</i>.
+     *
+     * @param handle     a handle
+     * @param initValue  initial value
+     * @param olderStamp world of creation of the handle
+     * @see org.chocosolver.memory.trailing.trail.flatten.StoredIntTrail#buildFakeHistory
+     */
+    public void buildFakeHistory(int handle, int initValue, int olderStamp) {
+        ckWorld = -1;
+        savePreviousState(handle, initValue, olderStamp - 1);
+        while (currentLevel + olderStamp > handleStack.length) {
+            resizeUpdateCapacity();
+        }
+        int i1, f, s = currentLevel;
+        for (int w = olderStamp; w > 1; w--) {
+            f = worldStartLevels[w];
+            i1 = f + w - 1;
+            s -= f;
+            System.arraycopy(handleStack, f, handleStack, i1, s);
+            System.arraycopy(valueStack, f, valueStack, i1, s);
+            System.arraycopy(stampStack, f, stampStack, i1, s);
+            handleStack[i1 - 1] = handle;
+            valueStack[i1 - 1] = initValue;
+            stampStack[i1 - 1] = w - 2;
+            worldStartLevels[w] += w - 1;
+            currentLevel++;
+            s = f;
+        }
+    }
+
+    private void resizeUpdateCapacity() {
+        final int newCapacity = (int) (handleStack.length * loadfactor);
+        final int[] tmp1 = new int[newCapacity];
+        System.arraycopy(handleStack, 0, tmp1, 0, handleStack.length);
+        handleStack = tmp1;
+        final int[] tmp2 = new int[newCapacity];
+        System.arraycopy(valueStack, 0, tmp2, 0, valueStack.length);
+        valueStack = tmp2;
+        final int[] tmp3 = new int[newCapacity];
+        System.arraycopy(stampStack, 0, tmp3, 0, stampStack.length);
+        stampStack = tmp3;
+    }
+
+    private void resizeWorldCapacity(int newWorldCapacity) {
+        final int[] tmp = new int[newWorldCapacity];
+        System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+        worldStartLevels = tmp;
+    }
+}
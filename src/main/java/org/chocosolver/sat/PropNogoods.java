@@ -9,11 +9,13 @@
 package org.chocosolver.sat;
 
 import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TDoubleArrayList;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntObjectHashMap;
 import gnu.trove.map.hash.TLongIntHashMap;
 import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Settings;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
@@ -23,6 +25,7 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.sort.ArraySort;
 
 import java.util.*;
 
@@ -38,6 +41,16 @@ import static org.chocosolver.sat.SatSolver.*;
  */
 public class PropNogoods extends Propagator<IntVar> {
 
+    /**
+     * Literal block distance of learnt clauses which are never removed.
+     */
+    public static final int PERMANENT = 0;
+
+    /**
+     * Activity decay factor of learnt clauses.
+     */
+    private static final double ACTIVITY_DECAY = 0.999;
+
     /**
      * No entry value for {@link #lit2val}, {@link #lit2pos} and {@link #var2pos}.
      */
@@ -115,6 +128,46 @@ public class PropNogoods extends Propagator<IntVar> {
      */
     private boolean initialized = false;
 
+    /**
+     * Literal block distance of each learnt clause, in the same order as the learnt clauses
+     */
+    private TIntArrayList lbds;
+
+    /**
+     * Activity of each learnt clause, in the same order as the learnt clauses
+     */
+    private TDoubleArrayList activities;
+
+    /**
+     * Current activity increment
+     */
+    private double activityInc = 1.;
+
+    /**
+     * Number of learnt clauses above which the learnt clauses are reduced
+     */
+    private int learntLimit;
+
+    /**
+     * Increment of {@link #learntLimit} after each reduction
+     */
+    private final int learntIncrement;
+
+    /**
+     * Learnt clauses with a literal block distance less or equal to this are never removed
+     */
+    private final int keptLBD;
+
+    /**
+     * Number of reductions of the learnt clauses
+     */
+    private long nbReductions;
+
+    /**
+     * Number of learnt clauses removed so far
+     */
+    private long nbRemoved;
+
     /**
      * Create a (unique) propagator for no-goods recording and propagation.
      *
@@ -139,6 +192,12 @@ public class PropNogoods extends Propagator<IntVar> {
         test_eq = new BitSet();
         fp = new ArrayDeque<>();
         add_var = new ArrayList<>(16);
+        lbds = new TIntArrayList();
+        activities = new TDoubleArrayList();
+        Settings settings = model.getSettings();
+        learntLimit = settings.getMaxLearntClauses();
+        learntIncrement = settings.getLearntClausesIncrement();
+        keptLBD = Math.max(PERMANENT, settings.getMaxLBDToKeep());
     }
 
     @Override
@@ -526,38 +585,164 @@ public class PropNogoods extends Propagator<IntVar> {
     }
 
     /**
-     * Add learnt clause to no-goods store
+     * Add learnt clause to no-goods store.
+     * Its literal block distance is assumed to be its size,
+     * which is the case when each literal stands for a decision.
      *
      * @param lits clause
      */
     public void addLearnt(int... lits) {
+        addLearnt(lits, lits.length);
+    }
+
+    /**
+     * Add learnt clause to no-goods store, with its literal block distance (LBD), that is, the
+     * number of distinct decision levels among its literals.
+     * When there are too many learnt clauses, half of them are removed, starting with those with
+     * the highest LBD and the lowest activity.
+     * Clauses with an LBD less or equal to {@link Settings#getMaxLBDToKeep()}, or equal to
+     * {@link #PERMANENT}, are never removed, nor those which may explain a current deduction.
+     *
+     * @param lits clause
+     * @param lbd  literal block distance of the clause
+     */
+    public void addLearnt(int[] lits, int lbd) {
+        int n = sat_.nLearnt();
         sat_.learnClause(lits);
         // early deductions of learnt clause may lead to incorrect behavior on backtrack
         // since early deduction is not backtrackable.
         forcePropagationOnBacktrack(); // issue#327
-        // compare the current clauses with the previous stored one,
-        // just in case the current one dominates the previous none
-        if (sat_.nLearnt() > 1) {
-            SatSolver.Clause last = sat_.learnts.get(sat_.learnts.size() - 1);
+        if (sat_.nLearnt() > n) {
+            lbds.add(lbd);
+            activities.add(activityInc);
+            detachDominated();
+        }
+        activityInc /= ACTIVITY_DECAY;
+        if (initialized && sat_.nLearnt() > learntLimit) {
+            reduceLearnts();
+            learntLimit += learntIncrement;
+        }
+    }
+
+    /**
+     * Compare the last learnt clause with the previous ones,
+     * just in case the last one dominates some of them.
+     */
+    private void detachDominated() {
+        int last = sat_.nLearnt() - 1;
+        if (last > 0) {
+            SatSolver.Clause lc = sat_.learnts.get(last);
             test_eq.clear();
-            for (int i = last.size() - 1; i >= 0; i--) {
-                test_eq.set(last._g(i));
+            for (int i = lc.size() - 1; i >= 0; i--) {
+                test_eq.set(lc._g(i));
             }
-            for (int c = sat_.learnts.size() - 2; c >= 0; c--) {
+            for (int c = last - 1; c >= 0; c--) {
                 int s = test_eq.cardinality();
                 SatSolver.Clause prev = sat_.learnts.get(c);
-                if (last.size() > 1 && last.size() < prev.size()) {
+                if (lc.size() > 1 && lc.size() < prev.size()) {
                     for (int i = prev.size() - 1; i >= 0; i--) {
                         s -= test_eq.get(prev._g(i)) ? 1 : 0;
                     }
                     if (s == 0) { // then last dominates prev
-                        sat_.detachLearnt(c);
+                        lbds.set(last, Math.min(lbds.get(last), lbds.get(c)));
+                        detachLearnt(c);
+                        last--;
                     }
                 }
             }
         }
     }
 
+    /**
+     * Remove half of the learnt clauses, the ones with the highest LBD first, then the least
+     * active ones. Permanent clauses, clauses with a small LBD and clauses which may explain a
+     * current deduction (all literals but one are false) are kept.
+     */
+    private void reduceLearnts() {
+        int n = sat_.nLearnt();
+        int[] candidates = new int[n];
+        int k = 0;
+        for (int c = 0; c < n; c++) {
+            if (lbds.get(c) > keptLBD && !isLocked(sat_.learnts.get(c))) {
+                candidates[k++] = c;
+            }
+        }
+        new ArraySort<>(k, false, true).sort(candidates, k, (c1, c2) -> {
+            int d = Integer.compare(lbds.get(c2), lbds.get(c1));
+            return d != 0 ? d : Double.compare(activities.get(c1), activities.get(c2));
+        });
+        k = Math.min(k, n / 2);
+        Arrays.sort(candidates, 0, k);
+        for (int i = k - 1; i >= 0; i--) {
+            detachLearnt(candidates[i]);
+        }
+        nbReductions++;
+        nbRemoved += k;
+    }
+
+    /**
+     * Detach the learnt clause at position <i>c</i>
+     *
+     * @param c position of a learnt clause
+     */
+    private void detachLearnt(int c) {
+        sat_.detachLearnt(c);
+        lbds.removeAt(c);
+        activities.removeAt(c);
+    }
+
+    /**
+     * @param cl a clause
+     * @return <tt>true</tt> if at most one literal of <i>cl</i> is not false,
+     * that is, <i>cl</i> may explain a current deduction
+     */
+    private boolean isLocked(SatSolver.Clause cl) {
+        int free = 0;
+        for (int i = cl.size() - 1; i >= 0 && free < 2; i--) {
+            if (!litIsFalse(cl._g(i))) {
+                free++;
+            }
+        }
+        return free < 2;
+    }
+
+    /**
+     * Increase the activity of the learnt clause at position <i>c</i>
+     *
+     * @param c position of a learnt clause
+     */
+    private void bumpActivity(int c) {
+        double a = activities.get(c) + activityInc;
+        activities.set(c, a);
+        if (a > 1e20) {
+            for (int i = activities.size() - 1; i >= 0; i--) {
+                activities.set(i, activities.get(i) * 1e-20);
+            }
+            activityInc *= 1e-20;
+        }
+    }
+
+    /**
+     * @return the number of learnt clauses currently stored
+     */
+    public int getNbLearnt() {
+        return sat_.nLearnt();
+    }
+
+    /**
+     * @return the number of reductions of the learnt clauses so far
+     */
+    public long getNbReductions() {
+        return nbReductions;
+    }
+
+    /**
+     * @return the number of learnt clauses removed so far
+     */
+    public long getNbRemovedLearnts() {
+        return nbRemoved;
+    }
+
     private void storeEarlyDeductions() {
         for (int i = 0; i < sat_.touched_variables_.size(); ++i) {
             int lit = sat_.touched_variables_.get(i);
@@ -636,7 +821,10 @@ public class PropNogoods extends Propagator<IntVar> {
         // we cannot rely on watches_ because is not backtrackable
         // So, we iterate over clauses where the two first literal are valued AND which contains bvar
         for (int k = sat_.nLearnt() - 1; k >= 0; k--) {
-            newrules |= _why(neg, lit, sat_.learnts.get(k), ruleStore);
+            if (_why(neg, lit, sat_.learnts.get(k), ruleStore)) {
+                bumpActivity(k);
+                newrules = true;
+            }
         }
         return newrules;
     }
@@ -712,6 +900,18 @@ public class PropNogoods extends Propagator<IntVar> {
         return false;
     }
 
+    private boolean litIsFalse(int l) {
+        int _var = var(l);
+        IntVar avar = vars[lit2pos[_var]];
+        long aval = lit2val[_var];
+        int value = ivalue(aval);
+        if (iseq(aval)) {
+            return sign(l) ? !avar.contains(value) : avar.isInstantiatedTo(value);
+        } else {
+            return sign(l) ? avar.getLB() > value : avar.getUB() <= value;
+        }
+    }
+
     private boolean litIsKnown(int l) {
         int _var = var(l);
         IntVar avar = vars[lit2pos[_var]];
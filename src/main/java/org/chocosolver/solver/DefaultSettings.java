@@ -67,6 +67,8 @@ public class DefaultSettings implements Settings {
 
     private IntPredicate enableIncrementalityOnBoolSum = i -> i > 10;
 
+    private IntPredicate enableIncrementalityOnSum = i -> false;
+
     private boolean cloneVariableArrayInPropagator = true;
 
     private boolean enableACOnTernarySum = false;
@@ -83,6 +85,14 @@ public class DefaultSettings implements Settings {
 
     private Function<Model, Solver> initSolver = Solver::new;
 
+    private int maxLearntClauses = 10_000;
+
+    private int learntClausesIncrement = 1_000;
+
+    private int maxLBDToKeep = 2;
+
+    private int maxSizeForKnapsackDP = 100_000;
+
 
     public DefaultSettings() {
     }
@@ -243,6 +253,17 @@ public class DefaultSettings implements Settings {
         return this;
     }
 
+    @Override
+    public boolean enableIncrementalityOnSum(int nbvars) {
+        return enableIncrementalityOnSum.test(nbvars);
+    }
+
+    @Override
+    public DefaultSettings setEnableIncrementalityOnSum(IntPredicate enableIncrementalityOnSum) {
+        this.enableIncrementalityOnSum = enableIncrementalityOnSum;
+        return this;
+    }
+
     @Override
     public boolean cloneVariableArrayInPropagator() {
         return cloneVariableArrayInPropagator;
@@ -331,4 +352,48 @@ public class DefaultSettings implements Settings {
         this.hybridEngine = hybrid;
         return this;
     }
+
+    @Override
+    public int getMaxLearntClauses() {
+        return maxLearntClauses;
+    }
+
+    @Override
+    public DefaultSettings setMaxLearntClauses(int maxLearntClauses) {
+        this.maxLearntClauses = maxLearntClauses;
+        return this;
+    }
+
+    @Override
+    public int getLearntClausesIncrement() {
+        return learntClausesIncrement;
+    }
+
+    @Override
+    public DefaultSettings setLearntClausesIncrement(int learntClausesIncrement) {
+        this.learntClausesIncrement = learntClausesIncrement;
+        return this;
+    }
+
+    @Override
+    public int getMaxLBDToKeep() {
+        return maxLBDToKeep;
+    }
+
+    @Override
+    public DefaultSettings setMaxLBDToKeep(int maxLBDToKeep) {
+        this.maxLBDToKeep = maxLBDToKeep;
+        return this;
+    }
+
+    @Override
+    public int getMaxSizeForKnapsackDP() {
+        return maxSizeForKnapsackDP;
+    }
+
+    @Override
+    public DefaultSettings setMaxSizeForKnapsackDP(int maxSizeForKnapsackDP) {
+        this.maxSizeForKnapsackDP = maxSizeForKnapsackDP;
+        return this;
+    }
 }
@@ -0,0 +1,277 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.ICounter;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.loop.move.Move;
+import org.chocosolver.solver.search.loop.move.MoveLNS;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.criteria.Criterion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>
+ * A parallel Large Neighborhood Search.
+ * </p>
+ * <p>
+ * Each worker runs a LNS on its own copy of the model, with its own neighbor (for instance,
+ * {@link org.chocosolver.solver.search.loop.lns.neighbors.RandomNeighborhood},
+ * {@link org.chocosolver.solver.search.loop.lns.neighbors.PropagationGuidedNeighborhood} or
+ * {@link org.chocosolver.solver.search.loop.lns.neighbors.ExplainingCut}),
+ * but the workers share the best solution found so far, the <i>incumbent</i>.
+ * Each improving solution is published and, before computing its next fragment, every other worker
+ * tightens its objective bound and loads the incumbent in its neighbor, see {@link INeighbor#loadFromSolution(Solution)}.
+ * Thus, neighborhoods around the incumbent are explored by all workers at a time.
+ * A worker which has not found a solution yet only tightens its objective bound.
+ * Neighbors which cannot load a solution, like {@link org.chocosolver.solver.search.loop.lns.neighbors.ExplainingCut},
+ * only benefit from the bound.
+ * </p>
+ * <p>
+ * <b>Important:</b> solutions are exchanged between models through variable identifiers,
+ * models must thus be built in the same way, by a dedicated method for example.
+ * Only optimization problems with an integer objective are supported.
+ * </p>
+ * <p>
+ * Example of use.
+ * <pre>
+ * <code>ParallelLNS plns = new ParallelLNS();
+ * for (int i = 0; i < 4; i++) {
+ *      Model model = modeller();
+ *      model.getSolver().limitTime("10s");
+ *      plns.addModel(model, new RandomNeighborhood(decisionVariables(model), 200, i), new FailCounter(model, 100));
+ * }
+ * plns.solve();
+ * Solution best = plns.getBestSolution();
+ * </code>
+ * </pre>
+ * </p>
+ * <p>
+ * The resolution ends as soon as one worker ends, naturally (optimality is then proven) or by hitting a limit.
+ * </p>
+ *
+ * @author agent
+ * @see ParallelPortfolio
+ * @since 4.0.9
+ */
+public class ParallelLNS {
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////       VARIABLES       //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /** List of {@link Model}s to be executed in parallel. */
+    private final List<Model> models;
+
+    private final AtomicBoolean solverTerminated = new AtomicBoolean(false);
+
+    /** The incumbent, its objective value and the model which found it */
+    private Solution incumbent;
+    private int incumbentValue;
+    private Model finder;
+
+    /** Incremented each time a new incumbent is published */
+    private volatile int version;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////      CONSTRUCTOR      //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a new ParallelLNS, with no model.
+     */
+    public ParallelLNS() {
+        this.models = new ArrayList<>();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////          API          //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds a worker: a model, populated and with its objective declared, explored with a Large Neighborhood Search.
+     * The current search strategy of the model completes the fragments, as in
+     * {@link Solver#setLNS(INeighbor, ICounter)}.
+     *
+     * @param model          a model to add
+     * @param neighbor       the neighbor of the model, computing its fragments
+     * @param restartCounter the (fast) restart counter. Initial limit gives the frequency.
+     */
+    public void addModel(Model model, INeighbor neighbor, ICounter restartCounter) {
+        if (model.getResolutionPolicy() == ResolutionPolicy.SATISFACTION
+                || (model.getObjective().getTypeAndKind() & Variable.INT) == 0) {
+            throw new SolverException("ParallelLNS requires an integer objective to be declared");
+        }
+        Solver solver = model.getSolver();
+        Worker worker = new Worker(solver.getMove(), neighbor, restartCounter);
+        solver.setMove(worker);
+        solver.addStopCriterion((Criterion) solverTerminated::get);
+        solver.plugMonitor((IMonitorSolution) () -> publish(model, worker));
+        models.add(model);
+    }
+
+    /**
+     * Adds a worker, with no fast restart.
+     *
+     * @param model    a model to add
+     * @param neighbor the neighbor of the model, computing its fragments
+     * @see #addModel(Model, INeighbor, ICounter)
+     */
+    public void addModel(Model model, INeighbor neighbor) {
+        addModel(model, neighbor, ICounter.Impl.None);
+    }
+
+    /**
+     * Runs the workers in parallel, until one of them ends.
+     *
+     * @return <code>true</code> if and only if at least one solution has been found.
+     * @throws SolverException if no model has been added.
+     */
+    public boolean solve() {
+        if (models.isEmpty()) {
+            throw new SolverException("No model found in the ParallelLNS.");
+        }
+        solverTerminated.set(false);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(models.size());
+        try {
+            forkJoinPool.submit(() -> models.parallelStream().forEach(m -> {
+                Solver solver = m.getSolver();
+                //noinspection StatementWithEmptyBody
+                while (!solverTerminated.get() && solver.solve()) {
+                }
+                solverTerminated.set(true);
+            })).get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        forkJoinPool.shutdownNow();
+        solverTerminated.set(false); // otherwise, solver.isStopCriterionMet() always returns true
+        return getBestSolution() != null;
+    }
+
+    /**
+     * @return the best solution found so far, or <tt>null</tt> if none has been found.
+     * Its values can be read with the variables of any model, see {@link Solution#getIntVal(IntVar)}.
+     */
+    public synchronized Solution getBestSolution() {
+        return incumbent;
+    }
+
+    /**
+     * @return the model which found the best solution, or <tt>null</tt> if no solution has been found.
+     */
+    public synchronized Model getBestModel() {
+        return finder;
+    }
+
+    /**
+     * @return the (mutable!) list of models used in this ParallelLNS
+     */
+    public List<Model> getModels() {
+        return models;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////   INTERNAL METHODS    //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Called by the thread of <i>model</i> on solution: the solution becomes the incumbent if it improves it.
+     */
+    private synchronized void publish(Model model, Worker worker) {
+        int value = ((IntVar) model.getObjective()).getValue();
+        boolean max = model.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE;
+        if (incumbent == null || (max ? value > incumbentValue : value < incumbentValue)) {
+            incumbent = new Solution(model).record();
+            incumbentValue = value;
+            finder = model;
+            worker.seen = ++version;
+        }
+    }
+
+    /**
+     * A LNS move which picks up the incumbent before computing a new fragment.
+     */
+    private final class Worker extends MoveLNS {
+
+        /** Version of the last incumbent picked up, or published, by this worker */
+        private int seen;
+
+        /** Set to <tt>false</tt> if the neighbor does not support loading a solution */
+        private boolean loadable = true;
+
+        Worker(Move move, INeighbor neighbor, ICounter restartCounter) {
+            super(move, neighbor, restartCounter);
+        }
+
+        @Override
+        public boolean extend(Solver solver) {
+            if (pickUp(solver)) {
+                // a fragment around the incumbent is computed on the next call
+                return true;
+            }
+            return super.extend(solver);
+        }
+
+        @Override
+        public boolean repair(Solver solver) {
+            // a solution of this worker is recorded first
+            if (solutions == solver.getSolutionCount() && pickUp(solver)) {
+                return true;
+            }
+            return super.repair(solver);
+        }
+
+        /**
+         * Tightens the objective and, if possible, loads the incumbent and restarts.
+         * The incumbent is only loaded once the LNS is active, that is, once this worker has found a solution:
+         * before, the search is complete and only benefits from the bound.
+         *
+         * @return <tt>true</tt> if a restart has been done
+         */
+        private boolean pickUp(Solver solver) {
+            if (version == seen) {
+                return false;
+            }
+            Solution solution;
+            int value;
+            synchronized (ParallelLNS.this) {
+                solution = incumbent;
+                value = incumbentValue;
+                seen = version;
+            }
+            if (solver.getModel().getResolutionPolicy() == ResolutionPolicy.MAXIMIZE) {
+                solver.getObjectiveManager().updateBestLB(value);
+            } else {
+                solver.getObjectiveManager().updateBestUB(value);
+            }
+            if (loadable && solutions > 0) {
+                try {
+                    neighbor.loadFromSolution(solution);
+                } catch (UnsupportedOperationException e) {
+                    loadable = false;
+                    return false;
+                }
+                // the neighbor starts afresh from the incumbent
+                freshRestart = true;
+                doRestart(solver);
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -44,6 +44,7 @@ public interface Settings  {
      *    <li>{@link #setInitSolver(Function)}        </li>
      *    <li>{@link #setEnvironmentHistorySimulationCondition(ICondition)}</li>
      *    <li>{@link #setEnableIncrementalityOnBoolSum(IntPredicate)}           </li>
+     *    <li>{@link #setEnableIncrementalityOnSum(IntPredicate)}           </li>
      * </ul>
      * @param properties a property file to load setting from.
      * @return the current instance
@@ -66,6 +67,10 @@ public interface Settings  {
         this.setSwapOnPassivate(Boolean.valueOf(properties.get("propagators.swap").toString()));
         this.setCheckDeclaredConstraints(Boolean.valueOf(properties.get("constraints.check").toString()));
         this.setHybridizationOfPropagationEngine(Byte.valueOf(properties.get("propagationEngine.hybridization").toString()));
+        this.setMaxLearntClauses(Integer.valueOf(properties.get("nogoods.limit").toString()));
+        this.setLearntClausesIncrement(Integer.valueOf(properties.get("nogoods.increment").toString()));
+        this.setMaxLBDToKeep(Integer.valueOf(properties.get("nogoods.lbd.keep").toString()));
+        this.setMaxSizeForKnapsackDP(Integer.valueOf(properties.get("knapsack.dp.threshold").toString()));
         return this;
     }
 
@@ -78,6 +83,7 @@ public interface Settings  {
      *    <li>{@link #setInitSolver(Function)}        </li>
      *    <li>{@link #setEnvironmentHistorySimulationCondition(ICondition)}</li>
      *    <li>{@link #setEnableIncrementalityOnBoolSum(IntPredicate)}           </li>
+     *    <li>{@link #setEnableIncrementalityOnSum(IntPredicate)}           </li>
      * </ul>
      * @param      inStream   the input stream.
      * @exception  IOException  if an error occurred when reading from the
@@ -102,6 +108,7 @@ public interface Settings  {
      *    <li>{@link #setInitSolver(Function)}        </li>
      *    <li>{@link #setEnvironmentHistorySimulationCondition(ICondition)}</li>
      *    <li>{@link #setEnableIncrementalityOnBoolSum(IntPredicate)}           </li>
+     *    <li>{@link #setEnableIncrementalityOnSum(IntPredicate)}           </li>
      * </ul>
      * @exception IOException if writing this property list to the specified
      *             output stream throws an <tt>IOException</tt>.
@@ -126,6 +133,10 @@ public interface Settings  {
         properties.setProperty("propagators.swap", Boolean.toString(swapOnPassivate()));
         properties.setProperty("constraints.check", Boolean.toString(checkDeclaredConstraints()));
         properties.setProperty("propagationEngine.hybridization", Byte.toString(enableHybridizationOfPropagationEngine()));
+        properties.setProperty("nogoods.limit", Integer.toString(getMaxLearntClauses()));
+        properties.setProperty("nogoods.increment", Integer.toString(getLearntClausesIncrement()));
+        properties.setProperty("nogoods.lbd.keep", Integer.toString(getMaxLBDToKeep()));
+        properties.setProperty("knapsack.dp.threshold", Integer.toString(getMaxSizeForKnapsackDP()));
         return properties;
     }
 
@@ -138,6 +149,7 @@ public interface Settings  {
      *    <li>{@link #setInitSolver(Function)}        </li>
      *    <li>{@link #setEnvironmentHistorySimulationCondition(ICondition)}</li>
      *    <li>{@link #setEnableIncrementalityOnBoolSum(IntPredicate)}           </li>
+     *    <li>{@link #setEnableIncrementalityOnSum(IntPredicate)}           </li>
      * </ul>
      * @param   out      an output stream.
      * @param   comments   a description of the property list.
@@ -348,6 +360,20 @@ public interface Settings  {
      */
     Settings setEnableIncrementalityOnBoolSum(IntPredicate enableIncrementalityOnBoolSum);
 
+    /**
+     * @param nbvars number of variables in the constraint
+     * @return {@code true} if the incrementality is enabled on integer sum and scalar product,
+     * based on the number of variables involved.
+     */
+    boolean enableIncrementalityOnSum(int nbvars);
+
+    /**
+     * Define the predicate to choose incremental sum and scalar product, based on number variables declared
+     * @param enableIncrementalityOnSum predicate to pick declare sum
+     * @return the current instance
+     */
+    Settings setEnableIncrementalityOnSum(IntPredicate enableIncrementalityOnSum);
+
     /**
      * @return true if all propagators should clone the input variable array instead of simply referencing it.
      */
@@ -447,8 +473,9 @@ public interface Settings  {
 
     /**
      * @return <i>0b00<i/> if constraint-oriented propagation engine,
-     * <i>0b01<i/> if hybridization between variable and constraint oriented and
-     * <i>0b10<i/> if variable-oriented.
+     * <i>0b01<i/> if hybridization between variable and constraint oriented,
+     * <i>0b10<i/> if variable-oriented and
+     * <i>0b11<i/> if batched.
      */
     byte enableHybridizationOfPropagationEngine();
 
@@ -456,10 +483,64 @@ public interface Settings  {
      * Define behavior of the propagation engine.
      * @param hybrid When set to '0b00', this works as a constraint-oriented propagation engine;
      * when set to '0b01', this workds as an hybridization between variable and constraint oriented
-     * propagation engine.
+     * propagation engine, events being aggregated per round.
      * when set to '0b10', this workds as a variable- oriented propagation engine.
      * @return the current instance
      */
     Settings setHybridizationOfPropagationEngine(byte hybrid);
 
+    /**
+     * @return the number of learnt clauses in the nogood store above which half of them are removed
+     */
+    int getMaxLearntClauses();
+
+    /**
+     * Define the number of learnt clauses in the nogood store above which half of them are removed,
+     * starting with those with the highest literal block distance and the lowest activity.
+     * @param maxLearntClauses initial limit of learnt clauses
+     * @return the current instance
+     * @see org.chocosolver.sat.PropNogoods#addLearnt(int[], int)
+     */
+    Settings setMaxLearntClauses(int maxLearntClauses);
+
+    /**
+     * @return the increment of the learnt clauses limit after each reduction
+     */
+    int getLearntClausesIncrement();
+
+    /**
+     * Define the increment of the learnt clauses limit after each reduction
+     * @param learntClausesIncrement increment of the limit
+     * @return the current instance
+     */
+    Settings setLearntClausesIncrement(int learntClausesIncrement);
+
+    /**
+     * @return the literal block distance under which learnt clauses are never removed
+     */
+    int getMaxLBDToKeep();
+
+    /**
+     * Define the literal block distance under which (inclusive) learnt clauses are never removed
+     * from the nogood store
+     * @param maxLBDToKeep a literal block distance
+     * @return the current instance
+     */
+    Settings setMaxLBDToKeep(int maxLBDToKeep);
+
+    /**
+     * @return maximum number of arcs of the layered graph of a knapsack constraint filtered by dynamic programming
+     */
+    int getMaxSizeForKnapsackDP();
+
+    /**
+     * Define the maximum number of arcs, (C+1) times the sum of the domain sizes of the items for a capacity <i>C</i>,
+     * under which {@link org.chocosolver.solver.Model#knapsack(IntVar[], IntVar, IntVar, int[], int[])} is filtered by
+     * dynamic programming, instead of a linear relaxation
+     * @param maxSizeForKnapsackDP threshold to filter a knapsack constraint by dynamic programming, 0 to disable it
+     * @return the current instance
+     * @see org.chocosolver.solver.constraints.nary.PropKnapsackDP
+     */
+    Settings setMaxSizeForKnapsackDP(int maxSizeForKnapsackDP);
+
 }
@@ -348,6 +348,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
             action = extend;
             mModel.getEnvironment().worldPush(); // store state after initial propagation; w = 1 -> 2
             searchWorldIndex = mModel.getEnvironment().getWorldIndex(); // w = 2
+            mModel.getEnvironment().checkpoint(); // restarts restore this state in bulk, when possible
             mModel.getEnvironment().worldPush(); // store another time for restart purpose: w = 2 -> 3
         } catch (ContradictionException ce) {
             engine.flush();
@@ -589,11 +590,11 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
      */
     public void restoreRootNode() {
         IEnvironment environment = mModel.getEnvironment();
-        while (environment.getWorldIndex() > searchWorldIndex) {
+        for (int w = environment.getWorldIndex(); w > searchWorldIndex; w--) {
             getMeasures().incBackTrackCount();
             getMeasures().decDepth();
-            environment.worldPop();
         }
+        environment.worldPopUntil(searchWorldIndex);
         dpath.synchronize();
     }
 
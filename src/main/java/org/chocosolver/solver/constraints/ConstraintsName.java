@@ -78,6 +78,8 @@ public class ConstraintsName {
 
     public static final String KNAPSACK = "KNAPSACK";
 
+    public static final String LINEARRELAXATION = "LINEARRELAXATION";
+
     public static final String KEYSORT = "KEYSORT";
 
     public static final String LEXCHAIN = "LEXCHAIN";
@@ -152,6 +154,10 @@ public class ConstraintsName {
 
     public static final String GCC = "GCC";
 
+    public static final String COSTGCC = "COSTGCC";
+
+    public static final String MINWEIGHTALLDIFFERENT = "MINWEIGHTALLDIFFERENT";
+
     public static final String NOGOODCONSTRAINT = "NOGOODCONSTRAINT";
 
     public static final String SUM = "SUM";
@@ -162,6 +168,8 @@ public class ConstraintsName {
 
     public static final String REALCONSTRAINT = "REALCONSTRAINT";
 
+    public static final String REALEQUATION = "REALEQUATION";
+
     public static final String LOCALCONSTRUCTIVEDISJUNCTION = "LOCALCONSTRUCTIVEDISJUNCTION";
 
     public static final String OPPOSITE = "OPPOSITE";
@@ -14,6 +14,7 @@ import gnu.trove.set.hash.TIntHashSet;
 
 import org.chocosolver.solver.ISelf;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.constraints.binary.PropAbsolute;
 import org.chocosolver.solver.constraints.binary.PropDistanceXYC;
 import org.chocosolver.solver.constraints.binary.PropScale;
@@ -34,12 +35,14 @@ import org.chocosolver.solver.constraints.extension.nary.PropLargeGAC2001Positiv
 import org.chocosolver.solver.constraints.extension.nary.PropLargeGAC3rm;
 import org.chocosolver.solver.constraints.extension.nary.PropLargeGAC3rmPositive;
 import org.chocosolver.solver.constraints.extension.nary.PropLargeGACSTRPos;
-import org.chocosolver.solver.constraints.extension.nary.PropLargeMDDC;
+import org.chocosolver.solver.constraints.extension.nary.PropMDD4R;
 import org.chocosolver.solver.constraints.extension.nary.PropTableStr2;
 import org.chocosolver.solver.constraints.nary.PropDiffN;
+import org.chocosolver.solver.constraints.nary.PropDiffNSweep;
 import org.chocosolver.solver.constraints.nary.PropIntValuePrecedeChain;
 import org.chocosolver.solver.constraints.nary.PropKLoops;
 import org.chocosolver.solver.constraints.nary.PropKnapsack;
+import org.chocosolver.solver.constraints.nary.PropKnapsackDP;
 import org.chocosolver.solver.constraints.nary.alldifferent.AllDifferent;
 import org.chocosolver.solver.constraints.nary.alldifferent.conditions.Condition;
 import org.chocosolver.solver.constraints.nary.alldifferent.conditions.PropCondAllDiffInst;
@@ -50,6 +53,7 @@ import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.PropMultiCostRegular;
 import org.chocosolver.solver.constraints.nary.automata.PropRegular;
+import org.chocosolver.solver.constraints.nary.binPacking.PropBinPacking;
 import org.chocosolver.solver.constraints.nary.binPacking.PropItemToLoad;
 import org.chocosolver.solver.constraints.nary.binPacking.PropLoadToItem;
 import org.chocosolver.solver.constraints.nary.channeling.PropBitChanneling;
@@ -70,8 +74,10 @@ import org.chocosolver.solver.constraints.nary.cumulative.CumulFilter;
 import org.chocosolver.solver.constraints.nary.cumulative.Cumulative;
 import org.chocosolver.solver.constraints.nary.element.PropElementV_fast;
 import org.chocosolver.solver.constraints.nary.globalcardinality.GlobalCardinality;
+import org.chocosolver.solver.constraints.nary.globalcardinality.PropCostGCC;
 import org.chocosolver.solver.constraints.nary.lex.PropLex;
 import org.chocosolver.solver.constraints.nary.lex.PropLexChain;
+import org.chocosolver.solver.constraints.nary.lp.PropLinearRelaxation;
 import org.chocosolver.solver.constraints.nary.min_max.PropBoolMax;
 import org.chocosolver.solver.constraints.nary.min_max.PropBoolMin;
 import org.chocosolver.solver.constraints.nary.min_max.PropMax;
@@ -109,8 +115,10 @@ import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
 import org.chocosolver.util.tools.ArrayUtils;
 import org.chocosolver.util.tools.VariableUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -701,6 +709,33 @@ public interface IIntConstraintFactory extends ISelf<Model> {
         return allDifferentUnderCondition(vars, Condition.EXCEPT_0, true);
     }
 
+    /**
+     * Creates a minimum weight allDifferent constraint:
+     * variables of vars take distinct values and weight is the sum of weights[i][vars[i]].
+     * Variable vars[i] takes its value in [0, weights[i].length).
+     * <p>
+     * Besides an allDifferent constraint filtered by arc consistency, the weight is bounded from below by a minimum
+     * cost flow and values whose cheapest assignment exceeds the upper bound of weight are removed, see {@link PropCostGCC}.
+     *
+     * @param vars    collection of variables
+     * @param weights weight of each pair of variable and value
+     * @param weight  total weight
+     */
+    default Constraint minWeightAllDifferent(IntVar[] vars, int[][] weights, IntVar weight) {
+        if (vars.length != weights.length) {
+            throw new SolverException("vars and weights arrays should have same size");
+        }
+        int m = 0;
+        for (int[] row : weights) {
+            m = Math.max(m, row.length);
+        }
+        int[] values = ArrayUtils.array(0, m - 1);
+        return new Constraint(ConstraintsName.MINWEIGHTALLDIFFERENT, ArrayUtils.append(
+                allDifferent(vars, "AC").getPropagators(),
+                new Propagator[]{new PropCostGCC(vars, values, null, weights, weight)}
+        ));
+    }
+
     /**
      * Creates an allEqual constraint.
      * Ensures that all variables from vars take the same value.
@@ -830,6 +865,26 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      *                  (which counts from 1 to n instead of from 0 to n-1)
      */
     default Constraint binPacking(IntVar[] itemBin, int[] itemSize, IntVar[] binLoad, int offset) {
+        return binPacking(itemBin, itemSize, binLoad, offset, false);
+    }
+
+    /**
+     * Creates a BinPacking constraint.
+     * Bin Packing formulation:
+     * forall b in [0,binLoad.length-1],
+     * binLoad[b]=sum(itemSize[i] | i in [0,itemSize.length-1], itemBin[i] = b+offset
+     * forall i in [0,itemSize.length-1], itemBin is in [offset,binLoad.length-1+offset],
+     *
+     * @param itemBin  IntVar representing the bin of each item
+     * @param itemSize int representing the size of each item
+     * @param binLoad  IntVar representing the load of each bin (i.e. the sum of the size of the items in it)
+     * @param offset    0 by default but typically 1 if used within MiniZinc
+     *                  (which counts from 1 to n instead of from 0 to n-1)
+     * @param addKnapsackReasoning indicates whether or not knapsack reasoning on each bin and the L2 lower bound
+     *                             on the number of bins should be added, see {@link PropBinPacking}
+     *                             (advised to prove optimality)
+     */
+    default Constraint binPacking(IntVar[] itemBin, int[] itemSize, IntVar[] binLoad, int offset, boolean addKnapsackReasoning) {
         if (itemBin.length != itemSize.length) {
             throw new SolverException("itemBin and itemSize arrays should have same size");
         }
@@ -839,9 +894,18 @@ public interface IIntConstraintFactory extends ISelf<Model> {
         for (int is : itemSize) {
             sum += is;
         }
-        return Constraint.merge(ConstraintsName.BINPACKING, new Constraint(ConstraintsName.BINPACKING,
-                        new PropItemToLoad(itemBin, itemSize, binLoad, offset),
-                        new PropLoadToItem(itemBin, itemSize, binLoad, offset)),
+        Constraint bp;
+        if (addKnapsackReasoning) {
+            bp = new Constraint(ConstraintsName.BINPACKING,
+                    new PropItemToLoad(itemBin, itemSize, binLoad, offset),
+                    new PropLoadToItem(itemBin, itemSize, binLoad, offset),
+                    new PropBinPacking(itemBin, itemSize, binLoad, offset));
+        } else {
+            bp = new Constraint(ConstraintsName.BINPACKING,
+                    new PropItemToLoad(itemBin, itemSize, binLoad, offset),
+                    new PropLoadToItem(itemBin, itemSize, binLoad, offset));
+        }
+        return Constraint.merge(ConstraintsName.BINPACKING, bp,
                 model.sum(binLoad, "=", sum)
         );
     }
@@ -1165,12 +1229,48 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      * @return a non-overlapping constraint
      */
     default Constraint diffN(IntVar[] X, IntVar[] Y, IntVar[] width, IntVar[] height, boolean addCumulativeReasoning) {
+        return diffN(X, Y, width, height, addCumulativeReasoning, "PAIRWISE");
+    }
+
+    /**
+     * Creates a diffN constraint. Constrains each rectangle<sub>i</sub>, given by their origins X<sub>i</sub>,Y<sub>i</sub>
+     * and sizes width<sub>i</sub>,height<sub>i</sub>, to be non-overlapping.
+     * The filtering algorithm should be chosen among "PAIRWISE" and "SWEEP".
+     *
+     * @param X         collection of coordinates in first dimension
+     * @param Y         collection of coordinates in second dimension
+     * @param width     collection of width (each duration should be > 0)
+     * @param height    collection of height (each height should be >= 0)
+     * @param addCumulativeReasoning indicates whether or not redundant cumulative constraints should be put on each dimension (advised)
+     * @param FILTER    filtering algorithm, among {"PAIRWISE", "SWEEP"}
+     *                  <p>
+     *                  <b>PAIRWISE</b>:
+     *                  Maintains the graph of the pairs of rectangles which may overlap, and filters each pair
+     *                  from their compulsory parts. Requires O(n<sup>2</sup>) memory.
+     *                  <p>
+     *                  <b>SWEEP</b>:
+     *                  Pushes the origin of each rectangle out of the compulsory parts of the others with a sweep-point
+     *                  algorithm, compulsory parts being stored in an interval tree. Requires O(n) memory,
+     *                  advised for large numbers of rectangles.
+     * @return a non-overlapping constraint
+     */
+    default Constraint diffN(IntVar[] X, IntVar[] Y, IntVar[] width, IntVar[] height, boolean addCumulativeReasoning, String FILTER) {
         Model model = X[0].getModel();
-        Constraint diffNCons = new Constraint(
-                ConstraintsName.DIFFN,
-                new PropDiffN(X, Y, width, height, false),
-                new PropDiffN(X, Y, width, height, false)
-        );
+        Constraint diffNCons;
+        switch (FILTER) {
+            case "PAIRWISE":
+                diffNCons = new Constraint(
+                        ConstraintsName.DIFFN,
+                        new PropDiffN(X, Y, width, height, false),
+                        new PropDiffN(X, Y, width, height, false)
+                );
+                break;
+            case "SWEEP":
+                diffNCons = new Constraint(ConstraintsName.DIFFN, new PropDiffNSweep(X, Y, width, height));
+                break;
+            default:
+                throw new SolverException("Unknown diffN filtering algorithm: " + FILTER);
+        }
         if (addCumulativeReasoning) {
             IntVar[] EX = new IntVar[X.length];
             IntVar[] EY = new IntVar[X.length];
@@ -1277,6 +1377,38 @@ public interface IIntConstraintFactory extends ISelf<Model> {
         }
     }
 
+    /**
+     * Creates a cost-based global cardinality constraint (cost-GCC):
+     * Each variable of vars takes a value of values, each value values[j] is taken by exactly occurrences[j] variables
+     * of vars and cost is the sum of costs[i][j] where vars[i] = values[j].
+     * <p>
+     * Besides the closed global cardinality constraint, the cost is bounded from below by a minimum cost flow
+     * and values whose cheapest assignment exceeds the upper bound of cost are removed, see {@link PropCostGCC}.
+     *
+     * @param vars        collection of variables
+     * @param values      collection of constrained values
+     * @param occurrences collection of cardinality variables
+     * @param costs       cost of each pair of variable and value, costs[i][j] for vars[i] = values[j]
+     * @param cost        total cost
+     */
+    default Constraint costGCC(IntVar[] vars, int[] values, IntVar[] occurrences, int[][] costs, IntVar cost) {
+        if (values.length != occurrences.length) {
+            throw new SolverException("values and occurrences arrays should have same size");
+        }
+        if (vars.length != costs.length) {
+            throw new SolverException("vars and costs arrays should have same size");
+        }
+        for (int[] row : costs) {
+            if (row.length != values.length) {
+                throw new SolverException("each row of costs should have as many columns as values");
+            }
+        }
+        return new Constraint(ConstraintsName.COSTGCC, ArrayUtils.append(
+                globalCardinality(vars, values, occurrences, true).getPropagators(),
+                new Propagator[]{new PropCostGCC(vars, values, occurrences, costs, cost)}
+        ));
+    }
+
     /**
      * Creates an inverse channeling between vars1 and vars2:
      * vars1[i] = j <=> vars2[j] = i
@@ -1385,6 +1517,12 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      *     model.post(solver.arithm(weightSum, "<=", limit);
      * </pre>
      *
+     * <p>
+     * When the layered graph of the items, with (weightSum.ub+1) times the sum of their domain sizes arcs, is smaller than
+     * {@link org.chocosolver.solver.Settings#getMaxSizeForKnapsackDP()}, the constraint is filtered by dynamic programming
+     * (see {@link PropKnapsackDP}), which makes occurrences domain consistent.
+     * Otherwise, it is filtered by a linear relaxation (see {@link PropKnapsack}).
+     *
      * @param occurrences  number of occurrences of every item
      * @param weightSum load of the knapsack
      * @param energySum profit of the knapsack
@@ -1393,10 +1531,22 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      */
     default Constraint knapsack(IntVar[] occurrences, IntVar weightSum, IntVar energySum,
                                 int[] weight, int[] energy) {
+        boolean dp = true;
+        long arcs = 0, maxEnergy = 0;
+        for (int i = 0; i < occurrences.length && dp; i++) {
+            dp = weight[i] >= 0 && occurrences[i].getLB() >= 0;
+            arcs += occurrences[i].getDomainSize();
+            maxEnergy += Math.abs((long) energy[i]) * occurrences[i].getUB();
+        }
+        arcs *= Math.max(weightSum.getUB(), 0) + 1L;
+        // path lengths are stored as int
+        dp &= arcs <= ref().getSettings().getMaxSizeForKnapsackDP() && maxEnergy < Integer.MAX_VALUE;
         return new Constraint(ConstraintsName.KNAPSACK, ArrayUtils.append(
                 scalar(occurrences, weight, "=", weightSum).propagators,
                 scalar(occurrences, energy, "=", energySum).propagators,
-                new Propagator[]{new PropKnapsack(occurrences, weightSum, energySum, weight, energy)}
+                new Propagator[]{dp ?
+                        new PropKnapsackDP(occurrences, weightSum, energySum, weight, energy) :
+                        new PropKnapsack(occurrences, weightSum, energySum, weight, energy)}
         ));
     }
 
@@ -1430,6 +1580,45 @@ public interface IIntConstraintFactory extends ISelf<Model> {
         return new Constraint(ConstraintsName.KEYSORT, new PropKeysorting(vars, SORTEDvars, PERMvars, K));
     }
 
+    /**
+     * Creates a linear relaxation constraint, which is redundant.
+     * The linear constraints already posted (sums and scalar products, except the reified ones and the ones
+     * based on the "!=" operator) are added to a linear program whose objective is the objective variable
+     * of the model.
+     * This linear program is solved with a dual simplex at the root node, and then every <i>frequency</i>
+     * nodes and on the first propagation after each restart, if required.
+     * Its bound updates the objective variable, and its reduced costs filter the bounds of the other variables.
+     * <p>
+     * The objective variable has to be set and the linear constraints have to be posted beforehand:
+     * <pre>
+     *     model.setObjective(Model.MINIMIZE, cost);
+     *     model.linearRelaxation(100, true).post();
+     * </pre>
+     *
+     * @param frequency number of nodes between two resolutions, root node only when not positive
+     * @param onRestart set to <tt>true</tt> to solve the linear program after each restart
+     * @return a linear relaxation constraint
+     */
+    default Constraint linearRelaxation(int frequency, boolean onRestart) {
+        Variable objective = ref().getObjective();
+        if (!(objective instanceof IntVar)) {
+            throw new SolverException("A linear relaxation requires an integer objective variable to be set");
+        }
+        List<Propagator<IntVar>> linears = new ArrayList<>();
+        for (Constraint c : ref().getCstrs()) {
+            if (!c.isReified()) {
+                for (Propagator p : c.getPropagators()) {
+                    if (PropLinearRelaxation.isLinear(p)) {
+                        //noinspection unchecked
+                        linears.add(p);
+                    }
+                }
+            }
+        }
+        return new Constraint(ConstraintsName.LINEARRELAXATION, new PropLinearRelaxation((IntVar) objective,
+                ref().getResolutionPolicy() == ResolutionPolicy.MAXIMIZE, linears, frequency, onRestart));
+    }
+
     /**
      * Creates a lexChainLess constraint.
      * For each pair of consecutive vectors vars<sub>i</sub> and vars<sub>i+1</sub> of the vars collection
@@ -1511,12 +1700,13 @@ public interface IIntConstraintFactory extends ISelf<Model> {
     /**
      * Create a constraint where solutions (tuples) are encoded by a multi-valued decision diagram.
      * The order of the variables in vars is important and must refer to the MDD.
+     * The MDD can be shared between constraints, no copy is achieved.
      *
      * @param vars the array of variables
      * @param MDD  the multi-valued decision diagram encoding solutions
      */
     default Constraint mddc(IntVar[] vars, MultivaluedDecisionDiagram MDD) {
-        return new Constraint(ConstraintsName.MDDC, new PropLargeMDDC(MDD, vars));
+        return new Constraint(ConstraintsName.MDDC, new PropMDD4R(MDD, vars));
     }
 
     /**
@@ -2046,7 +2236,7 @@ public interface IIntConstraintFactory extends ISelf<Model> {
             }
             break;
             case "MDD+":
-                p = new PropLargeMDDC(new MultivaluedDecisionDiagram(vars, tuples), vars);
+                p = new PropMDD4R(new MultivaluedDecisionDiagram(vars, tuples), vars);
                 break;
             case "FC":
                 p = new PropLargeFC(vars, tuples);
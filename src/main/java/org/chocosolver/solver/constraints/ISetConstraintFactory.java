@@ -9,12 +9,15 @@
 package org.chocosolver.solver.constraints;
 
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.binary.PropGreaterOrEqualX_Y;
 import org.chocosolver.solver.constraints.set.*;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.util.tools.ArrayUtils;
 
+import java.util.Arrays;
+
 /**
  * Interface to make constraints over SetVar
  *
@@ -45,13 +48,24 @@ public interface ISetConstraintFactory {
 
 	/**
 	 * Creates a constraint which ensures that the union of <i>sets</i> is equal to <i>unionSet</i>
+	 * <br/>
+	 * When <i>unionSet</i> and a set both have a cardinality, the cardinality of the set is bounded by the one of <i>unionSet</i>.
 	 *
 	 * @param sets an array of set variables
 	 * @param unionSet set variable representing the union of <i>sets</i>
 	 * @return A constraint ensuring that the union of <i>sets</i> is equal to <i>unionSet</i>
 	 */
 	default Constraint union(SetVar[] sets, SetVar unionSet) {
-		return new Constraint(ConstraintsName.SETUNION, new PropUnion(sets, unionSet), new PropUnion(sets, unionSet));
+		Propagator[] props = new Propagator[]{new PropUnion(sets, unionSet), new PropUnion(sets, unionSet)};
+		if (unionSet.hasCard()) {
+			for (SetVar set : sets) {
+				if (set.hasCard()) {
+					props = ArrayUtils.append(props, new Propagator[]{
+							new PropGreaterOrEqualX_Y(new IntVar[]{unionSet.getCard(), set.getCard()})});
+				}
+			}
+		}
+		return new Constraint(ConstraintsName.SETUNION, props);
 	}
 
 	/**
@@ -67,6 +81,8 @@ public interface ISetConstraintFactory {
 
 	/**
 	 * Creates a constraint which ensures that the intersection of <i>sets</i> is equal to <i>intersectionSet</i>
+	 * <br/>
+	 * When <i>intersectionSet</i> has a cardinality, it is bounded by the one of each set which has a cardinality too.
 	 *
 	 * @param sets an array of set variables
 	 * @param intersectionSet a set variable representing the intersection of <i>sets</i>
@@ -77,19 +93,31 @@ public interface ISetConstraintFactory {
 		if (sets.length == 0) {
 			throw new IllegalArgumentException("The intersection of zero sets is undefined.");
 		}
+		Propagator[] props;
 		if (boundConsistent) {
-			return new Constraint(ConstraintsName.SETINTERSECTION,
+			props = new Propagator[]{
 				new PropIntersection(sets, intersectionSet),
 				sets.length == 1
 					? new PropAllEqual(new SetVar[]{sets[0], intersectionSet})
-					: new PropIntersectionFilterSets(sets, intersectionSet));
+					: new PropIntersectionFilterSets(sets, intersectionSet)};
 		} else {
-			return new Constraint(ConstraintsName.SETINTERSECTION, new PropIntersection(sets, intersectionSet));
+			props = new Propagator[]{new PropIntersection(sets, intersectionSet)};
+		}
+		if (intersectionSet.hasCard()) {
+			for (SetVar set : sets) {
+				if (set.hasCard()) {
+					props = ArrayUtils.append(props, new Propagator[]{
+							new PropGreaterOrEqualX_Y(new IntVar[]{set.getCard(), intersectionSet.getCard()})});
+				}
+			}
 		}
+		return new Constraint(ConstraintsName.SETINTERSECTION, props);
 	}
 
 	/**
 	 * Creates a constraint establishing that <i>sets</i>[i] is a subset of <i>sets</i>[j] if i<j
+	 * <br/>
+	 * The cardinalities of consecutive sets which both have one are ordered accordingly.
 	 *
 	 * @param sets an array of set variables
 	 * @return A constraint which ensures that <i>sets</i>[i] is a subset of <i>sets</i>[j] if i<j
@@ -99,6 +127,12 @@ public interface ISetConstraintFactory {
 		for (int i = 0; i < sets.length - 1; i++) {
 			props[i] = new PropSubsetEq(sets[i], sets[i + 1]);
 		}
+		for (int i = 0; i < sets.length - 1; i++) {
+			if (sets[i].hasCard() && sets[i + 1].hasCard()) {
+				props = ArrayUtils.append(props, new Propagator[]{
+						new PropGreaterOrEqualX_Y(new IntVar[]{sets[i + 1].getCard(), sets[i].getCard()})});
+			}
+		}
 		return new Constraint(ConstraintsName.SETSUBSETEQ, props);
 	}
 
@@ -358,10 +392,16 @@ public interface ISetConstraintFactory {
 	 * Creates a constraint stating that the intersection of <i>sets</i> should be empty
 	 * Note that there can be multiple empty sets
 	 *
+	 * <br/>
+	 * When one of the variables has a cardinality, cardinalities are also reasoned on (see {@link PropCardDisjoint}).
+	 *
 	 * @param sets an array of disjoint set variables
 	 * @return a constraint ensuring that <i>sets</i> are all disjoint (empty intersection)
 	 */
 	default Constraint allDisjoint(SetVar... sets) {
+		if (Arrays.stream(sets).anyMatch(SetVar::hasCard)) {
+			return new Constraint(ConstraintsName.SETALLDISJOINT, new PropAllDisjoint(sets), new PropCardDisjoint(sets, null));
+		}
 		return new Constraint(ConstraintsName.SETALLDISJOINT, new PropAllDisjoint(sets));
 	}
 
@@ -393,15 +433,19 @@ public interface ISetConstraintFactory {
 	 * union(<i>sets</i>) = <i>universe</i>
 	 * intersection(<i>sets</i>) = {}
 	 *
+	 * When one of the variables has a cardinality, cardinalities are also reasoned on (see {@link PropCardDisjoint}).
+	 *
 	 * @param sets     an array of set variables whose values are subsets of <i>universe</i>
 	 * @param universe a set variable representing the union of <i>sets</i>
 	 * @return a constraint which ensures that <i>sets</i> forms a partition of <i>universe</i>
 	 */
 	default Constraint partition(SetVar[] sets, SetVar universe) {
-		return new Constraint(ConstraintsName.SETPARTITION, ArrayUtils.append(
-				allDisjoint(sets).getPropagators(),
-				new Propagator[]{new PropUnion(sets, universe), new PropUnion(sets, universe)}
-		));
+		Propagator[] props = new Propagator[]{new PropAllDisjoint(sets), new PropUnion(sets, universe), new PropUnion(sets, universe)};
+		if (universe.hasCard() || Arrays.stream(sets).anyMatch(SetVar::hasCard)) {
+			// the cardinalities of the sets sum up to the one of the universe
+			props = ArrayUtils.append(props, new Propagator[]{new PropCardDisjoint(sets, universe)});
+		}
+		return new Constraint(ConstraintsName.SETPARTITION, props);
 	}
 
 	/**
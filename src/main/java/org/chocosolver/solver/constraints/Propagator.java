@@ -26,6 +26,7 @@ import org.chocosolver.util.objects.IntCircularQueue;
 import org.chocosolver.util.objects.queues.CircularQueue;
 
 import java.util.Arrays;
+import java.util.BitSet;
 
 import static java.lang.System.arraycopy;
 import static java.util.Arrays.copyOf;
@@ -156,6 +157,12 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
      */
     private int[] vindices;
 
+    /**
+     * Indices of the variables whose events are not notified to this propagator, see {@link #unwatch(int)}.
+     * Lazily created.
+     */
+    private BitSet unwatched;
+
     ////////////////////////////////////////////////////////////////////////////////////////////////
     // FOR PROPAGATION PURPOSE
     ////////////////////////////////////////////////////////////////////////////////////////////////
@@ -322,6 +329,9 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
         for (int v = 0; v < vars.length; v++) {
             if (!vars[v].isAConstant()) {
                 vindices[v] = vars[v].link(this, v);
+                if (!isWatched(v)) {
+                    vindices[v] = vars[v].swapOnPassivate(this, v);
+                }
             }
         }
     }
@@ -339,6 +349,56 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
         }
     }
 
+    /**
+     * Stops notifying this propagator of the events occurring on its <i>idx</i>-th variable,
+     * which is then ignored when the propagation engine schedules the propagators of that variable.
+     * <p>
+     * As watched literals in SAT solvers, and unlike {@link #setPassive()}, this is <b>not</b> undone on backtrack:
+     * the filtering algorithm has to be correct for any subset of watched variables it may have selected in
+     * another branch, typically by watching enough unfixed variables.
+     * Should only be called by the propagator itself, for instance in {@link #propagate(int)}.
+     *
+     * @param idx index of a variable in this propagator
+     * @see #watch(int)
+     */
+    protected final void unwatch(int idx) {
+        if (unwatched == null) {
+            unwatched = new BitSet(vars.length);
+        }
+        if (!unwatched.get(idx)) {
+            unwatched.set(idx);
+            if (vindices[idx] > -1) {
+                vindices[idx] = vars[idx].swapOnPassivate(this, idx);
+                assert vars[idx].getPropagator(vindices[idx]) == this;
+            }
+        }
+    }
+
+    /**
+     * Notifies this propagator again of the events occurring on its <i>idx</i>-th variable,
+     * see {@link #unwatch(int)}. This is not undone on backtrack either.
+     *
+     * @param idx index of a variable in this propagator
+     */
+    protected final void watch(int idx) {
+        if (unwatched != null && unwatched.get(idx)) {
+            unwatched.clear(idx);
+            if (vindices[idx] > -1) {
+                vindices[idx] = vars[idx].swapOnActivate(this, idx);
+                assert vars[idx].getPropagator(vindices[idx]) == this;
+            }
+        }
+    }
+
+    /**
+     * @param idx index of a variable in this propagator
+     * @return <tt>true</tt> if the events occurring on the <i>idx</i>-th variable are notified to this propagator
+     * @see #unwatch(int)
+     */
+    public final boolean isWatched(int idx) {
+        return unwatched == null || !unwatched.get(idx);
+    }
+
     /**
      * Informs this propagator the (unique) constraint it filters.
      * The constraint reference will be overwritten in case of reification.
@@ -505,7 +565,7 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
             model.getSolver().getEngine().desactivatePropagator(this);
             if (swapOnPassivate) {
                 for (int i = 0; i < vars.length; i++) {
-                    if (!vars[i].isInstantiated()) {
+                    if (!vars[i].isInstantiated() && isWatched(i)) {
                         vindices[i] = vars[i].swapOnPassivate(this, i);
                         assert vars[i].getPropagator(vindices[i]) == this;
                         model.getEnvironment().save(operations[3 + i]);
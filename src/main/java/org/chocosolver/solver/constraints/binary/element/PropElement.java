@@ -15,9 +15,10 @@ import org.chocosolver.solver.explanations.RuleStore;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
 import org.chocosolver.util.tools.ArrayUtils;
 
+import java.util.Arrays;
+
 /**
  * VALUE = TABLE[INDEX-OFFSET], ensuring arc consistency on result and index.
  * <br/>
@@ -53,9 +54,15 @@ public class PropElement extends Propagator<IntVar> {
     private final IntVar result;
 
     /**
-     * Set of forbidden indices and possible values
+     * Bits of forbidden indices and possible values, from the initial lower bound of {@link #index}
+     * and {@link #result}, respectively
+     */
+    private final long[] fidx, pVals;
+
+    /**
+     * Value of the first bit of {@link #fidx} and {@link #pVals}
      */
-    private final IntIterableBitSet fidx, pVals;
+    private final int idxOff, valOff;
 
     /**
      * Create a propagator which ensures that VALUE = TABLE[INDEX-OFFSET] holds.
@@ -70,29 +77,34 @@ public class PropElement extends Propagator<IntVar> {
         this.offset = offset;
         this.index = index;
         this.result = value;
-        fidx = new IntIterableBitSet();
-        fidx.setOffset(index.getLB());
-        pVals = new IntIterableBitSet();
-        pVals.setOffset(result.getLB());
+        // the bits are restricted to the indices and the values of the table
+        idxOff = Math.max(index.getLB(), offset);
+        fidx = new long[(int) (Math.max(0L, Math.min(index.getUB(), values.length - 1L + offset) - idxOff) >>> 6) + 1];
+        int min = Arrays.stream(values).min().orElse(0);
+        int max = Arrays.stream(values).max().orElse(0);
+        valOff = Math.max(result.getLB(), min);
+        pVals = new long[(int) (Math.max(0L, Math.min((long) result.getUB(), max) - valOff) >>> 6) + 1];
     }
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
 		index.updateBounds(offset, values.length - 1 + offset, this);
-		fidx.clear();
-		pVals.clear();
+		Arrays.fill(fidx, 0L);
+		Arrays.fill(pVals, 0L);
+		boolean forbidden = false;
 		int iub = index.getUB();
 		for (int i = index.getLB(); i <= iub; i = index.nextValue(i)) {
 			int value = values[i - offset];
 			if (result.contains(value)){
-				pVals.add(value);
+				pVals[(value - valOff) >>> 6] |= 1L << (value - valOff);
 			}else{
-				fidx.add(i);
+				fidx[(i - idxOff) >>> 6] |= 1L << (i - idxOff);
+				forbidden = true;
 			}
 		}
-		result.removeAllValuesBut(pVals,this);
-		if (!fidx.isEmpty()) {
-			index.removeValues(fidx, this);
+		result.removeAllValuesBut(pVals, valOff, this);
+		if (forbidden) {
+			index.removeValues(fidx, idxOff, this);
 		}
 		if (result.isInstantiated() && index.hasEnumeratedDomain() && !index.isInstantiated()) {
 			setPassive();
@@ -19,7 +19,9 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.objects.IntList;
+
+import java.util.Arrays;
 
 /**
  * Propagator for table constraint based on
@@ -42,7 +44,8 @@ public class PropCompactTable extends Propagator<IntVar> {
     protected int[][] residues;
     protected int[] offset;
     protected IIntDeltaMonitor[] monitors;
-    protected UnaryIntProcedure<Integer> onValRem;
+    protected final IntList removed = new IntList();
+    protected long[][] unsupported;
 
     //***********************************************************************************
    	// CONSTRUCTOR
@@ -59,31 +62,26 @@ public class PropCompactTable extends Propagator<IntVar> {
 		this.tuples = tuples;
 		this.currTable = new RSparseBitSet(model.getEnvironment(), this.tuples.nbTuples());
         computeSupports(tuples);
+        unsupported = new long[vars.length][];
+        for (int i = 0; i < vars.length; i++) {
+            unsupported[i] = new long[(supports[i].length + 63) >>> 6];
+        }
         monitors = new IIntDeltaMonitor[vars.length];
         for (int i = 0; i < vars.length; i++) {
             monitors[i] = vars[i].monitorDelta(this);
         }
-        onValRem = makeProcedure();
     }
 
     //***********************************************************************************
    	// INITIALIZATION
    	//***********************************************************************************
 
-    protected UnaryIntProcedure<Integer> makeProcedure(){
-        return new UnaryIntProcedure<Integer>() {
-            int var, off;
-            @Override
-            public UnaryIntProcedure set(Integer o) {
-                var = o;
-                off = offset[var];
-                return this;
-            }
-            @Override
-            public void execute(int i) throws ContradictionException {
-                currTable.addToMask((supports[var][i - off]));
-            }
-        };
+    /**
+     * @param var index of a variable
+     * @return the supports to add to the mask when a value of <i>var</i> is removed, indexed by value - offset
+     */
+    protected long[][] removalSupports(int var) {
+        return supports[var];
     }
 
     protected void computeSupports(Tuples tuples) {
@@ -136,11 +134,14 @@ public class PropCompactTable extends Propagator<IntVar> {
                 }
                 currTable.intersectWithMask();
             }
+            // pending removals are covered by the domains, they can be forgotten.
+            // This is not the case after a fine propagation: in variable-oriented modes,
+            // some variables may still have events to dispatch.
+            for (int i = 0; i < vars.length; i++) {
+                monitors[i].unfreeze();
+            }
         }
         filterDomains();
-        for (int i = 0; i < vars.length; i++) {
-            monitors[i].unfreeze();
-        }
     }
 
     @Override
@@ -148,12 +149,20 @@ public class PropCompactTable extends Propagator<IntVar> {
         currTable.clearMask();
 		monitors[vIdx].freeze();
         if (vars[vIdx].getDomainSize()>monitors[vIdx].sizeApproximation()) {
-            monitors[vIdx].forEachRemVal(onValRem.set(vIdx));
+            int n = monitors[vIdx].collectRemVals(removed);
+            long[][] sups = removalSupports(vIdx);
+            int off = offset[vIdx];
+            for (int k = 0; k < n; k++) {
+                currTable.addToMask(sups[removed.getQuick(k) - off]);
+            }
             currTable.reverseMask();
         } else {
-            int ub = vars[vIdx].getUB();
-            for (int v=vars[vIdx].getLB(); v<=ub; v=vars[vIdx].nextValue(v)) {
-                currTable.addToMask(supports[vIdx][v - offset[vIdx]]);
+            int off = offset[vIdx];
+            int last = (vars[vIdx].getUB() - off) >>> 6;
+            for (int w = (vars[vIdx].getLB() - off) >>> 6; w <= last; w++) {
+                for (long word = vars[vIdx].getDomainWord(off + (w << 6)); word != 0L; word &= word - 1) {
+                    currTable.addToMask(supports[vIdx][(w << 6) + Long.numberOfTrailingZeros(word)]);
+                }
             }
         }
         currTable.intersectWithMask();
@@ -213,18 +222,30 @@ public class PropCompactTable extends Propagator<IntVar> {
 	}
 
 	private void enumFilter(int i) throws ContradictionException {
-	    int ub = vars[i].getUB();
-		for (int v=vars[i].getLB(); v<=ub; v=vars[i].nextValue(v)) {
-			int index = residues[i][v - offset[i]];
-			if ((currTable.words[index].get() & supports[i][v - offset[i]][index]) == 0L) {
-				index = currTable.intersectIndex(supports[i][v - offset[i]]);
-				if (index == -1) {
-					vars[i].removeValue(v, this);
-				} else {
-					residues[i][v - offset[i]] = index;
+		// the domain is read, and then filtered, word by word
+		long[] toRemove = unsupported[i];
+		Arrays.fill(toRemove, 0L);
+		boolean filter = false;
+		int off = offset[i];
+		int last = (vars[i].getUB() - off) >>> 6;
+		for (int w = (vars[i].getLB() - off) >>> 6; w <= last; w++) {
+			for (long word = vars[i].getDomainWord(off + (w << 6)); word != 0L; word &= word - 1) {
+				int k = (w << 6) + Long.numberOfTrailingZeros(word);
+				int index = residues[i][k];
+				if ((currTable.words[index].get() & supports[i][k][index]) == 0L) {
+					index = currTable.intersectIndex(supports[i][k]);
+					if (index == -1) {
+						toRemove[w] |= 1L << k;
+						filter = true;
+					} else {
+						residues[i][k] = index;
+					}
 				}
 			}
 		}
+		if (filter) {
+			vars[i].removeValues(toRemove, off, this);
+		}
 	}
 
     @Override
@@ -0,0 +1,285 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.memory.IStateIntVector;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.IntList;
+import org.chocosolver.util.objects.graphs.LayeredGraph;
+import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
+
+/**
+ * Incremental propagator maintaining GAC on a MDD, based on
+ * "Improving GAC-4 for Table and MDD Constraints", Perez and R&eacute;gin, CP14 (MDD4R).
+ * <p>
+ * The edges of each pair (layer, value) are stored in a backtrackable sparse set, and each node maintains
+ * its numbers of live in- and out-edges.
+ * Only value removals, read from the deltas, are processed: their edges are deleted, and so are, recursively,
+ * the edges of nodes which lost all their in- or out-edges.
+ * A value whose last edge is deleted is removed.
+ * <p>
+ * The layered graph of the MDD is shared by all the propagators relying on the same MDD, see
+ * {@link MultivaluedDecisionDiagram#getLayeredGraph()}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropMDD4R extends Propagator<IntVar> {
+
+    private final MultivaluedDecisionDiagram MDD;
+    private final LayeredGraph graph;
+    /**
+     * Edges, grouped by label: live edges of label <i>a</i> are the first <code>sizes[a]</code> ones
+     * from <code>graph.labelStart[a]</code>
+     */
+    private final int[] edges;
+    /**
+     * Position of each edge in {@link #edges}
+     */
+    private final int[] positions;
+    /**
+     * Number of live edges of each label
+     */
+    private final IStateIntVector sizes;
+    /**
+     * Number of live in- and out-edges of each node
+     */
+    private final IStateIntVector inDegrees, outDegrees;
+    private final IIntDeltaMonitor[] monitors;
+    /**
+     * Nodes to delete: <i>u</i> has lost all its out-edges, <i>~u</i> all its in-edges
+     */
+    private final IntList dead = new IntList();
+    /**
+     * Labels whose last edge has been deleted
+     */
+    private final IntList lost = new IntList();
+    private final IntList removed = new IntList();
+
+    /**
+     * Create a propagator maintaining GAC based on a MDD.
+     * The MDD can be shared between multiple propagators, no copy is achieved.
+     *
+     * @param MDD  Multi-valued Decision Diagram, stores the solutions
+     * @param VARS the related variables -- the order is important, and need to match the MDD.
+     */
+    public PropMDD4R(MultivaluedDecisionDiagram MDD, IntVar... VARS) {
+        super(VARS, PropagatorPriority.QUADRATIC, true);
+        this.MDD = MDD;
+        this.graph = MDD.getLayeredGraph();
+        this.edges = new int[graph.nbArcs];
+        this.positions = new int[graph.nbArcs];
+        for (int e = 0; e < graph.nbArcs; e++) {
+            edges[e] = positions[e] = e;
+        }
+        int nbLabels = graph.labelOffset[graph.nbLayers];
+        this.sizes = model.getEnvironment().makeIntVector(nbLabels, 0);
+        for (int a = 0; a < nbLabels; a++) {
+            sizes.quickSet(a, graph.labelStart[a + 1] - graph.labelStart[a]);
+        }
+        this.inDegrees = model.getEnvironment().makeIntVector(graph.nbNodes, 0);
+        this.outDegrees = model.getEnvironment().makeIntVector(graph.nbNodes, 0);
+        for (int u = 0; u < graph.nbNodes; u++) {
+            inDegrees.quickSet(u, graph.inStart[u + 1] - graph.inStart[u]);
+            outDegrees.quickSet(u, graph.outStart[u + 1] - graph.outStart[u]);
+        }
+        inDegrees.quickSet(0, 1); // the root is always reached
+        this.monitors = new IIntDeltaMonitor[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            monitors[i] = vars[i].monitorDelta(this);
+        }
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            lost.clear();
+            for (int l = 0; l < vars.length; l++) {
+                int o = MDD.getOffset(l);
+                vars[l].updateBounds(o, o + MDD.getNodeSize(l) - 1, this);
+                for (int j = 0; j < MDD.getNodeSize(l); j++) {
+                    int a = graph.labelOffset[l] + j;
+                    if (sizes.quickGet(a) > 0 && !vars[l].contains(j + o)) {
+                        deleteLabel(a);
+                    }
+                }
+            }
+            deleteDeadNodes();
+            lost.clear();
+            if (outDegrees.quickGet(0) == 0) {
+                fails();
+            }
+            // pending removals are covered by the domains, they can be forgotten
+            for (int l = 0; l < vars.length; l++) {
+                monitors[l].unfreeze();
+                filter(l);
+            }
+        }
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        lost.clear(); // may not be empty after a failure
+        monitors[vIdx].freeze();
+        int n = monitors[vIdx].collectRemVals(removed);
+        monitors[vIdx].unfreeze();
+        int o = MDD.getOffset(vIdx);
+        int size = MDD.getNodeSize(vIdx);
+        for (int k = 0; k < n; k++) {
+            int j = removed.getQuick(k) - o;
+            if (j >= 0 && j < size) {
+                deleteLabel(graph.labelOffset[vIdx] + j);
+            }
+        }
+        deleteDeadNodes();
+        if (outDegrees.quickGet(0) == 0) {
+            fails();
+        }
+        for (int k = 0; k < lost.size(); k++) {
+            int a = lost.getQuick(k);
+            int l = graph.labelLayers[a];
+            if (vars[l].hasEnumeratedDomain()) {
+                vars[l].removeValue(a - graph.labelOffset[l] + MDD.getOffset(l), this);
+            } else {
+                filter(l);
+            }
+        }
+        if (!vars[vIdx].hasEnumeratedDomain()) {
+            // new bounds may not be supported
+            filter(vIdx);
+        }
+    }
+
+    /**
+     * Remove the values of the variable in layer <i>l</i> which have no live edge
+     */
+    private void filter(int l) throws ContradictionException {
+        int o = MDD.getOffset(l) - graph.labelOffset[l];
+        if (vars[l].hasEnumeratedDomain()) {
+            int ub = vars[l].getUB();
+            for (int v = vars[l].getLB(); v <= ub; v = vars[l].nextValue(v)) {
+                if (sizes.quickGet(v - o) == 0) {
+                    vars[l].removeValue(v, this);
+                }
+            }
+        } else {
+            int lb = vars[l].getLB();
+            int ub = vars[l].getUB();
+            while (lb <= ub && sizes.quickGet(lb - o) == 0) {
+                lb++;
+            }
+            while (ub >= lb && sizes.quickGet(ub - o) == 0) {
+                ub--;
+            }
+            vars[l].updateBounds(lb, ub, this);
+        }
+    }
+
+    /**
+     * Delete all live edges of a label
+     */
+    private void deleteLabel(int a) {
+        int start = graph.labelStart[a];
+        int s;
+        while ((s = sizes.quickGet(a)) > 0) {
+            deleteEdge(edges[start + s - 1]);
+        }
+    }
+
+    /**
+     * Delete a live edge and update the degrees of its extremities
+     */
+    private void deleteEdge(int e) {
+        int a = graph.labels[e];
+        int start = graph.labelStart[a];
+        int s = sizes.quickGet(a) - 1;
+        // swap with the last live edge of the label
+        int last = edges[start + s];
+        int p = positions[e];
+        edges[p] = last;
+        positions[last] = p;
+        edges[start + s] = e;
+        positions[e] = start + s;
+        sizes.quickSet(a, s);
+        if (s == 0) {
+            lost.add(a);
+        }
+        int u = graph.origs[e];
+        int d = outDegrees.quickGet(u) - 1;
+        outDegrees.quickSet(u, d);
+        if (d == 0) {
+            dead.add(u);
+        }
+        int w = graph.dests[e];
+        d = inDegrees.quickGet(w) - 1;
+        inDegrees.quickSet(w, d);
+        if (d == 0) {
+            dead.add(~w);
+        }
+    }
+
+    private boolean isLive(int e) {
+        int a = graph.labels[e];
+        return positions[e] - graph.labelStart[a] < sizes.quickGet(a);
+    }
+
+    /**
+     * Delete the remaining edges of the nodes which are not on a path from the root to the terminal node anymore
+     */
+    private void deleteDeadNodes() {
+        while (!dead.isEmpty()) {
+            int u = dead.getQuick(dead.size() - 1);
+            dead.removeAt(dead.size() - 1);
+            if (u >= 0) { // no out-edge anymore
+                for (int k = graph.inStart[u]; k < graph.inStart[u + 1]; k++) {
+                    int e = graph.inArcs[k];
+                    if (isLive(e)) {
+                        deleteEdge(e);
+                    }
+                }
+            } else { // no in-edge anymore
+                u = ~u;
+                for (int k = graph.outStart[u]; k < graph.outStart[u + 1]; k++) {
+                    int e = graph.outArcs[k];
+                    if (isLive(e)) {
+                        deleteEdge(e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (isCompletelyInstantiated()) {
+            int[] diag = MDD.getDiagram();
+            int l = 0;
+            int n = vars[l].getValue() - MDD.getOffset(l);
+            if (n < 0 || n >= MDD.getNodeSize(l)) {
+                return ESat.FALSE;
+            }
+            while (l < vars.length - 1 && diag[n] > 0) {
+                l++;
+                int j = vars[l].getValue() - MDD.getOffset(l);
+                if (j < 0 || j >= MDD.getNodeSize(l)) {
+                    return ESat.FALSE;
+                }
+                n = diag[n] + j;
+            }
+            return ESat.eval(l == vars.length - 1 && diag[n] == MultivaluedDecisionDiagram.TERMINAL);
+        }
+        return ESat.UNDEFINED;
+    }
+}
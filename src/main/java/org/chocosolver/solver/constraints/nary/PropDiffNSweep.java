@@ -0,0 +1,388 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.IntIntervalTree;
+import org.chocosolver.util.objects.IntList;
+import org.chocosolver.util.sort.ArraySort;
+import org.chocosolver.util.sort.IntComparator;
+import org.chocosolver.util.tools.ArrayUtils;
+
+/**
+ * Non-overlapping rectangles filtered with a sweep-point algorithm, based on
+ * "Sweep as a Generic Pruning Technique Applied to the Non-Overlapping Rectangles Constraint",
+ * Beldiceanu and Carlsson, CP01.
+ * <p>
+ * The compulsory part of a rectangle <i>j</i>, [x<sub>j</sub>.ub, x<sub>j</sub>.lb + w<sub>j</sub>.lb) &times;
+ * [y<sub>j</sub>.ub, y<sub>j</sub>.lb + h<sub>j</sub>.lb), defines a forbidden region for the origin of any other
+ * rectangle <i>i</i>. Each bound of the origin of <i>i</i> is then pushed by a point sweeping its domain,
+ * which jumps over forbidden regions until it reaches a feasible position.
+ * </p>
+ * <p>
+ * The propagator is incremental: a rectangle is swept again when it is modified, or when the region forbidden by
+ * a modified rectangle touches the boundary of its domain.
+ * Compulsory parts are projected on each dimension and stored in interval trees, so that the sweep point only
+ * considers the regions it meets. Domains are stored in another interval tree, to find the rectangles to sweep again.
+ * Trees are updated with the modified rectangles only, unless a backtrack occurred.
+ * Unlike {@link PropDiffN}, which maintains a graph of the pairs of rectangles which may overlap,
+ * memory is linear in the number of rectangles, which suits large packing problems.
+ * The pruning of sizes is left to the redundant cumulative constraints.
+ * </p>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropDiffNSweep extends Propagator<IntVar> {
+
+    private final int n;
+    /**
+     * Largest sizes, in each dimension
+     */
+    private final int maxW, maxH;
+    /**
+     * Projections on each dimension of the compulsory parts which may forbid positions
+     */
+    private final IntIntervalTree partsX, partsY;
+    /**
+     * Projections on the first dimension of the domains, [x.lb, x.ub + w.ub)
+     */
+    private final IntIntervalTree reaches;
+    /**
+     * Rectangles modified since they were last stored in the trees
+     */
+    private final IntList dirty = new IntList();
+    private final boolean[] isDirty;
+    /**
+     * Rectangles to sweep
+     */
+    private final IntList work = new IntList();
+    private final boolean[] inWork;
+    /**
+     * Rectangles returned by the trees
+     */
+    private final IntList candidates = new IntList();
+    /**
+     * Trees are in sync with the domains if <code>stamp.get() == syncStamp</code>, which is not the case
+     * anymore after a backtrack or a failure
+     */
+    private final IStateInt stamp;
+    private int syncStamp = -1, counter;
+    /**
+     * Forbidden regions containing the sweep point: bounds are inclusive, <i>d</i> is the swept dimension,
+     * <i>e</i> the other one
+     */
+    private final int[] dLo, dHi, eLo, eHi;
+    /**
+     * Forbidden regions, to be sorted
+     */
+    private final int[] active;
+    private final ArraySort<?> sorter;
+    private final IntComparator byELo;
+
+    /**
+     * Creates a sweep-based propagator of non-overlapping rectangles
+     *
+     * @param x  origins in the first dimension
+     * @param y  origins in the second dimension
+     * @param dx sizes in the first dimension
+     * @param dy sizes in the second dimension
+     */
+    public PropDiffNSweep(IntVar[] x, IntVar[] y, IntVar[] dx, IntVar[] dy) {
+        super(ArrayUtils.append(x, y, dx, dy), PropagatorPriority.LINEAR, true);
+        n = x.length;
+        if (!(n == y.length && n == dx.length && n == dy.length)) {
+            throw new SolverException("PropDiffNSweep variable arrays do not have same size");
+        }
+        int mw = 0, mh = 0;
+        for (int i = 0; i < n; i++) {
+            mw = Math.max(mw, dx[i].getUB());
+            mh = Math.max(mh, dy[i].getUB());
+        }
+        maxW = mw;
+        maxH = mh;
+        partsX = new IntIntervalTree(n);
+        partsY = new IntIntervalTree(n);
+        reaches = new IntIntervalTree(n);
+        isDirty = new boolean[n];
+        inWork = new boolean[n];
+        stamp = model.getEnvironment().makeInt(0);
+        dLo = new int[n];
+        dHi = new int[n];
+        eLo = new int[n];
+        eHi = new int[n];
+        active = new int[n];
+        sorter = new ArraySort<>(n, false, true);
+        byELo = (i, j) -> Integer.compare(eLo[i], eLo[j]);
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        markDirty(vIdx % n);
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask) || stamp.get() != syncStamp) {
+            for (int i = 0; i < n; i++) {
+                markDirty(i);
+            }
+        }
+        syncStamp = -1; // until a fix point is reached
+        for (int k = 0; k < work.size(); k++) {
+            // left by a failure
+            inWork[work.getQuick(k)] = false;
+        }
+        work.clear();
+        while (!dirty.isEmpty()) {
+            for (int k = 0; k < dirty.size(); k++) {
+                store(dirty.getQuick(k));
+            }
+            partsX.build();
+            partsY.build();
+            reaches.build();
+            // the modified rectangles and the ones their compulsory part may reach
+            for (int k = 0; k < dirty.size(); k++) {
+                int j = dirty.getQuick(k);
+                isDirty[j] = false;
+                addWork(j);
+                if (isRelevant(j)) {
+                    candidates.clear();
+                    reaches.query(cpLo(j, 0), cpHi(j, 0), candidates);
+                    for (int c = 0; c < candidates.size(); c++) {
+                        int i = candidates.getQuick(c);
+                        if (i != j && touches(j, i)) {
+                            addWork(i);
+                        }
+                    }
+                }
+            }
+            dirty.clear();
+            for (int k = 0; k < work.size(); k++) {
+                int i = work.getQuick(k);
+                inWork[i] = false;
+                boolean change = sweep(i, 0, n);
+                change |= sweep(i, n, 0);
+                if (change) {
+                    markDirty(i);
+                }
+            }
+            work.clear();
+        }
+        syncStamp = ++counter;
+        stamp.set(syncStamp);
+    }
+
+    /**
+     * @return <tt>true</tt> if the region forbidden by <i>j</i> to the origin of <i>i</i> may intersect the boundary
+     * of its domain, otherwise the bounds of <i>i</i> are still supported
+     */
+    private boolean touches(int j, int i) {
+        // sizes of i may decrease until it is swept, the largest region is considered
+        int l1 = cpLo(j, 0) - vars[i + 2 * n].getUB() + 1, h1 = cpHi(j, 0) - 1;
+        int l2 = cpLo(j, n) - vars[i + 3 * n].getUB() + 1, h2 = cpHi(j, n) - 1;
+        int xl = vars[i].getLB(), xu = vars[i].getUB();
+        int yl = vars[i + n].getLB(), yu = vars[i + n].getUB();
+        return l1 <= h1 && l2 <= h2 && l1 <= xu && h1 >= xl && l2 <= yu && h2 >= yl
+                && (l1 <= xl || h1 >= xu || l2 <= yl || h2 >= yu);
+    }
+
+    private void markDirty(int i) {
+        if (!isDirty[i]) {
+            isDirty[i] = true;
+            dirty.add(i);
+        }
+    }
+
+    private void addWork(int i) {
+        if (!inWork[i]) {
+            inWork[i] = true;
+            work.add(i);
+        }
+    }
+
+    /**
+     * Stores the current projections of a rectangle in the trees
+     */
+    private void store(int j) {
+        if (isRelevant(j)) {
+            partsX.set(j, cpLo(j, 0), cpHi(j, 0));
+            partsY.set(j, cpLo(j, n), cpHi(j, n));
+        } else {
+            partsX.remove(j);
+            partsY.remove(j);
+        }
+        reaches.set(j, vars[j].getLB(), vars[j].getUB() + vars[j + 2 * n].getUB());
+    }
+
+    /**
+     * @return <tt>false</tt> if the compulsory part of a rectangle cannot forbid any position, whatever the sizes
+     */
+    private boolean isRelevant(int j) {
+        // forbidden regions are empty unless hi - lo + size > 1 in both dimensions
+        return cpHi(j, 0) - cpLo(j, 0) + maxW > 1 && cpHi(j, n) - cpLo(j, n) + maxH > 1;
+    }
+
+    private int cpLo(int j, int off) {
+        return vars[j + off].getUB();
+    }
+
+    private int cpHi(int j, int off) {
+        return vars[j + off].getLB() + vars[j + off + 2 * n].getLB();
+    }
+
+    /**
+     * Pushes the bounds of the origin of rectangle <i>i</i> in the dimension of offset <i>d</i>
+     *
+     * @param i a rectangle
+     * @param d offset of the swept dimension
+     * @param e offset of the other dimension
+     * @return <tt>true</tt> if a bound has been modified
+     */
+    private boolean sweep(int i, int d, int e) throws ContradictionException {
+        IntVar od = vars[i + d];
+        boolean change = false;
+        // sweep upward
+        int p = od.getLB();
+        int next;
+        while ((next = jump(i, d, e, p, true)) != p) {
+            p = next;
+            if (p > od.getUB()) {
+                fails();
+            }
+        }
+        change |= od.updateLowerBound(p, this);
+        // sweep downward
+        p = od.getUB();
+        while ((next = jump(i, d, e, p, false)) != p) {
+            p = next;
+            if (p < od.getLB()) {
+                fails();
+            }
+        }
+        change |= od.updateUpperBound(p, this);
+        return change;
+    }
+
+    /**
+     * @param i      a rectangle
+     * @param d      offset of the swept dimension
+     * @param e      offset of the other dimension
+     * @param p      position of the sweep point in the swept dimension
+     * @param upward direction of the sweep
+     * @return <i>p</i> if a position of the origin of <i>i</i> in the other dimension is not forbidden at <i>p</i>,
+     * the next position where it may not be the case otherwise
+     */
+    private int jump(int i, int d, int e, int p, boolean upward) {
+        int wd = vars[i + d + 2 * n].getLB(), we = vars[i + e + 2 * n].getLB();
+        int lb = vars[i + e].getLB(), ub = vars[i + e].getUB();
+        // forbidden regions containing p in the swept dimension
+        candidates.clear();
+        (d == 0 ? partsX : partsY).query(p, p + wd, candidates);
+        int m = 0;
+        for (int k = 0; k < candidates.size(); k++) {
+            int j = candidates.getQuick(k);
+            if (j == i) {
+                continue;
+            }
+            // origins of i overlapping j, whatever its position
+            int l1 = cpLo(j, d) - wd + 1, h1 = cpHi(j, d) - 1;
+            int l2 = cpLo(j, e) - we + 1, h2 = cpHi(j, e) - 1;
+            if (l1 <= p && p <= h1 && l2 <= h2 && l2 <= ub && h2 >= lb) {
+                dLo[m] = l1;
+                dHi[m] = h1;
+                eLo[m] = l2;
+                eHi[m] = h2;
+                active[m] = m;
+                m++;
+            }
+        }
+        sorter.sort(active, m, byELo);
+        int reach = lb;
+        for (int k = 0; k < m && reach <= ub; k++) {
+            int r = active[k];
+            if (eLo[r] > reach) {
+                return p;
+            }
+            reach = Math.max(reach, eHi[r] + 1);
+        }
+        if (reach <= ub) {
+            return p;
+        }
+        // all active regions forbid [lb, ub] until the first of them ends
+        int next = upward ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        for (int r = 0; r < m; r++) {
+            next = upward ? Math.min(next, dHi[r] + 1) : Math.max(next, dLo[r] - 1);
+        }
+        return next;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        // scratch structures, the ones of the propagation are left untouched
+        IntIntervalTree tree = new IntIntervalTree(n);
+        IntList found = new IntList();
+        boolean all = true;
+        for (int i = 0; i < n; i++) {
+            if (boxInstantiated(i)) {
+                tree.set(i, vars[i].getValue(), vars[i].getValue() + vars[i + 2 * n].getValue());
+            } else {
+                all = false;
+            }
+        }
+        tree.build();
+        for (int i = 0; i < n; i++) {
+            if (boxInstantiated(i)) {
+                found.clear();
+                tree.query(vars[i].getValue(), vars[i].getValue() + vars[i + 2 * n].getValue(), found);
+                int y = vars[i + n].getValue(), h = vars[i + 3 * n].getValue();
+                for (int k = 0; k < found.size(); k++) {
+                    int j = found.getQuick(k);
+                    if (j != i && vars[j + n].getValue() < y + h && y < vars[j + n].getValue() + vars[j + 3 * n].getValue()) {
+                        return ESat.FALSE;
+                    }
+                }
+            }
+        }
+        return all ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    private boolean boxInstantiated(int i) {
+        return vars[i].isInstantiated() && vars[i + n].isInstantiated()
+                && vars[i + 2 * n].isInstantiated() && vars[i + 3 * n].isInstantiated();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DIFFN_SWEEP(");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(",");
+            sb.append("[").append(vars[i].toString());
+            sb.append(",").append(vars[i + n].toString());
+            sb.append(",").append(vars[i + 2 * n].toString());
+            sb.append(",").append(vars[i + 3 * n].toString()).append("]");
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+}
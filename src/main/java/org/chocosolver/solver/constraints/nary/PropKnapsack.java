@@ -86,12 +86,9 @@ public class PropKnapsack extends Propagator<IntVar> {
                 if (vars[idx].getUB() - vars[idx].getLB() > 0) {
 					int delta = weigth[idx] * (vars[idx].getUB() - vars[idx].getLB());
                     if (delta <= remainingCapacity) {
+                        // items of null weight, which come first, may be added even if the knapsack is full
                         maxPower += energy[idx] * (vars[idx].getUB() - vars[idx].getLB());
                         remainingCapacity -= delta;
-                        if (remainingCapacity == 0) {
-                            power.updateUpperBound(maxPower, this);
-                            return;
-                        }
                     } else {
                         int deltaPow = (int) Math.ceil((double)remainingCapacity * ratio[idx]);
                         power.updateUpperBound(maxPower + deltaPow, this);
@@ -99,6 +96,7 @@ public class PropKnapsack extends Propagator<IntVar> {
                     }
                 }
             }
+            power.updateUpperBound(maxPower, this);
         }
     }
 
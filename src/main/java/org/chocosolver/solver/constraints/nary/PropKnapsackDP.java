@@ -0,0 +1,285 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+/**
+ * Propagator for the Knapsack constraint based on dynamic programming, as described in
+ * "A dynamic programming approach for consistency and propagation for knapsack constraints", M. Trick, CPAIOR01.
+ * <p>
+ * Layer <i>k</i> of the graph has a node for each load in [0, C] reachable by items 0..k-1, C being the initial upper
+ * bound of the capacity, and the arcs from layer <i>k</i> to layer <i>k+1</i> are labelled by the values of item <i>k</i>.
+ * The longest and shortest paths, in energy, from the source and to the sinks, which are the loads of the capacity
+ * domain, are stored for each node. A value of an item is removed when it labels no arc on a path whose energy
+ * may be in the power domain: the bounds of the power are thus the longest and shortest paths of the graph,
+ * items are domain consistent with respect to the capacity and each arc is filtered by its reduced cost with
+ * respect to the power.
+ * <p>
+ * Paths are computed again only from the layer of the first modified item, and to the layer of the last one,
+ * as long as no backtrack occurred.
+ * Memory and time are in O(n.C) and O(n.C.d), where <i>d</i> is the largest domain size of the items,
+ * so it fits small integer weights.
+ * Occurrences and weights must be non-negative.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropKnapsackDP extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private static final int NONE_MAX = Integer.MIN_VALUE, NONE_MIN = Integer.MAX_VALUE;
+
+    private final int[] weight, energy;
+    private final int n;
+    private final IntVar capacity, power;
+    /**
+     * Number of nodes per layer, loads are in [0, width)
+     */
+    private final int width;
+    /**
+     * Longest and shortest paths from the source to each node, NONE_MAX and NONE_MIN if unreachable
+     */
+    private final int[] fMax, fMin;
+    /**
+     * Longest and shortest paths from each node to the sinks, NONE_MAX and NONE_MIN if the sinks are unreachable
+     */
+    private final int[] bMax, bMin;
+    /**
+     * Forward layers from <i>fwdFrom</i> and backward layers to <i>bwdTo</i> are not up to date
+     */
+    private int fwdFrom, bwdTo;
+    /**
+     * Number of the last call which completed, written to <i>stamp</i> on exit. When the domains are restored by a
+     * backtrack, <i>stamp</i> is restored to an older number and all the layers are computed again.
+     */
+    private final IStateInt stamp;
+    private int syncStamp = -1, counter;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates a knapsack propagator based on dynamic programming
+     *
+     * @param itemOccurence number of occurrences of every item, non-negative
+     * @param capacity      load of the knapsack
+     * @param power         profit of the knapsack
+     * @param weight        weight of each item, non-negative
+     * @param energy        energy of each item
+     */
+    public PropKnapsackDP(IntVar[] itemOccurence, IntVar capacity, IntVar power,
+                          int[] weight, int[] energy) {
+        super(ArrayUtils.append(itemOccurence, new IntVar[]{capacity, power}), PropagatorPriority.QUADRATIC, true);
+        this.weight = weight;
+        this.energy = energy;
+        this.n = itemOccurence.length;
+        this.capacity = vars[n];
+        this.power = vars[n + 1];
+        this.width = Math.max(capacity.getUB(), 0) + 1;
+        int size = (n + 1) * width;
+        this.fMax = new int[size];
+        this.fMin = new int[size];
+        this.bMax = new int[size];
+        this.bMin = new int[size];
+        // the source
+        for (int w = 1; w < width; w++) {
+            fMax[w] = NONE_MAX;
+            fMin[w] = NONE_MIN;
+        }
+        this.stamp = model.getEnvironment().makeInt(0);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return vIdx == n + 1 ? IntEventType.boundAndInst() : IntEventType.all();
+    }
+
+    @Override
+    public void propagate(int idx, int mask) throws ContradictionException {
+        if (idx < n) {
+            fwdFrom = Math.min(fwdFrom, idx + 1);
+            bwdTo = Math.max(bwdTo, idx);
+        } else if (idx == n) {
+            bwdTo = n;
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask) || stamp.get() != syncStamp) {
+            fwdFrom = 1;
+            bwdTo = n;
+        }
+        // a failure leaves the layers half-updated
+        syncStamp = -1;
+        do {
+            for (int k = fwdFrom; k <= n; k++) {
+                forward(k);
+            }
+            for (int k = bwdTo; k >= 0; k--) {
+                backward(k);
+            }
+            fwdFrom = n + 1;
+            bwdTo = -1;
+            filter();
+        } while (fwdFrom <= n || bwdTo >= 0);
+        syncStamp = ++counter;
+        stamp.set(syncStamp);
+    }
+
+    /**
+     * Computes the paths from the source to the nodes of layer <i>k</i>
+     */
+    private void forward(int k) {
+        int from = (k - 1) * width, to = k * width;
+        for (int w = 0; w < width; w++) {
+            fMax[to + w] = NONE_MAX;
+            fMin[to + w] = NONE_MIN;
+        }
+        IntVar item = vars[k - 1];
+        int wk = weight[k - 1], ek = energy[k - 1];
+        int ub = item.getUB();
+        for (int w = 0; w < width; w++) {
+            if (fMax[from + w] != NONE_MAX) {
+                for (int v = item.getLB(); v <= ub; v = item.nextValue(v)) {
+                    long nw = w + (long) v * wk;
+                    if (nw >= width) {
+                        break;
+                    }
+                    int e = v * ek;
+                    int t = to + (int) nw;
+                    fMax[t] = Math.max(fMax[t], fMax[from + w] + e);
+                    fMin[t] = Math.min(fMin[t], fMin[from + w] + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the paths from the nodes of layer <i>k</i> to the sinks
+     */
+    private void backward(int k) {
+        int to = k * width;
+        if (k == n) {
+            for (int w = 0; w < width; w++) {
+                boolean sink = capacity.contains(w);
+                bMax[to + w] = sink ? 0 : NONE_MAX;
+                bMin[to + w] = sink ? 0 : NONE_MIN;
+            }
+            return;
+        }
+        int from = (k + 1) * width;
+        IntVar item = vars[k];
+        int wk = weight[k], ek = energy[k];
+        int ub = item.getUB();
+        for (int w = 0; w < width; w++) {
+            int max = NONE_MAX, min = NONE_MIN;
+            for (int v = item.getLB(); v <= ub; v = item.nextValue(v)) {
+                long nw = w + (long) v * wk;
+                if (nw >= width) {
+                    break;
+                }
+                int t = from + (int) nw;
+                if (bMax[t] != NONE_MAX) {
+                    int e = v * ek;
+                    max = Math.max(max, bMax[t] + e);
+                    min = Math.min(min, bMin[t] + e);
+                }
+            }
+            bMax[to + w] = max;
+            bMin[to + w] = min;
+        }
+    }
+
+    /**
+     * Filters the power, the capacity and the items from the paths, marking the modified layers
+     */
+    private void filter() throws ContradictionException {
+        int last = n * width;
+        int max = NONE_MAX, min = NONE_MIN;
+        for (int w = 0; w < width; w++) {
+            if (fMax[last + w] != NONE_MAX && bMax[last + w] != NONE_MAX) {
+                max = Math.max(max, fMax[last + w]);
+                min = Math.min(min, fMin[last + w]);
+            }
+        }
+        if (max == NONE_MAX) {
+            fails();
+        }
+        power.updateBounds(min, max, this);
+        int plb = power.getLB(), pub = power.getUB();
+        // the loads of the capacity
+        boolean modified = capacity.updateBounds(0, width - 1, this);
+        int cub = capacity.getUB();
+        for (int w = capacity.getLB(); w <= cub; w = capacity.nextValue(w)) {
+            if (fMax[last + w] == NONE_MAX || fMax[last + w] < plb || fMin[last + w] > pub) {
+                modified |= capacity.removeValue(w, this);
+            }
+        }
+        if (modified) {
+            bwdTo = n;
+        }
+        // the values of the items
+        for (int k = 0; k < n; k++) {
+            IntVar item = vars[k];
+            int wk = weight[k], ek = energy[k];
+            int from = k * width, to = (k + 1) * width;
+            int ub = item.getUB();
+            for (int v = item.getLB(); v <= ub; v = item.nextValue(v)) {
+                int e = v * ek;
+                boolean supported = false;
+                for (int w = 0; w < width && !supported; w++) {
+                    long nw = w + (long) v * wk;
+                    if (nw >= width) {
+                        break;
+                    }
+                    int t = to + (int) nw;
+                    supported = fMax[from + w] != NONE_MAX && bMax[t] != NONE_MAX
+                            && fMax[from + w] + e + bMax[t] >= plb
+                            && fMin[from + w] + e + bMin[t] <= pub;
+                }
+                if (!supported && item.removeValue(v, this)) {
+                    fwdFrom = Math.min(fwdFrom, k + 1);
+                    bwdTo = Math.max(bwdTo, k);
+                }
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (isCompletelyInstantiated()) {
+            long load = 0, profit = 0;
+            for (int i = 0; i < n; i++) {
+                load += (long) weight[i] * vars[i].getValue();
+                profit += (long) energy[i] * vars[i].getValue();
+            }
+            return ESat.eval(load == capacity.getValue() && profit == power.getValue());
+        }
+        return ESat.UNDEFINED;
+    }
+}
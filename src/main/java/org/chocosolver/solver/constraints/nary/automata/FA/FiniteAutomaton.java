@@ -14,17 +14,23 @@ import gnu.trove.map.hash.TObjectIntHashMap;
 import gnu.trove.set.hash.TIntHashSet;
 
 import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.IntArrayKey;
+import org.chocosolver.util.objects.graphs.LayeredGraph;
 import org.chocosolver.util.tools.StringUtils;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import dk.brics.automaton.Automaton;
@@ -53,6 +59,15 @@ public class FiniteAutomaton implements IAutomaton {
     private HashSet<State> nexts = new HashSet<>();
     private int min = Character.MIN_VALUE;
     private int max = Character.MAX_VALUE;
+    /**
+     * Maximum number of layered graphs kept by an automaton
+     */
+    private static final int MAX_LAYERED_GRAPHS = 8;
+    /**
+     * Layered graphs unfolded from this automaton, by domains, the least recently used first.
+     * They are softly referenced and forgotten as soon as the automaton is modified.
+     */
+    private LinkedHashMap<IntArrayKey, SoftReference<LayeredGraph>> layeredGraphs;
 
     private final static TIntIntHashMap charFromIntMap = new TIntIntHashMap(16, .5f, -1, -1);
     private final static TIntIntHashMap intFromCharMap = new TIntIntHashMap(16, .5f, -1, -1);
@@ -210,6 +225,7 @@ public class FiniteAutomaton implements IAutomaton {
     }
 
     public int addState() {
+        modified();
         int idx = states.size();
         State s = new State();
         states.add(s);
@@ -240,6 +256,7 @@ public class FiniteAutomaton implements IAutomaton {
     }
 
     public void addTransition(int source, int destination, int... symbols) {
+        modified();
         for (int symbol : symbols) {
             try {
                 checkState(source, destination);
@@ -254,6 +271,7 @@ public class FiniteAutomaton implements IAutomaton {
     }
 
     public void deleteTransition(int source, int destination, int symbol) {
+        modified();
         try {
             checkState(source, destination);
         } catch (StateNotInAutomatonException e) {
@@ -356,6 +374,7 @@ public class FiniteAutomaton implements IAutomaton {
 //            LOGGER.warn("Unable to set initial state, state is not in automaton : " + e);
         }
         representedBy.setInitialState(states.get(state));
+        modified();
     }
 
     public void setFinal(int state) {
@@ -365,6 +384,7 @@ public class FiniteAutomaton implements IAutomaton {
 //            LOGGER.warn("Unable to set final state, state is not in automaton : " + e);
         }
         states.get(state).setAccept(true);
+        modified();
     }
 
     public void setFinal(int... states) {
@@ -378,6 +398,7 @@ public class FiniteAutomaton implements IAutomaton {
 //            LOGGER.warn("Unable to set non final state, state is not in automaton : " + e);
         }
         states.get(state).setAccept(false);
+        modified();
     }
 
     public void setNonFInal(int... states) {
@@ -473,6 +494,7 @@ public class FiniteAutomaton implements IAutomaton {
         ArrayList<StatePair> pairs = new ArrayList<>();
         pairs.add(new StatePair(s, d));
         this.representedBy.addEpsilons(pairs);
+        modified();
     }
 
     public boolean isDeterministic() {
@@ -606,8 +628,37 @@ public class FiniteAutomaton implements IAutomaton {
 
     }
 
+    /**
+     * Returns the layered graph of this automaton unfolded over the domains of some variables, built on the first
+     * call and shared afterwards by the sequences of variables with the same domains, as long as the automaton
+     * is not modified. Only the graphs of the last few domains are kept, and they may be reclaimed by the
+     * garbage collector when memory runs low.
+     *
+     * @param vars the variables, in the order of the word
+     * @return the minimized layered graph of the words of this automaton over the domains of <i>vars</i>
+     */
+    public synchronized LayeredGraph getLayeredGraph(IntVar[] vars) {
+        if (layeredGraphs == null) {
+            layeredGraphs = new LinkedHashMap<IntArrayKey, SoftReference<LayeredGraph>>(16, .75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<IntArrayKey, SoftReference<LayeredGraph>> e) {
+                    return size() > MAX_LAYERED_GRAPHS;
+                }
+            };
+        }
+        IntArrayKey key = LayeredGraph.domains(vars);
+        SoftReference<LayeredGraph> ref = layeredGraphs.get(key);
+        LayeredGraph graph = ref == null ? null : ref.get();
+        if (graph == null) {
+            graph = LayeredGraph.unfold(this, vars, null);
+            layeredGraphs.put(key, new SoftReference<>(graph));
+        }
+        return graph;
+    }
+
     public FiniteAutomaton clone() throws CloneNotSupportedException {
         FiniteAutomaton auto = (FiniteAutomaton) super.clone();
+        auto.layeredGraphs = null;
         auto.representedBy = new Automaton();
         auto.states = new ArrayList<>();
         auto.stateToIndex = new TObjectIntHashMap<>();
@@ -660,6 +711,10 @@ public class FiniteAutomaton implements IAutomaton {
 
     }
 
+    private void modified() {
+        layeredGraphs = null;
+    }
+
     private void checkState(int... state) throws StateNotInAutomatonException {
         int sz = states.size();
         for (int s : state)
@@ -669,6 +724,7 @@ public class FiniteAutomaton implements IAutomaton {
     }
 
     private void syncStates() {
+        modified();
         this.alphabet.clear();
         this.states.clear();
         this.stateToIndex.clear();
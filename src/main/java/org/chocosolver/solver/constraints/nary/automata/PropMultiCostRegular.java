@@ -14,6 +14,7 @@ import gnu.trove.set.hash.TIntHashSet;
 import gnu.trove.stack.TIntStack;
 import gnu.trove.stack.array.TIntArrayStack;
 import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateDoubleVector;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
@@ -56,7 +57,10 @@ import java.util.*;
  * <p/>
  * AC is NP hard for such a constraint.
  * The propagation is based on a Lagrangian Relaxation approach of the underlying
- * Resource constrained  shortest/longest path problems
+ * Resource constrained  shortest/longest path problems.
+ * <p/>
+ * After a backtrack, the paths are computed again only for the layers whose arcs were removed since the last
+ * propagation, and the Lagrangian multipliers restart from the ones of the node backtracked to.
  */
 public final class PropMultiCostRegular extends Propagator<IntVar> {
 
@@ -125,6 +129,17 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
      */
     private final double[] uLb;
 
+    /**
+     * Lagrangian multipliers at the end of the last propagation, restored upon backtrack
+     */
+    private final IStateDoubleVector storedUUb, storedULb;
+
+    /**
+     * Stamps of the layers of the graph the paths are computed for, valid only if <i>synced</i> is true
+     */
+    private int[] syncStamps;
+    private boolean synced;
+
     /**
      * Instance of the class containing all path finding algorithms
      * Also contains graph filtering algorithms
@@ -181,6 +196,8 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
         this.uUb = new double[2 * nbR];
         this.uLb = new double[2 * nbR];
+        this.storedUUb = model.getEnvironment().makeDoubleVector(2 * nbR, 0.0);
+        this.storedULb = model.getEnvironment().makeDoubleVector(2 * nbR, 0.0);
 
         this.map = new TObjectIntHashMap<>();
         for (int i = 0; i < vars.length; i++) {
@@ -227,7 +244,10 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
             }
             vs[i].removeValues(vrms, this);//, false);
         }
+        this.syncStamps = new int[graph.layers.length - 1];
+        this.synced = false;
         this.slp.computeShortestAndLongestPath(toRemove, z, this);
+        sync();
     }
 
     @Override
@@ -236,12 +256,23 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
             initialize();
         }
         filter();
+        sync();
 		// added by JG: the propagator should be idempotent so it should not iterate over its own removals
 		for (int i = 0; i < idms.length; i++) {
 			idms[i].unfreeze();
 		}
     }
 
+    /**
+     * Records that the paths are up to date with the arcs of the graph
+     */
+    private void sync() {
+        for (int l = 0; l < syncStamps.length; l++) {
+            syncStamps[l] = graph.getLayerStamp(l);
+        }
+        synced = true;
+    }
+
     @Override
     public void propagate(int varIdx, int mask) throws ContradictionException {
         if (varIdx < offset) {
@@ -435,11 +466,20 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
     private void filter() throws ContradictionException {
         checkWorld();
+        synced = false; // until the end of the propagation
+        for (int i = 0; i < uUb.length; i++) {
+            uUb[i] = storedUUb.quickGet(i);
+            uLb[i] = storedULb.quickGet(i);
+        }
         this.delayedBoundUpdate();
         this.delayedGraphUpdate();
         this.modifiedBound[0] = true;
         this.modifiedBound[1] = true;
         this.computeSharpBounds();
+        for (int i = 0; i < uUb.length; i++) {
+            storedUUb.quickSet(i, uUb[i]);
+            storedULb.quickSet(i, uLb[i]);
+        }
         assert (toRemove.size() == 0);
         assert (check());
         assert (isGraphConsistent());
@@ -506,7 +546,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
                     int i = graph.GNodes.layers[graph.GArcs.origs[e]];//  e.getOrigin().getLayer();
                     //int j = graph.GArcs.values[e];//e.getLabel();
                     if (i < offset)
-                        axu += graph.GArcs.originalCost[e][l + 1];//costs[i][j][l+1];
+                        axu += graph.GArcs.originalCost[e * graph.nbR + l + 1];//costs[i][j][l+1];
                 }
                 newLB = Math.max(uUb[l] - uk * (z[l + 1].getUB() - axu), 0);
                 newLA = Math.max(uUb[l + nbR] - uk * (axu - z[l + 1].getLB()), 0);
@@ -591,7 +631,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
                 for (int e : P) {
                     int i = graph.GNodes.layers[graph.GArcs.origs[e]];
                     if (i < offset)
-                        axu += graph.GArcs.originalCost[e][l + 1];
+                        axu += graph.GArcs.originalCost[e * graph.nbR + l + 1];
                 }
 
                 newLB = Math.max(uLb[l] + uk * (axu - z[l + 1].getUB()), 0);
@@ -689,9 +729,25 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
             this.toRemove.clear();
             this.graph.inStack.clear();
 
-
-            this.getGraph().getPathFinder().computeShortestAndLongestPath(toRemove, z, this);
-            computed = true;
+            FastPathFinder pf = this.getGraph().getPathFinder();
+            if (synced) {
+                // only the paths through the layers whose arcs were restored are out of date,
+                // the other arcs were filtered by the propagation of the node backtracked to
+                int first = syncStamps.length, last = -1;
+                for (int l = 0; l < syncStamps.length; l++) {
+                    if (graph.getLayerStamp(l) != syncStamps[l]) {
+                        first = Math.min(first, l);
+                        last = l;
+                    }
+                }
+                synced = false;
+                pf.computeShortestAndLongestPath(toRemove, z, this, first + 1, last);
+                computed = false;
+            } else {
+                pf.computeShortestAndLongestPath(toRemove, z, this);
+                computed = true;
+            }
+            sync();
             //assert(toRemove.size() == 0); // PAS SUR DE L'ASSERT
             // this.graph.toUpdateLeft.reset();
             //this.graph.toUpdateRight.reset();
@@ -869,7 +925,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
                 while (arcIter.hasNext()) {
                     int arc = arcIter.next();
                     for (int i = 0; i < z.length; i++)
-                        gcost[i] += graph.GArcs.originalCost[arc][i];
+                        gcost[i] += graph.GArcs.originalCost[arc * graph.nbR + i];
                 }
                 arcIter.dispose();
 
@@ -926,6 +982,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
     public void forcePathRecomputation() throws ContradictionException {
         lastWorld = Integer.MAX_VALUE;
+        synced = false;
         checkWorld();
     }
 
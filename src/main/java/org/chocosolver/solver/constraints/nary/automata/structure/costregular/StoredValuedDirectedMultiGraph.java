@@ -8,7 +8,6 @@
  */
 package org.chocosolver.solver.constraints.nary.automata.structure.costregular;
 
-import gnu.trove.set.hash.TIntHashSet;
 import gnu.trove.stack.TIntStack;
 import gnu.trove.stack.array.TIntArrayStack;
 import org.chocosolver.memory.IEnvironment;
@@ -16,16 +15,15 @@ import org.chocosolver.memory.IStateDoubleVector;
 import org.chocosolver.memory.IStateIntVector;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.constraints.Propagator;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.iterators.DisposableIntIterator;
 import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
 import org.chocosolver.util.objects.StoredIndexedBipartiteSetWithOffset;
-import org.jgrapht.graph.DirectedMultigraph;
+import org.chocosolver.util.objects.graphs.LayeredGraph;
 
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Set;
 
 /**
  * Created by IntelliJ IDEA.
@@ -57,101 +55,98 @@ public class StoredValuedDirectedMultiGraph {
    	// CONSTRUCTORS
    	//***********************************************************************************
 
-    public StoredValuedDirectedMultiGraph(IEnvironment environment,
-                                          DirectedMultigraph<Node, Arc> graph, int[][] layers, int[] starts,
+    /**
+     * Creates a valued graph from a layered graph built with costs, an extra layer with a sink being added.
+     *
+     * @param environment   the environment
+     * @param graph         a non empty layered graph with costs
+     * @param starts        index of the first support of each layer
+     * @param offsets       lower bound of the initial domain of each variable
+     * @param supportLength number of supports
+     */
+    public StoredValuedDirectedMultiGraph(IEnvironment environment, LayeredGraph graph, int[] starts,
                                           int[] offsets, int supportLength) {
         this.starts = starts;
         this.offsets = offsets;
-        this.layers = layers;
+        int n = graph.nbLayers;
+        int nbNodes = graph.nbNodes + 1;
+        int nbArcs = graph.nbArcs + 1;
+        this.layers = new int[n + 2][];
+        for (int l = 0; l <= n; l++) {
+            layers[l] = new int[graph.layerStart[l + 1] - graph.layerStart[l]];
+            for (int i = 0; i < layers[l].length; i++) {
+                layers[l][i] = graph.layerStart[l] + i;
+            }
+        }
+        // the single node of the last layer is linked to the sink
+        int last = graph.layerStart[n];
+        this.tinkIndex = graph.nbNodes;
+        layers[n + 1] = new int[]{tinkIndex};
         this.sourceIndex = layers[0][0];
-        this.tinkIndex = layers[layers.length - 1][0];
         this.toUpdateLeft = new TIntArrayStack();
         this.toUpdateRight = new TIntArrayStack();
 
         this.GNodes = new Nodes();
         this.GArcs = new Arcs();
-
-        TIntHashSet[] sups = new TIntHashSet[supportLength];
-        this.supports = new StoredIndexedBipartiteSetWithOffset[supportLength];
-
-        Set<Arc> arcs = graph.edgeSet();
-
-        this.inStack = new BitSet(arcs.size());//constraint.getModel().getEnvironment().makeBitSet(arcs.size());
-
-        GArcs.values = new int[arcs.size()];
-        GArcs.dests = new int[arcs.size()];
-        GArcs.origs = new int[arcs.size()];
-        GArcs.costs = new double[arcs.size()];
-
-
-        int[] inginit = new int[arcs.size()];
-        int tmp = 0;
-        for (Arc a : arcs) {
-            inginit[tmp++] = a.id;
-            GArcs.values[a.id] = a.value;
-            GArcs.dests[a.id] = a.dest.id;
-            GArcs.origs[a.id] = a.orig.id;
-            GArcs.costs[a.id] = a.cost;
-
-            if (a.orig.layer < starts.length) {
-                int idx = starts[a.orig.layer] + a.value - offsets[a.orig.layer];
-                if (sups[idx] == null)
-                    sups[idx] = new TIntHashSet();
-                sups[idx].add(a.id);
+        this.inStack = new BitSet(nbArcs);
+
+        GArcs.values = Arrays.copyOf(graph.values, nbArcs);
+        GArcs.dests = Arrays.copyOf(graph.dests, nbArcs);
+        GArcs.origs = Arrays.copyOf(graph.origs, nbArcs);
+        GArcs.costs = Arrays.copyOf(graph.costs, nbArcs);
+        GArcs.origs[graph.nbArcs] = last;
+        GArcs.dests[graph.nbArcs] = tinkIndex;
+
+        int[] inginit = new int[nbArcs];
+        int[] nbSupports = new int[supportLength];
+        for (int a = 0; a < nbArcs; a++) {
+            inginit[a] = a;
+            if (a < graph.nbArcs) {
+                nbSupports[starts[graph.layers[graph.origs[a]]] + graph.values[a] - offsets[graph.layers[graph.origs[a]]]]++;
             }
-
         }
-
         this.inGraph = new StoredIndexedBipartiteSet(environment, inginit);
-        // this.inGraph = constraint.getModel().getEnvironment().makeBitSet(arcs.size());
-//        this.inGraph.set(0,arcs.size());
-        // System.out.println(this.inGraph.size());
+        int[][] sups = new int[supportLength][];
+        for (int a = 0; a < graph.nbArcs; a++) {
+            int layer = graph.layers[graph.origs[a]];
+            int idx = starts[layer] + graph.values[a] - offsets[layer];
+            if (sups[idx] == null) {
+                sups[idx] = new int[nbSupports[idx]];
+                nbSupports[idx] = 0;
+            }
+            sups[idx][nbSupports[idx]++] = a;
+        }
+        this.supports = new StoredIndexedBipartiteSetWithOffset[supportLength];
         for (int i = 0; i < sups.length; i++) {
             if (sups[i] != null)
-                supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, sups[i].toArray());
+                supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, sups[i]);
         }
 
-        Set<Node> nodes = graph.vertexSet();
-        GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-        GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-        GNodes.layers = new int[nodes.size()];
-        GNodes.states = new int[nodes.size()];
-
-        GNodes.prevLP = environment.makeIntVector(nodes.size(), Integer.MIN_VALUE);
-        GNodes.nextLP = environment.makeIntVector(nodes.size(), Integer.MIN_VALUE);
-        GNodes.prevSP = environment.makeIntVector(nodes.size(), Integer.MIN_VALUE);
-        GNodes.nextSP = environment.makeIntVector(nodes.size(), Integer.MIN_VALUE);
-
-        GNodes.lpfs = environment.makeDoubleVector(nodes.size(), Double.NEGATIVE_INFINITY);
-        GNodes.lpft = environment.makeDoubleVector(nodes.size(), Double.NEGATIVE_INFINITY);
-        GNodes.spfs = environment.makeDoubleVector(nodes.size(), Double.POSITIVE_INFINITY);
-        GNodes.spft = environment.makeDoubleVector(nodes.size(), Double.POSITIVE_INFINITY);
-
-        for (Node n : nodes) {
-            GNodes.layers[n.id] = n.layer;
-            GNodes.states[n.id] = n.state;
-
-            int i;
-            Set<Arc> outarc = graph.outgoingEdgesOf(n);
-            if (!outarc.isEmpty()) {
-                int[] out = new int[outarc.size()];
-                i = 0;
-                for (Arc a : outarc) {
-                    out[i++] = a.id;
-                }
-                GNodes.outArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, out);
-            }
-
-            Set<Arc> inarc = graph.incomingEdgesOf(n);
-            if (!inarc.isEmpty()) {
-                int[] in = new int[inarc.size()];
-                i = 0;
-                for (Arc a : inarc) {
-                    in[i++] = a.id;
-                }
-                GNodes.inArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, in);
+        GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nbNodes];
+        GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nbNodes];
+        GNodes.layers = Arrays.copyOf(graph.layers, nbNodes);
+        GNodes.layers[tinkIndex] = n + 1;
+
+        GNodes.prevLP = environment.makeIntVector(nbNodes, Integer.MIN_VALUE);
+        GNodes.nextLP = environment.makeIntVector(nbNodes, Integer.MIN_VALUE);
+        GNodes.prevSP = environment.makeIntVector(nbNodes, Integer.MIN_VALUE);
+        GNodes.nextSP = environment.makeIntVector(nbNodes, Integer.MIN_VALUE);
+
+        GNodes.lpfs = environment.makeDoubleVector(nbNodes, Double.NEGATIVE_INFINITY);
+        GNodes.lpft = environment.makeDoubleVector(nbNodes, Double.NEGATIVE_INFINITY);
+        GNodes.spfs = environment.makeDoubleVector(nbNodes, Double.POSITIVE_INFINITY);
+        GNodes.spft = environment.makeDoubleVector(nbNodes, Double.POSITIVE_INFINITY);
+
+        for (int u = 0; u < graph.nbNodes; u++) {
+            int[] out = u == last ? new int[]{graph.nbArcs}
+                    : Arrays.copyOfRange(graph.outArcs, graph.outStart[u], graph.outStart[u + 1]);
+            GNodes.outArcs[u] = new StoredIndexedBipartiteSetWithOffset(environment, out);
+            if (u > 0) {
+                GNodes.inArcs[u] = new StoredIndexedBipartiteSetWithOffset(environment,
+                        Arrays.copyOfRange(graph.inArcs, graph.inStart[u], graph.inStart[u + 1]));
             }
         }
+        GNodes.inArcs[tinkIndex] = new StoredIndexedBipartiteSetWithOffset(environment, new int[]{graph.nbArcs});
         initPathInfo();
     }
 
@@ -394,7 +389,6 @@ public class StoredValuedDirectedMultiGraph {
    	//***********************************************************************************
 
     public class Nodes {
-        public int[] states;
         public int[] layers;
         public StoredIndexedBipartiteSetWithOffset[] outArcs;
         public StoredIndexedBipartiteSetWithOffset[] inArcs;
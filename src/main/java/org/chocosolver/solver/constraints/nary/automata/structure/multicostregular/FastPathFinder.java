@@ -71,15 +71,16 @@ public class FastPathFinder {
 
     private double getCost(int e, int resource, double[] u, boolean lagrange, boolean max) {
         double cost;
+        final int base = e * graph.nbR;
         if (!lagrange)
-            cost = graph.GArcs.originalCost[e][resource];
+            cost = graph.GArcs.originalCost[base + resource];
         else {
             double tmp = 0.0;
             for (int k = 1; k <= nbR; k++) {
-                tmp += (u[k - 1]) * graph.GArcs.originalCost[e][k];
+                tmp += (u[k - 1]) * graph.GArcs.originalCost[base + k];
             }
             if (max) tmp = -tmp;
-            cost = graph.GArcs.originalCost[e][0] + tmp;
+            cost = graph.GArcs.originalCost[base] + tmp;
         }
         graph.GArcs.temporaryCost[e] = cost;
         return cost;
@@ -321,8 +322,28 @@ public class FastPathFinder {
 
     public boolean[] computeShortestAndLongestPath(TIntStack removed, IntVar[] z,
                                                    PropMultiCostRegular propagator) throws ContradictionException {
+        return computeShortestAndLongestPath(removed, z, propagator, 1, nbLayer - 1);
+    }
+
+    /**
+     * Computes again the shortest and longest paths, for each resource, from the source to the nodes of the layers
+     * from <i>fwdFrom</i> and from the nodes of the layers up to <i>bwdTo</i> to the sink.
+     * The paths of the other nodes are supposed to be up to date, and the arcs going out of the other layers are
+     * not filtered.
+     *
+     * @param removed    stack of the arcs to remove
+     * @param z          cost variables
+     * @param propagator the propagator
+     * @param fwdFrom    first layer whose paths from the source are computed
+     * @param bwdTo      last layer whose paths to the sink are computed
+     * @return whether the lower bound and the upper bound of the first cost variable are modified
+     * @throws ContradictionException if no path remains
+     */
+    public boolean[] computeShortestAndLongestPath(TIntStack removed, IntVar[] z, PropMultiCostRegular propagator,
+                                                   int fwdFrom, int bwdTo) throws ContradictionException {
 
         int nbr = z.length;
+        int stride = graph.nbR;
 
         for (int i = 0; i < nbr; i++) {
             spfs[graph.sourceIndex][i] = 0.0;
@@ -333,7 +354,7 @@ public class FastPathFinder {
         }
         boolean update;
 
-        for (int i = 1; i <= nbLayer; i++) {
+        for (int i = Math.max(fwdFrom, 1); i <= nbLayer; i++) {
             update = false;
             int[] list = graph.layers[i]._getStructure();
             int size = graph.layers[i].size();
@@ -355,16 +376,17 @@ public class FastPathFinder {
                     int e = inlist[x];//in.next();
                     if (!graph.isInStack(e)) {
                         int orig = graph.GArcs.origs[e];//.getDestination();
-                        double[] cost = graph.GArcs.originalCost[e];
+                        double[] cost = graph.GArcs.originalCost;
+                        int base = e * stride;
 //                        double[] newCost = addArray(spfs[orig],cost);//cost[i][graph.GArcs.values[e]];
                         for (int d = 0; d < nbr; d++) {
-                            if (spfs[dest][d] > cost[d] + spfs[orig][d]) {
-                                spfs[dest][d] = cost[d] + spfs[orig][d];
+                            if (spfs[dest][d] > cost[base + d] + spfs[orig][d]) {
+                                spfs[dest][d] = cost[base + d] + spfs[orig][d];
                                 prevSP[dest][d] = e;
                                 update = true;
                             }
-                            if (lpfs[dest][d] < lpfs[orig][d] + cost[d]) {
-                                lpfs[dest][d] = lpfs[orig][d] + cost[d];
+                            if (lpfs[dest][d] < lpfs[orig][d] + cost[base + d]) {
+                                lpfs[dest][d] = lpfs[orig][d] + cost[base + d];
                                 prevLP[dest][d] = e;
                                 update = true;
                             }
@@ -377,7 +399,7 @@ public class FastPathFinder {
             //  destIter.dispose();
             if (!update) propagator.fails();
         }
-        for (int i = nbLayer - 1; i >= 0; i--) {
+        for (int i = Math.min(bwdTo, nbLayer - 1); i >= 0; i--) {
             update = false;
             //DisposableIntIterator origIter = graph.layers[i].getIterator();
             int[] list = graph.layers[i]._getStructure();
@@ -397,25 +419,27 @@ public class FastPathFinder {
                     int e = outlist[x];//out.next();
                     if (!graph.isInStack(e)) {
                         int dest = graph.GArcs.dests[e];//e.getOrigin()  ;
-                        double[] cost = graph.GArcs.originalCost[e];
+                        double[] cost = graph.GArcs.originalCost;
+                        int base = e * stride;
 
                         for (int d = 0; d < nbr; d++) {
-                            if (spft[dest][d] + cost[d] + spfs[orig][d] - z[d].getUB() >= propagator._MCR_DECIMAL_PREC) {
+                            double c = cost[base + d];
+                            if (spft[dest][d] + c + spfs[orig][d] - z[d].getUB() >= propagator._MCR_DECIMAL_PREC) {
                                 graph.getInStack().set(e);
                                 removed.push(e);
                                 break;
-                            } else if (spft[orig][d] > spft[dest][d] + cost[d]) {
-                                spft[orig][d] = spft[dest][d] + cost[d];
+                            } else if (spft[orig][d] > spft[dest][d] + c) {
+                                spft[orig][d] = spft[dest][d] + c;
                                 nextSP[orig][d] = e;
                                 update = true;
                             }
 
-                            if (lpft[dest][d] + cost[d] + lpfs[orig][d] - z[d].getLB() <= -propagator._MCR_DECIMAL_PREC) {
+                            if (lpft[dest][d] + c + lpfs[orig][d] - z[d].getLB() <= -propagator._MCR_DECIMAL_PREC) {
                                 graph.setInStack(e);
                                 removed.push(e);
                                 break;
-                            } else if (lpft[orig][d] < lpft[dest][d] + cost[d]) {
-                                lpft[orig][d] = lpft[dest][d] + cost[d];
+                            } else if (lpft[orig][d] < lpft[dest][d] + c) {
+                                lpft[orig][d] = lpft[dest][d] + c;
                                 nextLP[orig][d] = e;
                                 update = true;
                             }
@@ -11,6 +11,7 @@ package org.chocosolver.solver.constraints.nary.automata.structure.multicostregu
 import gnu.trove.set.hash.TIntHashSet;
 import gnu.trove.stack.TIntStack;
 import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.structure.Node;
@@ -50,6 +51,12 @@ public class StoredDirectedMultiGraph {
     public Nodes GNodes;
     public Arcs GArcs;
 
+    /**
+     * Stamp of the last removal of an arc going out of each layer, a layer is unchanged while its stamp is
+     */
+    private final IStateInt[] layerStamps;
+    private int removals;
+
     public void delayedBoundUpdate(TIntStack toRemove, IntVar[] z, int... dim) {
         for (int i = 0; i < offsets.length; i++) {
             DisposableIntIterator iter = this.layers[i].getIterator();
@@ -61,8 +68,9 @@ public class StoredDirectedMultiGraph {
                     int orig = this.GArcs.origs[arc];
                     int dest = this.GArcs.dests[arc];
                     for (int k : dim) {
-                        if (GNodes.spfsI[orig][k] + GArcs.originalCost[arc][k] + GNodes.spftI[dest][k] > z[k].getUB() ||
-                                GNodes.lpfsI[orig][k] + GArcs.originalCost[arc][k] + GNodes.lpftI[dest][k] < z[k].getLB()) {
+                        double acost = GArcs.originalCost[arc * nbR + k];
+                        if (GNodes.spfsI[orig][k] + acost + GNodes.spftI[dest][k] > z[k].getUB() ||
+                                GNodes.lpfsI[orig][k] + acost + GNodes.lpftI[dest][k] < z[k].getLB()) {
                             if (!isInStack(arc)) {
                                 setInStack(arc);
                                 toRemove.push(arc);
@@ -108,7 +116,10 @@ public class StoredDirectedMultiGraph {
         public int[] values;
         public int[] dests;
         public int[] origs;
-        public double[][] originalCost;
+        /**
+         * Cost of each arc for each resource, the one of arc <i>a</i> for resource <i>r</i> is at <i>a * nbR + r</i>
+         */
+        public double[] originalCost;
         public double[] temporaryCost;
     }
 
@@ -141,7 +152,7 @@ public class StoredDirectedMultiGraph {
         GArcs.values = new int[arcs.size()];
         GArcs.dests = new int[arcs.size()];
         GArcs.origs = new int[arcs.size()];
-        GArcs.originalCost = new double[arcs.size()][nbR];
+        GArcs.originalCost = new double[arcs.size() * nbR];
         GArcs.temporaryCost = new double[arcs.size()];
 
 
@@ -153,7 +164,7 @@ public class StoredDirectedMultiGraph {
             int state = a.orig.state;
             int layer = a.orig.layer;
             for (int r = 0; r < nbR; r++) {
-                GArcs.originalCost[a.id][r] = layer < layers.length - 2 ? pi.getCostByResourceAndState(layer, a.value, r, state) : 0.0;
+                GArcs.originalCost[a.id * nbR + r] = layer < layers.length - 2 ? pi.getCostByResourceAndState(layer, a.value, r, state) : 0.0;
             }
 
 
@@ -171,6 +182,11 @@ public class StoredDirectedMultiGraph {
                 supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, sups[i].toArray());
         }
 
+        this.layerStamps = new IStateInt[layers.length - 1];
+        for (int i = 0; i < layerStamps.length; i++) {
+            layerStamps[i] = environment.makeInt(0);
+        }
+
         Set<Node> nodes = graph.vertexSet();
         GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
         GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
@@ -267,6 +283,7 @@ public class StoredDirectedMultiGraph {
 
         int layer = GNodes.layers[orig];
         int value = GArcs.values[arcId];
+        layerStamps[layer].set(++removals);
 
         if (layer < starts.length) {
             StoredIndexedBipartiteSetWithOffset support = getUBport(layer, value);
@@ -364,13 +381,13 @@ public class StoredDirectedMultiGraph {
         {
             int arcId = list[i];//it.next();
             int dest = GArcs.dests[arcId];
-            double spft = GNodes.spftI[dest][dim] + GArcs.originalCost[arcId][dim];
+            double spft = GNodes.spftI[dest][dim] + GArcs.originalCost[arcId * nbR + dim];
             if (tempPval > spft) {
                 tempPval = spft;
                 tempP = arcId;
             }
 
-            double lpft = GNodes.lpftI[dest][dim] + GArcs.originalCost[arcId][dim];
+            double lpft = GNodes.lpftI[dest][dim] + GArcs.originalCost[arcId * nbR + dim];
             if (tempPval2 < lpft) {
                 tempPval2 = lpft;
                 temp2 = arcId;
@@ -412,7 +429,7 @@ public class StoredDirectedMultiGraph {
                 double spfs = GNodes.spfsI[orig][dim];//.quickGet(orig);
                 double lpfs = GNodes.lpfsI[orig][dim];
 
-                double acost = GArcs.originalCost[arcId][dim];
+                double acost = GArcs.originalCost[arcId * nbR + dim];
                 if (!isInStack(arcId) && (tempPval + spfs + acost > z[dim].getUB()
                         || tempPval2 + lpfs + acost < z[dim].getLB())) {
                     setInStack(arcId);
@@ -443,12 +460,12 @@ public class StoredDirectedMultiGraph {
         {
             int arcId = list[i];//it.next();
             int orig = GArcs.origs[arcId];
-            double spfs = GNodes.spfsI[orig][dim] + GArcs.originalCost[arcId][dim];
+            double spfs = GNodes.spfsI[orig][dim] + GArcs.originalCost[arcId * nbR + dim];
             if (tempPval > spfs) {
                 tempPval = spfs;
                 tempP = arcId;
             }
-            double lpfs = GNodes.lpfsI[orig][dim] + GArcs.originalCost[arcId][dim];
+            double lpfs = GNodes.lpfsI[orig][dim] + GArcs.originalCost[arcId * nbR + dim];
             if (tempPval2 < lpfs) {
                 tempPval2 = lpfs;
                 tempP2 = arcId;
@@ -488,7 +505,7 @@ public class StoredDirectedMultiGraph {
                     updateLeft.push(dest);
                 }
                 double spft = GNodes.spftI[dest][dim];
-                double acost = GArcs.originalCost[arcId][dim];
+                double acost = GArcs.originalCost[arcId * nbR + dim];
                 double lpft = GNodes.lpftI[dest][dim];
                 if (!isInStack(arcId) && (tempPval + spft + acost > z[dim].getUB()
                         || tempPval2 + lpft + acost < z[dim].getLB())) {
@@ -503,6 +520,17 @@ public class StoredDirectedMultiGraph {
     }
 
 
+    /**
+     * Getter to the stamp of the last removal of an arc going out of a layer.
+     * Two equal stamps of a layer denote the same set of arcs going out of it, even after a backtrack.
+     *
+     * @param layer index of the layer
+     * @return the stamp of the layer
+     */
+    public final int getLayerStamp(int layer) {
+        return layerStamps[layer].get();
+    }
+
     /**
      * Getter to the is arc in to be removed stack bitSet
      *
@@ -542,7 +570,7 @@ public class StoredDirectedMultiGraph {
             int destId = GArcs.dests[arcId];
             int cost = 0;
             for (int r : resources) {
-                cost += pf.spfs[origId][r] + GArcs.originalCost[arcId][r] + pf.spft[destId][r];
+                cost += pf.spfs[origId][r] + GArcs.originalCost[arcId * nbR + r] + pf.spft[destId][r];
             }
             if (cost < result)
                 result = cost;
@@ -571,7 +599,7 @@ public class StoredDirectedMultiGraph {
             int destId = GArcs.dests[arcId];
             int cost = 0;
             for (int r : resources) {
-                cost += pf.spfs[origId][r] + GArcs.originalCost[arcId][r] + pf.spft[destId][r];
+                cost += pf.spfs[origId][r] + GArcs.originalCost[arcId * nbR + r] + pf.spft[destId][r];
             }
             if (cost < result)
                 result = cost;
@@ -594,7 +622,7 @@ public class StoredDirectedMultiGraph {
             int destId = GArcs.dests[arcId];
             int cost = 0;
             for (int r : resources) {
-                cost += pf.spfs[origId][r] + GArcs.originalCost[arcId][r] + pf.spft[destId][r];
+                cost += pf.spfs[origId][r] + GArcs.originalCost[arcId * nbR + r] + pf.spft[destId][r];
             }
             if (cost < minmax[0])
                 minmax[0] = cost;
@@ -613,7 +641,7 @@ public class StoredDirectedMultiGraph {
         it = GNodes.outArcs[node].getIterator();
         int arcId = it.next();
         it.dispose();
-        return GArcs.originalCost[arcId];
+        return Arrays.copyOfRange(GArcs.originalCost, arcId * nbR, (arcId + 1) * nbR);
     }
 
     public int getMinPathCost(int... resources) {
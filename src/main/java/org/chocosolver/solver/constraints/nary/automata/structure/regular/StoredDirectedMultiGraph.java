@@ -8,20 +8,18 @@
  */
 package org.chocosolver.solver.constraints.nary.automata.structure.regular;
 
-import gnu.trove.set.hash.TIntHashSet;
 import gnu.trove.stack.TIntStack;
 import gnu.trove.stack.array.TIntArrayStack;
 import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.solver.constraints.Propagator;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.iterators.DisposableIntIterator;
 import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
 import org.chocosolver.util.objects.StoredIndexedBipartiteSetWithOffset;
-import org.jgrapht.graph.DirectedMultigraph;
+import org.chocosolver.util.objects.graphs.LayeredGraph;
 
-import java.util.Set;
+import java.util.Arrays;
 
 /**
  * Created by IntelliJ IDEA.
@@ -38,7 +36,6 @@ public class StoredDirectedMultiGraph {
 	private StoredIndexedBipartiteSetWithOffset[] supports;
 
 	private class Nodes {
-		private int[] states;
 		private int[] layers;
 		private StoredIndexedBipartiteSetWithOffset[] outArcs;
 		private StoredIndexedBipartiteSetWithOffset[] inArcs;
@@ -53,7 +50,16 @@ public class StoredDirectedMultiGraph {
 	private Nodes GNodes;
 	private Arcs GArcs;
 
-	public StoredDirectedMultiGraph(IEnvironment environment, DirectedMultigraph<Node, Arc> graph,
+	/**
+	 * Creates the backtrackable state of a layered graph, which can be shared
+	 *
+	 * @param environment   the environment
+	 * @param graph         an immutable layered graph
+	 * @param starts        index of the first support of each layer
+	 * @param offsets       lower bound of the initial domain of each variable
+	 * @param supportLength number of supports
+	 */
+	public StoredDirectedMultiGraph(IEnvironment environment, LayeredGraph graph,
 									int[] starts, int[] offsets, int supportLength) {
 		this.starts = starts;
 		this.offsets = offsets;
@@ -61,62 +67,41 @@ public class StoredDirectedMultiGraph {
 		this.GNodes = new Nodes();
 		this.GArcs = new Arcs();
 
-		TIntHashSet[] sups = new TIntHashSet[supportLength];
-		this.supports = new StoredIndexedBipartiteSetWithOffset[supportLength];
-
-
-		Set<Arc> arcs = graph.edgeSet();
-
-		GArcs.values = new int[arcs.size()];
-		GArcs.dests = new int[arcs.size()];
-		GArcs.origs = new int[arcs.size()];
-
-		for (Arc a : arcs) {
-			GArcs.values[a.id] = a.value;
-			GArcs.dests[a.id] = a.dest.id;
-			GArcs.origs[a.id] = a.orig.id;
-
-			int idx = starts[a.orig.layer] + a.value - offsets[a.orig.layer];
-			if (sups[idx] == null)
-				sups[idx] = new TIntHashSet();
-			sups[idx].add(a.id);
+		// the immutable parts are shared
+		GArcs.values = graph.values;
+		GArcs.dests = graph.dests;
+		GArcs.origs = graph.origs;
+		GNodes.layers = graph.layers;
 
+		int[] nbSupports = new int[supportLength];
+		for (int a = 0; a < graph.nbArcs; a++) {
+			nbSupports[getIdx(graph.layers[graph.origs[a]], graph.values[a])]++;
 		}
-
+		int[][] sups = new int[supportLength][];
+		for (int a = 0; a < graph.nbArcs; a++) {
+			int idx = getIdx(graph.layers[graph.origs[a]], graph.values[a]);
+			if (sups[idx] == null) {
+				sups[idx] = new int[nbSupports[idx]];
+				nbSupports[idx] = 0;
+			}
+			sups[idx][nbSupports[idx]++] = a;
+		}
+		this.supports = new StoredIndexedBipartiteSetWithOffset[supportLength];
 		for (int i = 0; i < sups.length; i++) {
 			if (sups[i] != null)
-				supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, sups[i].toArray());
+				supports[i] = new StoredIndexedBipartiteSetWithOffset(environment, sups[i]);
 		}
 
-		Set<Node> nodes = graph.vertexSet();
-		GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-		GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nodes.size()];
-		GNodes.layers = new int[nodes.size()];
-		GNodes.states = new int[nodes.size()];
-
-
-		for (Node n : nodes) {
-			GNodes.layers[n.id] = n.layer;
-			GNodes.states[n.id] = n.state;
-			int i;
-			Set<Arc> outarc = graph.outgoingEdgesOf(n);
-			if (!outarc.isEmpty()) {
-				int[] out = new int[outarc.size()];
-				i = 0;
-				for (Arc a : outarc) {
-					out[i++] = a.id;
-				}
-				GNodes.outArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, out);
+		GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[graph.nbNodes];
+		GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[graph.nbNodes];
+		for (int u = 0; u < graph.nbNodes; u++) {
+			if (graph.outStart[u] < graph.outStart[u + 1]) {
+				GNodes.outArcs[u] = new StoredIndexedBipartiteSetWithOffset(environment,
+						Arrays.copyOfRange(graph.outArcs, graph.outStart[u], graph.outStart[u + 1]));
 			}
-
-			Set<Arc> inarc = graph.incomingEdgesOf(n);
-			if (!inarc.isEmpty()) {
-				int[] in = new int[inarc.size()];
-				i = 0;
-				for (Arc a : inarc) {
-					in[i++] = a.id;
-				}
-				GNodes.inArcs[n.id] = new StoredIndexedBipartiteSetWithOffset(environment, in);
+			if (graph.inStart[u] < graph.inStart[u + 1]) {
+				GNodes.inArcs[u] = new StoredIndexedBipartiteSetWithOffset(environment,
+						Arrays.copyOfRange(graph.inArcs, graph.inStart[u], graph.inStart[u + 1]));
 			}
 		}
 	}
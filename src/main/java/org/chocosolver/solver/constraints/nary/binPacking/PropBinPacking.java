@@ -0,0 +1,522 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.binPacking;
+
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.IntList;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for a Bin Packing constraint, based on
+ * "A Constraint for Bin Packing", P. Shaw, CP04.
+ * <p>
+ * Each modified bin is filtered by knapsack reasoning: the sums reachable by the items which may be packed into it
+ * are computed by dynamic programming, so that its load is restricted to these sums, and an item is removed from
+ * the bin (resp. packed into it) when no reachable load includes (resp. excludes) it.
+ * The dynamic program runs on bitsets, in O(m.C/64) for m candidate items and a bin of capacity C, and each item
+ * is then checked in O(C) thanks to the next reachable sum of each load, so a bin is filtered in O(m.C).
+ * It is skipped for the bins where it would need too much memory.
+ * <p>
+ * Then, the number of bins is checked with the L2 lower bound of Martello and Toth, on the problem reduced to the
+ * items not packed yet and, for each bin, a virtual item filling its packed and unavailable space.
+ * <p>
+ * Item assignments are processed incrementally: the packed and possible loads of each bin are backtrackable
+ * and only the bins whose items or load changed are filtered again.
+ * Should be used together with PropItemToLoad and PropLoadToItem, which do the simple load reasoning.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropBinPacking extends Propagator<IntVar> {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	/**
+	 * Maximum number of 64-bit words of the dynamic program of a bin
+	 */
+	private static final int MAX_DP_WORDS = 1 << 16;
+
+	private final int nbItems, nbAvailableBins, offset;
+	private final int[] itemSize;
+	private final IntVar[] binOfItem, binLoad;
+
+	// backtrackable sums of the sizes of the items packed into each bin, and of the ones which may be
+	private final IStateInt[] packed, possible;
+
+	// items already counted in packed, an event may be received after the item is packed by this propagator
+	private final IStateBitSet counted;
+
+	// structure allowing iteration over removed values since last call
+	private final IIntDeltaMonitor[] monitors;
+
+	// bins to filter
+	private final IntList binsToProcess = new IntList();
+	private final boolean[] toProcess;
+
+	// set to true when the L2 bound should be computed again
+	private boolean checkBound;
+
+	// candidate items of the bin being filtered
+	private final int[] candidates;
+
+	// reachable sums: items k..m-1 of the bin being filtered in row k, items before k in forward
+	private long[] rows = new long[0];
+	private long[] forward = new long[0];
+
+	// next[c]: smallest sum at least c of the row of the items after the one being checked, Integer.MAX_VALUE if none
+	private int[] next = new int[0];
+
+	// sizes of the reduced problem, for the L2 bound
+	private final int[] sizes;
+	private final long[] prefix;
+
+	// values removed from the domain of an item since last call
+	private final IntList removed = new IntList();
+
+	//***********************************************************************************
+	// CONSTRUCTOR
+	//***********************************************************************************
+
+	/**
+	 * Incremental propagator for a Bin Packing constraint, based on knapsack reasoning and on the L2 lower bound
+	 *
+	 * Should be used together with PropItemToLoad and PropLoadToItem
+	 *
+	 * @param binOfItem bin of every item (possibly with offset)
+	 * @param itemSize size of every item
+	 * @param binLoad total load of every bin
+	 * @param offset index offset: binOfItem[i] = k means item i is in bin k-offset
+	 */
+	public PropBinPacking(IntVar[] binOfItem, int[] itemSize, IntVar[] binLoad, int offset) {
+		super(ArrayUtils.append(binOfItem, binLoad), PropagatorPriority.QUADRATIC, true);
+		this.nbItems = binOfItem.length;
+		this.nbAvailableBins = binLoad.length;
+		this.itemSize = itemSize;
+		this.binLoad = binLoad;
+		this.binOfItem = binOfItem;
+		this.offset = offset;
+		monitors = new IIntDeltaMonitor[nbItems];
+		for (int i = 0; i < nbItems; i++) {
+			monitors[i] = binOfItem[i].monitorDelta(this);
+		}
+		packed = new IStateInt[nbAvailableBins];
+		possible = new IStateInt[nbAvailableBins];
+		for (int b = 0; b < nbAvailableBins; b++) {
+			packed[b] = model.getEnvironment().makeInt(0);
+			possible[b] = model.getEnvironment().makeInt(0);
+		}
+		counted = model.getEnvironment().makeBitSet(nbItems);
+		toProcess = new boolean[nbAvailableBins];
+		candidates = new int[nbItems];
+		sizes = new int[nbItems + nbAvailableBins];
+		prefix = new long[nbItems + nbAvailableBins + 1];
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public void propagate(int evtmask) throws ContradictionException {
+		if (PropagatorEventType.isFullPropagation(evtmask)) {
+			for (int b = 0; b < nbAvailableBins; b++) {
+				packed[b].set(0);
+				possible[b].set(0);
+				markBin(b);
+			}
+			counted.clear();
+			for (int i = 0; i < nbItems; i++) {
+				IntVar vr = binOfItem[i];
+				int ub = vr.getUB();
+				for (int val = vr.getLB(); val <= ub; val = vr.nextValue(val)) {
+					if (val >= offset && val < offset + nbAvailableBins) {
+						possible[val - offset].add(itemSize[i]);
+					}
+				}
+				countPacked(i);
+				monitors[i].unfreeze();
+			}
+			checkBound = true;
+		}
+		while (!binsToProcess.isEmpty()) {
+			int b = binsToProcess.getQuick(binsToProcess.size() - 1);
+			binsToProcess.removeAt(binsToProcess.size() - 1);
+			toProcess[b] = false;
+			processBin(b);
+		}
+		if (checkBound) {
+			checkBound = false;
+			checkL2();
+		}
+	}
+
+	@Override
+	public void propagate(int idx, int mask) throws ContradictionException {
+		if (idx < nbItems) {
+			monitors[idx].freeze();
+			int size = monitors[idx].collectRemVals(removed);
+			monitors[idx].unfreeze();
+			for (int k = 0; k < size; k++) {
+				int bin = removed.getQuick(k) - offset;
+				if (bin >= 0 && bin < nbAvailableBins) {
+					possible[bin].add(-itemSize[idx]);
+					markBin(bin);
+				}
+			}
+			countPacked(idx);
+		} else {
+			markBin(idx - nbItems);
+			checkBound = true;
+		}
+		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+	}
+
+	/**
+	 * Adds item <i>i</i> to the load packed into its bin, if it is instantiated and was not counted yet
+	 */
+	private void countPacked(int i) {
+		if (binOfItem[i].isInstantiated() && !counted.get(i)) {
+			counted.set(i);
+			int bin = binOfItem[i].getValue() - offset;
+			if (bin >= 0 && bin < nbAvailableBins) {
+				packed[bin].add(itemSize[i]);
+				markBin(bin);
+			}
+			checkBound = true;
+		}
+	}
+
+	private void markBin(int b) {
+		if (!toProcess[b]) {
+			toProcess[b] = true;
+			binsToProcess.add(b);
+		}
+	}
+
+	/**
+	 * Removes bin <i>b</i> from the domain of item <i>i</i>
+	 */
+	private void removeBin(int i, int b) throws ContradictionException {
+		if (binOfItem[i].removeValue(b + offset, this)) {
+			possible[b].add(-itemSize[i]);
+			markBin(b);
+			// no event is received for its own modifications
+			countPacked(i);
+		}
+	}
+
+	/**
+	 * Packs item <i>i</i> into bin <i>b</i>
+	 */
+	private void packInto(int i, int b) throws ContradictionException {
+		IntVar vr = binOfItem[i];
+		int ub = vr.getUB();
+		for (int val = vr.getLB(); val <= ub; val = vr.nextValue(val)) {
+			if (val != b + offset && val >= offset && val < offset + nbAvailableBins) {
+				possible[val - offset].add(-itemSize[i]);
+				markBin(val - offset);
+			}
+		}
+		vr.instantiateTo(b + offset, this);
+		countPacked(i);
+	}
+
+	/**
+	 * Filters the load of bin <i>b</i> and the items which may be packed into it
+	 */
+	private void processBin(int b) throws ContradictionException {
+		int p = packed[b].get();
+		int m;
+		int lb, ub;
+		boolean again;
+		do {
+			binLoad[b].updateBounds(p, possible[b].get(), this);
+			lb = binLoad[b].getLB() - p;
+			ub = binLoad[b].getUB() - p;
+			again = false;
+			m = 0;
+			for (int i = 0; i < nbItems; i++) {
+				if (!binOfItem[i].isInstantiated() && binOfItem[i].contains(b + offset)) {
+					if (itemSize[i] > ub) {
+						removeBin(i, b);
+						again = true;
+					} else {
+						candidates[m++] = i;
+					}
+				}
+			}
+		} while (again);
+		int words = (ub >> 6) + 1;
+		if (m == 0 || (long) words * (m + 2) > MAX_DP_WORDS) {
+			return;
+		}
+		// row k: sums reachable by candidates k..m-1
+		if (rows.length < words * (m + 1)) {
+			rows = new long[words * (m + 1)];
+		}
+		if (forward.length < words) {
+			forward = new long[words];
+		}
+		if (next.length < ub + 2) {
+			next = new int[ub + 2];
+		}
+		Arrays.fill(rows, m * words, (m + 1) * words, 0L);
+		rows[m * words] = 1L;
+		for (int k = m - 1; k >= 0; k--) {
+			shiftOr(rows, (k + 1) * words, rows, k * words, words, itemSize[candidates[k]], ub);
+		}
+		// the load is a reachable sum
+		int min = nextSetBit(rows, 0, words, Math.max(lb, 0), ub);
+		if (min < 0) {
+			fails();
+		}
+		int max = prevSetBit(rows, 0, ub);
+		binLoad[b].updateBounds(p + min, p + max, this);
+		lb = min;
+		ub = max;
+		// items which may not be packed, or must be
+		Arrays.fill(forward, 0, words, 0L);
+		forward[0] = 1L;
+		for (int k = 0; k < m; k++) {
+			int i = candidates[k];
+			int w = itemSize[i];
+			nextSums(rows, (k + 1) * words, next, ub);
+			if (!exists(forward, next, words, lb - w, ub - w)) {
+				removeBin(i, b);
+			} else {
+				if (!exists(forward, next, words, lb, ub)) {
+					packInto(i, b);
+				}
+				// sums with and without the item, which is a safe superset once it is packed
+				shiftOr(forward, 0, forward, 0, words, w, ub);
+			}
+		}
+	}
+
+	/**
+	 * Stores in <i>next[c]</i>, for c in [0, max], the smallest bit set in [c, max] of the bitset starting at
+	 * <i>from</i>, Integer.MAX_VALUE if none
+	 */
+	private static void nextSums(long[] bits, int from, int[] next, int max) {
+		int c = Integer.MAX_VALUE;
+		next[max + 1] = c;
+		for (int k = max; k >= 0; k--) {
+			if ((bits[from + (k >>> 6)] & (1L << (k & 63))) != 0) {
+				c = k;
+			}
+			next[k] = c;
+		}
+	}
+
+	/**
+	 * @return <tt>true</tt> if a sum <i>a</i> of <i>forward</i> and a sum <i>c</i> of the row whose next sums are
+	 * <i>next</i> are such that <i>lo &le; a + c &le; hi</i>
+	 */
+	private static boolean exists(long[] forward, int[] next, int words, int lo, int hi) {
+		for (int k = 0; k < words && (k << 6) <= hi; k++) {
+			long word = forward[k];
+			while (word != 0) {
+				int a = (k << 6) + Long.numberOfTrailingZeros(word);
+				if (a > hi) {
+					return false;
+				}
+				int c = next[Math.max(lo - a, 0)];
+				if (c <= hi - a) {
+					return true;
+				}
+				word &= word - 1;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * dst = src | (src << shift), bits greater than <i>max</i> being ignored
+	 */
+	private static void shiftOr(long[] src, int sfrom, long[] dst, int dfrom, int words, int shift, int max) {
+		int ws = shift >>> 6, bs = shift & 63;
+		// from the last word, so that src and dst may be the same
+		for (int k = words - 1; k >= 0; k--) {
+			long v = src[sfrom + k];
+			int j = k - ws;
+			if (j >= 0) {
+				long s = src[sfrom + j] << bs;
+				if (bs != 0 && j > 0) {
+					s |= src[sfrom + j - 1] >>> (64 - bs);
+				}
+				v |= s;
+			}
+			dst[dfrom + k] = v;
+		}
+		int r = max & 63;
+		if (r != 63) {
+			dst[dfrom + (max >>> 6)] &= (1L << (r + 1)) - 1;
+		}
+	}
+
+	/**
+	 * @return the smallest bit set in [lo, hi] of the bitset starting at <i>from</i>, -1 if none
+	 */
+	private static int nextSetBit(long[] bits, int from, int words, int lo, int hi) {
+		if (lo > hi) {
+			return -1;
+		}
+		int w = lo >>> 6;
+		if (w >= words) {
+			return -1;
+		}
+		long word = bits[from + w] & (-1L << (lo & 63));
+		while (true) {
+			if (word != 0) {
+				int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+				return bit <= hi ? bit : -1;
+			}
+			if (++w >= words || (w << 6) > hi) {
+				return -1;
+			}
+			word = bits[from + w];
+		}
+	}
+
+	/**
+	 * @return the largest bit set in [0, hi] of the bitset starting at <i>from</i>, -1 if none
+	 */
+	private static int prevSetBit(long[] bits, int from, int hi) {
+		int w = hi >>> 6;
+		long word = bits[from + w] & (-1L >>> (63 - (hi & 63)));
+		while (true) {
+			if (word != 0) {
+				return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+			}
+			if (--w < 0) {
+				return -1;
+			}
+			word = bits[from + w];
+		}
+	}
+
+	/**
+	 * Fails if the L2 lower bound of Martello and Toth of the reduced problem exceeds the number of bins
+	 */
+	private void checkL2() throws ContradictionException {
+		int capa = 0;
+		for (int b = 0; b < nbAvailableBins; b++) {
+			capa = Math.max(capa, binLoad[b].getUB());
+		}
+		if (capa <= 0) {
+			return;
+		}
+		int n = 0;
+		for (int i = 0; i < nbItems; i++) {
+			if (!binOfItem[i].isInstantiated() && itemSize[i] > 0) {
+				if (itemSize[i] > capa) {
+					fails();
+				}
+				sizes[n++] = itemSize[i];
+			}
+		}
+		if (n == 0) {
+			return;
+		}
+		for (int b = 0; b < nbAvailableBins; b++) {
+			// fills the space which is packed or not available
+			int v = capa - binLoad[b].getUB() + packed[b].get();
+			if (v > 0) {
+				sizes[n++] = Math.min(v, capa);
+			}
+		}
+		Arrays.sort(sizes, 0, n);
+		for (int k = 0; k < n; k++) {
+			prefix[k + 1] = prefix[k] + sizes[k];
+		}
+		long bound = l2(0, capa, n);
+		for (int k = 0; k < n && 2L * sizes[k] <= capa; k++) {
+			if (k == 0 || sizes[k] != sizes[k - 1]) {
+				bound = Math.max(bound, l2(sizes[k], capa, n));
+			}
+		}
+		if (bound > nbAvailableBins) {
+			fails();
+		}
+	}
+
+	/**
+	 * @return the bound L(K) of Martello and Toth, for K = <i>kk</i>
+	 */
+	private long l2(int kk, int capa, int n) {
+		int half = upperBound(capa / 2, n); // first size > C/2
+		int big = upperBound(capa - kk, n); // first size > C-K
+		int small = lowerBound(kk, n); // first size >= K
+		long n1 = n - big;
+		long n2 = big - half;
+		long s2 = prefix[big] - prefix[half];
+		long s3 = prefix[half] - prefix[small];
+		long rest = s3 - (n2 * capa - s2);
+		return n1 + n2 + (rest > 0 ? (rest + capa - 1) / capa : 0);
+	}
+
+	private int upperBound(int v, int n) {
+		int lo = 0, hi = n;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sizes[mid] <= v) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private int lowerBound(int v, int n) {
+		int lo = 0, hi = n;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (sizes[mid] < v) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	@Override
+	public ESat isEntailed() {
+		if (isCompletelyInstantiated()) {
+			int[] loads = new int[nbAvailableBins];
+			for (int i = 0; i < nbItems; i++) {
+				int b = binOfItem[i].getValue() - offset;
+				if (b < 0 || b >= nbAvailableBins) {
+					return ESat.FALSE;
+				}
+				loads[b] += itemSize[i];
+			}
+			for (int b = 0; b < nbAvailableBins; b++) {
+				if (loads[b] != binLoad[b].getValue()) {
+					return ESat.FALSE;
+				}
+			}
+			return ESat.TRUE;
+		}
+		return ESat.UNDEFINED;
+	}
+}
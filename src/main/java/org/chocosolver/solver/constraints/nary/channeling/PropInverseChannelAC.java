@@ -18,7 +18,7 @@ import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.objects.IntList;
 import org.chocosolver.util.tools.ArrayUtils;
 
 import java.util.Arrays;
@@ -36,7 +36,7 @@ public class PropInverseChannelAC extends Propagator<IntVar> {
     private int minX, minY;
     private int n;
     private IntVar[] X, Y;
-    private RemProc rem_proc;
+    private IntList removed;
     private IIntDeltaMonitor[] idms;
     private ICause cause;
 
@@ -52,7 +52,7 @@ public class PropInverseChannelAC extends Propagator<IntVar> {
         n = Y.length;
         this.minX = minX;
         this.minY = minY;
-        rem_proc = new RemProc();
+        removed = new IntList();
         this.idms = new IIntDeltaMonitor[this.vars.length];
         for (int i = 0; i < vars.length; i++) {
             idms[i] = this.vars[i].monitorDelta(this);
@@ -78,8 +78,18 @@ public class PropInverseChannelAC extends Propagator<IntVar> {
     @Override
     public void propagate(int varIdx, int mask) throws ContradictionException {
         idms[varIdx].freeze();
-        idms[varIdx].forEachRemVal(rem_proc.set(varIdx));
+        int size = idms[varIdx].collectRemVals(removed);
         idms[varIdx].unfreeze();
+        // X[i] = j+Ox <=> Y[j] = i+Oy
+        if (varIdx < n) {
+            for (int k = 0; k < size; k++) {
+                Y[removed.getQuick(k) - minX].removeValue(varIdx + minY, cause);
+            }
+        } else {
+            for (int k = 0; k < size; k++) {
+                X[removed.getQuick(k) - minY].removeValue(varIdx - n + minX, cause);
+            }
+        }
     }
 
     private void enumeratedFilteringOfX(int var) throws ContradictionException {
@@ -104,25 +114,6 @@ public class PropInverseChannelAC extends Propagator<IntVar> {
         }
     }
 
-    private class RemProc implements UnaryIntProcedure<Integer> {
-        private int var;
-
-        @Override
-        public UnaryIntProcedure set(Integer idxVar) {
-            this.var = idxVar;
-            return this;
-        }
-
-        @Override
-        public void execute(int val) throws ContradictionException {
-            if (var < n) {
-                Y[val - minX].removeValue(var + minY, cause);
-            } else {
-                X[val - minY].removeValue(var - n + minX, cause);
-            }
-        }
-    }
-
     @Override
     public ESat isEntailed() {
         boolean allInst = true;
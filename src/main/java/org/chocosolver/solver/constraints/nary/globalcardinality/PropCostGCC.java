@@ -0,0 +1,562 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.globalcardinality;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for the cost-based Global Cardinality Constraint, based on
+ * "Cost-Based Arc Consistency for Global Cardinality Constraints", J-C. Régin, Constraints 2002.
+ * <p>
+ * Each variable sends a unit of flow to a value of its domain, which forwards it to a sink,
+ * between occurrences.lb and occurrences.ub units being received by each value (or at most one, for an AllDifferent).
+ * A minimum cost flow gives a lower bound of the cost, and a value is removed from a variable when the cheapest flow
+ * assigning it, which is the minimum cost flow plus the reduced cost of the shortest cycle through its arc in the
+ * residual graph, exceeds the upper bound of the cost.
+ * Values which belong to no feasible flow are removed as well.
+ * <p>
+ * The flow and the node potentials are kept between calls: units on removed arcs are withdrawn, negative cycles are
+ * cancelled if the potentials are not valid anymore, and the flow is completed by successive shortest paths.
+ * Shortest paths are computed by Dijkstra's algorithm with a binary heap, so the filtering runs in O(n.E.log(V)),
+ * where V is the number of variables and values and E the number of arcs.
+ * The filtering is skipped when the residual graph is the one left by the last filtering and the slack of the cost,
+ * its upper bound minus the minimum cost, has not decreased.
+ * The upper bound of the cost is only filtered with the largest cost of each variable.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropCostGCC extends Propagator<IntVar> {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private static final long INF = Long.MAX_VALUE / 4;
+
+	private final int n, m, sink, nbNodes;
+	private final int[] values;
+	private final TIntIntHashMap map;
+	private final int[][] costs;
+	private final IntVar[] occurrences;
+	private final IntVar cost;
+
+	// occurrence bounds of each value
+	private final int[] low, up;
+
+	// the flow: value of each variable (-1 if none), units received by each value, and sent to the sink
+	private final int[] mate, count, toSink;
+	// node potentials, the reduced cost of a residual arc (u,v) is c(u,v) + potential[u] - potential[v] >= 0
+	private final long[] potential;
+
+	// residual graph: variables are nodes [0,n), values [n,n+m) and the sink is n+m
+	private int nbArcs;
+	private final int[] tails, heads;
+	private final long[] arcCosts;
+	private final int[] outStart, outArcs, inStart, inArcs;
+
+	// residual graph of the last filtering, -1 arcs if none, and the slack it was filtered with
+	private int lastNbArcs = -1;
+	private final int[] lastTails, lastHeads;
+	private long lastSlack;
+
+	// shortest paths, the unsettled reached nodes being kept in a binary heap ordered by distance
+	private final long[] dist;
+	private final int[] predArc, path;
+	private final boolean[] settled;
+	private final int[] heap, heapPos;
+	private int heapSize;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Cost-based GCC propagator: vars[i] takes a value of <i>values</i>, values[j] is taken by occurrences[j] variables
+	 * and the cost of assigning values[j] to vars[i] is costs[i][j], the sum of which is <i>cost</i>.
+	 * A row of <i>costs</i> may be shorter than <i>values</i>, the missing values being forbidden.
+	 *
+	 * @param vars        collection of variables
+	 * @param values      collection of constrained values
+	 * @param occurrences collection of cardinality variables, or <tt>null</tt> if each value is taken at most once
+	 * @param costs       cost of each pair of variable and value
+	 * @param cost        total cost
+	 */
+	public PropCostGCC(IntVar[] vars, int[] values, IntVar[] occurrences, int[][] costs, IntVar cost) {
+		super(occurrences == null ?
+						ArrayUtils.append(vars, new IntVar[]{cost}) :
+						ArrayUtils.append(vars, occurrences, new IntVar[]{cost}),
+				PropagatorPriority.CUBIC, false);
+		this.n = vars.length;
+		this.m = values.length;
+		this.sink = n + m;
+		this.nbNodes = n + m + 1;
+		this.values = values;
+		this.costs = costs;
+		this.occurrences = occurrences == null ? null : Arrays.copyOfRange(this.vars, n, n + m);
+		this.cost = this.vars[this.vars.length - 1];
+		this.map = new TIntIntHashMap();
+		for (int j = 0; j < m; j++) {
+			map.put(values[j], j);
+		}
+		low = new int[m];
+		up = new int[m];
+		mate = new int[n];
+		Arrays.fill(mate, -1);
+		count = new int[m];
+		toSink = new int[m];
+		potential = new long[nbNodes];
+		int maxArcs = n + 2 * m;
+		for (int i = 0; i < n; i++) {
+			maxArcs += Math.min(vars[i].getDomainSize(), m);
+		}
+		tails = new int[maxArcs];
+		heads = new int[maxArcs];
+		arcCosts = new long[maxArcs];
+		outStart = new int[nbNodes + 1];
+		outArcs = new int[maxArcs];
+		inStart = new int[nbNodes + 1];
+		inArcs = new int[maxArcs];
+		lastTails = new int[maxArcs];
+		lastHeads = new int[maxArcs];
+		dist = new long[nbNodes];
+		predArc = new int[nbNodes];
+		path = new int[nbNodes];
+		settled = new boolean[nbNodes];
+		heap = new int[nbNodes];
+		heapPos = new int[nbNodes];
+		Arrays.fill(heapPos, -1);
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public void propagate(int evtmask) throws ContradictionException {
+		long maxCost = 0;
+		for (int i = 0; i < n; i++) {
+			IntVar x = vars[i];
+			int ub = x.getUB();
+			long max = Long.MIN_VALUE;
+			for (int v = x.getLB(); v <= ub; v = x.nextValue(v)) {
+				if (index(i, v) < 0) {
+					x.removeValue(v, this);
+				} else {
+					max = Math.max(max, costs[i][map.get(v)]);
+				}
+			}
+			maxCost += max;
+			// units on removed arcs are withdrawn
+			if (mate[i] >= 0 && !x.contains(values[mate[i]])) {
+				count[mate[i]]--;
+				mate[i] = -1;
+			}
+		}
+		int sumLow = 0;
+		for (int j = 0; j < m; j++) {
+			low[j] = occurrences == null ? 0 : Math.max(occurrences[j].getLB(), 0);
+			up[j] = occurrences == null ? 1 : Math.min(occurrences[j].getUB(), n);
+			if (up[j] < low[j]) {
+				fails();
+			}
+			toSink[j] = Math.max(0, Math.min(toSink[j], up[j] - low[j]));
+			sumLow += low[j];
+		}
+		if (sumLow > n) {
+			fails();
+		}
+		buildGraph();
+		if (!validPotentials()) {
+			cancelNegativeCycles();
+		}
+		while (augment()) {
+			buildGraph();
+		}
+		long minCost = 0;
+		for (int i = 0; i < n; i++) {
+			minCost += costs[i][mate[i]];
+		}
+		cost.updateBounds((int) Math.max(minCost, Integer.MIN_VALUE), (int) Math.min(maxCost, Integer.MAX_VALUE), this);
+		long slack = cost.getUB() - minCost;
+		if (!sameGraph() || slack < lastSlack) {
+			if (filter(slack)) {
+				buildGraph();
+			}
+			// kept values have a flow of cost at most the slack, so filtering is idempotent
+			lastNbArcs = nbArcs;
+			System.arraycopy(tails, 0, lastTails, 0, nbArcs);
+			System.arraycopy(heads, 0, lastHeads, 0, nbArcs);
+			lastSlack = slack;
+		}
+	}
+
+	/**
+	 * @return <tt>true</tt> if the residual graph is the one of the last filtering,
+	 * in which case the shortest paths are the same too
+	 */
+	private boolean sameGraph() {
+		if (nbArcs != lastNbArcs) {
+			return false;
+		}
+		for (int a = 0; a < nbArcs; a++) {
+			// the cost of an arc depends on its extremities only
+			if (tails[a] != lastTails[a] || heads[a] != lastHeads[a]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the index of value <i>v</i> for variable <i>i</i>, -1 if it is forbidden
+	 */
+	private int index(int i, int v) {
+		if (!map.containsKey(v)) {
+			return -1;
+		}
+		int j = map.get(v);
+		return j < costs[i].length ? j : -1;
+	}
+
+	/**
+	 * Builds the residual graph of the current flow
+	 */
+	private void buildGraph() {
+		nbArcs = 0;
+		for (int i = 0; i < n; i++) {
+			IntVar x = vars[i];
+			int ub = x.getUB();
+			for (int v = x.getLB(); v <= ub; v = x.nextValue(v)) {
+				int j = index(i, v);
+				if (j >= 0) {
+					if (j == mate[i]) {
+						addArc(n + j, i, -costs[i][j]);
+					} else {
+						addArc(i, n + j, costs[i][j]);
+					}
+				}
+			}
+		}
+		for (int j = 0; j < m; j++) {
+			if (toSink[j] < up[j] - low[j]) {
+				addArc(n + j, sink, 0);
+			}
+			if (toSink[j] > 0) {
+				addArc(sink, n + j, 0);
+			}
+		}
+		index(tails, outStart, outArcs);
+		index(heads, inStart, inArcs);
+	}
+
+	private void addArc(int tail, int head, long c) {
+		tails[nbArcs] = tail;
+		heads[nbArcs] = head;
+		arcCosts[nbArcs] = c;
+		nbArcs++;
+	}
+
+	/**
+	 * Sorts the arcs by <i>node</i>, arcs of node <i>u</i> being arcs[start[u]..start[u+1])
+	 */
+	private void index(int[] node, int[] start, int[] arcs) {
+		Arrays.fill(start, 0);
+		for (int a = 0; a < nbArcs; a++) {
+			start[node[a] + 1]++;
+		}
+		for (int u = 0; u < nbNodes; u++) {
+			start[u + 1] += start[u];
+		}
+		for (int a = 0; a < nbArcs; a++) {
+			arcs[start[node[a]]++] = a;
+		}
+		for (int u = nbNodes; u > 0; u--) {
+			start[u] = start[u - 1];
+		}
+		start[0] = 0;
+	}
+
+	private long reducedCost(int a) {
+		return arcCosts[a] + potential[tails[a]] - potential[heads[a]];
+	}
+
+	private boolean validPotentials() {
+		for (int a = 0; a < nbArcs; a++) {
+			if (reducedCost(a) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the excess of node <i>u</i>, negative for a deficit
+	 */
+	private int excess(int u) {
+		if (u < n) {
+			return mate[u] < 0 ? 1 : 0;
+		} else if (u < sink) {
+			int j = u - n;
+			return count[j] - toSink[j] - low[j];
+		} else {
+			int e = -n;
+			for (int j = 0; j < m; j++) {
+				e += toSink[j] + low[j];
+			}
+			return e;
+		}
+	}
+
+	/**
+	 * Pushes a unit of flow on the arcs <i>path[0..size)</i>
+	 */
+	private void push(int size) {
+		// units are withdrawn first, a variable being left and entered on a cycle
+		for (int k = 0; k < size; k++) {
+			int u = tails[path[k]], v = heads[path[k]];
+			if (v < n) {
+				count[mate[v]]--;
+				mate[v] = -1;
+			} else if (u == sink) {
+				toSink[v - n]--;
+			}
+		}
+		for (int k = 0; k < size; k++) {
+			int u = tails[path[k]], v = heads[path[k]];
+			if (u < n) {
+				mate[u] = v - n;
+				count[v - n]++;
+			} else if (v == sink) {
+				toSink[u - n]++;
+			}
+		}
+	}
+
+	/**
+	 * Makes the flow of minimum cost for its value, with Bellman-Ford, and computes valid potentials
+	 */
+	private void cancelNegativeCycles() {
+		while (true) {
+			Arrays.fill(potential, 0);
+			Arrays.fill(predArc, -1);
+			int relaxed = -1;
+			for (int round = 0; round < nbNodes; round++) {
+				relaxed = -1;
+				for (int a = 0; a < nbArcs; a++) {
+					if (potential[tails[a]] + arcCosts[a] < potential[heads[a]]) {
+						potential[heads[a]] = potential[tails[a]] + arcCosts[a];
+						predArc[heads[a]] = a;
+						relaxed = heads[a];
+					}
+				}
+				if (relaxed < 0) {
+					// the potentials are shortest distances from a virtual root
+					return;
+				}
+			}
+			// walks back into the cycle, then cancels it
+			int u = relaxed;
+			for (int k = 0; k < nbNodes; k++) {
+				u = tails[predArc[u]];
+			}
+			int size = 0, v = u;
+			do {
+				path[size++] = predArc[v];
+				v = tails[predArc[v]];
+			} while (v != u);
+			push(size);
+			buildGraph();
+		}
+	}
+
+	/**
+	 * Sends a unit of flow from an excess node to the nearest deficit node
+	 *
+	 * @return <tt>false</tt> if the flow is complete
+	 * @throws ContradictionException if no deficit node can be reached
+	 */
+	private boolean augment() throws ContradictionException {
+		Arrays.fill(dist, INF);
+		Arrays.fill(predArc, -1);
+		Arrays.fill(settled, false);
+		clearHeap();
+		int e = excess(sink);
+		for (int u = 0; u < nbNodes; u++) {
+			if ((u == sink ? e : excess(u)) > 0) {
+				dist[u] = 0;
+				update(u);
+			}
+		}
+		if (heapSize == 0) {
+			return false;
+		}
+		int target = -1;
+		while (target < 0) {
+			if (heapSize == 0) {
+				fails();
+			}
+			int u = poll();
+			settled[u] = true;
+			if ((u == sink ? e : excess(u)) < 0) {
+				target = u;
+			} else {
+				for (int k = outStart[u]; k < outStart[u + 1]; k++) {
+					int a = outArcs[k];
+					int v = heads[a];
+					long d = dist[u] + reducedCost(a);
+					if (!settled[v] && d < dist[v]) {
+						dist[v] = d;
+						predArc[v] = a;
+						update(v);
+					}
+				}
+			}
+		}
+		long dt = dist[target];
+		for (int u = 0; u < nbNodes; u++) {
+			potential[u] += Math.min(dist[u], dt);
+		}
+		int size = 0;
+		for (int v = target; predArc[v] >= 0; v = tails[predArc[v]]) {
+			path[size++] = predArc[v];
+		}
+		push(size);
+		return true;
+	}
+
+	private void clearHeap() {
+		for (int k = 0; k < heapSize; k++) {
+			heapPos[heap[k]] = -1;
+		}
+		heapSize = 0;
+	}
+
+	/**
+	 * Adds node <i>u</i> to the heap, or moves it up if its distance has decreased
+	 */
+	private void update(int u) {
+		int k = heapPos[u];
+		if (k < 0) {
+			k = heapSize++;
+		}
+		while (k > 0 && dist[heap[(k - 1) >> 1]] > dist[u]) {
+			setHeap(k, heap[(k - 1) >> 1]);
+			k = (k - 1) >> 1;
+		}
+		setHeap(k, u);
+	}
+
+	/**
+	 * @return the node of smallest distance, removed from the heap
+	 */
+	private int poll() {
+		int best = heap[0];
+		heapPos[best] = -1;
+		int u = heap[--heapSize];
+		if (heapSize > 0) {
+			int k = 0, child;
+			while ((child = (k << 1) + 1) < heapSize) {
+				if (child + 1 < heapSize && dist[heap[child + 1]] < dist[heap[child]]) {
+					child++;
+				}
+				if (dist[heap[child]] >= dist[u]) {
+					break;
+				}
+				setHeap(k, heap[child]);
+				k = child;
+			}
+			setHeap(k, u);
+		}
+		return best;
+	}
+
+	private void setHeap(int k, int u) {
+		heap[k] = u;
+		heapPos[u] = k;
+	}
+
+	/**
+	 * Removes the values of the variables whose cheapest flow exceeds the minimum one by more than <i>slack</i>
+	 *
+	 * @return <tt>true</tt> if a value has been removed
+	 */
+	private boolean filter(long slack) throws ContradictionException {
+		boolean removed = false;
+		for (int i = 0; i < n; i++) {
+			IntVar x = vars[i];
+			if (x.isInstantiated()) {
+				continue;
+			}
+			// distances to i in the residual graph, up to slack
+			Arrays.fill(dist, INF);
+			Arrays.fill(settled, false);
+			clearHeap();
+			dist[i] = 0;
+			update(i);
+			while (heapSize > 0 && dist[heap[0]] <= slack) {
+				int u = poll();
+				settled[u] = true;
+				for (int k = inStart[u]; k < inStart[u + 1]; k++) {
+					int a = inArcs[k];
+					int w = tails[a];
+					long d = dist[u] + reducedCost(a);
+					if (!settled[w] && d < dist[w]) {
+						dist[w] = d;
+						update(w);
+					}
+				}
+			}
+			int ub = x.getUB();
+			for (int v = x.getLB(); v <= ub; v = x.nextValue(v)) {
+				int j = index(i, v);
+				// forbidden values are left in bounded domains
+				if (j >= 0 && j != mate[i]) {
+					int vj = n + j;
+					long rc = costs[i][j] + potential[i] - potential[vj];
+					if (!settled[vj] || rc + dist[vj] > slack) {
+						removed |= x.removeValue(v, this);
+					}
+				}
+			}
+		}
+		return removed;
+	}
+
+	@Override
+	public ESat isEntailed() {
+		if (isCompletelyInstantiated()) {
+			int[] occ = new int[m];
+			long sum = 0;
+			for (int i = 0; i < n; i++) {
+				int j = index(i, vars[i].getValue());
+				if (j < 0) {
+					return ESat.FALSE;
+				}
+				occ[j]++;
+				sum += costs[i][j];
+			}
+			for (int j = 0; j < m; j++) {
+				if (occurrences == null ? occ[j] > 1 : !occurrences[j].contains(occ[j])) {
+					return ESat.FALSE;
+				}
+			}
+			return ESat.eval(sum == cost.getValue());
+		}
+		return ESat.UNDEFINED;
+	}
+}
@@ -0,0 +1,514 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.lp;
+
+import java.util.Arrays;
+
+/**
+ * A dense bounded dual simplex, to solve: <code>min c.x s.t. rl &le; A.x &le; ru, l &le; x &le; u</code>,
+ * where all bounds are finite.
+ * <p>
+ * Each row <i>i</i> is given a slack column <i>n+i</i>, equal to its activity and bounded by [rl_i, ru_i],
+ * so that columns are indexed from 0 to <i>n+m</i>.
+ * The tableau is stored explicitly and updated on each pivot. It is refactorized periodically to limit
+ * numerical errors.
+ * <p>
+ * Since all columns are bounded, any basis is made dual feasible by setting each nonbasic column
+ * to the bound matching the sign of its reduced cost.
+ * As a consequence, when bounds are modified, the last basis is kept and the next resolution
+ * is warm-started from it.
+ * <p>
+ * Any dual solution, optimal or not, provides a lower bound of the objective function through
+ * Lagrangian relaxation, see {@link #lagrangianBound()}.
+ * This bound only depends on the dual values and is recomputed from the original data, so it stays
+ * valid whatever numerical errors have been made during the resolution.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class DualSimplex {
+
+    /**
+     * The LP is optimal
+     */
+    public static final int OPTIMAL = 0;
+
+    /**
+     * The LP is infeasible, see {@link #certifyInfeasibility()}
+     */
+    public static final int INFEASIBLE = 1;
+
+    /**
+     * The iteration limit has been reached
+     */
+    public static final int LIMIT = 2;
+
+    /**
+     * Tolerance on pivot elements and reduced costs
+     */
+    private static final double EPS = 1e-9;
+
+    /**
+     * Tolerance on primal feasibility
+     */
+    private static final double FEAS = 1e-7;
+
+    /**
+     * Number of rows, structural columns and columns
+     */
+    private final int m, n, nn;
+
+    /**
+     * The constraint matrix, per row: column indices and coefficients
+     */
+    private final int[][] rowCols;
+    private final double[][] rowCoeffs;
+
+    /**
+     * Objective coefficients of structural columns
+     */
+    private final double[] c;
+
+    /**
+     * Bounds of the columns
+     */
+    private final double[] lb, ub;
+
+    /**
+     * Basic column of each row
+     */
+    private final int[] head;
+
+    /**
+     * Row of each basic column, -1 for nonbasic ones
+     */
+    private final int[] rowOf;
+
+    /**
+     * Set to <tt>true</tt> when a nonbasic column is at its upper bound
+     */
+    private final boolean[] atUpper;
+
+    /**
+     * The tableau: inverse of the basis times [A | -I]
+     */
+    private final double[][] tableau;
+
+    /**
+     * Reduced costs
+     */
+    private final double[] d;
+
+    /**
+     * Current primal solution, slacks included
+     */
+    private final double[] x;
+
+    /**
+     * Reduced costs, recomputed from the dual values by {@link #lagrangianBound()}
+     */
+    private final double[] rc;
+
+    /**
+     * Nonzero elements of the pivot row
+     */
+    private final int[] nz;
+
+    /**
+     * Number of pivots since the last refactorization
+     */
+    private int pivots;
+
+    /**
+     * Row whose infeasibility has been detected by the last resolution
+     */
+    private int infeasibleRow = -1;
+
+    /**
+     * Creates a dual simplex, with all columns bounded in [0,0] and the slack basis.
+     *
+     * @param rowCols   for each row, the structural columns having a non-zero coefficient
+     * @param rowCoeffs for each row, the coefficients of the columns in <i>rowCols</i>
+     * @param c         objective coefficients of the structural columns
+     */
+    public DualSimplex(int[][] rowCols, double[][] rowCoeffs, double[] c) {
+        this.m = rowCols.length;
+        this.n = c.length;
+        this.nn = n + m;
+        this.rowCols = rowCols;
+        this.rowCoeffs = rowCoeffs;
+        this.c = c.clone();
+        this.lb = new double[nn];
+        this.ub = new double[nn];
+        this.head = new int[m];
+        this.rowOf = new int[nn];
+        this.atUpper = new boolean[nn];
+        this.tableau = new double[m][nn];
+        this.d = new double[nn];
+        this.x = new double[nn];
+        this.rc = new double[nn];
+        this.nz = new int[nn];
+        slackBasis();
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int getNbRows() {
+        return m;
+    }
+
+    /**
+     * @return number of structural columns
+     */
+    public int getNbColumns() {
+        return n;
+    }
+
+    /**
+     * Sets the bounds of a column.
+     *
+     * @param j column, the slack of row <i>i</i> being column <i>n+i</i>
+     * @param l lower bound
+     * @param u upper bound
+     */
+    public void setBounds(int j, double l, double u) {
+        lb[j] = l;
+        ub[j] = u;
+    }
+
+    /**
+     * @param j a column
+     * @return the lower bound of column <i>j</i>
+     */
+    public double getLB(int j) {
+        return lb[j];
+    }
+
+    /**
+     * @param j a column
+     * @return the upper bound of column <i>j</i>
+     */
+    public double getUB(int j) {
+        return ub[j];
+    }
+
+    /**
+     * @param j a column
+     * @return the value of column <i>j</i> in the last solution computed
+     */
+    public double getValue(int j) {
+        return x[j];
+    }
+
+    /**
+     * @param j a column
+     * @return the reduced cost of column <i>j</i> computed by the last call to {@link #lagrangianBound()}
+     */
+    public double getReducedCost(int j) {
+        return rc[j];
+    }
+
+    /**
+     * Resets the basis to the slack one.
+     */
+    private void slackBasis() {
+        for (int i = 0; i < m; i++) {
+            double[] t = tableau[i];
+            Arrays.fill(t, 0.);
+            for (int k = 0; k < rowCols[i].length; k++) {
+                t[rowCols[i][k]] -= rowCoeffs[i][k];
+            }
+            t[n + i] = 1.;
+            head[i] = n + i;
+        }
+        Arrays.fill(rowOf, -1);
+        for (int i = 0; i < m; i++) {
+            rowOf[n + i] = i;
+        }
+        System.arraycopy(c, 0, d, 0, n);
+        Arrays.fill(d, n, nn, 0.);
+        pivots = 0;
+    }
+
+    /**
+     * Recomputes the tableau and the reduced costs of the current basis from the original data.
+     * Falls back to the slack basis if the current one is numerically singular.
+     */
+    private void refactor() {
+        double[][] t = tableau;
+        for (int i = 0; i < m; i++) {
+            Arrays.fill(t[i], 0.);
+            for (int k = 0; k < rowCols[i].length; k++) {
+                t[i][rowCols[i][k]] += rowCoeffs[i][k];
+            }
+            t[i][n + i] = -1.;
+        }
+        int[] cols = head.clone();
+        for (int k = 0; k < m; k++) {
+            int col = cols[k];
+            int p = k;
+            for (int i = k + 1; i < m; i++) {
+                if (Math.abs(t[i][col]) > Math.abs(t[p][col])) {
+                    p = i;
+                }
+            }
+            if (Math.abs(t[p][col]) < EPS) {
+                slackBasis();
+                return;
+            }
+            double[] tmp = t[p];
+            t[p] = t[k];
+            t[k] = tmp;
+            eliminate(k, col);
+        }
+        for (int i = 0; i < m; i++) {
+            head[i] = cols[i];
+        }
+        Arrays.fill(rowOf, -1);
+        for (int i = 0; i < m; i++) {
+            rowOf[head[i]] = i;
+        }
+        System.arraycopy(c, 0, d, 0, n);
+        Arrays.fill(d, n, nn, 0.);
+        for (int i = 0; i < m; i++) {
+            int h = head[i];
+            double cb = h < n ? c[h] : 0.;
+            if (cb != 0.) {
+                double[] ti = t[i];
+                for (int j = 0; j < nn; j++) {
+                    d[j] -= cb * ti[j];
+                }
+            }
+        }
+        for (int i = 0; i < m; i++) {
+            d[head[i]] = 0.;
+        }
+        pivots = 0;
+    }
+
+    /**
+     * Gauss-Jordan elimination of column <i>col</i> with row <i>r</i> as pivot row.
+     */
+    private void eliminate(int r, int col) {
+        double[] tr = tableau[r];
+        double inv = 1. / tr[col];
+        int k = 0;
+        for (int j = 0; j < nn; j++) {
+            if (tr[j] != 0.) {
+                tr[j] *= inv;
+                nz[k++] = j;
+            }
+        }
+        tr[col] = 1.;
+        for (int i = 0; i < m; i++) {
+            double f = tableau[i][col];
+            if (i != r && f != 0.) {
+                double[] ti = tableau[i];
+                for (int q = 0; q < k; q++) {
+                    int j = nz[q];
+                    ti[j] -= f * tr[j];
+                }
+                ti[col] = 0.;
+            }
+        }
+    }
+
+    /**
+     * Sets nonbasic columns to the bound matching their reduced cost and computes the basic ones.
+     */
+    private void computePrimal() {
+        for (int j = 0; j < nn; j++) {
+            if (rowOf[j] < 0) {
+                if (d[j] > EPS) {
+                    atUpper[j] = false;
+                } else if (d[j] < -EPS) {
+                    atUpper[j] = true;
+                }
+                x[j] = atUpper[j] ? ub[j] : lb[j];
+            }
+        }
+        int k = 0;
+        for (int j = 0; j < nn; j++) {
+            if (rowOf[j] < 0 && x[j] != 0.) {
+                nz[k++] = j;
+            }
+        }
+        for (int i = 0; i < m; i++) {
+            double[] ti = tableau[i];
+            double s = 0.;
+            for (int q = 0; q < k; q++) {
+                int j = nz[q];
+                s -= ti[j] * x[j];
+            }
+            x[head[i]] = s;
+        }
+    }
+
+    /**
+     * Solves the LP, starting from the current basis.
+     *
+     * @param maxIter maximum number of pivots
+     * @return {@link #OPTIMAL}, {@link #INFEASIBLE} or {@link #LIMIT}
+     */
+    public int solve(int maxIter) {
+        infeasibleRow = -1;
+        for (int it = 0; ; it++) {
+            computePrimal();
+            // 1. leaving row: the most infeasible one
+            int r = -1;
+            double worst = FEAS;
+            boolean below = false;
+            for (int i = 0; i < m; i++) {
+                int h = head[i];
+                if (lb[h] - x[h] > worst) {
+                    worst = lb[h] - x[h];
+                    r = i;
+                    below = true;
+                } else if (x[h] - ub[h] > worst) {
+                    worst = x[h] - ub[h];
+                    r = i;
+                    below = false;
+                }
+            }
+            if (r == -1) {
+                return OPTIMAL;
+            }
+            if (it >= maxIter) {
+                return LIMIT;
+            }
+            // 2. entering column: dual ratio test
+            double[] tr = tableau[r];
+            int q = -1;
+            double ratio = Double.POSITIVE_INFINITY, piv = 0.;
+            for (int j = 0; j < nn; j++) {
+                double a = tr[j];
+                if (rowOf[j] >= 0 || Math.abs(a) < EPS || lb[j] == ub[j]) {
+                    continue;
+                }
+                // effect on the leaving variable of moving the column away from its bound
+                double effect = atUpper[j] ? a : -a;
+                if (below ? effect <= 0. : effect >= 0.) {
+                    continue;
+                }
+                double rt = Math.abs(d[j]) / Math.abs(a);
+                if (rt < ratio - EPS || (rt <= ratio + EPS && Math.abs(a) > Math.abs(piv))) {
+                    ratio = rt;
+                    q = j;
+                    piv = a;
+                }
+            }
+            if (q == -1) {
+                infeasibleRow = r;
+                return INFEASIBLE;
+            }
+            pivot(r, q, below);
+        }
+    }
+
+    /**
+     * Makes column <i>q</i> basic in row <i>r</i>, the leaving column goes to its lower bound
+     * if <i>below</i> is set to <tt>true</tt>, to its upper bound otherwise.
+     */
+    private void pivot(int r, int q, boolean below) {
+        int p = head[r];
+        double[] tr = tableau[r];
+        double theta = d[q] / tr[q];
+        for (int j = 0; j < nn; j++) {
+            if (tr[j] != 0.) {
+                d[j] -= theta * tr[j];
+            }
+        }
+        d[q] = 0.;
+        eliminate(r, q);
+        head[r] = q;
+        rowOf[q] = r;
+        rowOf[p] = -1;
+        atUpper[p] = !below;
+        if (++pivots >= Math.max(50, m)) {
+            refactor();
+        }
+    }
+
+    /**
+     * @param g coefficient
+     * @param l lower bound
+     * @param u upper bound
+     * @return the minimum of <i>g.v</i> for <i>v</i> in [<i>l</i>, <i>u</i>]
+     */
+    private static double min(double g, double l, double u) {
+        return g > 0. ? g * l : (g < 0. ? g * u : 0.);
+    }
+
+    /**
+     * Computes, from the current dual values <i>y</i>, the Lagrangian bound:
+     * <code>min { (c - yA).x + y.s | l &le; x &le; u, rl &le; s &le; ru }</code>.
+     * This is a valid lower bound of the LP, and thus of the objective function, whatever <i>y</i>.
+     * Reduced costs are recomputed on the way, see {@link #getReducedCost(int)}.
+     *
+     * @return a lower bound of the objective function
+     */
+    public double lagrangianBound() {
+        System.arraycopy(c, 0, rc, 0, n);
+        double bound = 0.;
+        for (int i = 0; i < m; i++) {
+            double y = d[n + i];
+            rc[n + i] = y;
+            bound += min(y, lb[n + i], ub[n + i]);
+            if (y != 0.) {
+                for (int k = 0; k < rowCols[i].length; k++) {
+                    rc[rowCols[i][k]] -= y * rowCoeffs[i][k];
+                }
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            bound += min(rc[j], lb[j], ub[j]);
+        }
+        return bound;
+    }
+
+    /**
+     * Checks, after a resolution returned {@link #INFEASIBLE}, that the infeasible row provides a
+     * Farkas certificate: a combination <i>z</i> of the rows such that
+     * <code>min { -zA.x + z.s | l &le; x &le; u, rl &le; s &le; ru } &gt; 0</code>,
+     * whereas it is equal to 0 for any feasible solution.
+     *
+     * @return <tt>true</tt> if the infeasibility is certified
+     */
+    public boolean certifyInfeasibility() {
+        if (infeasibleRow < 0) {
+            return false;
+        }
+        double[] tr = tableau[infeasibleRow];
+        for (int sign = -1; sign <= 1; sign += 2) {
+            Arrays.fill(rc, 0, n, 0.);
+            double bound = 0., scale = 0.;
+            for (int i = 0; i < m; i++) {
+                double z = -sign * tr[n + i];
+                if (z != 0.) {
+                    double t = min(z, lb[n + i], ub[n + i]);
+                    bound += t;
+                    scale += Math.abs(t);
+                    for (int k = 0; k < rowCols[i].length; k++) {
+                        rc[rowCols[i][k]] -= z * rowCoeffs[i][k];
+                    }
+                }
+            }
+            for (int j = 0; j < n; j++) {
+                double t = min(rc[j], lb[j], ub[j]);
+                bound += t;
+                scale += Math.abs(t);
+            }
+            if (bound > 1e-6 + 1e-9 * scale) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.lp;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.nary.sum.PropScalarIncr;
+import org.chocosolver.solver.constraints.nary.sum.PropSum;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A redundant propagator which solves the linear relaxation of the linear constraints of a model
+ * to bound its objective variable.
+ * <p>
+ * The linear constraints are given by their propagators ({@link PropSum} and its subclasses, or
+ * {@link PropScalarIncr}), which are added as rows to a {@link DualSimplex}, whose columns are the
+ * variables with their current bounds.
+ * When the LP is solved, the Lagrangian bound of the objective function is used to update the bound
+ * of the objective variable, and reduced costs are used to filter the bounds of the other variables.
+ * When it is proven infeasible, a failure is thrown.
+ * <p>
+ * Solving the LP being costly, it is done at the root node, and optionally every <i>frequency</i>
+ * nodes and on the first propagation after each restart.
+ * The basis of the last resolution is kept to warm-start the next one.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropLinearRelaxation extends Propagator<IntVar> {
+
+    /**
+     * Tolerance when rounding bounds
+     */
+    private static final double TOL = 1e-6;
+
+    /**
+     * Index of the objective variable
+     */
+    private final int obj;
+
+    /**
+     * Set to <tt>true</tt> to maximize the objective variable
+     */
+    private final boolean maximize;
+
+    /**
+     * Rows: variable indices, coefficients and bounds
+     */
+    private final int[][] rowVars;
+    private final int[][] rowCoeffs;
+    private final long[] rowLB, rowUB;
+
+    /**
+     * The LP
+     */
+    private final DualSimplex lp;
+
+    /**
+     * Number of nodes between two resolutions, root node only when not positive
+     */
+    private final int frequency;
+
+    /**
+     * Set to <tt>true</tt> to solve the LP after each restart
+     */
+    private final boolean onRestart;
+
+    /**
+     * Node and restart counts at the last resolution
+     */
+    private long lastNode, lastRestart;
+
+    /**
+     * Number of LPs solved
+     */
+    private long nbResolutions;
+
+    /**
+     * Creates a linear relaxation propagator.
+     *
+     * @param objective the objective variable
+     * @param maximize  set to <tt>true</tt> if the objective variable is maximized
+     * @param linears   propagators of linear constraints, among {@link PropSum} (except NQ) and {@link PropScalarIncr}
+     * @param frequency number of nodes between two resolutions, root node only when not positive
+     * @param onRestart set to <tt>true</tt> to also solve the LP on the first propagation after each restart
+     */
+    public PropLinearRelaxation(IntVar objective, boolean maximize, List<Propagator<IntVar>> linears,
+                                int frequency, boolean onRestart) {
+        super(vars(objective, linears), PropagatorPriority.VERY_SLOW, false);
+        TIntIntHashMap idx = new TIntIntHashMap(vars.length, .5f, -1, -1);
+        for (int j = 0; j < vars.length; j++) {
+            idx.put(vars[j].getId(), j);
+        }
+        this.obj = 0;
+        this.maximize = maximize;
+        int m = linears.size();
+        this.rowVars = new int[m][];
+        this.rowCoeffs = new int[m][];
+        this.rowLB = new long[m];
+        this.rowUB = new long[m];
+        double[][] coeffs = new double[m][];
+        for (int i = 0; i < m; i++) {
+            Propagator<IntVar> p = linears.get(i);
+            int[] cs = coefficients(p);
+            rowVars[i] = new int[cs.length];
+            rowCoeffs[i] = cs;
+            coeffs[i] = new double[cs.length];
+            for (int k = 0; k < cs.length; k++) {
+                rowVars[i][k] = idx.get(p.getVar(k).getId());
+                coeffs[i][k] = cs[k];
+            }
+            long b = bound(p);
+            Operator o = operator(p);
+            rowLB[i] = o == Operator.LE ? Long.MIN_VALUE : b;
+            rowUB[i] = o == Operator.GE ? Long.MAX_VALUE : b;
+        }
+        double[] c = new double[vars.length];
+        c[obj] = maximize ? -1 : 1;
+        this.lp = new DualSimplex(rowVars, coeffs, c);
+        this.frequency = frequency;
+        this.onRestart = onRestart;
+    }
+
+    private static IntVar[] vars(IntVar objective, List<Propagator<IntVar>> linears) {
+        List<IntVar> list = new ArrayList<>();
+        TIntHashSet ids = new TIntHashSet();
+        list.add(objective);
+        ids.add(objective.getId());
+        for (Propagator<IntVar> p : linears) {
+            for (int k = 0; k < p.getNbVars(); k++) {
+                if (ids.add(p.getVar(k).getId())) {
+                    list.add(p.getVar(k));
+                }
+            }
+        }
+        return list.toArray(new IntVar[0]);
+    }
+
+    /**
+     * @param p a propagator
+     * @return <tt>true</tt> if <i>p</i> can be added to a linear relaxation
+     */
+    public static boolean isLinear(Propagator<?> p) {
+        return p instanceof PropScalarIncr
+                || (p instanceof PropSum && ((PropSum) p).getOperator() != Operator.NQ);
+    }
+
+    private static int[] coefficients(Propagator<IntVar> p) {
+        return p instanceof PropSum ? ((PropSum) p).getCoefficients() : ((PropScalarIncr) p).getCoefficients();
+    }
+
+    private static long bound(Propagator<IntVar> p) {
+        return p instanceof PropSum ? ((PropSum) p).getBound() : ((PropScalarIncr) p).getBound();
+    }
+
+    private static Operator operator(Propagator<IntVar> p) {
+        return p instanceof PropSum ? ((PropSum) p).getOperator() : ((PropScalarIncr) p).getOperator();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        Solver solver = model.getSolver();
+        boolean run = solver.getDecisionPath().size() <= 1
+                || (onRestart && solver.getRestartCount() != lastRestart)
+                || (frequency > 0 && solver.getNodeCount() >= lastNode + frequency);
+        if (run) {
+            lastNode = solver.getNodeCount();
+            lastRestart = solver.getRestartCount();
+            solve();
+        }
+    }
+
+    /**
+     * Solves the LP and filters bounds accordingly.
+     *
+     * @throws ContradictionException if the LP is infeasible or its bound exceeds the objective variable's one
+     */
+    private void solve() throws ContradictionException {
+        int n = vars.length;
+        for (int j = 0; j < n; j++) {
+            lp.setBounds(j, vars[j].getLB(), vars[j].getUB());
+        }
+        for (int i = 0; i < rowVars.length; i++) {
+            // bounds of the activity, implied by the variables
+            long amin = 0, amax = 0;
+            for (int k = 0; k < rowVars[i].length; k++) {
+                IntVar v = vars[rowVars[i][k]];
+                long a = rowCoeffs[i][k];
+                amin += a > 0 ? a * v.getLB() : a * v.getUB();
+                amax += a > 0 ? a * v.getUB() : a * v.getLB();
+            }
+            amin = Math.max(amin, rowLB[i]);
+            amax = Math.min(amax, rowUB[i]);
+            if (amin > amax) {
+                fails();
+            }
+            lp.setBounds(n + i, amin, amax);
+        }
+        nbResolutions++;
+        int status = lp.solve(10 * (n + rowVars.length) + 100);
+        if (status == DualSimplex.INFEASIBLE) {
+            if (lp.certifyInfeasibility()) {
+                fails();
+            }
+            return;
+        }
+        // any dual solution gives a valid bound
+        double bound = lp.lagrangianBound();
+        double lo = Math.ceil(bound - TOL * (1 + Math.abs(bound)));
+        if (maximize) {
+            vars[obj].updateUpperBound(toInt(-lo), this);
+        } else {
+            vars[obj].updateLowerBound(toInt(lo), this);
+        }
+        // reduced cost filtering
+        double gap = (maximize ? -vars[obj].getLB() : vars[obj].getUB()) - bound;
+        for (int j = 0; j < n; j++) {
+            double r = lp.getReducedCost(j);
+            if (r > TOL) {
+                double v = Math.floor(lp.getLB(j) + gap / r + TOL);
+                if (v < vars[j].getUB()) {
+                    vars[j].updateUpperBound(toInt(v), this);
+                }
+            } else if (r < -TOL) {
+                double v = Math.ceil(lp.getUB(j) + gap / r - TOL);
+                if (v > vars[j].getLB()) {
+                    vars[j].updateLowerBound(toInt(v), this);
+                }
+            }
+        }
+    }
+
+    private static int toInt(double v) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, v));
+    }
+
+    /**
+     * @return the number of LPs solved so far
+     */
+    public long getNbResolutions() {
+        return nbResolutions;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        // redundant with the linear constraints
+        if (isCompletelyInstantiated()) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+}
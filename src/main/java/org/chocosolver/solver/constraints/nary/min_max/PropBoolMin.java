@@ -26,11 +26,18 @@ public class PropBoolMin extends Propagator<BoolVar> {
     private final int n;
     private int[] lits;
 
+    /**
+     * Set to <tt>true</tt> when the minimum is fixed to 0 from the beginning: the constraint is then a clause
+     * and only the two variables in {@link #lits} are watched
+     */
+    private final boolean clause;
+
     public PropBoolMin(BoolVar[] variables, BoolVar minVar) {
         super(ArrayUtils.concat(variables, minVar), PropagatorPriority.UNARY, true);
         n = variables.length;
         lits = new int[]{n-1, 0};
         assert n > 0;
+        clause = n > 1 && minVar.isInstantiatedTo(0);
     }
 
     private void find(int l) throws ContradictionException {
@@ -69,9 +76,36 @@ public class PropBoolMin extends Propagator<BoolVar> {
         }
         find(0);
         find(1);
+        if (clause) {
+            for (int i = 0; i < n; i++) {
+                if (i == lits[0] || i == lits[1]) {
+                    watch(i);
+                } else {
+                    unwatch(i);
+                }
+            }
+        }
         filter();
     }
 
+    /**
+     * Moves the watches from the previous literals to the current ones, when the constraint is a clause
+     * @param old0 previous first literal
+     * @param old1 previous second literal
+     */
+    private void rewatch(int old0, int old1) {
+        if (clause) {
+            if (old0 != lits[0] && old0 != lits[1]) {
+                unwatch(old0);
+            }
+            if (old1 != lits[0] && old1 != lits[1]) {
+                unwatch(old1);
+            }
+            watch(lits[0]);
+            watch(lits[1]);
+        }
+    }
+
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         if (idxVarInProp == n) {
             filter();
@@ -82,16 +116,20 @@ public class PropBoolMin extends Propagator<BoolVar> {
                     setPassive();
                 }
             } else if (idxVarInProp == lits[0]){
+                int old1 = lits[1];
                 find(0);
                 if(vars[lits[1]].isInstantiated()){
                     find(1);
                 }
+                rewatch(idxVarInProp, old1);
                 filter();
             } else if(idxVarInProp == lits[1]) {
+                int old0 = lits[0];
                 find(1);
                 if(vars[lits[0]].isInstantiated()){
                     find(0);
                 }
+                rewatch(old0, idxVarInProp);
                 filter();
             }
         }
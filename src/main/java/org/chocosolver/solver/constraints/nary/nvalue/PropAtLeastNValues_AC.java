@@ -23,10 +23,10 @@ import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.graphOperations.connectivity.StrongConnectivityFinder;
+import org.chocosolver.util.objects.IntList;
 import org.chocosolver.util.objects.graphs.DirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetType;
-import org.chocosolver.util.procedure.UnaryIntProcedure;
 
 import java.io.IOException;
 import java.util.BitSet;
@@ -61,7 +61,7 @@ public class PropAtLeastNValues_AC extends Propagator<IntVar> implements Countab
 	private DirectedGraph digraph;
 	private int[] nodeSCC;
 	private BitSet free;
-	private UnaryIntProcedure<Integer> remProc;
+	private IntList removed;
 	private final IIntDeltaMonitor[] idms;
 	private StrongConnectivityFinder SCCfinder;
 	// for augmenting matching (BFS)
@@ -111,7 +111,7 @@ public class PropAtLeastNValues_AC extends Propagator<IntVar> implements Countab
 		fifo = new int[n2];
 		digraph = new DirectedGraph(model, n2 + 2, SetType.LINKED_LIST, false);
 		free = new BitSet(n2);
-		remProc = new DirectedRemProc();
+		removed = new IntList();
 		father = new int[n2];
 		in = new BitSet(n2);
 		SCCfinder = new StrongConnectivityFinder(digraph);
@@ -307,8 +307,13 @@ public class PropAtLeastNValues_AC extends Propagator<IntVar> implements Countab
 	public void propagate(int varIdx, int mask) throws ContradictionException {
 		if (varIdx < n) {
 			idms[varIdx].freeze();
-			idms[varIdx].forEachRemVal(remProc.set(varIdx));
+			int size = idms[varIdx].collectRemVals(removed);
 			idms[varIdx].unfreeze();
+			for (int k = 0; k < size; k++) {
+				int j = map.get(removed.getQuick(k));
+				digraph.removeArc(varIdx, j);
+				digraph.removeArc(j, varIdx);
+			}
 		}
 		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
 	}
@@ -342,22 +347,6 @@ public class PropAtLeastNValues_AC extends Propagator<IntVar> implements Countab
 		return ESat.UNDEFINED;
 	}
 
-	private class DirectedRemProc implements UnaryIntProcedure<Integer> {
-
-		private int idx;
-
-		public void execute(int i) throws ContradictionException {
-			digraph.removeArc(idx, map.get(i));
-			digraph.removeArc(map.get(i), idx);
-		}
-
-		@Override
-		public UnaryIntProcedure set(Integer integer) {
-			this.idx = integer;
-			return this;
-		}
-	}
-
 	// ***********************************************************************************
 	// COUNTING ALGORITHM
 	// ***********************************************************************************
@@ -134,11 +134,11 @@ public class IntLinCombFactory {
         for (int i = 0; i < _k; i++) {
             if (NCOEFFS[i] != 0) {
                 if(NCOEFFS[i]>0){
-                    slb += NVARS[i].getLB() * NCOEFFS[i];
-                    sub += NVARS[i].getUB() * NCOEFFS[i];
+                    slb += (long) NVARS[i].getLB() * NCOEFFS[i];
+                    sub += (long) NVARS[i].getUB() * NCOEFFS[i];
                 }else{
-                    slb += NVARS[i].getUB() * NCOEFFS[i];
-                    sub += NVARS[i].getLB() * NCOEFFS[i];
+                    slb += (long) NVARS[i].getUB() * NCOEFFS[i];
+                    sub += (long) NVARS[i].getLB() * NCOEFFS[i];
                 }
                 if (NVARS[i].isBool()) nbools++; // count number of boolean variables
                 if (NCOEFFS[i] == 1) nones++; // count number of coeff set to 1
@@ -153,6 +153,10 @@ public class IntLinCombFactory {
             }
         }
         if(slb< Integer.MIN_VALUE || slb> Integer.MAX_VALUE || sub < Integer.MIN_VALUE || sub > Integer.MAX_VALUE){
+            if (OPERATOR != Operator.NQ && model.getSettings().enableIncrementalityOnSum(k)) {
+                // the incremental propagator relies on long arithmetic
+                return incrementalScalar(Arrays.copyOf(NVARS, k, IntVar[].class), Arrays.copyOf(NCOEFFS, k), OPERATOR, RESULT);
+            }
             throw new SolverException("Consider reducing variables' domain to prevent integer under/overflow");
         }
         // b. resize arrays if needed
@@ -293,6 +297,9 @@ public class IntLinCombFactory {
 
                     }
                 }
+                if (OPERATOR != Operator.NQ && model.getSettings().enableIncrementalityOnSum(tmpV.length)) {
+                    return incrementalScalar(VARS, COEFFS, OPERATOR, RESULT);
+                }
                 return new SumConstraint( new PropSum(tmpV, b, OPERATOR, RESULT));
         }
     }
@@ -349,9 +356,44 @@ public class IntLinCombFactory {
             OPERATOR = Operator.LE;
             RESULT--;
         }
+        if (OPERATOR != Operator.NQ && s.getSettings().enableIncrementalityOnSum(tmpV.length)) {
+            return new SumConstraint(new PropScalarIncr(tmpV, tmpC, b, OPERATOR, RESULT));
+        }
         return new SumConstraint(new PropScalar(tmpV, tmpC, b, OPERATOR, RESULT));
     }
 
+    /**
+     * Build an incremental scalar product, see {@link PropScalarIncr}
+     *
+     * @param VARS     array of integer variables
+     * @param COEFFS   array of non-zero integers
+     * @param OPERATOR on operator, except NQ
+     * @param RESULT   an integer
+     * @return a constraint
+     */
+    private static Constraint incrementalScalar(IntVar[] VARS, int[] COEFFS, Operator OPERATOR, int RESULT) {
+        int b = 0, e = VARS.length;
+        IntVar[] tmpV = new IntVar[e];
+        int[] tmpC = new int[e];
+        for (int i = 0; i < VARS.length; i++) {
+            if (COEFFS[i] > 0) {
+                tmpV[b] = VARS[i];
+                tmpC[b++] = COEFFS[i];
+            } else {
+                tmpV[--e] = VARS[i];
+                tmpC[e] = COEFFS[i];
+            }
+        }
+        if (OPERATOR == Operator.GT) {
+            OPERATOR = Operator.GE;
+            RESULT++;
+        } else if (OPERATOR == Operator.LT) {
+            OPERATOR = Operator.LE;
+            RESULT--;
+        }
+        return new SumConstraint(new PropScalarIncr(tmpV, tmpC, b, OPERATOR, RESULT));
+    }
+
 ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
 }
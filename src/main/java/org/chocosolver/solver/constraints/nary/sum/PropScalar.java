@@ -305,6 +305,11 @@ public class PropScalar extends PropSum {
         }
     }
 
+    @Override
+    public int[] getCoefficients() {
+        return c.clone();
+    }
+
     @Override
     protected PropSum opposite(){
         return new PropScalar(vars, c, pos, nop(o), b + nb(o));
@@ -0,0 +1,375 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.sum;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.RuleStore;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+
+/**
+ * A propagator for SUM(x_i*c_i) o b, where o is among EQ, LE and GE, maintained incrementally.
+ * <br/>
+ * Based on "Bounds Consistency Techniques for Long Linear Constraint" </br>
+ * W. Harvey and J. Schimpf
+ * <p>
+ * Unlike {@link PropScalar}, the sums of minimal and maximal contributions are not recomputed on each call
+ * but updated on each bound modification, in constant time, from the last bounds seen.
+ * The filtering algorithm, which is linear, is only executed when the largest contribution
+ * variability exceeds the slack.
+ * Sums are computed with <code>long</code>, which prevents overflows with large coefficients or domains.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropScalarIncr extends Propagator<IntVar> {
+
+    /**
+     * The position of the last positive coefficient
+     */
+    private final int pos;
+
+    /**
+     * Number of variables
+     */
+    private final int l;
+
+    /**
+     * The coefficients
+     */
+    private final int[] c;
+
+    /**
+     * Bound to respect
+     */
+    private final long b;
+
+    /**
+     * The operator among EQ, LE and GE
+     */
+    private final Operator o;
+
+    /**
+     * Last lower bounds, resp. upper bounds, taken into account in the sums
+     */
+    private final IStateInt[] lbs, ubs;
+
+    /**
+     * Sum of minimal contributions, maintained incrementally.
+     */
+    private final IStateLong sumLB;
+
+    /**
+     * Sum of maximal contributions, maintained incrementally.
+     */
+    private final IStateLong sumUB;
+
+    /**
+     * An upper bound of the largest contribution variability
+     */
+    private final IStateLong maxI;
+
+    /**
+     * Create a scalar product: SUM(x_i*c_i) o b, maintained incrementally.
+     * Variables and coefficients are excepted to be ordered wrt to coefficients: first positive ones then negative ones.
+     *
+     * @param variables list of integer variables
+     * @param coeffs    list of non-zero coefficients
+     * @param pos       position of the last positive coefficient
+     * @param o         operator among EQ, LE and GE
+     * @param b         bound to respect
+     */
+    public PropScalarIncr(IntVar[] variables, int[] coeffs, int pos, Operator o, int b) {
+        this(variables, coeffs, pos, o, (long) b);
+    }
+
+    /**
+     * Create a scalar product whose bound may not fit an int, as the one of an opposite constraint.
+     */
+    private PropScalarIncr(IntVar[] variables, int[] coeffs, int pos, Operator o, long b) {
+        super(variables, PropSum.computePriority(variables.length), true);
+        if (o != Operator.EQ && o != Operator.LE && o != Operator.GE) {
+            throw new IllegalArgumentException("Unexpected operator " + o);
+        }
+        this.l = variables.length;
+        this.c = coeffs.clone();
+        this.pos = pos;
+        this.o = o;
+        this.b = b;
+        IEnvironment env = model.getEnvironment();
+        this.lbs = new IStateInt[l];
+        this.ubs = new IStateInt[l];
+        for (int i = 0; i < l; i++) {
+            lbs[i] = env.makeInt();
+            ubs[i] = env.makeInt();
+        }
+        this.sumLB = env.makeLong();
+        this.sumUB = env.makeLong();
+        this.maxI = env.makeLong();
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        switch (o) {
+            case LE:
+                return IntEventType.combine(IntEventType.INSTANTIATE, vIdx < pos ? IntEventType.INCLOW : IntEventType.DECUPP);
+            case GE:
+                return IntEventType.combine(IntEventType.INSTANTIATE, vIdx < pos ? IntEventType.DECUPP : IntEventType.INCLOW);
+            default:
+                return IntEventType.boundAndInst();
+        }
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            long slb = 0, sub = 0;
+            for (int i = 0; i < l; i++) {
+                int lb = vars[i].getLB();
+                int ub = vars[i].getUB();
+                lbs[i].set(lb);
+                ubs[i].set(ub);
+                if (i < pos) {
+                    slb += (long) c[i] * lb;
+                    sub += (long) c[i] * ub;
+                } else {
+                    slb += (long) c[i] * ub;
+                    sub += (long) c[i] * lb;
+                }
+            }
+            sumLB.set(slb);
+            sumUB.set(sub);
+            maxI.set(Long.MAX_VALUE);
+        }
+        filter();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        update(idxVarInProp);
+        long F = b - sumLB.get();
+        long E = sumUB.get() - b;
+        long mI = maxI.get();
+        if ((o != Operator.GE && mI > F) || (o != Operator.LE && mI > E)) {
+            forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+        }
+    }
+
+    /**
+     * Takes into account the current bounds of the <i>i</i>th variable in the sums
+     *
+     * @param i index of a variable
+     */
+    private void update(int i) {
+        long d = vars[i].getLB() - lbs[i].get();
+        if (d != 0) {
+            lbs[i].set(vars[i].getLB());
+            if (i < pos) {
+                sumLB.set(sumLB.get() + c[i] * d);
+            } else {
+                sumUB.set(sumUB.get() + c[i] * d);
+            }
+        }
+        d = vars[i].getUB() - ubs[i].get();
+        if (d != 0) {
+            ubs[i].set(vars[i].getUB());
+            if (i < pos) {
+                sumUB.set(sumUB.get() + c[i] * d);
+            } else {
+                sumLB.set(sumLB.get() + c[i] * d);
+            }
+        }
+    }
+
+    /**
+     * Execute filtering wrt the operator
+     *
+     * @throws ContradictionException if contradiction is detected
+     */
+    private void filter() throws ContradictionException {
+        boolean le = o != Operator.GE;
+        boolean ge = o != Operator.LE;
+        long F = b - sumLB.get();
+        long E = sumUB.get() - b;
+        long mI = maxI.get();
+        boolean anychange;
+        do {
+            anychange = false;
+            if ((le && F < 0) || (ge && E < 0)) {
+                fails();
+            }
+            if ((le && mI > F) || (ge && mI > E)) {
+                mI = 0;
+                for (int i = 0; i < l; i++) {
+                    IntVar var = vars[i];
+                    long ci = c[i];
+                    long a = i < pos ? ci : -ci;
+                    boolean changed = false;
+                    if (le && a * ((long) var.getUB() - var.getLB()) > F) {
+                        // the contribution cannot exceed its minimum plus F
+                        changed = i < pos ?
+                                var.updateUpperBound((int) (var.getLB() + F / a), this) :
+                                var.updateLowerBound((int) (var.getUB() - F / a), this);
+                    }
+                    if (ge && a * ((long) var.getUB() - var.getLB()) > E) {
+                        // the contribution cannot be lower than its maximum minus E
+                        changed |= i < pos ?
+                                var.updateLowerBound((int) (var.getUB() - E / a), this) :
+                                var.updateUpperBound((int) (var.getLB() + E / a), this);
+                    }
+                    if (changed) {
+                        update(i);
+                        F = b - sumLB.get();
+                        E = sumUB.get() - b;
+                        anychange = true;
+                    }
+                    long span = a * ((long) var.getUB() - var.getLB());
+                    if (mI < span) {
+                        mI = span;
+                    }
+                }
+                maxI.set(mI);
+            }
+            if ((!le || E <= 0) && (!ge || F <= 0)) {
+                setPassive();
+                return;
+            }
+        } while (anychange && o == Operator.EQ);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        long slb = 0, sub = 0;
+        for (int i = 0; i < l; i++) {
+            if (i < pos) {
+                slb += (long) c[i] * vars[i].getLB();
+                sub += (long) c[i] * vars[i].getUB();
+            } else {
+                slb += (long) c[i] * vars[i].getUB();
+                sub += (long) c[i] * vars[i].getLB();
+            }
+        }
+        switch (o) {
+            case LE:
+                if (sub <= b) {
+                    return ESat.TRUE;
+                }
+                if (slb > b) {
+                    return ESat.FALSE;
+                }
+                return ESat.UNDEFINED;
+            case GE:
+                if (slb >= b) {
+                    return ESat.TRUE;
+                }
+                if (sub < b) {
+                    return ESat.FALSE;
+                }
+                return ESat.UNDEFINED;
+            default:
+                if (slb == b && sub == b) {
+                    return ESat.TRUE;
+                }
+                if (sub < b || slb > b) {
+                    return ESat.FALSE;
+                }
+                return ESat.UNDEFINED;
+        }
+    }
+
+    @Override
+    public boolean why(RuleStore ruleStore, IntVar var, IEventType evt, int value) {
+        boolean newrules = ruleStore.addPropagatorActivationRule(this);
+        int k = 0;
+        while (k < l && vars[k] != var) {
+            k++;
+        }
+        // to deal with BoolVar: any event is automatically promoted to INSTANTIATE
+        if (IntEventType.isInstantiate(evt.getMask()) && var.isBool()) {
+            evt = (var.getValue() == 0 ? IntEventType.DECUPP : IntEventType.INCLOW);
+        }
+        boolean inclow = IntEventType.isInclow(evt.getMask());
+        if (k < l && (inclow || IntEventType.isDecupp(evt.getMask()))) {
+            // a lower bound of a positive contribution is explained by the maximal contributions of the others
+            boolean max = inclow == k < pos;
+            for (int i = 0; i < l; i++) {
+                if (i != k) {
+                    if (max == i < pos) {
+                        newrules |= ruleStore.addUpperBoundRule(vars[i]);
+                    } else {
+                        newrules |= ruleStore.addLowerBoundRule(vars[i]);
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < l; i++) {
+                newrules |= ruleStore.addFullDomainRule(vars[i]);
+            }
+        }
+        return newrules;
+    }
+
+    /**
+     * @return the coefficients of the variables
+     */
+    public int[] getCoefficients() {
+        return c.clone();
+    }
+
+    /**
+     * @return the operator
+     */
+    public Operator getOperator() {
+        return o;
+    }
+
+    /**
+     * @return the bound to respect, saturated to the int range, which relaxes the bound of an opposite constraint
+     */
+    public int getBound() {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, b));
+    }
+
+    /**
+     * @return the propagator of the opposite constraint
+     */
+    protected Propagator<IntVar> opposite() {
+        switch (o) {
+            case LE:
+                return new PropScalarIncr(vars, c, pos, Operator.GE, b + 1);
+            case GE:
+                return new PropScalarIncr(vars, c, pos, Operator.LE, b - 1);
+            default:
+                return new PropScalar(vars, c, pos, Operator.NQ, (int) b);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder linComb = new StringBuilder(20);
+        for (int i = 0; i < l; i++) {
+            if (i > 0) {
+                linComb.append(c[i] < 0 ? " - " : " + ");
+            } else if (c[i] < 0) {
+                linComb.append("-");
+            }
+            linComb.append(Math.abs(c[i])).append('.').append(vars[i].getName());
+        }
+        linComb.append(" ").append(o).append(" ").append(b);
+        return linComb.toString();
+    }
+}
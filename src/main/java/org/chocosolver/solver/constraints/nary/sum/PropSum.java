@@ -549,6 +549,31 @@ public class PropSum extends Propagator<IntVar> {
         }
     }
 
+    /**
+     * @return the coefficients of the variables, induced by <code>pos</code>
+     */
+    public int[] getCoefficients() {
+        int[] coeffs = new int[l];
+        for (int i = 0; i < l; i++) {
+            coeffs[i] = i < pos ? 1 : -1;
+        }
+        return coeffs;
+    }
+
+    /**
+     * @return the operator
+     */
+    public Operator getOperator() {
+        return o;
+    }
+
+    /**
+     * @return the bound to respect
+     */
+    public int getBound() {
+        return b;
+    }
+
     protected PropSum opposite(){
         return new PropSum(vars, pos, nop(o), b + nb(o));
     }
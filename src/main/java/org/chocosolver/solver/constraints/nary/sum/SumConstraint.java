@@ -39,6 +39,9 @@ public class SumConstraint extends Constraint {
         if (propagators[0] instanceof PropSum) {
             PropSum me = (PropSum) propagators[0];
             return new SumConstraint(me.opposite());
+        } else if (propagators[0] instanceof PropScalarIncr) {
+            PropScalarIncr me = (PropScalarIncr) propagators[0];
+            return new SumConstraint(me.opposite());
         } else
             return super.makeOpposite();
     }
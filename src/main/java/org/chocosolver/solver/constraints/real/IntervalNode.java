@@ -0,0 +1,438 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.real;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.expression.continuous.arithmetic.CArExpression;
+import org.chocosolver.solver.variables.RealVar;
+
+import java.util.Map;
+
+import static org.chocosolver.util.tools.RealUtils.*;
+
+/**
+ * A node of the tree-representation of a continuous arithmetic expression, as used by HC4.
+ * <br/>
+ * Each node maintains an interval [lb, ub] enclosing the values the sub-expression it represents
+ * can take. {@link #evaluate()} computes this interval from the children (forward phase),
+ * {@link #project()} narrows the children's intervals from this one (backward phase).
+ * Leaves, ie variables, are shared among the tree so that a variable occurring more than once
+ * collects the projections of all its occurrences.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+abstract class IntervalNode {
+
+    /**
+     * Lower bound of the sub-expression
+     */
+    double lb;
+    /**
+     * Upper bound of the sub-expression
+     */
+    double ub;
+
+    /**
+     * Forward phase: computes [lb, ub] from the children's intervals.
+     *
+     * @return <tt>false</tt> if the interval is empty
+     */
+    abstract boolean evaluate();
+
+    /**
+     * Backward phase: narrows the children's intervals wrt to [lb, ub].
+     *
+     * @return <tt>false</tt> if the interval of one node becomes empty
+     */
+    abstract boolean project();
+
+    /**
+     * Intersects [lb, ub] with [l, u].
+     *
+     * @param l a lower bound
+     * @param u an upper bound
+     * @return <tt>false</tt> if the intersection is empty
+     */
+    final boolean narrow(double l, double u) {
+        if (l > lb) {
+            lb = l;
+        }
+        if (u < ub) {
+            ub = u;
+        }
+        return lb <= ub;
+    }
+
+    /**
+     * Builds the tree-representation of <i>e</i>.
+     *
+     * @param e      a continuous arithmetic expression
+     * @param leaves the leaves, one per variable of <i>e</i>
+     * @return the root node of <i>e</i>
+     */
+    static IntervalNode build(CArExpression e, Map<RealVar, Leaf> leaves) {
+        if (e.isExpressionLeaf()) {
+            return leaves.get(e);
+        }
+        CArExpression[] children = e.getExpressionChild();
+        CArExpression.Operator op = e.getOperator();
+        if (children.length == 1) {
+            return new Unary(op, build(children[0], leaves));
+        }
+        if (op == CArExpression.Operator.POW) {
+            // integer constant exponents are dealt with specifically
+            if (children[1].isExpressionLeaf()) {
+                RealVar y = (RealVar) children[1];
+                double v = y.getLB();
+                if (v == y.getUB() && v == Math.rint(v) && Math.abs(v) <= Integer.MAX_VALUE) {
+                    IntervalNode p = new Power(build(children[0], leaves), (int) Math.abs(v));
+                    return v >= 0 ? p : new Binary(CArExpression.Operator.DIV, new Constant(1.), p);
+                }
+            }
+            // otherwise, x^y = exp(y * ln(x))
+            return new Unary(CArExpression.Operator.EXP,
+                    new Binary(CArExpression.Operator.MUL,
+                            build(children[1], leaves),
+                            new Unary(CArExpression.Operator.LN, build(children[0], leaves))));
+        }
+        return new Binary(op, build(children[0], leaves), build(children[1], leaves));
+    }
+
+    /**
+     * A variable
+     */
+    static final class Leaf extends IntervalNode {
+
+        final RealVar var;
+
+        Leaf(RealVar var) {
+            this.var = var;
+        }
+
+        /**
+         * Loads the current domain of the variable
+         */
+        void load() {
+            lb = var.getLB();
+            ub = var.getUB();
+        }
+
+        @Override
+        boolean evaluate() {
+            return lb <= ub;
+        }
+
+        @Override
+        boolean project() {
+            return lb <= ub;
+        }
+    }
+
+    /**
+     * A constant
+     */
+    static final class Constant extends IntervalNode {
+
+        Constant(double c) {
+            lb = ub = c;
+        }
+
+        @Override
+        boolean evaluate() {
+            return true;
+        }
+
+        @Override
+        boolean project() {
+            return lb <= ub;
+        }
+    }
+
+    /**
+     * A natural power
+     */
+    static final class Power extends IntervalNode {
+
+        final IntervalNode c;
+        final int n;
+
+        Power(IntervalNode c, int n) {
+            this.c = c;
+            this.n = n;
+        }
+
+        @Override
+        boolean evaluate() {
+            if (!c.evaluate()) {
+                return false;
+            }
+            lb = powLB(c.lb, c.ub, n);
+            ub = powUB(c.lb, c.ub, n);
+            return true;
+        }
+
+        @Override
+        boolean project() {
+            if (n == 0) {
+                return lb <= 1. && 1. <= ub;
+            }
+            if (n % 2 == 1) {
+                double l = lb >= 0. ? rootLB(lb, n) : -rootUB(-lb, n);
+                double u = ub >= 0. ? rootUB(ub, n) : -rootLB(-ub, n);
+                return c.narrow(l, u) && c.project();
+            }
+            if (!narrow(0., Double.POSITIVE_INFINITY)) {
+                return false;
+            }
+            double r = rootUB(ub, n);
+            if (!c.narrow(-r, r)) {
+                return false;
+            }
+            if (lb > 0.) {
+                // the child cannot be in ]-s, s[
+                double s = rootLB(lb, n);
+                if (c.lb > -s && !c.narrow(s, c.ub)) {
+                    return false;
+                }
+                if (c.ub < s && !c.narrow(c.lb, -s)) {
+                    return false;
+                }
+            }
+            return c.project();
+        }
+    }
+
+    /**
+     * A unary operation
+     */
+    static final class Unary extends IntervalNode {
+
+        final CArExpression.Operator op;
+        final IntervalNode c;
+
+        Unary(CArExpression.Operator op, IntervalNode c) {
+            this.op = op;
+            this.c = c;
+            switch (op) {
+                case NEG:
+                case ABS:
+                case EXP:
+                case LN:
+                case SQRT:
+                case COS:
+                case SIN:
+                    break;
+                default:
+                    throw new SolverException("HC4 does not support " + op.name() + ", use ibex instead.");
+            }
+        }
+
+        @Override
+        boolean evaluate() {
+            if (!c.evaluate()) {
+                return false;
+            }
+            switch (op) {
+                case NEG:
+                    lb = -c.ub;
+                    ub = -c.lb;
+                    break;
+                case ABS:
+                    if (c.lb >= 0.) {
+                        lb = c.lb;
+                        ub = c.ub;
+                    } else if (c.ub <= 0.) {
+                        lb = -c.ub;
+                        ub = -c.lb;
+                    } else {
+                        lb = 0.;
+                        ub = Math.max(-c.lb, c.ub);
+                    }
+                    break;
+                case EXP:
+                    lb = expLB(c.lb);
+                    ub = expUB(c.ub);
+                    break;
+                case LN:
+                    if (c.ub <= 0.) {
+                        return false;
+                    }
+                    lb = logLB(c.lb);
+                    ub = logUB(c.ub);
+                    break;
+                case SQRT:
+                    if (c.ub < 0.) {
+                        return false;
+                    }
+                    lb = rootLB(c.lb, 2);
+                    ub = rootUB(c.ub, 2);
+                    break;
+                case COS:
+                    lb = cosLB(c.lb, c.ub);
+                    ub = cosUB(c.lb, c.ub);
+                    break;
+                case SIN:
+                    lb = sinLB(c.lb, c.ub);
+                    ub = sinUB(c.lb, c.ub);
+                    break;
+            }
+            return true;
+        }
+
+        @Override
+        boolean project() {
+            switch (op) {
+                case NEG:
+                    return c.narrow(-ub, -lb) && c.project();
+                case ABS:
+                    if (!narrow(0., Double.POSITIVE_INFINITY) || !c.narrow(-ub, ub)) {
+                        return false;
+                    }
+                    // the child cannot be in ]-lb, lb[
+                    if (c.lb > -lb && !c.narrow(lb, c.ub)) {
+                        return false;
+                    }
+                    if (c.ub < lb && !c.narrow(c.lb, -lb)) {
+                        return false;
+                    }
+                    return c.project();
+                case EXP:
+                    return ub > 0. && c.narrow(logLB(lb), logUB(ub)) && c.project();
+                case LN:
+                    return c.narrow(expLB(lb), expUB(ub)) && c.project();
+                case SQRT:
+                    return narrow(0., Double.POSITIVE_INFINITY)
+                            && c.narrow(powLB(lb, ub, 2), powUB(lb, ub, 2)) && c.project();
+                default:
+                    // periodic functions: only the image is checked
+                    return narrow(-1., 1.) && c.project();
+            }
+        }
+    }
+
+    /**
+     * A binary operation
+     */
+    static final class Binary extends IntervalNode {
+
+        final CArExpression.Operator op;
+        final IntervalNode l;
+        final IntervalNode r;
+
+        Binary(CArExpression.Operator op, IntervalNode l, IntervalNode r) {
+            this.op = op;
+            this.l = l;
+            this.r = r;
+            switch (op) {
+                case ADD:
+                case SUB:
+                case MUL:
+                case DIV:
+                case MIN:
+                case MAX:
+                    break;
+                default:
+                    throw new SolverException("HC4 does not support " + op.name() + ", use ibex instead.");
+            }
+        }
+
+        @Override
+        boolean evaluate() {
+            if (!l.evaluate() || !r.evaluate()) {
+                return false;
+            }
+            switch (op) {
+                case ADD:
+                    lb = addLB(l.lb, r.lb);
+                    ub = addUB(l.ub, r.ub);
+                    break;
+                case SUB:
+                    lb = subLB(l.lb, r.ub);
+                    ub = subUB(l.ub, r.lb);
+                    break;
+                case MUL:
+                    lb = mulLB(l.lb, l.ub, r.lb, r.ub);
+                    ub = mulUB(l.lb, l.ub, r.lb, r.ub);
+                    break;
+                case DIV:
+                    if (r.lb == 0. && r.ub == 0.) {
+                        return false;
+                    }
+                    lb = divLB(l.lb, l.ub, r.lb, r.ub);
+                    ub = divUB(l.lb, l.ub, r.lb, r.ub);
+                    break;
+                case MIN:
+                    lb = Math.min(l.lb, r.lb);
+                    ub = Math.min(l.ub, r.ub);
+                    break;
+                case MAX:
+                    lb = Math.max(l.lb, r.lb);
+                    ub = Math.max(l.ub, r.ub);
+                    break;
+            }
+            return true;
+        }
+
+        @Override
+        boolean project() {
+            switch (op) {
+                case ADD:
+                    if (!l.narrow(subLB(lb, r.ub), subUB(ub, r.lb))
+                            || !r.narrow(subLB(lb, l.ub), subUB(ub, l.lb))) {
+                        return false;
+                    }
+                    break;
+                case SUB:
+                    if (!l.narrow(addLB(lb, r.lb), addUB(ub, r.ub))
+                            || !r.narrow(subLB(l.lb, ub), subUB(l.ub, lb))) {
+                        return false;
+                    }
+                    break;
+                case MUL:
+                    if (!l.narrow(divLB(lb, ub, r.lb, r.ub), divUB(lb, ub, r.lb, r.ub))
+                            || !r.narrow(divLB(lb, ub, l.lb, l.ub), divUB(lb, ub, l.lb, l.ub))) {
+                        return false;
+                    }
+                    break;
+                case DIV:
+                    if (!l.narrow(mulLB(lb, ub, r.lb, r.ub), mulUB(lb, ub, r.lb, r.ub))
+                            || !r.narrow(divLB(l.lb, l.ub, lb, ub), divUB(l.lb, l.ub, lb, ub))) {
+                        return false;
+                    }
+                    break;
+                case MIN:
+                    if (!l.narrow(lb, Double.POSITIVE_INFINITY) || !r.narrow(lb, Double.POSITIVE_INFINITY)) {
+                        return false;
+                    }
+                    if (l.lb > ub && !r.narrow(r.lb, ub)) {
+                        return false;
+                    }
+                    if (r.lb > ub && !l.narrow(l.lb, ub)) {
+                        return false;
+                    }
+                    break;
+                case MAX:
+                    if (!l.narrow(Double.NEGATIVE_INFINITY, ub) || !r.narrow(Double.NEGATIVE_INFINITY, ub)) {
+                        return false;
+                    }
+                    if (l.ub < lb && !r.narrow(lb, r.ub)) {
+                        return false;
+                    }
+                    if (r.ub < lb && !l.narrow(lb, l.ub)) {
+                        return false;
+                    }
+                    break;
+            }
+            return l.project() && r.project();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.real;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.expression.continuous.arithmetic.CArExpression;
+import org.chocosolver.solver.expression.continuous.relational.CReExpression;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.events.RealEventType;
+import org.chocosolver.util.ESat;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * A propagator for continuous equations and inequations, written in pure Java.
+ * <br/>
+ * The relation <code>lhs op rhs</code> is rewritten as <code>lhs - rhs &isin; I</code>, where
+ * <code>I</code> depends on <code>op</code>, and stored as a tree of {@link IntervalNode}.
+ * Filtering relies on HC4-revise (forward evaluation, backward projection) with outward rounding,
+ * iterated until the domains do not shrink more than their precision.
+ * Optionally, a BOX-like shaving is applied on each variable bounds afterwards.
+ * <p>
+ * Supported operators are NEG, ABS, ADD, SUB, MUL, DIV, POW, MIN, MAX, EXP, LN, SQRT, COS and SIN.
+ * <p>
+ * Unlike {@link RealPropagator}, no native library is required and no intermediate variable is
+ * created.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropEquation extends Propagator<RealVar> {
+
+    /**
+     * Maximum number of HC4-revise calls per propagation, to avoid slow convergence
+     */
+    private static final int MAX_LOOP = 32;
+
+    /**
+     * Number of slices tried on each bound when shaving
+     */
+    private static final int NB_SLICES = 8;
+
+    /**
+     * Root of the tree, ie the expression <code>lhs - rhs</code>
+     */
+    private final IntervalNode root;
+
+    /**
+     * Leaves of the tree, one per variable, in the same order as {@link #vars}
+     */
+    private final IntervalNode.Leaf[] leaves;
+
+    /**
+     * Bounds of the expression <code>lhs - rhs</code>
+     */
+    private final double lo, hi;
+
+    /**
+     * Set to <tt>true</tt> to apply BOX-like shaving after HC4
+     */
+    private final boolean box;
+
+    /**
+     * Readable version of the relation
+     */
+    private final String name;
+
+    /**
+     * Creates a propagator for <code>lhs op rhs</code>.
+     *
+     * @param lhs left-hand side expression
+     * @param op  an operator
+     * @param rhs right-hand side expression
+     * @param box set to <tt>true</tt> to strengthen HC4 with BOX-like shaving
+     */
+    public PropEquation(CArExpression lhs, CReExpression.Operator op, CArExpression rhs, boolean box) {
+        super(extractVars(lhs, rhs), PropagatorPriority.LINEAR, false);
+        Map<RealVar, IntervalNode.Leaf> map = new HashMap<>();
+        this.leaves = new IntervalNode.Leaf[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            leaves[i] = new IntervalNode.Leaf(vars[i]);
+            map.put(vars[i], leaves[i]);
+        }
+        this.root = new IntervalNode.Binary(CArExpression.Operator.SUB,
+                IntervalNode.build(lhs, map), IntervalNode.build(rhs, map));
+        this.box = box;
+        this.name = lhs + " " + op.name() + " " + rhs;
+        switch (op) {
+            case LT:
+            case LE:
+                lo = Double.NEGATIVE_INFINITY;
+                hi = 0.;
+                break;
+            case GT:
+            case GE:
+                lo = 0.;
+                hi = Double.POSITIVE_INFINITY;
+                break;
+            default:
+                lo = hi = 0.;
+                break;
+        }
+    }
+
+    private static RealVar[] extractVars(CArExpression lhs, CArExpression rhs) {
+        LinkedHashSet<RealVar> set = new LinkedHashSet<>();
+        extractVars(lhs, set);
+        extractVars(rhs, set);
+        return set.toArray(new RealVar[0]);
+    }
+
+    private static void extractVars(CArExpression e, LinkedHashSet<RealVar> set) {
+        if (e.isExpressionLeaf()) {
+            set.add((RealVar) e);
+        } else {
+            for (CArExpression c : e.getExpressionChild()) {
+                extractVars(c, set);
+            }
+        }
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return RealEventType.BOUND.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        int loop = 0;
+        while (revise() && ++loop < MAX_LOOP) ;
+        if (box) {
+            for (int i = 0; i < leaves.length; i++) {
+                shave(i);
+            }
+        }
+        if (isEntailed() == ESat.TRUE) {
+            setPassive();
+        }
+    }
+
+    /**
+     * Applies HC4-revise once.
+     *
+     * @return <tt>true</tt> if at least one variable has shrunk by more than its precision
+     * @throws ContradictionException if the relation cannot be satisfied
+     */
+    private boolean revise() throws ContradictionException {
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i].load();
+        }
+        if (!root.evaluate() || !root.narrow(lo, hi) || !root.project()) {
+            fails();
+        }
+        boolean shrunk = false;
+        for (int i = 0; i < leaves.length; i++) {
+            RealVar v = vars[i];
+            double w = v.getUB() - v.getLB();
+            if (v.updateBounds(leaves[i].lb, leaves[i].ub, this)) {
+                shrunk |= w - (v.getUB() - v.getLB()) > v.getPrecision();
+            }
+        }
+        return shrunk;
+    }
+
+    /**
+     * Evaluates the expression with the current domains, except for the i^th variable whose domain
+     * is restricted to [l, u].
+     *
+     * @return <tt>true</tt> if the relation may hold
+     */
+    private boolean check(int i, double l, double u) {
+        for (int j = 0; j < leaves.length; j++) {
+            leaves[j].load();
+        }
+        leaves[i].lb = l;
+        leaves[i].ub = u;
+        return root.evaluate() && root.ub >= lo && root.lb <= hi;
+    }
+
+    /**
+     * Removes from the bounds of the i^th variable the slices that cannot satisfy the relation.
+     */
+    private void shave(int i) throws ContradictionException {
+        RealVar v = vars[i];
+        double p = v.getPrecision();
+        double w = (v.getUB() - v.getLB()) / NB_SLICES;
+        if (Double.isInfinite(w) || w <= p) {
+            return;
+        }
+        int k = 0;
+        double l = v.getLB();
+        double ub = v.getUB();
+        // the last slice ends exactly on the upper bound, regardless of rounding errors
+        while (k < NB_SLICES && !check(i, l, k == NB_SLICES - 1 ? ub : l + w)) {
+            l += w;
+            k++;
+        }
+        if (k == NB_SLICES) {
+            fails();
+        }
+        v.updateLowerBound(l, this);
+        double u = ub;
+        k = 0;
+        while (k < NB_SLICES && !check(i, u - w, u)) {
+            u -= w;
+            k++;
+        }
+        v.updateUpperBound(u, this);
+    }
+
+    @Override
+    public ESat isEntailed() {
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i].load();
+        }
+        if (!root.evaluate() || root.lb > hi || root.ub < lo) {
+            return ESat.FALSE;
+        }
+        if (lo <= root.lb && root.ub <= hi) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+
+    @Override
+    public String toString() {
+        return "PropEquation(" + name + ")";
+    }
+}
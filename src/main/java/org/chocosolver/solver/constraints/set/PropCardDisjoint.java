@@ -0,0 +1,296 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.delta.ISetDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.solver.variables.events.SetEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.procedure.IntProcedure;
+
+import java.util.BitSet;
+
+/**
+ * Cardinality reasoning for pairwise disjoint sets, and optionally their union.
+ * <br/>
+ * Sets being disjoint, their cardinalities sum up to at most the number of elements
+ * that can belong to one of them, and exactly to the cardinality of their union when given.
+ * This propagator filters the cardinality variables accordingly and, when the cardinalities
+ * require every available element to be used, forces the elements belonging to a single upper bound.
+ * Only the cardinality variables which already exist are filtered, the cardinality of another set
+ * is bounded by the sizes of its kernel and envelope.
+ * <br/>
+ * The number of upper bounds each element belongs to is maintained incrementally, from the removals
+ * of the sets' envelopes.
+ * <br/>
+ * It complements {@link PropAllDisjoint} and {@link PropUnion}, which only reason on elements.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropCardDisjoint extends Propagator<Variable> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n;
+    private final SetVar[] sets;
+    /**
+     * Cardinality of each set, null if the set has none
+     */
+    private final IntVar[] cards;
+    /**
+     * Union of the sets, may be null
+     */
+    private final SetVar union;
+    /**
+     * Cardinality of the union, null if the union is null or has none
+     */
+    private final IntVar unionCard;
+    /**
+     * Smallest value of the initial upper bounds
+     */
+    private final int offset;
+    /**
+     * Number of upper bounds each element belongs to, indexed from {@link #offset}
+     */
+    private final IStateInt[] count;
+    /**
+     * Number of elements belonging to at least one upper bound
+     */
+    private final IStateInt elems;
+    private final ISetDeltaMonitor[] sdm;
+    private final IntProcedure elementRemoved;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Cardinality reasoning for disjoint <i>sets</i>, whose union is <i>union</i>
+     *
+     * @param sets  disjoint set variables
+     * @param union union of the sets, or null if unknown
+     */
+    public PropCardDisjoint(SetVar[] sets, SetVar union) {
+        super(vars(sets, union), PropagatorPriority.LINEAR, true);
+        this.n = sets.length;
+        this.sets = new SetVar[n];
+        this.cards = new IntVar[n];
+        int k = union == null ? n : n + 1;
+        for (int i = 0; i < n; i++) {
+            this.sets[i] = (SetVar) vars[i];
+            this.cards[i] = sets[i].hasCard() ? (IntVar) vars[k++] : null;
+        }
+        this.union = union == null ? null : (SetVar) vars[n];
+        this.unionCard = union != null && union.hasCard() ? (IntVar) vars[k] : null;
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (SetVar s : sets) {
+            if (!s.getUB().isEmpty()) {
+                min = Math.min(min, s.getUB().min());
+                max = Math.max(max, s.getUB().max());
+            }
+        }
+        this.offset = min == Integer.MAX_VALUE ? 0 : min;
+        IEnvironment env = model.getEnvironment();
+        this.count = new IStateInt[min == Integer.MAX_VALUE ? 0 : max - min + 1];
+        for (int j = 0; j < count.length; j++) {
+            count[j] = env.makeInt(0);
+        }
+        this.elems = env.makeInt(0);
+        this.sdm = new ISetDeltaMonitor[n];
+        for (int i = 0; i < n; i++) {
+            sdm[i] = this.sets[i].monitorDelta(this);
+        }
+        this.elementRemoved = j -> {
+            if (count[j - offset].add(-1) == 0) {
+                elems.add(-1);
+            }
+        };
+    }
+
+    /**
+     * @return the sets, then the union if any, then the cardinality variables which exist
+     */
+    private static Variable[] vars(SetVar[] sets, SetVar union) {
+        int n = sets.length;
+        int size = union == null ? n : n + 1;
+        for (SetVar s : sets) {
+            if (s.hasCard()) {
+                size++;
+            }
+        }
+        if (union != null && union.hasCard()) {
+            size++;
+        }
+        Variable[] vars = new Variable[size];
+        System.arraycopy(sets, 0, vars, 0, n);
+        int k = n;
+        if (union != null) {
+            vars[k++] = union;
+        }
+        for (SetVar s : sets) {
+            if (s.hasCard()) {
+                vars[k++] = s.getCard();
+            }
+        }
+        if (union != null && union.hasCard()) {
+            vars[k] = union.getCard();
+        }
+        return vars;
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx < n) {
+            // the kernel of a set matters only when it has no cardinality variable
+            return cards[vIdx] == null ? SetEventType.all() : SetEventType.REMOVE_FROM_ENVELOPE.getMask();
+        }
+        if (vars[vIdx] == union) {
+            return unionCard == null ? SetEventType.all() : SetEventType.VOID.getMask();
+        }
+        return IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (idxVarInProp < n) {
+            sdm[idxVarInProp].freeze();
+            sdm[idxVarInProp].forEach(elementRemoved, SetEventType.REMOVE_FROM_ENVELOPE);
+            sdm[idxVarInProp].unfreeze();
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (IStateInt c : count) {
+                c.set(0);
+            }
+            int e = 0;
+            for (int i = 0; i < n; i++) {
+                ISetIterator iter = sets[i].getUB().iterator();
+                while (iter.hasNext()) {
+                    if (count[iter.nextInt() - offset].add(1) == 1) {
+                        e++;
+                    }
+                }
+                sdm[i].unfreeze();
+            }
+            elems.set(e);
+        }
+        filter();
+    }
+
+    private void filter() throws ContradictionException {
+        // number of elements available
+        int avail = elems.get();
+        if (unionCard != null) {
+            unionCard.updateUpperBound(avail, this);
+            avail = unionCard.getUB();
+        } else if (union != null) {
+            avail = Math.min(avail, union.getUB().size());
+        }
+        int sumLB = 0, sumUB = 0;
+        for (int i = 0; i < n; i++) {
+            sumLB += lb(i);
+            sumUB += ub(i);
+        }
+        if (sumLB > avail) {
+            fails();
+        }
+        int need = 0;
+        if (unionCard != null) {
+            unionCard.updateBounds(sumLB, sumUB, this);
+            need = unionCard.getLB();
+        } else if (union != null) {
+            need = union.getLB().size();
+            if (sumUB < need) {
+                fails();
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (cards[i] != null) {
+                int others = sumLB - cards[i].getLB();
+                cards[i].updateBounds(need - (sumUB - cards[i].getUB()), avail - others, this);
+            }
+        }
+        if (sumLB == elems.get()) {
+            // all available elements are used: those in a single upper bound are mandatory
+            for (int i = 0; i < n; i++) {
+                ISetIterator iter = sets[i].getUB().iterator();
+                while (iter.hasNext()) {
+                    int j = iter.nextInt();
+                    if (count[j - offset].get() == 1) {
+                        sets[i].force(j, this);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param i index of a set
+     * @return a lower bound of the cardinality of the set
+     */
+    private int lb(int i) {
+        return cards[i] == null ? sets[i].getLB().size() : cards[i].getLB();
+    }
+
+    /**
+     * @param i index of a set
+     * @return an upper bound of the cardinality of the set
+     */
+    private int ub(int i) {
+        return cards[i] == null ? sets[i].getUB().size() : cards[i].getUB();
+    }
+
+    @Override
+    public ESat isEntailed() {
+        int sumLB = 0, sumUB = 0;
+        for (int i = 0; i < n; i++) {
+            sumLB += sets[i].getLB().size();
+            sumUB += sets[i].getUB().size();
+        }
+        // counts the available elements from scratch, as the propagator may not have been propagated yet
+        BitSet available = new BitSet();
+        for (int i = 0; i < n; i++) {
+            ISetIterator iter = sets[i].getUB().iterator();
+            while (iter.hasNext()) {
+                available.set(iter.nextInt() - offset);
+            }
+        }
+        if (sumLB > available.cardinality()) {
+            return ESat.FALSE;
+        }
+        if (union != null && (sumUB < union.getLB().size())) {
+            return ESat.FALSE;
+        }
+        if (isCompletelyInstantiated()) {
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+}
@@ -24,6 +24,7 @@ import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.roaring.Set_Roaring;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
@@ -36,6 +37,9 @@ public class PropIntersection extends Propagator<SetVar> {
     private int k;
     private ISetDeltaMonitor[] sdm;
     private IntProcedure intersectionForced, intersectionRemoved, setForced, setRemoved;
+    // for full propagation only
+    private IntProcedure kerForced, forcedInCurrent;
+    private int current;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -92,6 +96,15 @@ public class PropIntersection extends Propagator<SetVar> {
             }
         };
         setRemoved = element -> vars[k].remove(element, this);
+        kerForced = element -> {
+            for (int i = 2; i < k; i++) {
+                if (!vars[i].getLB().contains(element)) {
+                    return;
+                }
+            }
+            vars[k].force(element, this);
+        };
+        forcedInCurrent = element -> vars[current].force(element, this);
     }
 
     //***********************************************************************************
@@ -102,34 +115,13 @@ public class PropIntersection extends Propagator<SetVar> {
     public void propagate(int evtmask) throws ContradictionException {
         SetVar intersection = vars[k];
         if (PropagatorEventType.isFullPropagation(evtmask)) {
-            ISetIterator iter = vars[0].getLB().iterator();
-            while (iter.hasNext()){
-                int j = iter.nextInt();
-                boolean all = true;
-                for (int i = 1; i < k; i++) {
-                    if (!vars[i].getLB().contains(j)) {
-                        all = false;
-                        break;
-                    }
-                }
-                if (all) {
-                    intersection.force(j, this);
-                }
+            // word-level operations when the variables are based on compressed bitsets
+            Set_Roaring.forEachIn(vars[0].getLB(), vars[k > 1 ? 1 : 0].getLB(), kerForced);
+            for (current = 0; current < k; current++) {
+                Set_Roaring.forEachNotIn(intersection.getLB(), vars[current].getLB(), forcedInCurrent);
             }
-            iter = intersection.getUB().iterator();
-            while (iter.hasNext()){
-                int j = iter.nextInt();
-                if (intersection.getLB().contains(j)) {
-                    for (int i = 0; i < k; i++) {
-                        vars[i].force(j, this);
-                    }
-                } else {
-                    for (int i = 0; i < k; i++)
-                        if (!vars[i].getUB().contains(j)) {
-                            intersection.remove(j, this);
-                            break;
-                        }
-                }
+            for (int i = 0; i < k; i++) {
+                Set_Roaring.forEachNotIn(intersection.getUB(), vars[i].getUB(), setRemoved);
             }
             // ------------------
 			for (int i = 0; i <= k; i++)
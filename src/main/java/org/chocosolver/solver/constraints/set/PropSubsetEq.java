@@ -23,6 +23,7 @@ import org.chocosolver.solver.variables.delta.ISetDeltaMonitor;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.roaring.Set_Roaring;
 import org.chocosolver.util.procedure.IntProcedure;
 
 /**
@@ -74,16 +75,9 @@ public class PropSubsetEq extends Propagator<SetVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        ISetIterator iter = vars[0].getLB().iterator();
-        while (iter.hasNext()){
-            vars[1].force(iter.nextInt(), this);
-        }
-        iter = vars[0].getUB().iterator();
-        while (iter.hasNext()){
-            int j = iter.nextInt();
-            if (!vars[1].getUB().contains(j))
-                vars[0].remove(j, this);
-        }
+        // word-level operations when both variables are based on compressed bitsets
+        Set_Roaring.forEachNotIn(vars[0].getLB(), vars[1].getLB(), elementForced);
+        Set_Roaring.forEachNotIn(vars[0].getUB(), vars[1].getUB(), elementRemoved);
         sdm[0].unfreeze();
         sdm[1].unfreeze();
     }
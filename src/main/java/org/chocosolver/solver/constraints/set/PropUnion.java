@@ -24,6 +24,7 @@ import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.roaring.Set_Roaring;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
@@ -36,6 +37,9 @@ public class PropUnion extends Propagator<SetVar> {
     private int k;
     private ISetDeltaMonitor[] sdm;
     private IntProcedure unionForced, unionRemoved, setForced, setRemoved;
+    // for full propagation only
+    private IntProcedure removedFromCurrent;
+    private int current;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -97,6 +101,7 @@ public class PropUnion extends Propagator<SetVar> {
                 }
             }
         };
+        removedFromCurrent = element -> vars[current].remove(element, this);
     }
 
     //***********************************************************************************
@@ -107,16 +112,10 @@ public class PropUnion extends Propagator<SetVar> {
     public void propagate(int evtmask) throws ContradictionException {
         if (PropagatorEventType.isFullPropagation(evtmask)) {
             SetVar union = vars[k];
-            for (int i = 0; i < k; i++) {
-                ISetIterator iter = vars[i].getLB().iterator();
-                while(iter.hasNext())
-                    union.force(iter.nextInt(),this);
-                iter = vars[i].getUB().iterator();
-                while(iter.hasNext()) {
-                    int j = iter.nextInt();
-                    if (!union.getUB().contains(j))
-                        vars[i].remove(j, this);
-                }
+            // word-level operations when the variables are based on compressed bitsets
+            for (current = 0; current < k; current++) {
+                Set_Roaring.forEachNotIn(vars[current].getLB(), union.getLB(), setForced);
+                Set_Roaring.forEachNotIn(vars[current].getUB(), union.getUB(), removedFromCurrent);
             }
             ISetIterator unionUB = union.getUB().iterator();
             while (unionUB.hasNext()) {
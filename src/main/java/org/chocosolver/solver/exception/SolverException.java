@@ -31,4 +31,14 @@ public class SolverException extends RuntimeException {
     public SolverException(String message) {
 		super(message);
     }
+
+    /**
+     * Constructs a new solver exception with the specified detailed message and cause.
+     *
+     * @param message message to print
+     * @param cause   the exception which caused this one
+     */
+    public SolverException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -65,6 +65,21 @@ public class BiCArExpression implements CArExpression {
         return model;
     }
 
+    @Override
+    public Operator getOperator() {
+        return op;
+    }
+
+    @Override
+    public int getNoChild() {
+        return 2;
+    }
+
+    @Override
+    public CArExpression[] getExpressionChild() {
+        return new CArExpression[]{e1, e2};
+    }
+
     @Override
     public RealVar realVar(double p) {
         if (me == null) {
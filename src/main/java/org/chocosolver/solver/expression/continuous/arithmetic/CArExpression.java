@@ -174,6 +174,34 @@ public interface CArExpression {
      */
     RealVar realVar(double precision);
 
+    /**
+     * @return <tt>true</tt> if this expression is a leaf, ie a variable, <tt>false</tt> otherwise
+     */
+    default boolean isExpressionLeaf() {
+        return false;
+    }
+
+    /**
+     * @return the operator of this expression, or <tt>null</tt> if this expression is a leaf
+     */
+    default Operator getOperator() {
+        return null;
+    }
+
+    /**
+     * @return the number of children of this expression
+     */
+    default int getNoChild() {
+        return 0;
+    }
+
+    /**
+     * @return the children of this expression, or an empty array if this expression is a leaf
+     */
+    default CArExpression[] getExpressionChild() {
+        return NO_CHILD;
+    }
+
     /**
      * @return return the expression "-x" where this is "x"
      */
@@ -10,6 +10,8 @@ package org.chocosolver.solver.expression.continuous.relational;
 
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.ConstraintsName;
+import org.chocosolver.solver.constraints.real.PropEquation;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.expression.continuous.arithmetic.CArExpression;
 import org.chocosolver.solver.variables.RealVar;
@@ -71,6 +73,11 @@ public class BiCReExpression implements CReExpression {
         throw new SolverException("Unexpected case");
     }
 
+    @Override
+    public Constraint equation(boolean box) {
+        return new Constraint(ConstraintsName.REALEQUATION, new PropEquation(e1, op, e2, box));
+    }
+
 
     @Override
     public String toString() {
@@ -59,4 +59,27 @@ public interface CReExpression {
      * creates additional variables and posts additional constraints.
      */
     Constraint ibex(double p);
+
+    /**
+     * Unlike {@link #ibex(double)}, the returned constraint is propagated in pure Java, with HC4
+     * over the tree of the expression, and does not require any native library nor intermediate
+     * variables.
+     * Only some operators are supported (see {@link org.chocosolver.solver.constraints.real.PropEquation}).
+     *
+     * @return the constraint representing the expression.
+     */
+    default Constraint equation() {
+        return equation(false);
+    }
+
+    /**
+     * Unlike {@link #ibex(double)}, the returned constraint is propagated in pure Java, with HC4
+     * over the tree of the expression, and does not require any native library nor intermediate
+     * variables.
+     * Only some operators are supported (see {@link org.chocosolver.solver.constraints.real.PropEquation}).
+     *
+     * @param box set to <tt>true</tt> to strengthen HC4 with BOX-like shaving on variables' bounds
+     * @return the constraint representing the expression.
+     */
+    Constraint equation(boolean box);
 }
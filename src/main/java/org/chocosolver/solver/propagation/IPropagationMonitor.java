@@ -0,0 +1,51 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.constraints.Propagator;
+
+/**
+ * A monitor of the propagation engine, notified of each fix point computation and each propagator execution.
+ * <p>
+ * When a propagator fails, {@link #afterPropagation(Propagator, boolean)}
+ * and then {@link #afterFixpoint(boolean)} are called with <tt>true</tt>.
+ *
+ * @author agent
+ * @see PropagationEngine#setMonitor(IPropagationMonitor)
+ * @since 4.0.9
+ */
+public interface IPropagationMonitor {
+
+    /**
+     * Action to execute before computing a fix point
+     */
+    void beforeFixpoint();
+
+    /**
+     * Action to execute after computing a fix point
+     *
+     * @param failed <tt>true</tt> if a contradiction has been thrown
+     */
+    void afterFixpoint(boolean failed);
+
+    /**
+     * Action to execute before executing a propagator
+     *
+     * @param propagator the propagator to execute
+     */
+    void beforePropagation(Propagator propagator);
+
+    /**
+     * Action to execute after executing a propagator
+     *
+     * @param propagator the propagator executed
+     * @param failed     <tt>true</tt> if the propagator has thrown a contradiction
+     */
+    void afterPropagation(Propagator propagator, boolean failed);
+}
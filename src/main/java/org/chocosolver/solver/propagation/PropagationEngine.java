@@ -84,10 +84,15 @@ public class PropagationEngine {
     /**
      * When set to '0b00', this works as a constraint-oriented propagation engine;
      * when set to '0b01', this workds as an hybridization between variable and constraint oriented
-     * propagation engine.
+     * propagation engine, where the events are aggregated per round: each modified variable is queued once,
+     * with the union of its events.
      * when set to '0b10', this workds as a variable- oriented propagation engine.
      */
     private final byte hybrid;
+    /**
+     * Monitor of the propagation, may be null
+     */
+    private IPropagationMonitor monitor;
 
     /**
      * A seven-queue propagation engine.
@@ -142,6 +147,23 @@ public class PropagationEngine {
         }
     }
 
+    /**
+     * Set the monitor of the propagation, which is notified of each fix point computation
+     * and each propagator execution.
+     *
+     * @param monitor a monitor, or <tt>null</tt> to remove the current one
+     */
+    public void setMonitor(IPropagationMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * @return the monitor of the propagation, may be <tt>null</tt>
+     */
+    public IPropagationMonitor getMonitor() {
+        return monitor;
+    }
+
     /**
      * Is the engine initialized?
      * Important for dynamic addition of constraints
@@ -159,6 +181,26 @@ public class PropagationEngine {
      */
     @SuppressWarnings({"NullableProblems"})
     public void propagate() throws ContradictionException {
+        if (monitor == null) {
+            fixpoint();
+        } else {
+            monitor.beforeFixpoint();
+            boolean failed = true;
+            try {
+                fixpoint();
+                failed = false;
+            } finally {
+                monitor.afterFixpoint(failed);
+            }
+        }
+    }
+
+    /**
+     * Reaches a fix point
+     *
+     * @throws ContradictionException if a contradiction occurrs
+     */
+    private void fixpoint() throws ContradictionException {
         activatePropagators();
         do {
             manageModifications();
@@ -168,14 +210,25 @@ public class PropagationEngine {
                     // revision of the variable
                     lastProp.unschedule();
                     delayedPropagationType = 0;
-                    if (lastProp.reactToFineEvent()) {
-                        lastProp.doFinePropagation();
-                        // now we can check whether a delayed propagation has been scheduled
-                        if (delayedPropagationType > 0) {
-                            lastProp.propagate(delayedPropagationType);
+                    if (monitor != null) {
+                        monitor.beforePropagation(lastProp);
+                    }
+                    boolean failed = true;
+                    try {
+                        if (lastProp.reactToFineEvent()) {
+                            lastProp.doFinePropagation();
+                            // now we can check whether a delayed propagation has been scheduled
+                            if (delayedPropagationType > 0) {
+                                lastProp.propagate(delayedPropagationType);
+                            }
+                        } else if (lastProp.isActive()) { // need to be checked due to views
+                            lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+                        }
+                        failed = false;
+                    } finally {
+                        if (monitor != null) {
+                            monitor.afterPropagation(lastProp, failed);
                         }
-                    } else if (lastProp.isActive()) { // need to be checked due to views
-                        lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
                     }
                     if (hybrid < 0b01) {
                         manageModifications();
@@ -216,7 +269,18 @@ public class PropagationEngine {
             propagator.setActive();
         }
         if (propagator.isActive()) {
-            propagator.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+            if (monitor != null) {
+                monitor.beforePropagation(propagator);
+            }
+            boolean failed = true;
+            try {
+                propagator.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+                failed = false;
+            } finally {
+                if (monitor != null) {
+                    monitor.afterPropagation(propagator, failed);
+                }
+            }
             while (!var_queue.isEmpty()) {
                 schedule(var_queue.pollFirst());
             }
@@ -227,7 +291,7 @@ public class PropagationEngine {
         if (!var_queue.isEmpty()) {
             do {
                 schedule(var_queue.pollFirst());
-            } while (hybrid < 2 && !var_queue.isEmpty());
+            } while (hybrid != 0b10 && !var_queue.isEmpty());
         }
     }
 
@@ -277,7 +341,10 @@ public class PropagationEngine {
             }
             assert found : variable + " not in scope of " + cause;
         }
-        var_queue.addLast(variable);
+        if (hybrid != 0b01 || variable.getMask() == 0) {
+            // in hybrid mode, a variable with pending events is already queued until the end of the round
+            var_queue.addLast(variable);
+        }
         variable.storeEvents(type.getMask(), cause);
     }
 
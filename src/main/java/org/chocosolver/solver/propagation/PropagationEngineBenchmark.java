@@ -0,0 +1,291 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.DefaultSettings;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.io.PrintStream;
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.domOverWDegSearch;
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.minDomLBSearch;
+
+/**
+ * Compares the modes of the propagation engine, see {@link Settings#setHybridizationOfPropagationEngine(byte)},
+ * on a set of representative models: binary constraints, global constraints with views, sums and tables,
+ * in satisfaction and optimization.
+ * <p>
+ * For each model and each mode, it reports the best resolution time over a few runs,
+ * the number of nodes and the number of propagator executions:
+ * <pre>
+ *     java -cp choco-solver.jar org.chocosolver.solver.propagation.PropagationEngineBenchmark [runs]
+ * </pre>
+ * The models are also used to check that the modes give the same solutions.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropagationEngineBenchmark {
+
+    /**
+     * The modes of the engine
+     */
+    static final byte[] MODES = {0b00, 0b01, 0b10};
+
+    /**
+     * Names of the modes
+     */
+    static final String[] NAMES = {"constraint", "hybrid", "variable"};
+
+    /**
+     * Names of the models
+     */
+    static final String[] MODELS = {"queens-binary", "queens-alldiff", "costas", "golomb", "magic-square", "random-tables"};
+
+    /**
+     * Builders of the models
+     */
+    static final Builder[] BUILDERS = {
+            (s, n) -> queens(s, n, false),
+            (s, n) -> queens(s, n, true),
+            PropagationEngineBenchmark::costas,
+            PropagationEngineBenchmark::golomb,
+            PropagationEngineBenchmark::magicSquare,
+            PropagationEngineBenchmark::randomTables
+    };
+
+    /**
+     * Sizes of the instances, for the benchmark
+     */
+    private static final int[] SIZES = {11, 12, 10, 9, 4, 22};
+
+    /**
+     * Result of a resolution
+     */
+    static final class Result {
+        long solutions, nodes, propagations, time;
+    }
+
+    /**
+     * Counts propagator executions
+     */
+    private static final class Counter implements IPropagationMonitor {
+        long propagations;
+
+        @Override
+        public void beforeFixpoint() {
+        }
+
+        @Override
+        public void afterFixpoint(boolean failed) {
+        }
+
+        @Override
+        public void beforePropagation(Propagator propagator) {
+            propagations++;
+        }
+
+        @Override
+        public void afterPropagation(Propagator propagator, boolean failed) {
+        }
+    }
+
+    /**
+     * Builds an instance of a model
+     */
+    @FunctionalInterface
+    interface Builder {
+        /**
+         * @param settings settings of the model
+         * @param size     size of the instance
+         * @return the model
+         */
+        Model build(Settings settings, int size);
+    }
+
+    /**
+     * Solves an instance of a model with an engine mode: all solutions are enumerated,
+     * or the optimal one is found if the model has an objective.
+     *
+     * @param model index of the model in {@link #MODELS}
+     * @param size  size of the instance
+     * @param mode  mode of the propagation engine
+     * @return the result of the resolution
+     */
+    static Result solve(int model, int size, byte mode) {
+        Model m = BUILDERS[model].build(new DefaultSettings().setHybridizationOfPropagationEngine(mode), size);
+        Solver solver = m.getSolver();
+        Counter counter = new Counter();
+        solver.getEngine().setMonitor(counter);
+        Result result = new Result();
+        long start = System.nanoTime();
+        while (solver.solve()) {
+            result.solutions++;
+        }
+        result.time = System.nanoTime() - start;
+        result.nodes = solver.getNodeCount();
+        result.propagations = counter.propagations;
+        return result;
+    }
+
+    /**
+     * Runs the benchmark and prints a table of results.
+     *
+     * @param runs number of runs per model and mode, the best time is kept
+     * @param out  where to print
+     */
+    static void benchmark(int runs, PrintStream out) {
+        out.printf("%-16s %-11s %10s %10s %14s %10s%n", "model", "mode", "solutions", "nodes", "propagations", "time(ms)");
+        for (int m = 0; m < MODELS.length; m++) {
+            for (int k = 0; k < MODES.length; k++) {
+                Result best = null;
+                for (int r = 0; r < runs; r++) {
+                    Result res = solve(m, SIZES[m], MODES[k]);
+                    if (best == null || res.time < best.time) {
+                        best = res;
+                    }
+                }
+                out.printf("%-16s %-11s %10d %10d %14d %10.1f%n", MODELS[m], NAMES[k],
+                        best.solutions, best.nodes, best.propagations, best.time / 1e6);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        // warm up
+        for (int m = 0; m < MODELS.length; m++) {
+            for (byte mode : MODES) {
+                solve(m, SIZES[m] - 2, mode);
+            }
+        }
+        benchmark(runs, System.out);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Model queens(Settings settings, int n, boolean alldiff) {
+        Model model = new Model("queens", settings);
+        IntVar[] vars = model.intVarArray("Q", n, 1, n, false);
+        if (alldiff) {
+            model.allDifferent(vars, "AC").post();
+        }
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int k = j - i;
+                if (!alldiff) {
+                    model.arithm(vars[i], "!=", vars[j]).post();
+                }
+                model.arithm(vars[i], "!=", vars[j], "+", -k).post();
+                model.arithm(vars[i], "!=", vars[j], "+", k).post();
+            }
+        }
+        model.getSolver().setSearch(minDomLBSearch(vars));
+        return model;
+    }
+
+    private static Model costas(Settings settings, int n) {
+        Model model = new Model("costas", settings);
+        IntVar[] vars = model.intVarArray("v", n, 0, n - 1, false);
+        IntVar[] vectors = new IntVar[(n * (n - 1)) / 2];
+        int idx = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                IntVar k = model.intVar(model.generateName(), -n, n, false);
+                model.arithm(k, "!=", 0).post();
+                model.sum(new IntVar[]{vars[i], k}, "=", vars[j]).post();
+                vectors[idx++] = model.intOffsetView(k, 2 * n * (j - i));
+            }
+        }
+        model.allDifferent(vars, "AC").post();
+        model.allDifferent(vectors, "BC").post();
+        model.arithm(vars[0], "<", vars[n - 1]).post();
+        model.getSolver().setSearch(inputOrderLBSearch(vars));
+        return model;
+    }
+
+    private static Model golomb(Settings settings, int m) {
+        Model model = new Model("golomb", settings);
+        IntVar[] ticks = model.intVarArray("a", m, 0, (1 << (m + 1)) - 1, false);
+        IntVar[] diffs = model.intVarArray("d", (m * m - m) / 2, 0, (1 << (m + 1)) - 1, false);
+        model.arithm(ticks[0], "=", 0).post();
+        for (int i = 0; i < m - 1; i++) {
+            model.arithm(ticks[i + 1], ">", ticks[i]).post();
+        }
+        for (int k = 0, i = 0; i < m - 1; i++) {
+            for (int j = i + 1; j < m; j++, k++) {
+                model.arithm(ticks[j], "-", ticks[i], "=", diffs[k]).post();
+                model.arithm(diffs[k], ">=", (j - i) * (j - i + 1) / 2).post();
+            }
+        }
+        model.allDifferent(diffs, "BC").post();
+        model.arithm(diffs[0], "<", diffs[diffs.length - 1]).post();
+        model.setObjective(Model.MINIMIZE, ticks[m - 1]);
+        model.getSolver().setSearch(inputOrderLBSearch(ticks));
+        return model;
+    }
+
+    private static Model magicSquare(Settings settings, int n) {
+        Model model = new Model("magic square", settings);
+        int ms = n * (n * n + 1) / 2;
+        IntVar[][] matrix = model.intVarMatrix("m", n, n, 1, n * n);
+        IntVar[] vars = model.intVarArray("v", n * n, 1, n * n);
+        IntVar[] diag1 = new IntVar[n];
+        IntVar[] diag2 = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            IntVar[] col = new IntVar[n];
+            for (int j = 0; j < n; j++) {
+                matrix[i][j] = vars[i * n + j];
+                col[j] = vars[j * n + i];
+            }
+            diag1[i] = vars[i * n + i];
+            diag2[i] = vars[i * n + n - 1 - i];
+            model.sum(col, "=", ms).post();
+        }
+        for (int i = 0; i < n; i++) {
+            model.sum(matrix[i], "=", ms).post();
+        }
+        model.sum(diag1, "=", ms).post();
+        model.sum(diag2, "=", ms).post();
+        model.allDifferent(vars, "BC").post();
+        model.arithm(vars[0], "<", vars[n - 1]).post();
+        model.arithm(vars[0], "<", vars[n * (n - 1)]).post();
+        model.getSolver().setSearch(minDomLBSearch(vars));
+        model.getSolver().limitSolution(2000);
+        return model;
+    }
+
+    private static Model randomTables(Settings settings, int n) {
+        Model model = new Model("random tables", settings);
+        Random rnd = new Random(n);
+        IntVar[] vars = model.intVarArray("x", n, 0, 7, false);
+        for (int c = 0; c < 2 * n; c++) {
+            int i = rnd.nextInt(n), j = (i + 1 + rnd.nextInt(n - 1)) % n, k;
+            do {
+                k = rnd.nextInt(n);
+            } while (k == i || k == j);
+            IntVar[] scope = {vars[i], vars[j], vars[k]};
+            Tuples tuples = new Tuples(true);
+            for (int t = 0; t < 300; t++) {
+                tuples.add(rnd.nextInt(8), rnd.nextInt(8), rnd.nextInt(8));
+            }
+            model.table(scope, tuples, "CT+").post();
+        }
+        model.getSolver().setSearch(domOverWDegSearch(vars));
+        model.getSolver().limitSolution(5000);
+        return model;
+    }
+}
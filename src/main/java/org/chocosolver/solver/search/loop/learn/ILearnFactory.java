@@ -47,4 +47,13 @@ public interface ILearnFactory extends ISelf<Solver> {
     default void setDBTLearning(boolean nogoodsOn, boolean userFeedbackOn) {
         ref().setLearner(new LearnDBT(ref().getModel(), nogoodsOn, userFeedbackOn));
     }
+
+    /**
+     * Creates a learning object based on lazy clause generation.
+     * On failure, a first-UIP clause over <code>[x = v]</code> and <code>[x &le; v]</code> literals
+     * is computed from the explanations of the propagators and added to the nogood store.
+     */
+    default void setLazyClauseLearning() {
+        ref().setLearner(new LearnLazyClause(ref().getModel()));
+    }
 }
@@ -0,0 +1,337 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.learn;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.sat.PropNogoods;
+import org.chocosolver.sat.SatSolver;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.ArrayEventStore;
+import org.chocosolver.solver.explanations.Explanation;
+import org.chocosolver.solver.explanations.RuleStore;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+
+import java.util.Arrays;
+
+import static org.chocosolver.solver.variables.events.PropagatorEventType.FULL_PROPAGATION;
+
+/**
+ * Lazy clause generation[1] learning strategy.
+ * <p>
+ * On failure, the conflict is analysed backward over the events stored by the explanation engine,
+ * each propagator explaining its domain reductions through its {@link ICause#why} method.
+ * Events of the current decision level are explained until a single one remains relevant,
+ * the first unique implication point (1-UIP), whereas relevant events of the previous levels are kept.
+ * Each kept event becomes a literal, over <code>[x = v]</code> or <code>[x &le; v]</code>,
+ * of a clause added to the nogood store ({@link PropNogoods}).
+ * The search then backjumps to the asserting level, the highest level of the other literals, where the clause
+ * propagates the negation of the UIP: the decisions made after that level are undone and the next one is applied
+ * again, so that its subtree is explored anew with the clause. Decisions whose branch leads to the last solution
+ * found are not applied again, for the solution not to be found twice. When the clause is unit, or when no decision
+ * above the current one can be applied again, the current decision is refuted.
+ * <p>
+ * The quality of the learnt clauses depends on the precision of the explanations:
+ * the propagators that do not override {@link ICause#why} are explained by the whole domain
+ * of their variables.
+ * <p>
+ * [1]: O. Ohrimenko, P. J. Stuckey, M. Codish, Propagation via lazy clause generation, Constraints (09).
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class LearnLazyClause extends LearnExplained {
+
+    /**
+     * The nogood store, where clauses are added.
+     */
+    private final PropNogoods ngstore;
+
+    /**
+     * Events to analyse.
+     */
+    private final ArrayEventStore eventStore;
+
+    /**
+     * Rules to match relevant events.
+     */
+    private final RuleStore ruleStore;
+
+    /**
+     * Index, in the event store, of the first event of each decision level, level 0 excluded.
+     */
+    private int[] levels = new int[16];
+
+    /**
+     * Literals of the clause being computed.
+     */
+    private final TIntArrayList clause = new TIntArrayList();
+
+    /**
+     * Literal block distance of the clause being computed, that is, its number of decision levels.
+     */
+    private int lbd;
+
+    /**
+     * Index of the last relevant event found below the event being explained, on the current level.
+     */
+    private int next;
+
+    /**
+     * Variables whose lower bound, resp. upper bound, is already in the clause.
+     */
+    private final TIntHashSet lbs = new TIntHashSet(), ubs = new TIntHashSet();
+
+    /**
+     * Decision level of the clause being computed, apart from the UIP, 0 if the UIP is the only literal.
+     */
+    private int assertingLevel;
+
+    /**
+     * Decisions of the path leading to the last solution, and their number of tries left then,
+     * indexed by position.
+     */
+    private Decision[] solDecisions = new Decision[0];
+    private int[] solTries = new int[0];
+    private int solSize;
+
+    /**
+     * Number of clauses learnt so far.
+     */
+    private long nbClauses;
+
+    /**
+     * Number of backjumps over more than one decision so far.
+     */
+    private long nbBackjumps;
+
+    /**
+     * Create a lazy clause generation strategy.
+     * @param mModel the model to instrument
+     */
+    public LearnLazyClause(Model mModel) {
+        super(mModel, false, false);
+        this.ngstore = mModel.getNogoodStore().getPropNogoods();
+        this.eventStore = mExplainer.getEventStore();
+        this.ruleStore = mExplainer.getRuleStore();
+    }
+
+    @Override
+    public void onSolution(Solver solver) {
+        // no decision refutation to explain, clauses are self-contained
+        DecisionPath path = solver.getDecisionPath();
+        solSize = path.size();
+        if (solDecisions.length < solSize) {
+            solDecisions = new Decision[solSize * 3 / 2 + 1];
+            solTries = new int[solDecisions.length];
+        }
+        for (int p = 1; p < solSize; p++) {
+            solDecisions[p] = path.getDecision(p);
+            solTries[p] = solDecisions[p].triesLeft();
+        }
+        solver.setJumpTo(1);
+    }
+
+    @Override
+    public void onFailure(Solver solver) {
+        int cur = computeLevels();
+        if (cur > 0) {
+            analyse(solver.getContradictionException(), cur);
+            if (clause.size() > 0) {
+                ngstore.addLearnt(clause.toArray(), lbd);
+                nbClauses++;
+                solver.setJumpTo(backjump(solver.getDecisionPath()));
+                return;
+            }
+        }
+        solver.setJumpTo(1);
+    }
+
+    /**
+     * Prepares the backjump to the asserting level of the learnt clause.
+     *
+     * @param path the current decision path
+     * @return the number of decisions to go back over
+     */
+    private int backjump(DecisionPath path) {
+        if (assertingLevel == 0) {
+            // a unit clause is only enforced by a full propagation of the nogoods, refute the last decision
+            return 1;
+        }
+        int last = path.size() - 1;
+        // position of the decision of the asserting level
+        int p = ((Decision) eventStore.getCause(levels[assertingLevel])).getPosition();
+        // decisions which lead to the last solution
+        int common = 0;
+        while (common + 1 < Math.min(solSize, path.size())
+                && path.getDecision(common + 1) == solDecisions[common + 1]
+                && path.getDecision(common + 1).triesLeft() == solTries[common + 1]) {
+            common++;
+        }
+        int r = Math.max(p, common) + 1;
+        if (r < last && path.getDecision(r).getArity() > 1) {
+            path.getDecision(r).replay();
+            nbBackjumps++;
+            return last - r + 1;
+        }
+        return 1;
+    }
+
+    /**
+     * Scans the event store to find the first event of each decision level.
+     * A new level starts on each event caused by a decision distinct from the previous one.
+     *
+     * @return the current decision level
+     */
+    private int computeLevels() {
+        int n = 0;
+        ICause prev = null;
+        for (int i = 0; i < eventStore.getSize(); i++) {
+            ICause cause = eventStore.getCause(i);
+            if (cause instanceof Decision && cause != prev) {
+                if (++n == levels.length) {
+                    levels = Arrays.copyOf(levels, n * 3 / 2 + 1);
+                }
+                levels[n] = i;
+                prev = cause;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Computes the 1-UIP clause of the conflict <i>cex</i> into {@link #clause}.
+     *
+     * @param cex the contradiction to analyse
+     * @param cur the current decision level
+     */
+    private void analyse(ContradictionException cex, int cur) {
+        clause.resetQuick();
+        lbd = 0;
+        lbs.clear();
+        ubs.clear();
+        Explanation explanation = mExplainer.makeExplanation(false);
+        ruleStore.init(explanation);
+        if (cex.v instanceof IntVar) {
+            ruleStore.addFullDomainRule((IntVar) cex.v);
+        } else if (cex.c != null) {
+            cex.c.why(ruleStore, null, IntEventType.VOID, 0);
+        }
+        assertingLevel = 0;
+        int from = levels[cur];
+        int i = eventStore.getSize() - 1;
+        // 1. current level: explain events up to the first UIP
+        next = i;
+        while (i >= from) {
+            if (ruleStore.match(i, eventStore)) {
+                IEventType evt = eventStore.getEventType(i);
+                ICause cause = eventStore.getCause(i);
+                if (evt == FULL_PROPAGATION) {
+                    ruleStore.update(i, eventStore, explanation);
+                } else if (cause instanceof Decision || !pending(i - 1, from)) {
+                    addLiteral(i);
+                    lbd++;
+                    break;
+                } else {
+                    cause.why(ruleStore, eventStore.getVariable(i), evt, eventStore.getFirstValue(i));
+                }
+            }
+            i--;
+        }
+        // 2. previous levels: keep relevant events, level 0 excluded
+        int level = cur, last = cur;
+        for (i = from - 1; i >= levels[1]; i--) {
+            while (levels[level] > i) {
+                level--;
+            }
+            if (ruleStore.match(i, eventStore)) {
+                if (eventStore.getEventType(i) == FULL_PROPAGATION) {
+                    ruleStore.update(i, eventStore, explanation);
+                } else if (addLiteral(i) && level != last) {
+                    lbd++;
+                    last = level;
+                    if (assertingLevel == 0) {
+                        assertingLevel = level;
+                    }
+                }
+            }
+        }
+        explanation.recycle();
+    }
+
+    /**
+     * Rules only grow while explaining an event, so a relevant event stays relevant and {@link #next} is only
+     * searched again once the analysis reaches it: each event of the current level is checked at most once
+     * by this method over an analysis.
+     *
+     * @param i    index of the last event to check
+     * @param from index of the first event to check
+     * @return <tt>true</tt> if at least one event in [<i>from</i>, <i>i</i>] is relevant
+     */
+    private boolean pending(int i, int from) {
+        if (next <= i && next >= from && ruleStore.match(next, eventStore)) {
+            return true;
+        }
+        for (next = Math.min(next - 1, i); next >= from; next--) {
+            if (ruleStore.match(next, eventStore)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds to the clause the negation of the event <i>i</i>.
+     * Bounds being monotonic along a branch, only the latest bound event of a variable is kept.
+     *
+     * @param i index of an event
+     * @return <tt>true</tt> if a literal has been added
+     */
+    private boolean addLiteral(int i) {
+        IEventType evt = eventStore.getEventType(i);
+        if (!(evt instanceof IntEventType)) {
+            return false;
+        }
+        IntVar var = eventStore.getVariable(i);
+        int value = eventStore.getFirstValue(i);
+        switch ((IntEventType) evt) {
+            case INSTANTIATE:
+                return clause.add(SatSolver.negated(ngstore.Literal(var, value, true)));
+            case INCLOW:
+                return lbs.add(var.getId()) && clause.add(ngstore.Literal(var, value - 1, false));
+            case DECUPP:
+                return ubs.add(var.getId()) && clause.add(SatSolver.negated(ngstore.Literal(var, value, false)));
+            case REMOVE:
+                return clause.add(ngstore.Literal(var, value, true));
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return the number of clauses learnt so far
+     */
+    public long getNbClauses() {
+        return nbClauses;
+    }
+
+    /**
+     * @return the number of backjumps over more than one decision so far
+     */
+    public long getNbBackjumps() {
+        return nbBackjumps;
+    }
+}
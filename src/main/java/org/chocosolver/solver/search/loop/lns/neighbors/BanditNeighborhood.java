@@ -0,0 +1,399 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.lns.neighbors;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+
+import java.util.Random;
+
+/**
+ * A neighbor which is based on multiple neighbors, the <i>arms</i>, and selects the next one to run with a
+ * multi-armed bandit policy, see {@link Policy}.
+ * <p>
+ * Each LNS run is rewarded by the objective improvement it brings (or by the number of solutions it finds, in satisfaction)
+ * divided by its cost, which is either its duration or its number of fails, see {@link Reward}.
+ * Rewards are normalized in [0,1] wrt the best one observed so far.
+ * Thus, the LNS spends more and more time on the neighbors which work for the instance.
+ * The size of the neighborhoods is still tuned by each neighbor on its own, see {@link INeighbor#restrictLess()},
+ * which is only called on the neighbor that ran.
+ * </p>
+ * <p>
+ * Statistics of each arm can be read during the resolution for monitoring, for instance with
+ * {@link #getNbSelections(int)} and {@link #getAverageReward(int)}, or printed with {@link #toString()}.
+ * </p>
+ *
+ * @author agent
+ * @see AdaptiveNeighborhood
+ * @since 4.0.9
+ */
+public class BanditNeighborhood extends SequenceNeighborhood {
+
+    /**
+     * Policies to select an arm
+     */
+    public enum Policy {
+        /**
+         * Upper Confidence Bound: the arm maximizing its average reward plus <i>sqrt(2.ln(N)/n)</i>,
+         * where <i>N</i> is the number of runs and <i>n</i> the number of selections of the arm
+         */
+        UCB1,
+        /**
+         * Thompson sampling: the arm maximizing a sample of its Beta distribution,
+         * updated by Bernoulli trials of the rewards
+         */
+        THOMPSON,
+        /**
+         * Exponential-weight algorithm for Exploration and Exploitation, which makes no assumption on rewards
+         */
+        EXP3
+    }
+
+    /**
+     * Costs of a LNS run
+     */
+    public enum Reward {
+        /**
+         * objective improvement per second
+         */
+        TIME,
+        /**
+         * objective improvement per fail
+         */
+        FAILS
+    }
+
+    /**
+     * Exploration rate of {@link Policy#EXP3}
+     */
+    private static final double GAMMA = .1;
+
+    /**
+     * The solver of the model
+     */
+    private final Solver solver;
+    /**
+     * Policy to select an arm
+     */
+    private final Policy policy;
+    /**
+     * How LNS runs are rewarded
+     */
+    private final Reward reward;
+    /**
+     * For randomness
+     */
+    private final Random random;
+    /**
+     * Number of times each arm has been selected
+     */
+    private final int[] selections;
+    /**
+     * Sum of the (normalized) rewards of each arm
+     */
+    private final double[] rewards;
+    /**
+     * Sum of the improvements of each arm
+     */
+    private final double[] improvements;
+    /**
+     * Time spent in each arm, in nanoseconds
+     */
+    private final long[] times;
+    /**
+     * Fails in each arm
+     */
+    private final long[] fails;
+    /**
+     * Parameters of the Beta distribution of each arm, for {@link Policy#THOMPSON}
+     */
+    private final double[] alpha, beta;
+    /**
+     * Logarithmic weight of each arm and probabilities of the last selection, for {@link Policy#EXP3}
+     */
+    private final double[] logWeights, probabilities;
+    /**
+     * Total number of runs
+     */
+    private int runs;
+    /**
+     * Best raw reward observed, to normalize rewards
+     */
+    private double maxReward;
+    /**
+     * Set to <tt>true</tt> while a run is in progress
+     */
+    private boolean running;
+    /**
+     * Time and fails when the current run starts
+     */
+    private long startTime, startFails;
+    /**
+     * Improvement observed during the current run
+     */
+    private double improvement;
+    /**
+     * Objective value of the last solution, <tt>null</tt> if unknown
+     */
+    private Number lastValue;
+
+    /**
+     * Creates a neighbor which selects among <i>neighbors</i> with a multi-armed bandit policy
+     *
+     * @param model     the model
+     * @param policy    the policy to select a neighbor
+     * @param reward    how runs are rewarded
+     * @param seed      for randomness
+     * @param neighbors the neighbors, at least one
+     */
+    public BanditNeighborhood(Model model, Policy policy, Reward reward, long seed, INeighbor... neighbors) {
+        super(neighbors);
+        this.solver = model.getSolver();
+        this.policy = policy;
+        this.reward = reward;
+        this.random = new Random(seed);
+        this.counters[0] = 0;
+        this.selections = new int[count];
+        this.rewards = new double[count];
+        this.improvements = new double[count];
+        this.times = new long[count];
+        this.fails = new long[count];
+        this.alpha = new double[count];
+        this.beta = new double[count];
+        this.logWeights = new double[count];
+        this.probabilities = new double[count];
+        for (int i = 0; i < count; i++) {
+            alpha[i] = beta[i] = 1.;
+        }
+    }
+
+    /**
+     * Creates a neighbor which selects among <i>neighbors</i> with {@link Policy#UCB1}, rewarding improvement per second
+     *
+     * @param model     the model
+     * @param seed      for randomness
+     * @param neighbors the neighbors, at least one
+     */
+    public BanditNeighborhood(Model model, long seed, INeighbor... neighbors) {
+        this(model, Policy.UCB1, Reward.TIME, seed, neighbors);
+    }
+
+    @Override
+    public void recordSolution() {
+        Number value = solver.getModel().getResolutionPolicy() == ResolutionPolicy.SATISFACTION ?
+                null : solver.getObjectiveManager().getBestSolutionValue();
+        if (running) {
+            counters[who]++;
+            if (value == null) {
+                improvement += 1.;
+            } else if (lastValue != null) {
+                improvement += Math.abs(value.doubleValue() - lastValue.doubleValue());
+            }
+        }
+        lastValue = value;
+        for (int i = 0; i < count; i++) {
+            neighbors[i].recordSolution();
+        }
+    }
+
+    @Override
+    public void loadFromSolution(Solution solution) {
+        // an external solution is not credited to any arm
+        lastValue = null;
+        for (int i = 0; i < count; i++) {
+            neighbors[i].loadFromSolution(solution);
+        }
+    }
+
+    @Override
+    public void fixSomeVariables(DecisionPath decisionPath) {
+        if (running) {
+            endRun();
+        }
+        nextNeighbor();
+        running = true;
+        improvement = 0.;
+        startTime = System.nanoTime();
+        startFails = solver.getFailCount();
+        neighbors[who].fixSomeVariables(decisionPath);
+    }
+
+    @Override
+    protected void nextNeighbor() {
+        switch (policy) {
+            case UCB1:
+                who = ucb1();
+                break;
+            case THOMPSON:
+                who = thompson();
+                break;
+            case EXP3:
+                who = exp3();
+                break;
+        }
+        selections[who]++;
+        runs++;
+    }
+
+    /**
+     * Rewards the arm of the run which ends
+     */
+    private void endRun() {
+        long time = System.nanoTime() - startTime;
+        long nbFails = solver.getFailCount() - startFails;
+        times[who] += time;
+        fails[who] += nbFails;
+        improvements[who] += improvement;
+        double raw = improvement / (reward == Reward.TIME ? Math.max(time, 1000L) / 1e9 : nbFails + 1.);
+        maxReward = Math.max(maxReward, raw);
+        double r = maxReward > 0. ? raw / maxReward : 0.;
+        rewards[who] += r;
+        switch (policy) {
+            case THOMPSON:
+                if (random.nextDouble() < r) {
+                    alpha[who]++;
+                } else {
+                    beta[who]++;
+                }
+                break;
+            case EXP3:
+                logWeights[who] += GAMMA * (r / probabilities[who]) / count;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private int ucb1() {
+        int best = -1;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            if (selections[i] == 0) {
+                return i;
+            }
+            double score = rewards[i] / selections[i] + Math.sqrt(2. * Math.log(runs) / selections[i]);
+            if (score > max) {
+                max = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private int thompson() {
+        int best = -1;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double x = gamma(alpha[i]);
+            double sample = x / (x + gamma(beta[i]));
+            if (sample > max) {
+                max = sample;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private int exp3() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, logWeights[i]);
+        }
+        double sum = 0.;
+        for (int i = 0; i < count; i++) {
+            probabilities[i] = Math.exp(logWeights[i] - max);
+            sum += probabilities[i];
+        }
+        double r = random.nextDouble();
+        int selected = count - 1;
+        for (int i = 0; i < count; i++) {
+            probabilities[i] = (1. - GAMMA) * probabilities[i] / sum + GAMMA / count;
+            r -= probabilities[i];
+            if (r < 0 && selected == count - 1) {
+                selected = i;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return a sample of the Gamma distribution of shape <i>k</i> &ge; 1 and scale 1 (Marsaglia and Tsang's method)
+     */
+    private double gamma(double k) {
+        double d = k - 1. / 3., c = 1. / Math.sqrt(9. * d);
+        while (true) {
+            double x, v;
+            do {
+                x = random.nextGaussian();
+                v = 1. + c * x;
+            } while (v <= 0.);
+            v = v * v * v;
+            double u = random.nextDouble();
+            if (Math.log(u) < .5 * x * x + d - d * v + d * Math.log(v)) {
+                return d * v;
+            }
+        }
+    }
+
+    /**
+     * @param i index of an arm
+     * @return number of times the arm has been selected
+     */
+    public int getNbSelections(int i) {
+        return selections[i];
+    }
+
+    /**
+     * @param i index of an arm
+     * @return average normalized reward of the (finished) runs of the arm
+     */
+    public double getAverageReward(int i) {
+        int n = selections[i] - (running && who == i ? 1 : 0);
+        return n > 0 ? rewards[i] / n : 0.;
+    }
+
+    /**
+     * @param i index of an arm
+     * @return sum of objective improvements (or number of solutions, in satisfaction) of the (finished) runs of the arm
+     */
+    public double getImprovement(int i) {
+        return improvements[i];
+    }
+
+    /**
+     * @param i index of an arm
+     * @return time spent in the (finished) runs of the arm, in nanoseconds
+     */
+    public long getTimeCountInNanoSeconds(int i) {
+        return times[i];
+    }
+
+    /**
+     * @param i index of an arm
+     * @return number of fails in the (finished) runs of the arm
+     */
+    public long getFailCount(int i) {
+        return fails[i];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder();
+        st.append(String.format("%s bandit (%s reward), %d runs%n", policy, reward, runs));
+        for (int i = 0; i < count; i++) {
+            st.append(String.format("\t%-40s selections: %6d, avg reward: %.3f, improvement: %.1f, time: %.3fs, fails: %d%n",
+                    neighbors[i].getClass().getSimpleName(), selections[i], getAverageReward(i),
+                    improvements[i], times[i] / 1e9, fails[i]));
+        }
+        return st.toString();
+    }
+}
@@ -15,20 +15,21 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
 import org.chocosolver.solver.search.strategy.decision.DecisionPath;
 import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.variables.IVariableMonitor;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.IntBoundedHeap;
+import org.chocosolver.util.objects.IntList;
 
-import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * A Propagation Guided LNS
  * <p>
  * Based on "Propagation Guided Large Neighborhood Search", Perron et al. CP2004.
+ * <p>
+ * Computing a fragment is incremental: a monitor plugged on each variable records the variables modified
+ * while propagating, so that only them are considered to update the logarithmic cardinality of domains
+ * and the candidates, which are stored in a bounded heap.
  * <br/>
  *
  * @author Charles Prud'homme
@@ -50,9 +51,13 @@ public class PropagationGuidedNeighborhood implements INeighbor {
      */
     protected final int[] bestSolution;
     /**
-     * Domain size of each variable in {@link #vars}
+     * Domain size of each variable in {@link #vars}, when the computation of the fragment starts
      */
     protected int[] dsize;
+    /**
+     * Logarithmic domain size of each variable in {@link #vars}, as counted in {@link #logSum}
+     */
+    protected double[] logs;
     /**
      * For randomness
      */
@@ -78,14 +83,42 @@ public class PropagationGuidedNeighborhood implements INeighbor {
      */
     protected int[] all;
     /**
-     * Store the variable elligible for propagation
+     * Store the variable elligible for propagation, the {@link #listSize} ones with the smallest value in {@link #all}
+     */
+    protected IntBoundedHeap candidates;
+    /**
+     * Variables left out of {@link #candidates} while their reduction was positive, offered again once it runs dry
+     */
+    protected IntList evicted;
+    /**
+     * Indicate which variables are in {@link #evicted}
      */
-    protected List<Integer> candidates;
+    private boolean[] inEvicted;
 
     /**
-     * Indicate which variables are selected in a fragment
+     * Variables which can still be selected in a fragment, the first {@link #free} ones of this array
+     */
+    protected int[] fragment;
+    /**
+     * Position of each variable in {@link #fragment}
+     */
+    protected int[] positions;
+    /**
+     * Number of variables which can still be selected in a fragment
+     */
+    protected int free;
+    /**
+     * Variables modified since the last call to {@link #clearModified()}, while computing a fragment
+     */
+    protected IntList modified;
+    /**
+     * Indicate which variables are in {@link #modified}
+     */
+    private boolean[] marked;
+    /**
+     * Set to <tt>true</tt> while computing a fragment, to record modified variables
      */
-    protected BitSet fragment;
+    private boolean recording;
     /**
      * Reference to the model
      */
@@ -108,8 +141,16 @@ public class PropagationGuidedNeighborhood implements INeighbor {
         this.fgmtSize = fgmtSize;
         this.listSize = listSize;
         this.all = new int[n];
-        this.candidates = new ArrayList<>();
-        this.fragment = new BitSet(n);
+        this.candidates = new IntBoundedHeap(listSize, n);
+        this.evicted = new IntList(16);
+        this.inEvicted = new boolean[n];
+        this.fragment = new int[n];
+        this.positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            fragment[i] = positions[i] = i;
+        }
+        this.modified = new IntList(16);
+        this.marked = new boolean[n];
     }
 
     @Override
@@ -135,17 +176,27 @@ public class PropagationGuidedNeighborhood implements INeighbor {
     public void fixSomeVariables(DecisionPath decisionPath) {
         logSum = 0.;
         for (int i = 0; i < n; i++) {
-            int ds = vars[i].getDomainSize();
-            logSum += Math.log(ds);
+            dsize[i] = vars[i].getDomainSize();
+            logs[i] = Math.log(dsize[i]);
+            logSum += logs[i];
+            all[i] = 0;
+        }
+        free = n; // all variables can be selected
+        candidates.clear();
+        for (int k = 0; k < evicted.size(); k++) {
+            inEvicted[evicted.getQuick(k)] = false;
         }
+        evicted.clear();
         fgmtSize = (int) (30 * (1 + epsilon));
-        fragment.set(0, n); // all variables are frozen
         mModel.getEnvironment().worldPush();
+        recording = true;
         try {
             update(decisionPath);
         } catch (ContradictionException cex) {
             mModel.getSolver().getEngine().flush();
         }
+        recording = false;
+        clearModified();
         mModel.getEnvironment().worldPop();
         epsilon = (.95 * epsilon) + (.05 * (logSum / fgmtSize));
     }
@@ -157,37 +208,36 @@ public class PropagationGuidedNeighborhood implements INeighbor {
      * @throws ContradictionException if the fragment is trivially infeasible
      */
     protected void update(DecisionPath decisionPath) throws ContradictionException {
-        while (logSum > fgmtSize && fragment.cardinality() > 0) {
+        while (logSum > fgmtSize && free > 0) {
             // 1. pick a variable
             int id = selectVariable();
             // 2. fix it to its solution value and propagate
             if (vars[id].contains(bestSolution[id])) {  // to deal with objective variable and related
                 impose(id, decisionPath);
                 mModel.getSolver().propagate();
-                fragment.clear(id);
-                logSum = 0;
-                // 3. compute domain reductions & update logSum
-                for (int i = 0; i < n; i++) {
+                discard(id);
+                // 3. compute domain reductions & update logSum, modified variables only
+                for (int k = 0; k < modified.size(); k++) {
+                    int i = modified.getQuick(k);
                     int ds = vars[i].getDomainSize();
-                    logSum += Math.log(ds);
-                    if (fragment.get(i)) { // if not frozen until now
+                    double log = Math.log(ds);
+                    logSum += log - logs[i];
+                    logs[i] = log;
+                    if (isFree(i)) { // if not frozen until now
                         if (ds == 1) {       // if fixed by side effect
-                            fragment.clear(i); // set it has fixed
-                        } else if (dsize[i] - ds > 0) {
-                            all[i] = dsize[i] - ds; // add it to candidate list
+                            discard(i); // set it has fixed
+                        } else {
+                            all[i] = dsize[i] - ds;
+                            // 4. update variable list
+                            evict(candidates.offerEvicting(i, all[i]));
                         }
                     }
                 }
-                // 4. update variable list
-                candidates = IntStream.range(0, n)
-                        .filter(i -> fragment.get(i) && all[i] > 0)
-                        .boxed()
-                        .sorted(Comparator.comparingInt(i -> all[i]))
-                        .limit(listSize)
-                        .collect(Collectors.toList());
+                clearModified();
             } else {
-                fragment.clear(id);
-                logSum -= Math.log(vars[id].getDomainSize());
+                discard(id);
+                logSum -= logs[id];
+                logs[id] = 0.;
             }
         }
     }
@@ -211,16 +261,79 @@ public class PropagationGuidedNeighborhood implements INeighbor {
      * @return a variable id in {@link #vars} to be part of the fragment
      */
     protected int selectVariable() {
-        int id;
         if (candidates.isEmpty()) {
-            int cc = rd.nextInt(fragment.cardinality());
-            for (id = fragment.nextSetBit(0); id >= 0 && cc > 0; id = fragment.nextSetBit(id + 1)) {
-                cc--;
-            }
+            refill();
+        }
+        if (candidates.isEmpty()) {
+            return fragment[rd.nextInt(free)];
         } else {
-            id = candidates.remove(0).intValue();
+            return candidates.pollFirst();
         }
-        return id;
+    }
+
+    /**
+     * Record a variable left out of {@link #candidates}, if any
+     *
+     * @param id variable id in {@link #vars}, or -1
+     */
+    protected void evict(int id) {
+        if (id >= 0 && !inEvicted[id]) {
+            inEvicted[id] = true;
+            evicted.add(id);
+        }
+    }
+
+    /**
+     * Offer again the variables evicted from {@link #candidates} which can still be selected.
+     * The ones left out again are kept in {@link #evicted}, in place of the ones already processed.
+     */
+    private void refill() {
+        int w = 0;
+        for (int k = 0; k < evicted.size(); k++) {
+            int i = evicted.getQuick(k);
+            inEvicted[i] = false;
+            if (isFree(i) && all[i] > 0) {
+                int e = candidates.offerEvicting(i, all[i]);
+                if (e >= 0 && !inEvicted[e]) {
+                    inEvicted[e] = true;
+                    evicted.replaceQuick(w++, e);
+                }
+            }
+        }
+        evicted.removeRange(w, evicted.size());
+    }
+
+    /**
+     * @param id variable id in {@link #vars}
+     * @return <tt>true</tt> if the variable can still be selected in the fragment
+     */
+    protected boolean isFree(int id) {
+        return positions[id] < free;
+    }
+
+    /**
+     * Make a variable not selectable anymore in the fragment, in constant time
+     *
+     * @param id variable id in {@link #vars}, which is free
+     */
+    protected void discard(int id) {
+        int last = fragment[--free];
+        int p = positions[id];
+        fragment[p] = last;
+        positions[last] = p;
+        fragment[free] = id;
+        positions[id] = free;
+        candidates.remove(id);
+    }
+
+    /**
+     * Forget about the modified variables
+     */
+    protected void clearModified() {
+        for (int k = 0; k < modified.size(); k++) {
+            marked[modified.getQuick(k)] = false;
+        }
+        modified.clear();
     }
 
     @Override
@@ -230,10 +343,18 @@ public class PropagationGuidedNeighborhood implements INeighbor {
 
     @Override
     public void init() {
-        // todo plug search monitor
-        this.dsize = new int[n];
-        for (int i = 0; i < n; i++) {
-            dsize[i] = vars[i].getDomainSize();
+        if (dsize == null) {
+            this.dsize = new int[n];
+            this.logs = new double[n];
+            for (int i = 0; i < n; i++) {
+                int idx = i;
+                vars[i].addMonitor((IVariableMonitor<IntVar>) (var, evt) -> {
+                    if (recording && !marked[idx]) {
+                        marked[idx] = true;
+                        modified.add(idx);
+                    }
+                });
+            }
         }
     }
 }
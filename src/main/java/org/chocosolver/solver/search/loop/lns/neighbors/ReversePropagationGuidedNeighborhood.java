@@ -13,10 +13,6 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.decision.DecisionPath;
 import org.chocosolver.solver.variables.IntVar;
 
-import java.util.Comparator;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
 /**
  * A Propagation Guided LNS
  * <p/>
@@ -41,7 +37,8 @@ public class ReversePropagationGuidedNeighborhood extends PropagationGuidedNeigh
 
     @Override
     protected void update(DecisionPath decisionPath) throws ContradictionException {
-        while (logSum > fgmtSize && fragment.cardinality() > 0) {
+        // logSum counts the free variables only
+        while (logSum > fgmtSize && free > 0) {
             // 1. pick a variable
             int id = selectVariable();
 
@@ -49,41 +46,40 @@ public class ReversePropagationGuidedNeighborhood extends PropagationGuidedNeigh
             if (vars[id].contains(bestSolution[id])) {  // to deal with objective variable and related
 
                 mModel.getEnvironment().worldPush();
-                vars[id].instantiateTo(bestSolution[id], Cause.Null);
-                mModel.getSolver().propagate();
-                fragment.clear(id);
+                try {
+                    vars[id].instantiateTo(bestSolution[id], Cause.Null);
+                    mModel.getSolver().propagate();
+                    discard(id);
+                    logSum -= logs[id];
 
-                for (int i = 0; i < n; i++) {
-                    int ds = vars[i].getDomainSize();
-                    if (fragment.get(i)) { // if not frozen until now
-                        if (ds == 1) { // if fixed by side effect
-                            fragment.clear(i); // set it has fixed
-                        } else {
-                            int closeness = (int) ((dsize[i] - ds) / (dsize[i] * 1.) * 100);
-                            //                            System.out.printf("%d -> %d :%d\n", dsize[i], ds, closeness);
-                            if (closeness > 0) {
-                                all[i] = closeness; // add it to candidate list
+                    for (int k = 0; k < modified.size(); k++) {
+                        int i = modified.getQuick(k);
+                        if (isFree(i)) { // if not frozen until now
+                            int ds = vars[i].getDomainSize();
+                            if (ds == 1) { // if fixed by side effect
+                                discard(i); // set it has fixed
+                                logSum -= logs[i];
+                            } else {
+                                int closeness = (int) ((dsize[i] - ds) / (dsize[i] * 1.) * 100);
+                                if (closeness > 0) {
+                                    all[i] = closeness; // add it to candidate list
+                                    evict(candidates.offerEvicting(i, closeness));
+                                }
                             }
                         }
                     }
-                }
-                mModel.getEnvironment().worldPop();
-                candidates = IntStream.range(0, n)
-                        .filter(i -> fragment.get(i) && all[i] > 0)
-                        .boxed()
-                        .sorted(Comparator.comparingInt(i -> all[i]))
-                        .limit(listSize)
-                        .collect(Collectors.toList());
-                logSum = 0;
-                for (int i = fragment.nextSetBit(0); i > -1 && i < n; i = fragment.nextSetBit(i + 1)) {
-                    logSum += Math.log(vars[i].getDomainSize());
+                } finally {
+                    clearModified();
+                    mModel.getEnvironment().worldPop();
                 }
             } else {
-                fragment.clear(id);
+                discard(id);
+                logSum -= logs[id];
             }
 
         }
-        for (int i = fragment.nextSetBit(0); i > -1 && i < n; i = fragment.nextSetBit(i + 1)) {
+        for (int k = 0; k < free; k++) {
+            int i = fragment[k];
             if (vars[i].contains(bestSolution[i])) {
                 impose(i, decisionPath);
             }
@@ -55,7 +55,8 @@ public class NogoodFromSolutions implements IMonitorSolution {
         for (int i = 0; i < n; i++) {
             ps.add(SatSolver.negated(png.Literal(decisionVars[i], decisionVars[i].getValue(), true)));
         }
-        png.addLearnt(ps.toArray());
+        // solutions must never be found again, the clause is not to be removed
+        png.addLearnt(ps.toArray(), PropNogoods.PERMANENT);
     }
 
 }
@@ -0,0 +1,437 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.monitors;
+
+import com.github.cpprofiler.Connector;
+import gnu.trove.stack.TIntStack;
+import gnu.trove.stack.array.TIntArrayStack;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A search monitor which records the search tree into a binary file, as a lightweight alternative to
+ * {@link CPProfiler}.
+ * <p>
+ * Nodes are numbered as in {@link CPProfiler}, but instead of being formatted and sent through a socket,
+ * each one is written as a fixed-size record (node id, parent id, alternative, number of children,
+ * restart id, status, decision variable id, operator and value) into a ring buffer.
+ * A background thread drains the ring buffer into a memory-mapped file, so that the search thread
+ * never waits for I/O, unless the ring buffer is full.
+ * <p>
+ * The file can then be read, converted to JSON or replayed to cp-profiler offline with {@link SearchTreeTrace}.
+ * <p>
+ * <pre> {@code
+ * Model model = ProblemMaker.makeCostasArrays(7);
+ * try (SearchTreeRecorder recorder = new SearchTreeRecorder(model, Paths.get("costas.trace"))) {
+ *     while (model.getSolver().solve()) ;
+ * }
+ * SearchTreeTrace.read(Paths.get("costas.trace")).toCPProfiler(6565);
+ * }</pre>
+ *
+ * @author agent
+ * @see SearchTreeTrace
+ * @since 4.0.9
+ */
+public class SearchTreeRecorder implements IMonitorDownBranch, IMonitorUpBranch,
+        IMonitorSolution, IMonitorContradiction, IMonitorRestart, Closeable {
+
+    /**
+     * Magic number of a trace file: "CHST"
+     */
+    static final int MAGIC = 0x43485354;
+
+    /**
+     * Version of the trace file format
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header, in bytes: magic, version, number of records, offset of names
+     */
+    static final int HEADER = 24;
+
+    /**
+     * Number of ints in a record: id, pid, alt, kids, rid, status and operator, variable id, value
+     */
+    static final int INTS = 8;
+
+    /**
+     * Size of a record, in bytes
+     */
+    static final int RECORD = INTS * 4;
+
+    /**
+     * Operators of decisions
+     */
+    static final int OP_NONE = 0, OP_EQ = 1, OP_NEQ = 2, OP_LE = 3, OP_GE = 4, OP_OTHER = 5;
+
+    /**
+     * Size of a mapped region of the file, in bytes
+     */
+    private static final int REGION = RECORD << 16;
+
+    /**
+     * Default capacity of the ring buffer, in records
+     */
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * Reference to the model
+     */
+    private final Model mModel;
+    /**
+     * Stacks of 'Parent Id'  used when backtrack
+     */
+    private final TIntStack pid_stack = new TIntArrayStack();
+    /**
+     * Stacks of 'Alternative' used when backtrack
+     */
+    private final TIntStack alt_stack = new TIntArrayStack();
+    /**
+     * Stacks of current node, to deal with jumps
+     */
+    private final TIntStack last_stack = new TIntArrayStack();
+    /**
+     * Node count: different from measures.getNodeCount() as we count failure nodes as well
+     */
+    private int nc = 0;
+    /**
+     * restart id
+     */
+    private int rid;
+    /**
+     * last node index recorded
+     */
+    private int last;
+
+    /**
+     * The ring buffer, {@link #INTS} ints per record
+     */
+    private final int[] ring;
+
+    /**
+     * Mask to compute the position of a record in the ring buffer
+     */
+    private final int mask;
+
+    /**
+     * Number of records written, resp. read, so far
+     */
+    private final AtomicLong head = new AtomicLong(), tail = new AtomicLong();
+
+    /**
+     * Number of times the search thread waited for the ring buffer to be drained
+     */
+    private long stalls;
+
+    /**
+     * The trace file
+     */
+    private final FileChannel channel;
+
+    /**
+     * The current mapped region and its position in the file
+     */
+    private MappedByteBuffer region;
+    private long regionStart;
+
+    /**
+     * Background thread draining the ring buffer
+     */
+    private final Thread drainer;
+
+    /**
+     * Set to <tt>false</tt> to stop the background thread
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Error thrown by the background thread, if any
+     */
+    private volatile IOException failure;
+
+    /**
+     * Set to <tt>true</tt> once closed
+     */
+    private boolean closed;
+
+    /**
+     * Records the search tree of <i>aModel</i> into <i>file</i>, with a ring buffer of 65536 records.
+     *
+     * @param aModel model to observe resolution
+     * @param file   the trace file, created or truncated
+     * @throws IOException if the file cannot be opened
+     */
+    public SearchTreeRecorder(Model aModel, Path file) throws IOException {
+        this(aModel, file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Records the search tree of <i>aModel</i> into <i>file</i>.
+     *
+     * @param aModel   model to observe resolution
+     * @param file     the trace file, created or truncated
+     * @param capacity capacity of the ring buffer, in records, rounded up to a power of 2
+     * @throws IOException if the file cannot be opened
+     */
+    public SearchTreeRecorder(Model aModel, Path file, int capacity) throws IOException {
+        this.mModel = aModel;
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new int[cap * INTS];
+        this.mask = cap - 1;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.regionStart = 0;
+        this.region = map(0);
+        region.position(HEADER);
+        this.drainer = new Thread(this::drain, "search-tree-recorder");
+        drainer.setDaemon(true);
+        drainer.start();
+        alt_stack.push(-1); // -1 is alt for the root node
+        pid_stack.push(-1); // -1 is pid for the root node
+        last_stack.push(-1);
+        mModel.getSolver().plugMonitor(this);
+    }
+
+    private MappedByteBuffer map(long position) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, REGION);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Stops recording, waits for the pending records to be written and completes the trace file.
+     *
+     * @throws IOException if an error occurred while writing the file
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        mModel.getSolver().unplugMonitor(this);
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            long records = tail.get();
+            long namesOffset = HEADER + records * RECORD;
+            region = null;
+            channel.truncate(namesOffset);
+            OutputStream os = Channels.newOutputStream(channel.position(namesOffset));
+            DataOutputStream dos = new DataOutputStream(os);
+            dos.writeUTF(mModel.getName());
+            Variable[] vars = mModel.getVars();
+            dos.writeInt(vars.length);
+            for (Variable v : vars) {
+                dos.writeInt(v.getId());
+                dos.writeUTF(v.getName());
+            }
+            dos.flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(VERSION).putLong(records).putLong(namesOffset).flip();
+            channel.write(header, 0);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return the number of nodes recorded so far
+     */
+    public long getNbRecords() {
+        return head.get();
+    }
+
+    /**
+     * @return the number of times the search waited for the ring buffer to be drained
+     */
+    public long getNbStalls() {
+        return stalls;
+    }
+
+    @Override
+    public void beforeDownBranch(boolean left) {
+        if (left) {
+            DecisionPath dp = mModel.getSolver().getDecisionPath();
+            int last = dp.size() - 1;
+            if (last > 0) { // may happen when LNS provide an empty meta-decision
+                int first = dp.indexPreviousLevelLastLevel();
+                for (int i = first; i < last; i++) {
+                    assert dp.getDecision(i).getArity() == 1;
+                    record(nc, pid_stack.peek(), alt_stack.pop(), 1, Connector.NodeStatus.BRANCH, dp.getDecision(i - 1));
+                    pid_stack.push(nc);
+                    nc++;
+                    alt_stack.push(0);
+                    last_stack.push(nc - 1);
+                }
+                Decision dec = dp.getLastDecision();
+                int ari = dec.getArity();
+                record(nc, pid_stack.peek(), alt_stack.pop(), ari, Connector.NodeStatus.BRANCH, dp.getDecision(last - 1));
+                for (int i = 0; i < ari; i++) {
+                    pid_stack.push(nc); // each child will have the same pid
+                }
+                nc++;
+                alt_stack.push(0);
+                last_stack.push(nc - 1);
+            }
+        } else {
+            nc++;
+            alt_stack.push(1);
+            last_stack.push(last);
+        }
+    }
+
+    @Override
+    public void beforeUpBranch() {
+        last = last_stack.pop();
+        while (pid_stack.peek() != last) {
+            pid_stack.pop();
+        }
+        pid_stack.pop();
+    }
+
+    @Override
+    public void onSolution() {
+        record(nc, pid_stack.peek(), alt_stack.pop(), 0, Connector.NodeStatus.SOLVED,
+                mModel.getSolver().getDecisionPath().getLastDecision());
+    }
+
+    @Override
+    public void onContradiction(ContradictionException cex) {
+        record(nc, pid_stack.peek(), alt_stack.pop(), 0, Connector.NodeStatus.FAILED,
+                mModel.getSolver().getDecisionPath().getLastDecision());
+    }
+
+    @Override
+    public void afterRestart() {
+        rid++;
+        pid_stack.clear();
+        alt_stack.clear();
+        alt_stack.push(-1); // -1 is alt for the root node
+        pid_stack.push(-1); // -1 is pid for the root node
+        last_stack.push(-1);
+        nc = 0;
+    }
+
+    /**
+     * Adds a record to the ring buffer.
+     * The decision is the one leading to the node, its alternative indicates whether it is refuted or not.
+     */
+    private void record(int nc, int pid, int alt, int kids, Connector.NodeStatus status, Decision dec) {
+        long h = head.get();
+        while (h - tail.get() > mask) {
+            if (failure != null) {
+                return; // the file is not written anymore, records are dropped
+            }
+            stalls++;
+            LockSupport.unpark(drainer);
+            Thread.yield();
+        }
+        int op = OP_NONE, var = -1, value = 0;
+        if (dec != null && dec.getDecisionVariable() != null) {
+            var = dec.getDecisionVariable().getId();
+            if (dec instanceof IntDecision) {
+                IntDecision idec = (IntDecision) dec;
+                op = operator(idec.getDecOp());
+                value = idec.getDecisionValue();
+            } else {
+                op = OP_OTHER;
+            }
+        }
+        int p = (int) (h & mask) * INTS;
+        ring[p] = nc;
+        ring[p + 1] = pid;
+        ring[p + 2] = alt;
+        ring[p + 3] = kids;
+        ring[p + 4] = rid;
+        ring[p + 5] = status.ordinal() | (op << 8);
+        ring[p + 6] = var;
+        ring[p + 7] = value;
+        // publishes the record to the background thread
+        head.lazySet(h + 1);
+    }
+
+    private static int operator(DecisionOperator<IntVar> dop) {
+        if (dop == DecisionOperatorFactory.makeIntEq()) {
+            return OP_EQ;
+        } else if (dop == DecisionOperatorFactory.makeIntNeq()) {
+            return OP_NEQ;
+        } else if (dop == DecisionOperatorFactory.makeIntSplit()) {
+            return OP_LE;
+        } else if (dop == DecisionOperatorFactory.makeIntReverseSplit()) {
+            return OP_GE;
+        }
+        return OP_OTHER;
+    }
+
+    /**
+     * Main loop of the background thread: copies the records from the ring buffer to the mapped file,
+     * and sleeps shortly when there is nothing to copy.
+     */
+    private void drain() {
+        try {
+            while (true) {
+                boolean stop = !running;
+                long t = tail.get();
+                long h = head.get();
+                if (t == h) {
+                    if (stop) {
+                        return;
+                    }
+                    LockSupport.parkNanos(100_000);
+                    continue;
+                }
+                for (; t < h; t++) {
+                    if (region.remaining() < RECORD) {
+                        regionStart += region.position();
+                        region = map(regionStart);
+                    }
+                    int p = (int) (t & mask) * INTS;
+                    for (int k = 0; k < INTS; k++) {
+                        region.putInt(ring[p + k]);
+                    }
+                }
+                // frees the slots to the search thread
+                tail.lazySet(h);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.monitors;
+
+import com.github.cpprofiler.Connector;
+import gnu.trove.map.hash.TIntObjectHashMap;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static org.chocosolver.solver.search.loop.monitors.SearchTreeRecorder.*;
+
+/**
+ * A search tree recorded by a {@link SearchTreeRecorder}, read from its binary file.
+ * <p>
+ * Nodes can be accessed by their index in the file, converted to JSON or replayed to
+ * <a href="https://github.com/cp-profiler/cp-profiler">cp-profiler</a>.
+ * It can also be used from the command line:
+ * <pre>
+ *     java -cp choco-solver.jar org.chocosolver.solver.search.loop.monitors.SearchTreeTrace file.trace json file.json
+ *     java -cp choco-solver.jar org.chocosolver.solver.search.loop.monitors.SearchTreeTrace file.trace cpprofiler [port]
+ * </pre>
+ *
+ * @author agent
+ * @see SearchTreeRecorder
+ * @since 4.0.9
+ */
+public class SearchTreeTrace {
+
+    /**
+     * Symbols of operators, applied and refuted
+     */
+    private static final String[] APPLIED = {"", "=", "\u2260", "\u2264", "\u2265", "?"};
+    private static final String[] REFUTED = {"", "\u2260", "=", ">", "<", "!?"};
+
+    /**
+     * Records
+     */
+    private final ByteBuffer records;
+
+    /**
+     * Number of records
+     */
+    private final int size;
+
+    /**
+     * Name of the model
+     */
+    private final String name;
+
+    /**
+     * Names of the variables, by id
+     */
+    private final TIntObjectHashMap<String> names = new TIntObjectHashMap<>();
+
+    private SearchTreeTrace(ByteBuffer records, int size, String name) {
+        this.records = records;
+        this.size = size;
+        this.name = name;
+    }
+
+    /**
+     * Reads a trace file.
+     *
+     * @param file a file written by a {@link SearchTreeRecorder}
+     * @return the search tree recorded in <i>file</i>
+     * @throws IOException if the file cannot be read or is not a trace file
+     */
+    public static SearchTreeTrace read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (header.hasRemaining() && channel.read(header) >= 0) ;
+            header.flip();
+            if (header.remaining() < HEADER || header.getInt() != MAGIC) {
+                throw new IOException(file + " is not a search tree trace");
+            }
+            if (header.getInt() != VERSION) {
+                throw new IOException("Unsupported version of search tree trace");
+            }
+            long nbRecords = header.getLong();
+            long namesOffset = header.getLong();
+            if (nbRecords > Integer.MAX_VALUE / RECORD) {
+                throw new IOException("Search tree trace too large");
+            }
+            ByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, HEADER, nbRecords * RECORD);
+            InputStream is = Channels.newInputStream(channel.position(namesOffset));
+            DataInputStream dis = new DataInputStream(is);
+            SearchTreeTrace trace = new SearchTreeTrace(records, (int) nbRecords, dis.readUTF());
+            int n = dis.readInt();
+            for (int i = 0; i < n; i++) {
+                int id = dis.readInt();
+                trace.names.put(id, dis.readUTF());
+            }
+            return trace;
+        }
+    }
+
+    /**
+     * @return the number of nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the name of the model
+     */
+    public String getName() {
+        return name;
+    }
+
+    private int get(int i, int k) {
+        return records.getInt(i * RECORD + k * 4);
+    }
+
+    /**
+     * @param i index of a node in the trace
+     * @return id of the node, unique within a restart
+     */
+    public int getId(int i) {
+        return get(i, 0);
+    }
+
+    /**
+     * @param i index of a node in the trace
+     * @return id of its parent node, -1 for the root node
+     */
+    public int getParentId(int i) {
+        return get(i, 1);
+    }
+
+    /**
+     * @param i index of a node in the trace
+     * @return its position among the children of its parent node, -1 for the root node
+     */
+    public int getAlternative(int i) {
+        return get(i, 2);
+    }
+
+    /**
+     * @param i index of a node in the trace
+     * @return its number of children
+     */
+    public int getNbChildren(int i) {
+        return get(i, 3);
+    }
+
+    /**
+     * @param i index of a node in the trace
+     * @return id of the restart it belongs to
+     */
+    public int getRestartId(int i) {
+        return get(i, 4);
+    }
+
+    /**
+     * @param i index of a node in the trace
+     * @return its status
+     */
+    public Connector.NodeStatus getStatus(int i) {
+        return Connector.NodeStatus.values()[get(i, 5) & 0xFF];
+    }
+
+    /**
+     * @param i index of a node in the trace
+     * @return id of the variable of the decision leading to it, -1 for the root node
+     */
+    public int getVariableId(int i) {
+        return get(i, 6);
+    }
+
+    /**
+     * @param i index of a node in the trace
+     * @return value of the decision leading to it
+     */
+    public int getValue(int i) {
+        return get(i, 7);
+    }
+
+    /**
+     * @param i index of a node in the trace
+     * @return the decision leading to it, as a string, "ROOT" for the root node
+     */
+    public String getLabel(int i) {
+        int var = getVariableId(i);
+        if (var == -1) {
+            return "ROOT";
+        }
+        int op = get(i, 5) >>> 8;
+        String vname = names.get(var);
+        return (vname == null ? "v" + var : vname)
+                + (getAlternative(i) > 0 ? REFUTED[op] : APPLIED[op])
+                + getValue(i);
+    }
+
+    /**
+     * Writes the search tree in JSON, as an object made of the name of the model and an array of nodes.
+     *
+     * @param out where to write
+     * @throws IOException if an error occurs while writing
+     */
+    public void toJSON(Writer out) throws IOException {
+        out.write("{\"name\":\"");
+        out.write(escape(name));
+        out.write("\",\"nodes\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                out.write(",\n");
+            }
+            out.write(String.format("{\"id\":%d,\"pid\":%d,\"alt\":%d,\"kids\":%d,\"rid\":%d,\"status\":\"%s\",\"label\":\"%s\"}",
+                    getId(i), getParentId(i), getAlternative(i), getNbChildren(i), getRestartId(i),
+                    getStatus(i), escape(getLabel(i))));
+        }
+        out.write("]}\n");
+        out.flush();
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Sends the search tree to <a href="https://github.com/cp-profiler/cp-profiler">cp-profiler</a>,
+     * which has to be started beforehand.
+     *
+     * @param port port used by cp-profiler, 6565 by default
+     * @throws IOException if the connection cannot be made or is lost
+     */
+    public void toCPProfiler(int port) throws IOException {
+        Connector connector = new Connector();
+        connector.connect(port);
+        connector.restart(name, 0);
+        int rid = 0;
+        for (int i = 0; i < size; i++) {
+            while (getRestartId(i) > rid) {
+                connector.restart(++rid);
+            }
+            connector.createNode(getId(i), getParentId(i), getAlternative(i), getNbChildren(i), getStatus(i))
+                    .setRestartId(rid)
+                    .setLabel(getLabel(i))
+                    .send();
+        }
+        connector.disconnect();
+    }
+
+    /**
+     * Converts a trace file, see {@link SearchTreeTrace}.
+     *
+     * @param args the trace file, then "json" and the output file, or "cpprofiler" and optionally the port
+     * @throws IOException if an error occurs while reading or writing
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[1].equals("json") && args.length > 2 || args[1].equals("cpprofiler"))) {
+            System.err.println("usage: SearchTreeTrace <trace> json <output> | SearchTreeTrace <trace> cpprofiler [port]");
+            return;
+        }
+        SearchTreeTrace trace = read(Paths.get(args[0]));
+        if (args[1].equals("json")) {
+            try (Writer out = Files.newBufferedWriter(Paths.get(args[2]))) {
+                trace.toJSON(out);
+            }
+        } else {
+            trace.toCPProfiler(args.length > 2 ? Integer.parseInt(args[2]) : 6565);
+        }
+    }
+}
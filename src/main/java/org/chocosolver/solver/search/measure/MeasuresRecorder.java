@@ -19,6 +19,9 @@ import java.util.function.LongSupplier;
 
 /**
  * Object which stores resolution information to get statistics
+ * <p>
+ * Measures are updated by the search thread without synchronization.
+ * Other threads should read them through {@link #getSnapshot()}, which returns a consistent copy.
  *
  * @author Charles Prud'Homme, Arnaud Malapert
  * @since 3.0.0
@@ -34,12 +37,23 @@ public final class MeasuresRecorder extends Measures {
 
     transient private LongSupplier currentNanoTime;
 
+    /**
+     * Last snapshot published by the search thread
+     */
+    transient private volatile MeasuresSnapshot snapshot;
+
+    /**
+     * Set to <tt>true</tt> by another thread to ask for a new snapshot
+     */
+    transient private volatile boolean requested;
+
     /**
      * Create a measures recorder
      */
     public MeasuresRecorder(String modelName) {
         super(modelName);
         currentNanoTime = () -> timeCount;
+        publish();
     }
 
     private void writeObject(ObjectOutputStream out) throws IOException {
@@ -52,6 +66,7 @@ public final class MeasuresRecorder extends Measures {
         in.defaultReadObject();
         // now we are a "live" object again, so let's run rebuild and start
         currentNanoTime = () -> timeCount;
+        publish();
     }
 
     @Override
@@ -60,6 +75,29 @@ public final class MeasuresRecorder extends Measures {
         return super.getTimeCountInNanoSeconds();
     }
 
+    /**
+     * Returns the last snapshot published by the search thread, and asks for a new one.
+     * The search thread publishes a snapshot on each change of search state and,
+     * when asked to, on the next node or failure.
+     * This method never blocks, and can be called from any thread: the returned measures are consistent
+     * but may be late by one call.
+     *
+     * @return an immutable copy of these measures
+     */
+    public IMeasures getSnapshot() {
+        requested = true;
+        return snapshot;
+    }
+
+    /**
+     * Publishes a copy of these measures, to be read by other threads.
+     * Must be called by the search thread.
+     */
+    private void publish() {
+        requested = false;
+        snapshot = new MeasuresSnapshot(this);
+    }
+
     /**
      * Start the stopwatch, to compute resolution time
      *
@@ -105,6 +143,7 @@ public final class MeasuresRecorder extends Measures {
         restartCount = 0;
         depth = 0;
         maxDepth = 0;
+        publish();
     }
 
     //****************************************************************************************************************//
@@ -119,6 +158,9 @@ public final class MeasuresRecorder extends Measures {
         if (depth > maxDepth) {
             maxDepth = depth;
         }
+        if (requested) {
+            publish();
+        }
     }
 
     /**
@@ -133,6 +175,9 @@ public final class MeasuresRecorder extends Measures {
      */
     public final void incFailCount() {
         failCount++;
+        if (requested) {
+            publish();
+        }
     }
 
     /**
@@ -170,6 +215,7 @@ public final class MeasuresRecorder extends Measures {
     public final void setSearchState(SearchState state) {
         Objects.requireNonNull(state);
         this.state = state;
+        publish();
     }
 
     /**
@@ -179,6 +225,7 @@ public final class MeasuresRecorder extends Measures {
     public final void setBoundsManager(IBoundsManager boundsManager) {
         Objects.requireNonNull(boundsManager);
         this.boundsManager = boundsManager;
+        publish();
     }
 
     public final void setTimeCount(long timeCount) {
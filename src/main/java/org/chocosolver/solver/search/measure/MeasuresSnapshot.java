@@ -0,0 +1,94 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.measure;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.objective.IBoundsManager;
+
+/**
+ * An immutable copy of measures, bounds included, that can safely be read from any thread.
+ * <p>
+ * Snapshots are published by the search thread, see {@link MeasuresRecorder#getSnapshot()}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public final class MeasuresSnapshot extends Measures {
+
+    private static final long serialVersionUID = 2526463411369316290L;
+
+    /**
+     * Copy the current values of <i>measures</i>, including the bounds of the objective.
+     *
+     * @param measures to copy
+     */
+    public MeasuresSnapshot(IMeasures measures) {
+        super(measures);
+        this.boundsManager = new Bounds(measures.getBoundsManager());
+    }
+
+    /**
+     * Frozen bounds of the objective
+     */
+    private static final class Bounds implements IBoundsManager {
+
+        private static final long serialVersionUID = -3217416541466384853L;
+
+        private final ResolutionPolicy policy;
+        private final Number bestLB, bestUB, bestSolutionValue;
+        private final String text;
+
+        private Bounds(IBoundsManager bm) {
+            this.policy = bm.getPolicy();
+            if (bm.isOptimization()) {
+                this.bestLB = bm.getBestLB();
+                this.bestUB = bm.getBestUB();
+                this.bestSolutionValue = bm.getBestSolutionValue();
+            } else {
+                this.bestLB = this.bestUB = this.bestSolutionValue = null;
+            }
+            this.text = bm.toString();
+        }
+
+        @Override
+        public ResolutionPolicy getPolicy() {
+            return policy;
+        }
+
+        @Override
+        public Number getBestLB() {
+            return bestLB;
+        }
+
+        @Override
+        public Number getBestUB() {
+            return bestUB;
+        }
+
+        @Override
+        public void updateBestLB(Number lb) {
+            throw new UnsupportedOperationException("Snapshots are immutable");
+        }
+
+        @Override
+        public void updateBestUB(Number ub) {
+            throw new UnsupportedOperationException("Snapshots are immutable");
+        }
+
+        @Override
+        public Number getBestSolutionValue() {
+            return bestSolutionValue;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
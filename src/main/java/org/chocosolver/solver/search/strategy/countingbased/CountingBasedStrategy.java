@@ -24,7 +24,6 @@ import org.chocosolver.solver.search.strategy.decision.IntDecision;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.PoolManager;
-import org.testng.reporters.jq.Main;
 
 /**
  * A class to represent strategies that are based on couting solutions. It
@@ -123,6 +123,14 @@ public abstract class Decision<E extends Variable> implements ICause, Serializab
      */
     public abstract void apply() throws ContradictionException;
 
+    /**
+     * Step back to the branch applied last, so that the next repair applies it again instead of the next one.
+     * Used to backjump above the decisions made after this one without giving up its current branch.
+     */
+    public final void replay() {
+        branch--;
+    }
+
     /**
      * Force the decision to be in its creation state.
      */
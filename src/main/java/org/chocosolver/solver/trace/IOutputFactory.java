@@ -10,6 +10,7 @@ package org.chocosolver.solver.trace;
 
 import org.chocosolver.solver.ISelf;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
 import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
 import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
@@ -245,6 +246,26 @@ public interface IOutputFactory extends ISelf<Solver> {
     }
 
 
+    /**
+     * Plug a monitor which emits Java Flight Recorder events on restarts, solutions,
+     * long fix point computations and long propagator executions.
+     * See <code>org.chocosolver.solver.trace.jfr.FlightRecorderMonitor</code> for details,
+     * which is only built with a JDK 11 or later and is thus loaded by reflection.
+     *
+     * @throws SolverException if the flight recorder API is not available in the running JVM
+     */
+    default void emitFlightRecorderEvents() {
+        try {
+            Class<?> monitor = Class.forName("org.chocosolver.solver.trace.jfr.FlightRecorderMonitor");
+            if (!(Boolean) monitor.getMethod("isAvailable").invoke(null)) {
+                throw new SolverException("Java Flight Recorder is not available in this JVM");
+            }
+            monitor.getMethod("plug").invoke(monitor.getConstructor(Solver.class).newInstance(ref()));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new SolverException("Java Flight Recorder is not available in this JVM", e);
+        }
+    }
+
     /**
      * Create and show a simple dashboard that render resolution statistics every 100 milliseconds.
      */
@@ -11,10 +11,12 @@ package org.chocosolver.solver.trace;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
 import org.chocosolver.solver.search.loop.monitors.IMonitorInitialize;
+import org.chocosolver.solver.search.measure.MeasuresRecorder;
 
 /**
  * A search monitor logger which prints statistics every XX ms.
  * <br/>
+ * Statistics are read from snapshots published by the search thread, see {@link MeasuresRecorder#getSnapshot()}.
  *
  * @author Charles Prud'homme
  * @since 18 aug. 2010
@@ -43,11 +45,14 @@ public class LogStatEveryXXms implements IMonitorInitialize, IMonitorClose {
             @Override
             public void run() {
                 alive = true;
+                MeasuresRecorder measures = solver.getMeasures();
                 try {
+                    // asks the search thread for a first snapshot
+                    measures.getSnapshot();
                     sleep(duration);
                     //noinspection InfiniteLoopStatement
                     do {
-                        solver.getOut().println(String.format(">> %s", solver.toOneLineString()));
+                        solver.getOut().println(String.format(">> %s", measures.getSnapshot().toOneLineString()));
                         sleep(duration);
                     } while (alive);
                 } catch (InterruptedException ignored) {
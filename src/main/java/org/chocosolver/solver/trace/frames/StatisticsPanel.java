@@ -9,10 +9,11 @@
 package org.chocosolver.solver.trace.frames;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.measure.IMeasures;
 
 import java.awt.*;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
+import java.util.function.BiFunction;
 
 import javax.swing.*;
 
@@ -39,20 +40,20 @@ public class StatisticsPanel extends JPanel{
             "Nodes/sec.", // node per second
     };
     @SuppressWarnings("unchecked")
-    private static Function<Solver, String>[] fieldvalues = (Function<Solver, String>[]) new Function[]{
-            (Function<Solver, String>) solver -> Long.toString(solver.getModel().getNbVars()),
-            (Function<Solver, String>) solver -> Long.toString(solver.getModel().getNbCstrs()),
-            (Function<Solver, String>) solver ->
-                (solver.hasObjective()?solver.getBestSolutionValue().toString():"--"),
-            (Function<Solver, String>) solver -> Long.toString(solver.getSolutionCount()),
-            (Function<Solver, String>) solver -> Long.toString(solver.getNodeCount()),
-            (Function<Solver, String>) solver -> Long.toString(solver.getFailCount()),
-            (Function<Solver, String>) solver -> Long.toString(solver.getBackTrackCount()),
-            (Function<Solver, String>) solver -> Long.toString(solver.getRestartCount()),
-            (Function<Solver, String>) solver ->
-                    toHHmmss((long)(solver.getTimeCount() * 1000)),
-            (Function<Solver, String>) solver ->
-                    String.format("%.2f",(solver.getNodeCount() / solver.getTimeCount())),
+    private static BiFunction<Solver, IMeasures, String>[] fieldvalues = (BiFunction<Solver, IMeasures, String>[]) new BiFunction[]{
+            (BiFunction<Solver, IMeasures, String>) (solver, m) -> Long.toString(solver.getModel().getNbVars()),
+            (BiFunction<Solver, IMeasures, String>) (solver, m) -> Long.toString(solver.getModel().getNbCstrs()),
+            (BiFunction<Solver, IMeasures, String>) (solver, m) ->
+                (m.hasObjective()?m.getBestSolutionValue().toString():"--"),
+            (BiFunction<Solver, IMeasures, String>) (solver, m) -> Long.toString(m.getSolutionCount()),
+            (BiFunction<Solver, IMeasures, String>) (solver, m) -> Long.toString(m.getNodeCount()),
+            (BiFunction<Solver, IMeasures, String>) (solver, m) -> Long.toString(m.getFailCount()),
+            (BiFunction<Solver, IMeasures, String>) (solver, m) -> Long.toString(m.getBackTrackCount()),
+            (BiFunction<Solver, IMeasures, String>) (solver, m) -> Long.toString(m.getRestartCount()),
+            (BiFunction<Solver, IMeasures, String>) (solver, m) ->
+                    toHHmmss((long)(m.getTimeCount() * 1000)),
+            (BiFunction<Solver, IMeasures, String>) (solver, m) ->
+                    String.format("%.2f",(m.getNodeCount() / m.getTimeCount())),
     };
 
     /**
@@ -146,8 +147,9 @@ public class StatisticsPanel extends JPanel{
     }
 
     private void printStatistics() {
+        IMeasures measures = solver.getMeasures().getSnapshot();
         for(int i = 0 ; i < textFields.length; i++) {
-            textFields[i].setText(fieldvalues[i].apply(solver));
+            textFields[i].setText(fieldvalues[i].apply(solver, measures));
         }
     }
 
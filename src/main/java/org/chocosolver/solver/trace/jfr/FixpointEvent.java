@@ -0,0 +1,41 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A flight recorder event emitted on each fix point computation lasting more than the threshold, 1 ms by default.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+@Name("org.chocosolver.Fixpoint")
+@Label("Propagation Fix Point")
+@Category({"Choco", "Propagation"})
+@Description("The propagation engine reaches a fix point or fails")
+@Threshold("1 ms")
+@StackTrace(false)
+final class FixpointEvent extends Event {
+
+    @Label("Model")
+    String model;
+
+    @Label("Depth")
+    long depth;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,170 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.trace.jfr;
+
+import jdk.jfr.EventType;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.propagation.IPropagationMonitor;
+import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+
+/**
+ * A monitor which emits Java Flight Recorder (JFR)
+ * events on restarts, solutions, fix point computations and propagator executions,
+ * to watch a resolution with standard JDK tools, for instance:
+ * <pre>
+ *     java -XX:StartFlightRecording=filename=solve.jfr ...
+ *     jfr print --events org.chocosolver.Solution solve.jfr
+ * </pre>
+ * Fix points and propagator executions are only recorded when they last more than 1 ms, which can be changed
+ * with the <i>threshold</i> setting of the events <code>org.chocosolver.Fixpoint</code> and
+ * <code>org.chocosolver.Propagator</code>.
+ * When no recording is running, or the events are disabled, the overhead is limited to a test per event.
+ * <p>
+ * This class requires the <code>jdk.jfr</code> API, see {@link #isAvailable()}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class FlightRecorderMonitor implements IMonitorRestart, IMonitorSolution, IPropagationMonitor {
+
+    /**
+     * The observed solver
+     */
+    private final Solver solver;
+
+    /**
+     * Types of the events, to check whether they are enabled
+     */
+    private final EventType fixpointType, propagatorType;
+
+    /**
+     * The pending fix point event, if any
+     */
+    private FixpointEvent fixpoint;
+
+    /**
+     * The pending propagator event, if any
+     */
+    private PropagatorEvent propagator;
+
+    /**
+     * Creates a monitor emitting flight recorder events on the resolution of <i>solver</i>.
+     * The monitor still needs to be plugged, see {@link #plug()}.
+     *
+     * @param solver the solver to observe
+     */
+    public FlightRecorderMonitor(Solver solver) {
+        this.solver = solver;
+        this.fixpointType = EventType.getEventType(FixpointEvent.class);
+        this.propagatorType = EventType.getEventType(PropagatorEvent.class);
+    }
+
+    /**
+     * @return <tt>true</tt> if the flight recorder API is available in the running JVM
+     */
+    public static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Plugs this monitor into the solver, as a search monitor and as the propagation engine's monitor.
+     */
+    public void plug() {
+        solver.plugMonitor(this);
+        solver.getEngine().setMonitor(this);
+    }
+
+    /**
+     * Unplugs this monitor from the solver.
+     */
+    public void unplug() {
+        solver.unplugMonitor(this);
+        if (solver.getEngine().getMonitor() == this) {
+            solver.getEngine().setMonitor(null);
+        }
+    }
+
+    @Override
+    public void afterRestart() {
+        RestartEvent event = new RestartEvent();
+        if (event.isEnabled()) {
+            event.model = solver.getModelName();
+            event.restarts = solver.getRestartCount();
+            event.nodes = solver.getNodeCount();
+            event.fails = solver.getFailCount();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onSolution() {
+        SolutionEvent event = new SolutionEvent();
+        if (event.isEnabled()) {
+            event.model = solver.getModelName();
+            event.solutions = solver.getSolutionCount();
+            event.objective = solver.hasObjective() ? solver.getBestSolutionValue().toString() : "";
+            event.nodes = solver.getNodeCount();
+            event.fails = solver.getFailCount();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void beforeFixpoint() {
+        if (fixpointType.isEnabled()) {
+            fixpoint = new FixpointEvent();
+            fixpoint.begin();
+        }
+    }
+
+    @Override
+    public void afterFixpoint(boolean failed) {
+        if (fixpoint != null) {
+            fixpoint.end();
+            if (fixpoint.shouldCommit()) {
+                fixpoint.model = solver.getModelName();
+                fixpoint.depth = solver.getCurrentDepth();
+                fixpoint.failed = failed;
+                fixpoint.commit();
+            }
+            fixpoint = null;
+        }
+    }
+
+    @Override
+    public void beforePropagation(Propagator p) {
+        if (propagatorType.isEnabled()) {
+            propagator = new PropagatorEvent();
+            propagator.begin();
+        }
+    }
+
+    @Override
+    public void afterPropagation(Propagator p, boolean failed) {
+        if (propagator == null) {
+            return;
+        }
+        propagator.end();
+        if (propagator.shouldCommit()) {
+            propagator.propagator = p.getClass().getName();
+            propagator.constraint = p.getConstraint().getName();
+            propagator.variables = p.getNbVars();
+            propagator.failed = failed;
+            propagator.commit();
+        }
+        propagator = null;
+    }
+}
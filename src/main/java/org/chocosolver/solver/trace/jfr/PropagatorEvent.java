@@ -0,0 +1,44 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A flight recorder event emitted on each propagator execution lasting more than the threshold, 1 ms by default.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+@Name("org.chocosolver.Propagator")
+@Label("Propagator Execution")
+@Category({"Choco", "Propagation"})
+@Description("A propagator is executed")
+@Threshold("1 ms")
+@StackTrace(false)
+final class PropagatorEvent extends Event {
+
+    @Label("Propagator")
+    String propagator;
+
+    @Label("Constraint")
+    String constraint;
+
+    @Label("Variables")
+    int variables;
+
+    @Label("Failed")
+    boolean failed;
+}
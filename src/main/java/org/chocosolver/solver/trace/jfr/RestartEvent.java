@@ -0,0 +1,42 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event emitted on each restart.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+@Name("org.chocosolver.Restart")
+@Label("Restart")
+@Category({"Choco", "Search"})
+@Description("The search restarts")
+@StackTrace(false)
+final class RestartEvent extends Event {
+
+    @Label("Model")
+    String model;
+
+    @Label("Restarts")
+    long restarts;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Fails")
+    long fails;
+}
@@ -0,0 +1,46 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event emitted on each solution.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+@Name("org.chocosolver.Solution")
+@Label("Solution")
+@Category({"Choco", "Search"})
+@Description("A solution is found")
+@StackTrace(false)
+final class SolutionEvent extends Event {
+
+    @Label("Model")
+    String model;
+
+    @Label("Solutions")
+    long solutions;
+
+    @Label("Objective")
+    @Description("Value of the objective, empty in satisfaction problems")
+    String objective;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Fails")
+    long fails;
+}
@@ -694,6 +694,23 @@ public interface IVariableFactory extends ISelf<Model> {
         return new SetVarImpl(name, lb, SetType.BITSET, ub, SetType.BITSET, ref());
     }
 
+    /**
+     * Creates a set variable, taking its domain in [<i>lb</i>, <i>ub</i>], whose cardinality is in [<i>minCard</i>, <i>maxCard</i>].
+     * The cardinality is part of the domain: it is available through {@link SetVar#getCard()} and set constraints
+     * take it into account, which prunes earlier than reasoning on elements only.
+     * @param name name of the variable
+     * @param lb initial domain lower bound (contains mandatory elements that should be present in every solution)
+     * @param ub initial domain upper bound (contains potential elements)
+     * @param minCard minimum cardinality of the variable
+     * @param maxCard maximum cardinality of the variable
+     * @return a SetVar of domain [<i>lb</i>, <i>ub</i>] and of cardinality in [<i>minCard</i>, <i>maxCard</i>]
+     */
+    default SetVar setVar(String name, int[] lb, int[] ub, int minCard, int maxCard) {
+        SetVar set = setVar(name, lb, ub);
+        set.setCard(ref().intVar(name + ".card", Math.max(minCard, set.getLB().size()), Math.min(maxCard, set.getUB().size())));
+        return set;
+    }
+
     /**
      * Creates a constant set variable, equal to <i>value</i>
      * @param name name of the variable
@@ -734,6 +751,25 @@ public interface IVariableFactory extends ISelf<Model> {
         return vars;
     }
 
+    /**
+     * Creates an array of <i>size</i> set variables, taking their domain in [<i>lb</i>, <i>ub</i>],
+     * whose cardinality is in [<i>minCard</i>, <i>maxCard</i>]
+     * @param name prefix name of the variables to create. The ith variable will be named <i>name</i>[i]
+     * @param size number of variables
+     * @param lb initial domain lower bound of every variable (contains mandatory elements that should be present in every solution)
+     * @param ub initial domain upper bound of every variable (contains potential elements)
+     * @param minCard minimum cardinality of every variable
+     * @param maxCard maximum cardinality of every variable
+     * @return an array of <i>size</i> SetVar of domain [<i>lb</i>, <i>ub</i>] and of cardinality in [<i>minCard</i>, <i>maxCard</i>]
+     */
+    default SetVar[] setVarArray(String name, int size, int[] lb, int[] ub, int minCard, int maxCard) {
+        SetVar[] vars = new SetVar[size];
+        for (int i = 0; i < size; i++) {
+            vars[i] = setVar(name + "[" + i + "]", lb, ub, minCard, maxCard);
+        }
+        return vars;
+    }
+
     // MATRIX
 
     /**
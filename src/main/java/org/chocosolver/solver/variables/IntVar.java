@@ -17,6 +17,7 @@ import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.iterators.DisposableRangeIterator;
 import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSet;
 
 
@@ -99,6 +100,73 @@ public interface IntVar extends ICause, Variable, Iterable<Integer>, ArExpressio
      */
     boolean removeAllValuesBut(IntIterableSet values, ICause cause) throws ContradictionException;
 
+    /**
+     * Removes the values whose bit is on in <code>words</code> from the domain of <code>this</code>,
+     * the bit <code>i</code> (that is, <code>words[i / 64] &amp; (1L &lt;&lt; i)</code>) standing for the value <code>offset + i</code>.
+     * The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If all values are out of the domain, nothing is done and the return value is <code>false</code>,</li>
+     * <li>if removing a value leads to a dead-end (domain wipe-out),
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>otherwise, if removing the values from the domain can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified once
+     * and the return value is <code>true</code></li>
+     * </ul>
+     * Bitset-based domains remove the values word by word.
+     *
+     * @param words  bits of the values to remove
+     * @param offset value of the first bit
+     * @param cause  removal release
+     * @return true if at least a value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    default boolean removeValues(long[] words, int offset, ICause cause) throws ContradictionException {
+        IntIterableRangeSet values = new IntIterableRangeSet();
+        for (int w = 0; w < words.length; w++) {
+            for (long word = words[w]; word != 0L; word &= word - 1) {
+                int value = offset + (w << 6) + Long.numberOfTrailingZeros(word);
+                if (contains(value)) {
+                    values.add(value);
+                }
+            }
+        }
+        return values.size() > 0 && removeValues(values, cause);
+    }
+
+    /**
+     * Removes all values from the domain of <code>this</code> except those whose bit is on in <code>words</code>,
+     * the bit <code>i</code> (that is, <code>words[i / 64] &amp; (1L &lt;&lt; i)</code>) standing for the value <code>offset + i</code>.
+     * The instruction comes from <code>propagator</code>.
+     * <ul>
+     * <li>If all values are out of the domain,
+     * a <code>ContradictionException</code> is thrown,</li>
+     * <li>if the domain is a subset of values,
+     * nothing is done and the return value is <code>false</code>,</li>
+     * <li>otherwise, if removing all values but the ones in <code>words</code> from the domain can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified once
+     * and the return value is <code>true</code></li>
+     * </ul>
+     * Bitset-based domains remove the values word by word.
+     *
+     * @param words  bits of the values to keep
+     * @param offset value of the first bit
+     * @param cause  removal release
+     * @return true if a at least a value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    default boolean removeAllValuesBut(long[] words, int offset, ICause cause) throws ContradictionException {
+        IntIterableRangeSet values = new IntIterableRangeSet();
+        for (int w = 0; w < words.length; w++) {
+            for (long word = words[w]; word != 0L; word &= word - 1) {
+                int value = offset + (w << 6) + Long.numberOfTrailingZeros(word);
+                if (contains(value)) {
+                    values.add(value);
+                }
+            }
+        }
+        return removeAllValuesBut(values, cause);
+    }
+
     /**
      * Removes values between [<code>from, to</code>] from the domain of <code>this</code>. The instruction comes from <code>propagator</code>.
      * <ul>
@@ -308,6 +376,33 @@ public interface IntVar extends ICause, Variable, Iterable<Integer>, ArExpressio
      */
     int previousValueOut(int v);
 
+    /**
+     * Returns 64 values of the domain as a word: the bit <code>i</code> is on
+     * if and only if the value <code>from + i</code> belongs to the domain.
+     * Bitset-based domains read their words directly.
+     * <p>
+     * To iterate over the values in a <code>IntVar</code> word by word,
+     * use the following loop:
+     * <pre>
+     * for (int w = var.getLB(); w &lt;= var.getUB(); w += 64) {
+     *     for (long word = var.getDomainWord(w); word != 0L; word &amp;= word - 1) {
+     *         int v = w + Long.numberOfTrailingZeros(word);
+     *         // operate on value v here
+     *     }
+     * }</pre>
+     *
+     * @param from the value of the first bit
+     * @return the values in [<i>from</i>, <i>from + 63</i>] belonging to the domain, as a word
+     */
+    default long getDomainWord(int from) {
+        long word = 0L;
+        int ub = (int) Math.min(getUB(), from + 63L);
+        for (int v = nextValue(from - 1); v <= ub; v = nextValue(v)) {
+            word |= 1L << (v - from);
+        }
+        return word;
+    }
+
     /**
      * Retrieves an iterator over values of <code>this</code>.
      * <p>
@@ -102,4 +102,9 @@ public interface RealVar extends Variable, CArExpression {
         return this;
     }
 
+    @Override
+    default boolean isExpressionLeaf() {
+        return true;
+    }
+
 }
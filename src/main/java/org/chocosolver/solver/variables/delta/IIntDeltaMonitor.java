@@ -9,6 +9,7 @@
 package org.chocosolver.solver.variables.delta;
 
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.objects.IntList;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.procedure.SafeIntProcedure;
 
@@ -34,6 +35,19 @@ public interface IIntDeltaMonitor extends IDeltaMonitor {
 
     void forEachRemVal(IntProcedure proc) throws ContradictionException;
 
+    /**
+     * Store the values removed in 'values', in bulk, which is cleared beforehand.
+     * Unlike {@link #forEachRemVal(SafeIntProcedure)}, no procedure is called per value,
+     * the caller can then iterate over 'values' in a tight loop.
+     * @param values where to store the values removed
+     * @return the number of values removed
+     */
+    default int collectRemVals(IntList values) {
+        values.clear();
+        forEachRemVal((SafeIntProcedure) values::add);
+        return values.size();
+    }
+
 	/**
      * @return a rough estimation of the number of removed values 
      */
@@ -64,6 +78,12 @@ public interface IIntDeltaMonitor extends IDeltaMonitor {
             public void forEachRemVal(IntProcedure proc) throws ContradictionException {
                 // nothing to do by default
             }
+
+            @Override
+            public int collectRemVals(IntList values) {
+                values.clear();
+                return 0;
+            }
         }
     }
 }
@@ -14,6 +14,7 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.loop.TimeStampedObject;
 import org.chocosolver.solver.variables.delta.IEnumDelta;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.util.objects.IntList;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.procedure.SafeIntProcedure;
 
@@ -76,6 +77,23 @@ public class EnumDeltaMonitor extends TimeStampedObject implements IIntDeltaMoni
 		}
     }
 
+    @Override
+    public int collectRemVals(IntList values) {
+        values.clear();
+        if (propagator == Cause.Null) {
+            for (int i = frozenFirst; i < frozenLast; i++) {
+                values.add(delta.get(i));
+            }
+        } else {
+            for (int i = frozenFirst; i < frozenLast; i++) {
+                if (propagator != delta.getCause(i)) {
+                    values.add(delta.get(i));
+                }
+            }
+        }
+        return values.size();
+    }
+
     @Override
     public String toString() {
         return String.format("(%d,%d) => (%d,%d) :: %d", first, last, frozenFirst, frozenLast, delta.size());
@@ -14,6 +14,7 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.loop.TimeStampedObject;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.delta.IIntervalDelta;
+import org.chocosolver.util.objects.IntList;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.procedure.SafeIntProcedure;
 
@@ -87,6 +88,20 @@ public class IntervalDeltaMonitor extends TimeStampedObject implements IIntDelta
 		}
     }
 
+    @Override
+    public int collectRemVals(IntList values) {
+        values.clear();
+        for (int i = frozenFirst; i < frozenLast; i++) {
+            if (propagator == Cause.Null || propagator != delta.getCause(i)) {
+                int ub = delta.getUB(i);
+                for (int lb = delta.getLB(i); lb <= ub; lb++) {
+                    values.add(lb);
+                }
+            }
+        }
+        return values.size();
+    }
+
     @Override
     public String toString() {
         return String.format("(%d,%d) => (%d,%d) :: %d", first, last, frozenFirst, frozenLast, delta.size());
@@ -13,6 +13,7 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.loop.TimeStampedObject;
 import org.chocosolver.solver.variables.delta.IEnumDelta;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.util.objects.IntList;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.procedure.SafeIntProcedure;
 
@@ -64,6 +65,14 @@ public class OneValueDeltaMonitor extends TimeStampedObject implements IIntDelta
 			proc.execute(delta.get(0));
     }
 
+    @Override
+    public int collectRemVals(IntList values) {
+        values.clear();
+        if (used && propagator != delta.getCause(0))
+            values.add(delta.get(0));
+        return values.size();
+    }
+
     @Override
    	public int sizeApproximation(){
    		return used && propagator != delta.getCause(0)?1:0;
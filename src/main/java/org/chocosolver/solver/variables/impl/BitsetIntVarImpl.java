@@ -292,6 +292,93 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         return hasRemoved || hasChanged;
     }
 
+    @Override
+    public boolean removeValues(long[] words, int offset, ICause cause) throws ContradictionException {
+        return removeWords(words, offset, false, cause);
+    }
+
+    @Override
+    public boolean removeAllValuesBut(long[] words, int offset, ICause cause) throws ContradictionException {
+        return removeWords(words, offset, true, cause);
+    }
+
+    /**
+     * Removes values word by word: the domain is intersected with <i>words</i>, or with its complement,
+     * and observers are notified once.
+     * @param words bits of the values, the first one standing for <i>offset</i>
+     * @param offset value of the first bit
+     * @param keep set to <tt>true</tt> to keep the values in <i>words</i>, to <tt>false</tt> to remove them
+     * @param cause removal releaser
+     * @return true if at least a value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    private boolean removeWords(long[] words, int offset, boolean keep, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int olb = LB.get();
+        int oub = UB.get();
+        int count = SIZE.get();
+        int last = oub >> 6;
+        for (int w = olb >> 6; w <= last; w++) {
+            long mask = bits(words, (w << 6) + OFFSET - offset);
+            if (!keep) {
+                mask = ~mask;
+            }
+            long removed = VALUES.getWord(w) & ~mask;
+            if (removed != 0L) {
+                // the iteration is mandatory for delta and observers
+                for (; removed != 0L; removed &= removed - 1) {
+                    int value = (w << 6) + Long.numberOfTrailingZeros(removed) + OFFSET;
+                    model.getSolver().getExplainer().removeValue(this, value, cause);
+                    if (count == 1) {
+                        this.contradiction(cause, MSG_REMOVE);
+                    }
+                    count--;
+                    if (reactOnRemoval) {
+                        delta.add(value, cause);
+                    }
+                }
+                VALUES.andWord(w, mask);
+            }
+        }
+        if (count == SIZE.get()) {
+            return false;
+        }
+        SIZE.set(count);
+        IntEventType e = IntEventType.REMOVE;
+        boolean inclow = !VALUES.get(olb);
+        boolean decupp = !VALUES.get(oub);
+        if (inclow) {
+            LB.set(VALUES.nextSetBit(olb));
+            e = IntEventType.INCLOW;
+        }
+        if (decupp) {
+            UB.set(VALUES.prevSetBit(oub));
+            e = inclow ? IntEventType.BOUND : IntEventType.DECUPP;
+        }
+        assert !VALUES.isEmpty();
+        if (count == 1) {
+            e = IntEventType.INSTANTIATE;
+        }
+        this.notifyPropagators(e, cause);
+        return true;
+    }
+
+    /**
+     * @param words a bitset
+     * @param from index of the first bit, may be out of <i>words</i>
+     * @return the 64 bits of <i>words</i> starting at <i>from</i>, bits out of <i>words</i> are off
+     */
+    private static long bits(long[] words, int from) {
+        int w = from >> 6;
+        int r = from & 63;
+        long lo = w >= 0 && w < words.length ? words[w] : 0L;
+        if (r == 0) {
+            return lo;
+        }
+        long hi = w + 1 >= 0 && w + 1 < words.length ? words[w + 1] : 0L;
+        return (lo >>> r) | (hi << (64 - r));
+    }
+
     @Override
     public boolean removeInterval(int from, int to, ICause cause) throws ContradictionException {
         assert cause != null;
@@ -621,6 +708,19 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         return aValue - 1;
     }
 
+    @Override
+    public long getDomainWord(int from) {
+        int s = from - OFFSET;
+        int w = s >> 6;
+        int r = s & 63;
+        long lo = w >= 0 ? VALUES.getWord(w) : 0L;
+        if (r == 0) {
+            return lo;
+        }
+        long hi = w + 1 >= 0 ? VALUES.getWord(w + 1) : 0L;
+        return (lo >>> r) | (hi << (64 - r));
+    }
+
     @Override
     public boolean hasEnumeratedDomain() {
         return true;
@@ -0,0 +1,56 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+import java.util.Arrays;
+
+/**
+ * An immutable sequence of integers, to be used as a key of a hash-based collection.
+ * The hash code is computed once, on creation.
+ * <br/>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public final class IntArrayKey {
+
+    /**
+     * The integers, not to be modified once the key is created
+     */
+    private final int[] values;
+    /**
+     * Hash code of {@link #values}
+     */
+    private final int hash;
+
+    /**
+     * Creates a key over an array of integers, which is not copied
+     *
+     * @param values the integers, not to be modified afterwards
+     */
+    public IntArrayKey(int[] values) {
+        this.values = values;
+        this.hash = Arrays.hashCode(values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IntArrayKey && hash == ((IntArrayKey) o).hash && Arrays.equals(values, ((IntArrayKey) o).values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+import java.util.Arrays;
+
+/**
+ * A bounded heap of integers taken in [0, n), each of them associated with a key.
+ * It keeps at most <i>capacity</i> elements, those with the smallest keys (ties are broken by the smallest element).
+ * <p>
+ * Elements are stored in a max-heap, so that the worst one is evicted in O(log(capacity)) when a better one is offered,
+ * and the key of an element already stored is updated in place.
+ * Polling the best element is in O(capacity), which is expected to be small.
+ * No object is allocated once the heap is created.
+ * <br/>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class IntBoundedHeap {
+
+    /**
+     * Stored elements, as a max-heap
+     */
+    private final int[] elements;
+    /**
+     * Keys of stored elements, indexed like {@link #elements}
+     */
+    private final int[] keys;
+    /**
+     * Position of each element in {@link #elements}, -1 if the element is not stored
+     */
+    private final int[] positions;
+    /**
+     * Number of stored elements
+     */
+    private int size;
+
+    /**
+     * Creates an empty bounded heap
+     *
+     * @param capacity maximum number of elements stored
+     * @param n        elements are taken in [0, n)
+     */
+    public IntBoundedHeap(int capacity, int n) {
+        this.elements = new int[capacity];
+        this.keys = new int[capacity];
+        this.positions = new int[n];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Offers an element to the heap. If the element is already stored, its key is updated.
+     * Otherwise, it is added if the heap is not full, or replaces the worst element if it is better.
+     *
+     * @param element an element in [0, n)
+     * @param key     the key of the element
+     * @return <tt>true</tt> if the element is stored on exit
+     */
+    public boolean offer(int element, int key) {
+        return offerEvicting(element, key) != element;
+    }
+
+    /**
+     * Offers an element to the heap, like {@link #offer(int, int)}.
+     *
+     * @param element an element in [0, n)
+     * @param key     the key of the element
+     * @return the element left out of the heap by this call, that is the worst element if it is evicted
+     * or <i>element</i> if it is rejected, -1 if none
+     */
+    public int offerEvicting(int element, int key) {
+        int p = positions[element];
+        if (p >= 0) {
+            keys[p] = key;
+            siftDown(siftUp(p));
+            return -1;
+        }
+        if (size < elements.length) {
+            set(size, element, key);
+            siftUp(size++);
+            return -1;
+        }
+        if (size > 0 && (key < keys[0] || (key == keys[0] && element < elements[0]))) {
+            int worst = elements[0];
+            positions[worst] = -1;
+            set(0, element, key);
+            siftDown(0);
+            return worst;
+        }
+        return element;
+    }
+
+    /**
+     * Removes and returns the element with the smallest key.
+     *
+     * @return the best element stored
+     * @throws IndexOutOfBoundsException if the heap is empty
+     */
+    public int pollFirst() {
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("Empty heap");
+        }
+        int best = 0;
+        for (int p = 1; p < size; p++) {
+            if (keys[p] < keys[best] || (keys[p] == keys[best] && elements[p] < elements[best])) {
+                best = p;
+            }
+        }
+        int element = elements[best];
+        removeAt(best);
+        return element;
+    }
+
+    /**
+     * Removes an element from the heap, if stored.
+     *
+     * @param element an element in [0, n)
+     * @return <tt>true</tt> if the element was stored
+     */
+    public boolean remove(int element) {
+        int p = positions[element];
+        if (p >= 0) {
+            removeAt(p);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param element an element in [0, n)
+     * @return <tt>true</tt> if the element is stored
+     */
+    public boolean contains(int element) {
+        return positions[element] >= 0;
+    }
+
+    /**
+     * @return the number of elements stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return <tt>true</tt> if no element is stored
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements, in O(size).
+     */
+    public void clear() {
+        for (int p = 0; p < size; p++) {
+            positions[elements[p]] = -1;
+        }
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("{");
+        for (int p = 0; p < size; p++) {
+            if (p > 0) st.append(", ");
+            st.append(elements[p]).append(':').append(keys[p]);
+        }
+        return st.append('}').toString();
+    }
+
+    private void removeAt(int p) {
+        positions[elements[p]] = -1;
+        if (p != --size) {
+            set(p, elements[size], keys[size]);
+            siftDown(siftUp(p));
+        }
+    }
+
+    private void set(int p, int element, int key) {
+        elements[p] = element;
+        keys[p] = key;
+        positions[element] = p;
+    }
+
+    /**
+     * @return <tt>true</tt> if the element at position <i>i</i> is worse than the one at position <i>j</i>
+     */
+    private boolean worse(int i, int j) {
+        return keys[i] > keys[j] || (keys[i] == keys[j] && elements[i] > elements[j]);
+    }
+
+    private void swap(int i, int j) {
+        int e = elements[i], k = keys[i];
+        set(i, elements[j], keys[j]);
+        set(j, e, k);
+    }
+
+    private int siftUp(int p) {
+        while (p > 0) {
+            int parent = (p - 1) >> 1;
+            if (!worse(p, parent)) {
+                break;
+            }
+            swap(p, parent);
+            p = parent;
+        }
+        return p;
+    }
+
+    private void siftDown(int p) {
+        int child;
+        while ((child = (p << 1) + 1) < size) {
+            if (child + 1 < size && worse(child + 1, child)) {
+                child++;
+            }
+            if (!worse(child, p)) {
+                break;
+            }
+            swap(p, child);
+            p = child;
+        }
+    }
+}
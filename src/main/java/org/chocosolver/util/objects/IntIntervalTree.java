@@ -0,0 +1,190 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+/**
+ * An interval tree storing an interval [lo, hi) for some of the integers taken in [0, n).
+ * <p>
+ * Intervals are first set, then the tree is built and queried for the intervals intersecting a given one
+ * in O(log(n) + k), where <i>k</i> is the number of answers.
+ * The tree is implicit: intervals are sorted by lower bound and the root of each range of positions is its middle,
+ * which also stores the largest upper bound of the range.
+ * Building the tree starts from the previous order with an insertion sort, so it runs in O(n) when bounds have changed
+ * a little since the last build, which is the case during propagation.
+ * Intervals may be empty (lo &ge; hi): queries only compare bounds, see {@link #query(int, int, IntList)}.
+ * No object is allocated once the tree is created.
+ * <br/>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class IntIntervalTree {
+
+    /**
+     * Bounds of each interval, indexed by element
+     */
+    private final int[] los, his;
+    /**
+     * Elements, sorted by lower bound once built
+     */
+    private final int[] order;
+    /**
+     * Bounds of each interval, indexed by position in the tree
+     */
+    private final int[] sortedLos, sortedHis;
+    /**
+     * Largest upper bound of the range of positions rooted at each position
+     */
+    private final int[] maxHis;
+    /**
+     * Set to <tt>true</tt> when the tree can be queried
+     */
+    private boolean built;
+
+    /**
+     * Creates an interval tree without any interval
+     *
+     * @param n intervals are associated with integers taken in [0, n)
+     */
+    public IntIntervalTree(int n) {
+        this.los = new int[n];
+        this.his = new int[n];
+        this.order = new int[n];
+        this.sortedLos = new int[n];
+        this.sortedHis = new int[n];
+        this.maxHis = new int[n];
+        for (int e = 0; e < n; e++) {
+            order[e] = e;
+        }
+        clear();
+    }
+
+    /**
+     * Removes all the intervals
+     */
+    public void clear() {
+        for (int e = 0; e < los.length; e++) {
+            remove(e);
+        }
+    }
+
+    /**
+     * Sets the interval of an element, the tree has to be built again before being queried
+     *
+     * @param e  an element in [0, n)
+     * @param lo lower bound of the interval, inclusive
+     * @param hi upper bound of the interval, exclusive
+     */
+    public void set(int e, int lo, int hi) {
+        los[e] = lo;
+        his[e] = hi;
+        built = false;
+    }
+
+    /**
+     * Removes the interval of an element, the tree has to be built again before being queried
+     *
+     * @param e an element in [0, n)
+     */
+    public void remove(int e) {
+        // never reported
+        set(e, Integer.MAX_VALUE, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Builds the tree from the intervals set so far
+     */
+    public void build() {
+        int n = order.length;
+        // insertion sort, from the previous order
+        for (int p = 1; p < n; p++) {
+            int e = order[p];
+            int lo = los[e];
+            int q = p - 1;
+            while (q >= 0 && los[order[q]] > lo) {
+                order[q + 1] = order[q];
+                q--;
+            }
+            order[q + 1] = e;
+        }
+        for (int p = 0; p < n; p++) {
+            sortedLos[p] = los[order[p]];
+            sortedHis[p] = his[order[p]];
+        }
+        if (n > 0) {
+            computeMax(0, n);
+        }
+        built = true;
+    }
+
+    private int computeMax(int from, int to) {
+        int mid = (from + to) >>> 1;
+        int max = sortedHis[mid];
+        if (from < mid) {
+            max = Math.max(max, computeMax(from, mid));
+        }
+        if (mid + 1 < to) {
+            max = Math.max(max, computeMax(mid + 1, to));
+        }
+        maxHis[mid] = max;
+        return max;
+    }
+
+    /**
+     * Adds to <i>result</i> the elements whose interval [l, h) is such that <i>l &lt; hi</i> and <i>h &gt; lo</i>,
+     * that is, the ones intersecting [lo, hi) when neither is empty
+     *
+     * @param lo     lower bound of the queried interval, inclusive
+     * @param hi     upper bound of the queried interval, exclusive
+     * @param result where elements are added
+     * @throws IllegalStateException if the tree is not built
+     */
+    public void query(int lo, int hi, IntList result) {
+        if (!built) {
+            throw new IllegalStateException("The interval tree has to be built before being queried");
+        }
+        if (order.length > 0) {
+            query(0, order.length, lo, hi, result);
+        }
+    }
+
+    private void query(int from, int to, int lo, int hi, IntList result) {
+        int mid = (from + to) >>> 1;
+        if (maxHis[mid] <= lo) {
+            // no interval of the range ends after lo
+            return;
+        }
+        if (from < mid) {
+            query(from, mid, lo, hi, result);
+        }
+        if (sortedLos[mid] < hi) {
+            if (sortedHis[mid] > lo) {
+                result.add(order[mid]);
+            }
+            if (mid + 1 < to) {
+                query(mid + 1, to, lo, hi, result);
+            }
+        }
+        // otherwise, intervals on the right start after hi too
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("{");
+        for (int e = 0; e < los.length; e++) {
+            if (los[e] != Integer.MAX_VALUE || his[e] != Integer.MIN_VALUE) {
+                if (st.length() > 1) {
+                    st.append(", ");
+                }
+                st.append(e).append(":[").append(los[e]).append(',').append(his[e]).append(')');
+            }
+        }
+        return st.append('}').toString();
+    }
+}
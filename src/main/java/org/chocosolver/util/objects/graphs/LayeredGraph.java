@@ -0,0 +1,454 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.graphs;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
+import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.IntArrayKey;
+import org.chocosolver.util.sort.ArraySort;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram.EMPTY;
+import static org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram.TERMINAL;
+
+/**
+ * An immutable layered graph over a sequence of variables, designed to be shared by incremental propagators,
+ * which only store their own state.
+ * It is either the unfolding of an automaton over the domains of the variables, see
+ * {@link #unfold(IAutomaton, IntVar[], ICostAutomaton)}, or the view of a {@link MultivaluedDecisionDiagram},
+ * see {@link MultivaluedDecisionDiagram#getLayeredGraph()}.
+ * <p>
+ * Nodes are numbered layer by layer, the source being 0: nodes of layer <i>l</i>, in [0, <code>nbLayers</code>],
+ * are in [<code>layerStart[l]</code>, <code>layerStart[l+1]</code>), and the last layer only holds the sink.
+ * The arcs from layer <i>l</i> to layer <i>l+1</i> are valued by the values of variable <i>l</i>.
+ * A pair (layer, value) is identified by a <i>label</i>, <code>labelOffset[l] + value - valueOffset[l]</code>,
+ * and arcs are numbered by label, so that the arcs of a label are contiguous.
+ * The graph is empty, with no arc, when no word is accepted.
+ * </p>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public final class LayeredGraph {
+
+    /**
+     * Number of layers of arcs, that is, the number of variables
+     */
+    public final int nbLayers;
+    /**
+     * Number of nodes
+     */
+    public final int nbNodes;
+    /**
+     * Number of arcs
+     */
+    public final int nbArcs;
+    /**
+     * Nodes of layer <i>l</i> are in [<code>layerStart[l]</code>, <code>layerStart[l+1]</code>)
+     */
+    public final int[] layerStart;
+    /**
+     * Layer of each node
+     */
+    public final int[] layers;
+    /**
+     * Smallest value of each layer
+     */
+    public final int[] valueOffset;
+    /**
+     * Labels of layer <i>l</i> are in [<code>labelOffset[l]</code>, <code>labelOffset[l+1]</code>)
+     */
+    public final int[] labelOffset;
+    /**
+     * Layer of each label
+     */
+    public final int[] labelLayers;
+    /**
+     * Arcs of label <i>a</i> are in [<code>labelStart[a]</code>, <code>labelStart[a+1]</code>)
+     */
+    public final int[] labelStart;
+    /**
+     * Origin, destination, value and label of each arc
+     */
+    public final int[] origs, dests, values, labels;
+    /**
+     * Cost of each arc, <i>null</i> if built without costs
+     */
+    public final double[] costs;
+    /**
+     * Out-arcs of node <i>u</i> are <code>outArcs[outStart[u]..outStart[u+1])</code>
+     */
+    public final int[] outStart, outArcs;
+    /**
+     * In-arcs of node <i>u</i> are <code>inArcs[inStart[u]..inStart[u+1])</code>
+     */
+    public final int[] inStart, inArcs;
+
+    /**
+     * Builds a layered graph from its arcs, given in any order
+     *
+     * @param layerStart  nodes of layer <i>l</i> are in [<code>layerStart[l]</code>, <code>layerStart[l+1]</code>)
+     * @param valueOffset smallest value of each layer
+     * @param nbValues    number of values of each layer, from its smallest one
+     * @param origs       origin of each arc
+     * @param dests       destination of each arc
+     * @param vals        value of each arc
+     * @param cost        cost of each arc, may be null
+     */
+    private LayeredGraph(int[] layerStart, int[] valueOffset, int[] nbValues,
+                         int[] origs, int[] dests, int[] vals, double[] cost) {
+        this.nbLayers = valueOffset.length;
+        this.layerStart = layerStart;
+        this.nbNodes = layerStart[nbLayers + 1];
+        this.nbArcs = origs.length;
+        this.layers = new int[nbNodes];
+        for (int l = 0; l <= nbLayers; l++) {
+            Arrays.fill(layers, layerStart[l], layerStart[l + 1], l);
+        }
+        this.valueOffset = valueOffset;
+        this.labelOffset = new int[nbLayers + 1];
+        for (int l = 0; l < nbLayers; l++) {
+            labelOffset[l + 1] = labelOffset[l] + nbValues[l];
+        }
+        int nbLabels = labelOffset[nbLayers];
+        this.labelLayers = new int[nbLabels];
+        for (int l = 0; l < nbLayers; l++) {
+            Arrays.fill(labelLayers, labelOffset[l], labelOffset[l + 1], l);
+        }
+        // counting sort of the arcs by label
+        this.labelStart = new int[nbLabels + 1];
+        int[] lbl = new int[nbArcs];
+        for (int a = 0; a < nbArcs; a++) {
+            int l = layers[origs[a]];
+            lbl[a] = labelOffset[l] + vals[a] - valueOffset[l];
+            labelStart[lbl[a] + 1]++;
+        }
+        for (int a = 0; a < nbLabels; a++) {
+            labelStart[a + 1] += labelStart[a];
+        }
+        this.origs = new int[nbArcs];
+        this.dests = new int[nbArcs];
+        this.values = new int[nbArcs];
+        this.labels = new int[nbArcs];
+        this.costs = cost == null ? null : new double[nbArcs];
+        this.outStart = new int[nbNodes + 1];
+        this.inStart = new int[nbNodes + 1];
+        int[] next = Arrays.copyOf(labelStart, nbLabels);
+        for (int a = 0; a < nbArcs; a++) {
+            int e = next[lbl[a]]++;
+            this.origs[e] = origs[a];
+            this.dests[e] = dests[a];
+            this.values[e] = vals[a];
+            this.labels[e] = lbl[a];
+            if (cost != null) {
+                costs[e] = cost[a];
+            }
+            outStart[origs[a] + 1]++;
+            inStart[dests[a] + 1]++;
+        }
+        for (int u = 0; u < nbNodes; u++) {
+            outStart[u + 1] += outStart[u];
+            inStart[u + 1] += inStart[u];
+        }
+        this.outArcs = new int[nbArcs];
+        this.inArcs = new int[nbArcs];
+        int[] nextOut = Arrays.copyOf(outStart, nbNodes);
+        int[] nextIn = Arrays.copyOf(inStart, nbNodes);
+        for (int e = 0; e < nbArcs; e++) {
+            outArcs[nextOut[this.origs[e]]++] = e;
+            inArcs[nextIn[this.dests[e]]++] = e;
+        }
+    }
+
+    /**
+     * @return true if no word is accepted
+     */
+    public boolean isEmpty() {
+        return nbArcs == 0;
+    }
+
+    /**
+     * @param l     a layer
+     * @param value a value
+     * @return the label of the value in the layer, which may be out of the labels of the layer
+     */
+    public int label(int l, int value) {
+        return labelOffset[l] + value - valueOffset[l];
+    }
+
+    /**
+     * Builds the layered graph of a MDD, whose nodes are the ones reachable from its root and its terminal node,
+     * the sink.
+     *
+     * @param mdd a multi-valued decision diagram
+     * @return the layered graph of the MDD
+     */
+    static LayeredGraph of(MultivaluedDecisionDiagram mdd) {
+        int[] diagram = mdd.getDiagram();
+        int n = mdd.getNbLayers();
+        int[] valueOffset = new int[n];
+        int[] nbValues = new int[n];
+        for (int l = 0; l < n; l++) {
+            valueOffset[l] = mdd.getOffset(l);
+            nbValues[l] = mdd.getNodeSize(l);
+        }
+        // 1. number the nodes, layer by layer
+        int[] id = new int[diagram.length];
+        Arrays.fill(id, -1);
+        int[] cells = new int[16]; // cell of each node
+        int[] layerStart = new int[n + 2];
+        id[0] = 0;
+        int nodes = 1, arcs = 0;
+        for (int l = 0; l < n; l++) {
+            layerStart[l + 1] = nodes; // nodes of layer l are all known
+            for (int u = layerStart[l]; u < layerStart[l + 1]; u++) {
+                for (int i = 0; i < nbValues[l]; i++) {
+                    int child = diagram[cells[u] + i];
+                    if (child == EMPTY) {
+                        continue;
+                    }
+                    arcs++;
+                    if (child != TERMINAL && id[child] == -1) {
+                        if (nodes == cells.length) {
+                            cells = Arrays.copyOf(cells, nodes * 3 / 2 + 1);
+                        }
+                        cells[nodes] = child;
+                        id[child] = nodes++;
+                    }
+                }
+            }
+        }
+        int sink = nodes;
+        layerStart[n] = sink;
+        layerStart[n + 1] = sink + 1;
+        // 2. the arcs, the terminal node being the sink
+        int[] origs = new int[arcs], dests = new int[arcs], vals = new int[arcs];
+        int a = 0;
+        for (int l = 0; l < n; l++) {
+            for (int u = layerStart[l]; u < layerStart[l + 1]; u++) {
+                for (int i = 0; i < nbValues[l]; i++) {
+                    int child = diagram[cells[u] + i];
+                    if (child != EMPTY) {
+                        origs[a] = u;
+                        dests[a] = child == TERMINAL ? sink : id[child];
+                        vals[a++] = valueOffset[l] + i;
+                    }
+                }
+            }
+        }
+        return new LayeredGraph(layerStart, valueOffset, nbValues, origs, dests, vals, null);
+    }
+
+    /**
+     * Unfolds an automaton over the domains of variables.
+     * <p>
+     * Layer <i>i</i> holds the states reachable by words of length <i>i</i> and from which a final state is reachable
+     * by a word of length <i>n - i</i>, <i>n</i> being the number of variables.
+     * The graph is then minimized: from the last layer up, nodes of a layer with the same arcs are merged, so a node
+     * stands for a set of suffixes rather than for a state, and the last layer has a single node.
+     * </p>
+     *
+     * @param auto an automaton
+     * @param vars the variables, in the order of the word
+     * @param cost if not null, arcs are valued by {@link ICostAutomaton#getCostByState(int, int, int)}
+     *             and only nodes with the same costs are merged
+     * @return the minimized unfolding of the automaton
+     */
+    public static LayeredGraph unfold(IAutomaton auto, IntVar[] vars, ICostAutomaton cost) {
+        int n = vars.length;
+        int nbStates = auto.getNbStates();
+        int[] valueOffset = new int[n];
+        int[] nbValues = new int[n];
+        for (int i = 0; i < n; i++) {
+            valueOffset[i] = vars[i].getLB();
+            nbValues[i] = vars[i].getUB() - vars[i].getLB() + 1;
+        }
+        // 1. forward pass, the transitions from the reachable states
+        TIntArrayList[] from = new TIntArrayList[n], value = new TIntArrayList[n], to = new TIntArrayList[n];
+        boolean[][] reached = new boolean[n + 1][nbStates];
+        TIntArrayList current = new TIntArrayList(), next = new TIntArrayList();
+        TIntHashSet nexts = new TIntHashSet();
+        int initial = auto.getInitialState();
+        if (initial >= 0) {
+            reached[0][initial] = true;
+            current.add(initial);
+        }
+        for (int i = 0; i < n; i++) {
+            from[i] = new TIntArrayList();
+            value[i] = new TIntArrayList();
+            to[i] = new TIntArrayList();
+            next.resetQuick();
+            int ub = vars[i].getUB();
+            for (int j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
+                for (int s = 0; s < current.size(); s++) {
+                    int k = current.getQuick(s);
+                    nexts.clear();
+                    auto.delta(k, j, nexts);
+                    for (int q : nexts.toArray()) {
+                        from[i].add(k);
+                        value[i].add(j);
+                        to[i].add(q);
+                        if (!reached[i + 1][q]) {
+                            reached[i + 1][q] = true;
+                            next.add(q);
+                        }
+                    }
+                }
+            }
+            TIntArrayList tmp = current;
+            current = next;
+            next = tmp;
+        }
+        // 2. backward pass, removing dead states and merging the equivalent ones:
+        // the class of each state of layer i+1 is known when the ones of layer i are computed
+        int[][] classes = new int[n + 1][nbStates];
+        int[] nbClasses = new int[n + 1];
+        for (int q = 0; q < nbStates; q++) {
+            // a single class for the reachable final states
+            classes[n][q] = reached[n][q] && auto.isFinal(q) ? 0 : -1;
+            if (classes[n][q] == 0) {
+                nbClasses[n] = 1;
+            }
+        }
+        // transitions kept for the arcs of each class
+        int[][][] signatures = new int[n][][];
+        int maxSize = 0;
+        for (int i = 0; i < n; i++) {
+            maxSize = Math.max(maxSize, from[i].size());
+        }
+        ArraySort<Object> sorter = new ArraySort<>(maxSize, false, true);
+        int[] order = new int[maxSize];
+        for (int i = n - 1; i >= 0; i--) {
+            int[] cls = classes[i], nextCls = classes[i + 1];
+            Arrays.fill(cls, -1);
+            int size = 0;
+            for (int t = 0; t < from[i].size(); t++) {
+                if (nextCls[to[i].getQuick(t)] >= 0) {
+                    order[size++] = t;
+                }
+            }
+            final int layer = i;
+            sorter.sort(order, size, (t1, t2) -> {
+                int c = Integer.compare(from[layer].getQuick(t1), from[layer].getQuick(t2));
+                if (c == 0) {
+                    c = Integer.compare(value[layer].getQuick(t1), value[layer].getQuick(t2));
+                }
+                if (c == 0) {
+                    c = Integer.compare(nextCls[to[layer].getQuick(t1)], nextCls[to[layer].getQuick(t2)]);
+                }
+                if (c == 0 && cost != null) {
+                    c = Double.compare(cost.getCostByState(layer, value[layer].getQuick(t1), from[layer].getQuick(t1)),
+                            cost.getCostByState(layer, value[layer].getQuick(t2), from[layer].getQuick(t2)));
+                }
+                return c;
+            });
+            HashMap<IntArrayKey, Integer> known = new HashMap<>();
+            int w = cost == null ? 2 : 4;
+            for (int s = 0; s < size; ) {
+                int k = from[i].getQuick(order[s]);
+                int e = s;
+                while (e < size && from[i].getQuick(order[e]) == k) {
+                    e++;
+                }
+                int[] edges = new int[(e - s) * w];
+                int[] transitions = new int[e - s];
+                int m = 0;
+                for (int x = s; x < e; x++) {
+                    int t = order[x];
+                    int v = value[i].getQuick(t);
+                    int c = nextCls[to[i].getQuick(t)];
+                    long bits = cost == null ? 0 : Double.doubleToLongBits(cost.getCostByState(i, v, k));
+                    // duplicated arcs, with non deterministic automata
+                    if (m > 0 && edges[(m - 1) * w] == v && edges[(m - 1) * w + 1] == c
+                            && (cost == null || edges[(m - 1) * w + 2] == (int) (bits >>> 32)
+                            && edges[(m - 1) * w + 3] == (int) bits)) {
+                        continue;
+                    }
+                    edges[m * w] = v;
+                    edges[m * w + 1] = c;
+                    if (cost != null) {
+                        edges[m * w + 2] = (int) (bits >>> 32);
+                        edges[m * w + 3] = (int) bits;
+                    }
+                    transitions[m++] = t;
+                }
+                IntArrayKey sig = new IntArrayKey(Arrays.copyOf(edges, m * w));
+                Integer c = known.get(sig);
+                if (c == null) {
+                    c = nbClasses[i]++;
+                    known.put(sig, c);
+                    if (signatures[i] == null) {
+                        signatures[i] = new int[4][];
+                    } else if (c == signatures[i].length) {
+                        signatures[i] = Arrays.copyOf(signatures[i], c * 2);
+                    }
+                    signatures[i][c] = Arrays.copyOf(transitions, m);
+                }
+                cls[k] = c;
+                s = e;
+            }
+        }
+        boolean empty = initial < 0 || classes[0][initial] < 0;
+        // 3. number the nodes from the classes, and list the arcs
+        int[] layerStart = new int[n + 2];
+        int arcs = 0;
+        if (!empty) {
+            for (int i = 0; i <= n; i++) {
+                layerStart[i + 1] = layerStart[i] + nbClasses[i];
+            }
+            for (int i = 0; i < n; i++) {
+                for (int c = 0; c < nbClasses[i]; c++) {
+                    arcs += signatures[i][c].length;
+                }
+            }
+        }
+        int[] origs = new int[arcs], dests = new int[arcs], vals = new int[arcs];
+        double[] costs = cost == null ? null : new double[arcs];
+        int a = 0;
+        for (int i = 0; i < n && !empty; i++) {
+            for (int c = 0; c < nbClasses[i]; c++) {
+                for (int t : signatures[i][c]) {
+                    int v = value[i].getQuick(t);
+                    origs[a] = layerStart[i] + c;
+                    dests[a] = layerStart[i + 1] + classes[i + 1][to[i].getQuick(t)];
+                    vals[a] = v;
+                    if (cost != null) {
+                        costs[a] = cost.getCostByState(i, v, from[i].getQuick(t));
+                    }
+                    a++;
+                }
+            }
+        }
+        return new LayeredGraph(layerStart, valueOffset, nbValues, origs, dests, vals, costs);
+    }
+
+    /**
+     * Returns the key of the domains of some variables, two sequences of variables with the same key can share a
+     * layered graph
+     *
+     * @param vars the variables
+     * @return a key over the values of their domains
+     */
+    public static IntArrayKey domains(IntVar[] vars) {
+        TIntArrayList key = new TIntArrayList();
+        for (IntVar var : vars) {
+            key.add(var.getDomainSize());
+            int ub = var.getUB();
+            for (int j = var.getLB(); j <= ub; j = var.nextValue(j)) {
+                key.add(j);
+            }
+        }
+        return new IntArrayKey(key.toArray());
+    }
+}
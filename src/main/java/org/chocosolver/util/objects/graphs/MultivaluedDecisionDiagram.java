@@ -12,9 +12,11 @@ import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.IntArrayKey;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 
 /**
  * A Multi-valued Decision Diagram (MDD for short) to store
@@ -59,6 +61,11 @@ public class MultivaluedDecisionDiagram  {
     private final boolean compactOnce;
     private final boolean sortTuples;
 
+    /**
+     * The layered graph of the MDD, built on demand and shared by the propagators
+     */
+    private LayeredGraph layered;
+
     // TEMPORARY DATA STRUCTURE, PREFIX WITH "_", CLEARED AFTER USAGE
     private TIntIntHashMap _nodesToRemove; // store the nodes to remove and the size of each node
     private ArrayList<int[]>[][] _identicalNodes; // store child nodes of a node
@@ -203,6 +210,7 @@ public class MultivaluedDecisionDiagram  {
      * @param TUPLE tuple to add
      */
     public boolean addTuple(int[] TUPLE) {
+        layered = null;
         for (int i = 0; i < nbLayers; i++) {
             // if the tuple is out of declared domain
             if(TUPLE[i] < offsets[i] || TUPLE[i] >= offsets[i] + sizes[i]){
@@ -329,9 +337,14 @@ public class MultivaluedDecisionDiagram  {
      */
     @SuppressWarnings("unchecked")
     private void compact() {
+        layered = null;
         long card = Arrays.stream(sizes).mapToLong(i -> (long)i)
                 .reduce((a,b) -> a * b).getAsLong();
-        if(card <= 2_000_000) {
+        if(card > 2_000_000) {
+            if (compactOnce) {
+                reduce();
+            }
+        } else {
             _nodesToRemove.clear();
             for (int i = 0; i < nbLayers; i++) {
                 _identicalNodes[i] = new ArrayList[sizes[i]];
@@ -438,6 +451,86 @@ public class MultivaluedDecisionDiagram  {
         }
     }
 
+    /**
+     * Reduce the MDD in time linear in its size: layer by layer, from the bottom, nodes with the same edges are merged
+     * and nodes which do not lead to the terminal node are removed.
+     * Then, the nodes reachable from the root are copied into a new diagram.
+     * Unlike {@link #detectIsomorphism(int, int)}, this does not depend on the cartesian product of the domains.
+     */
+    private void reduce() {
+        // 1. nodes per layer, from the root
+        int[] canon = new int[nextFreeCell];
+        Arrays.fill(canon, -1);
+        TIntArrayList[] nodes = new TIntArrayList[nbLayers];
+        nodes[0] = new TIntArrayList();
+        nodes[0].add(0);
+        for (int l = 0; l < nbLayers - 1; l++) {
+            nodes[l + 1] = new TIntArrayList();
+            for (int k = 0; k < nodes[l].size(); k++) {
+                int node = nodes[l].getQuick(k);
+                for (int i = 0; i < sizes[l]; i++) {
+                    int child = mdd[node + i];
+                    if (child > EMPTY && canon[child] == -1) {
+                        canon[child] = child;
+                        nodes[l + 1].add(child);
+                    }
+                }
+            }
+        }
+        // 2. merge equivalent nodes and remove dead ends, from the bottom
+        HashMap<IntArrayKey, Integer> known = new HashMap<>();
+        for (int l = nbLayers - 1; l >= 0; l--) {
+            known.clear();
+            for (int k = 0; k < nodes[l].size(); k++) {
+                int node = nodes[l].getQuick(k);
+                int[] edges = new int[sizes[l]];
+                boolean alive = false;
+                for (int i = 0; i < sizes[l]; i++) {
+                    int child = mdd[node + i];
+                    edges[i] = child > EMPTY ? canon[child] : child;
+                    alive |= edges[i] != EMPTY;
+                }
+                System.arraycopy(edges, 0, mdd, node, sizes[l]);
+                if (l > 0) {
+                    canon[node] = alive ? known.computeIfAbsent(new IntArrayKey(edges), s -> node) : EMPTY;
+                }
+            }
+        }
+        // 3. copy the nodes reachable from the root, layer by layer
+        int[] moved = new int[nextFreeCell]; // new location of each node, 0 if not reached yet
+        int[] ends = new int[nbLayers]; // nodes of layer l are in order[ends[l-1], ends[l])
+        TIntArrayList order = new TIntArrayList();
+        order.add(0);
+        int size = sizes[0];
+        for (int l = 0, from = 0; l < nbLayers; l++) {
+            int to = ends[l] = order.size();
+            for (int k = from; k < to && l < nbLayers - 1; k++) {
+                int node = order.getQuick(k);
+                for (int i = 0; i < sizes[l]; i++) {
+                    int child = mdd[node + i];
+                    if (child > EMPTY && moved[child] == 0) {
+                        moved[child] = size;
+                        size += sizes[l + 1];
+                        order.add(child);
+                    }
+                }
+            }
+            from = to;
+        }
+        int[] compacted = new int[size];
+        for (int l = 0, k = 0; l < nbLayers; l++) {
+            for (; k < ends[l]; k++) {
+                int node = order.getQuick(k);
+                for (int i = 0; i < sizes[l]; i++) {
+                    int child = mdd[node + i];
+                    compacted[moved[node] + i] = child > EMPTY ? moved[child] : child;
+                }
+            }
+        }
+        mdd = compacted;
+        nextFreeCell = size;
+    }
+
     protected int searchClosest(int[] a, int key) {
         int low = 0;
         int high = a.length - 1;
@@ -465,6 +558,23 @@ public class MultivaluedDecisionDiagram  {
         return mdd;
     }
 
+    /**
+     * Return the number of layers, that is, the number of variables
+     */
+    public int getNbLayers() {
+        return nbLayers;
+    }
+
+    /**
+     * Return the layered graph of the MDD, built on the first call and shared afterwards
+     */
+    public synchronized LayeredGraph getLayeredGraph() {
+        if (layered == null) {
+            layered = LayeredGraph.of(this);
+        }
+        return layered;
+    }
+
     /**
      * Return the initial domain size of the variable in layer
      *
@@ -23,6 +23,8 @@ import org.chocosolver.util.objects.setDataStructures.constant.Set_CstInterval;
 import org.chocosolver.util.objects.setDataStructures.constant.Set_FixedArray;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
 import org.chocosolver.util.objects.setDataStructures.linkedlist.Set_LinkedList;
+import org.chocosolver.util.objects.setDataStructures.roaring.Set_Roaring;
+import org.chocosolver.util.objects.setDataStructures.roaring.Set_Std_Roaring;
 import org.chocosolver.util.objects.setDataStructures.swapList.Set_Std_Swap;
 import org.chocosolver.util.objects.setDataStructures.swapList.Set_Std_Swap2;
 import org.chocosolver.util.objects.setDataStructures.swapList.Set_Swap;
@@ -59,6 +61,8 @@ public class SetFactory {
 				return new Set_Std_Swap(environment, offSet);
 			}else if (type == SetType.BITSET) {
 				return new Set_Std_BitSet(environment, offSet);
+			}else if (type == SetType.COMPRESSED_BITSET) {
+				return new Set_Std_Roaring(environment, offSet);
 			}
 		}
 		return new StdSet(model,makeSet(type,offSet));
@@ -87,6 +91,8 @@ public class SetFactory {
 				return makeLinkedList();
 			case BITSET:
 				return makeBitSet(offSet);
+			case COMPRESSED_BITSET:
+				return makeRoaringSet(offSet);
 			case FIXED_ARRAY: throw new UnsupportedOperationException("Please use makeConstantSet method to create a "+SetType.FIXED_ARRAY+" set");
 			case FIXED_INTERVAL: throw new UnsupportedOperationException("Please use makeConstantSet method to create a "+SetType.FIXED_INTERVAL+" set");
 			default:throw new UnsupportedOperationException("Unsupported SetType "+type);
@@ -124,6 +130,17 @@ public class SetFactory {
 		return new Set_BitSet(offSet);
 	}
 
+	/**
+	 * Creates a set of integers, based on an offseted compressed bitset (Roaring bitmap),
+	 * Supports integers greater or equal than <code>offSet</code>
+	 * appropriate for large domains which are sparse or made of a few intervals
+	 * @param offSet	smallest value allowed in the set (possibly < 0)
+	 * @return a new set
+	 */
+	public static ISet makeRoaringSet(int offSet) {
+		return new Set_Roaring(offSet);
+	}
+
 	// --- Bipartite Set
 
 	/**
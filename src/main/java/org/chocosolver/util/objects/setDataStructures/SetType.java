@@ -15,6 +15,7 @@ public enum SetType {
 	BITSET,
 	FIXED_ARRAY,
 	FIXED_INTERVAL,
-	RANGESET
+	RANGESET,
+	COMPRESSED_BITSET
 }
 
@@ -89,4 +89,11 @@ public class Set_ReadOnly implements ISet {
 	public int max() {
 		return set.max();
 	}
+
+	/**
+	 * @return the set this view is based on
+	 */
+	public ISet getSet() {
+		return set;
+	}
 }
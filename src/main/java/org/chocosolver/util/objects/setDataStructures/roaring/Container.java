@@ -0,0 +1,513 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.setDataStructures.roaring;
+
+import java.util.Arrays;
+
+/**
+ * A container of 16-bit values (the low bits of the elements of a {@link Set_Roaring}).
+ * <br/>
+ * Three implementations are available, the set picks the most compact one:
+ * <ul>
+ * <li>{@link Array}: sorted array of values, for sparse containers (at most {@link #MAX_ARRAY} values),</li>
+ * <li>{@link Bitmap}: 2^16 bits, for dense containers,</li>
+ * <li>{@link Run}: sorted list of intervals, for clustered containers.</li>
+ * </ul>
+ * {@link #add(int)} and {@link #remove(int)} return the container to use afterwards,
+ * which may differ from <code>this</code> when the representation changes.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+abstract class Container {
+
+    /**
+     * Maximum number of values stored in an array container
+     */
+    static final int MAX_ARRAY = 4096;
+
+    /**
+     * Number of 64-bit words in a bitmap container
+     */
+    static final int NB_WORDS = 1024;
+
+    /**
+     * World index of the last snapshot, used by backtrackable sets
+     */
+    int stamp = -1;
+
+    /**
+     * Number of values in this container
+     */
+    int card;
+
+    /**
+     * @param v a 16-bit value
+     * @return <tt>true</tt> if <i>v</i> is in this container
+     */
+    abstract boolean contains(int v);
+
+    /**
+     * Adds <i>v</i>, which is not already in this container
+     *
+     * @param v a 16-bit value
+     * @return the container to use from now on
+     */
+    abstract Container add(int v);
+
+    /**
+     * Removes <i>v</i>, which is in this container
+     *
+     * @param v a 16-bit value
+     * @return the container to use from now on
+     */
+    abstract Container remove(int v);
+
+    /**
+     * @return the smallest value, this container being not empty
+     */
+    abstract int first();
+
+    /**
+     * @return the largest value, this container being not empty
+     */
+    abstract int last();
+
+    /**
+     * @param from a 16-bit value
+     * @return the smallest value greater or equal to <i>from</i>, or -1 if there is none
+     */
+    abstract int next(int from);
+
+    /**
+     * @param i index of a word, in [0, {@link #NB_WORDS}[
+     * @return the values in [64 * i, 64 * i + 63], as a 64-bit word
+     */
+    abstract long word(int i);
+
+    /**
+     * @return a deep copy of this container
+     */
+    abstract Container copy();
+
+    /**
+     * @return the number of intervals of consecutive values
+     */
+    abstract int nbRuns();
+
+    /**
+     * @return the most compact representation of the values of this container
+     */
+    final Container optimize() {
+        int runs = nbRuns();
+        // sizes in bytes
+        int asRun = 4 * runs;
+        int asArray = card <= MAX_ARRAY ? 2 * card : Integer.MAX_VALUE;
+        int asBitmap = 8 * NB_WORDS;
+        Container c = this;
+        if (asRun < asArray && asRun < asBitmap) {
+            if (!(this instanceof Run)) {
+                c = Run.of(this, runs);
+            }
+        } else if (asArray <= asBitmap) {
+            if (!(this instanceof Array)) {
+                c = Array.of(this);
+            }
+        } else if (!(this instanceof Bitmap)) {
+            c = Bitmap.of(this);
+        }
+        c.stamp = stamp;
+        return c;
+    }
+
+    /**
+     * Sorted array of values
+     */
+    static final class Array extends Container {
+
+        char[] values;
+
+        Array() {
+            values = new char[4];
+        }
+
+        private Array(char[] values, int card) {
+            this.values = values;
+            this.card = card;
+        }
+
+        static Array of(Container c) {
+            char[] vs = new char[Math.max(4, c.card)];
+            int k = 0;
+            for (int v = c.next(0); v >= 0; v = c.next(v + 1)) {
+                vs[k++] = (char) v;
+            }
+            return new Array(vs, c.card);
+        }
+
+        @Override
+        boolean contains(int v) {
+            return Arrays.binarySearch(values, 0, card, (char) v) >= 0;
+        }
+
+        @Override
+        Container add(int v) {
+            if (card == MAX_ARRAY) {
+                Container c = Bitmap.of(this);
+                c.stamp = stamp;
+                return c.add(v).optimize();
+            }
+            int p = -Arrays.binarySearch(values, 0, card, (char) v) - 1;
+            if (card == values.length) {
+                values = Arrays.copyOf(values, Math.min(MAX_ARRAY, card + (card >> 1) + 1));
+            }
+            System.arraycopy(values, p, values, p + 1, card - p);
+            values[p] = (char) v;
+            card++;
+            return this;
+        }
+
+        @Override
+        Container remove(int v) {
+            int p = Arrays.binarySearch(values, 0, card, (char) v);
+            System.arraycopy(values, p + 1, values, p, card - p - 1);
+            card--;
+            return this;
+        }
+
+        @Override
+        int first() {
+            return values[0];
+        }
+
+        @Override
+        int last() {
+            return values[card - 1];
+        }
+
+        @Override
+        int next(int from) {
+            if (from > 0xFFFF) {
+                return -1;
+            }
+            int p = Arrays.binarySearch(values, 0, card, (char) from);
+            if (p < 0) {
+                p = -p - 1;
+            }
+            return p < card ? values[p] : -1;
+        }
+
+        @Override
+        long word(int i) {
+            int p = Arrays.binarySearch(values, 0, card, (char) (i << 6));
+            if (p < 0) {
+                p = -p - 1;
+            }
+            long w = 0L;
+            int hi = (i << 6) + 63;
+            for (; p < card && values[p] <= hi; p++) {
+                w |= 1L << values[p];
+            }
+            return w;
+        }
+
+        @Override
+        Container copy() {
+            return new Array(Arrays.copyOf(values, values.length), card);
+        }
+
+        @Override
+        int nbRuns() {
+            int r = card > 0 ? 1 : 0;
+            for (int i = 1; i < card; i++) {
+                if (values[i] != values[i - 1] + 1) {
+                    r++;
+                }
+            }
+            return r;
+        }
+    }
+
+    /**
+     * Bitmap of 2^16 bits
+     */
+    static final class Bitmap extends Container {
+
+        final long[] words;
+
+        private Bitmap(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        static Bitmap of(Container c) {
+            long[] ws = new long[NB_WORDS];
+            for (int i = 0; i < NB_WORDS; i++) {
+                ws[i] = c.word(i);
+            }
+            return new Bitmap(ws, c.card);
+        }
+
+        @Override
+        boolean contains(int v) {
+            return (words[v >>> 6] & (1L << v)) != 0;
+        }
+
+        @Override
+        Container add(int v) {
+            words[v >>> 6] |= 1L << v;
+            card++;
+            return this;
+        }
+
+        @Override
+        Container remove(int v) {
+            words[v >>> 6] &= ~(1L << v);
+            card--;
+            if (card <= MAX_ARRAY) {
+                return optimize();
+            }
+            return this;
+        }
+
+        @Override
+        int first() {
+            return next(0);
+        }
+
+        @Override
+        int last() {
+            for (int i = NB_WORDS - 1; i >= 0; i--) {
+                if (words[i] != 0) {
+                    return (i << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int next(int from) {
+            int i = from >>> 6;
+            if (i >= NB_WORDS) {
+                return -1;
+            }
+            long w = words[i] & (-1L << from);
+            while (true) {
+                if (w != 0) {
+                    return (i << 6) + Long.numberOfTrailingZeros(w);
+                }
+                if (++i == NB_WORDS) {
+                    return -1;
+                }
+                w = words[i];
+            }
+        }
+
+        @Override
+        long word(int i) {
+            return words[i];
+        }
+
+        @Override
+        Container copy() {
+            return new Bitmap(words.clone(), card);
+        }
+
+        @Override
+        int nbRuns() {
+            int r = 0;
+            for (int i = 0; i < NB_WORDS; i++) {
+                long w = words[i];
+                // counts the starts of runs: bits set whose predecessor is not set
+                long prev = (w << 1) | (i > 0 ? words[i - 1] >>> 63 : 0L);
+                r += Long.bitCount(w & ~prev);
+            }
+            return r;
+        }
+    }
+
+    /**
+     * Sorted list of disjoint and non-adjacent intervals
+     */
+    static final class Run extends Container {
+
+        /**
+         * First value of each run
+         */
+        char[] starts;
+        /**
+         * Number of values of each run, minus one
+         */
+        char[] lengths;
+        /**
+         * Number of runs
+         */
+        int size;
+
+        private Run(char[] starts, char[] lengths, int size, int card) {
+            this.starts = starts;
+            this.lengths = lengths;
+            this.size = size;
+            this.card = card;
+        }
+
+        static Run of(Container c, int runs) {
+            char[] ss = new char[Math.max(1, runs)];
+            char[] ls = new char[Math.max(1, runs)];
+            int k = -1;
+            int prev = -2;
+            for (int v = c.next(0); v >= 0; v = c.next(v + 1)) {
+                if (v == prev + 1) {
+                    ls[k]++;
+                } else {
+                    k++;
+                    ss[k] = (char) v;
+                    ls[k] = 0;
+                }
+                prev = v;
+            }
+            return new Run(ss, ls, k + 1, c.card);
+        }
+
+        /**
+         * @return the index of the last run starting before or on <i>v</i>, or -1
+         */
+        private int find(int v) {
+            int lo = 0, hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] <= v) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+
+        private int end(int i) {
+            return starts[i] + lengths[i];
+        }
+
+        @Override
+        boolean contains(int v) {
+            int i = find(v);
+            return i >= 0 && v <= end(i);
+        }
+
+        private void insert(int i, int start, int length) {
+            if (size == starts.length) {
+                int n = size + (size >> 1) + 1;
+                starts = Arrays.copyOf(starts, n);
+                lengths = Arrays.copyOf(lengths, n);
+            }
+            System.arraycopy(starts, i, starts, i + 1, size - i);
+            System.arraycopy(lengths, i, lengths, i + 1, size - i);
+            starts[i] = (char) start;
+            lengths[i] = (char) length;
+            size++;
+        }
+
+        private void delete(int i) {
+            System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+            System.arraycopy(lengths, i + 1, lengths, i, size - i - 1);
+            size--;
+        }
+
+        @Override
+        Container add(int v) {
+            int i = find(v);
+            card++;
+            if (i >= 0 && end(i) + 1 == v) {
+                lengths[i]++;
+                if (i + 1 < size && starts[i + 1] == v + 1) {
+                    // merge with the next run
+                    lengths[i] += lengths[i + 1] + 1;
+                    delete(i + 1);
+                }
+            } else if (i + 1 < size && starts[i + 1] == v + 1) {
+                starts[i + 1]--;
+                lengths[i + 1]++;
+            } else {
+                insert(i + 1, v, 0);
+                return 4 * size > Math.min(2 * card, 8 * NB_WORDS) ? optimize() : this;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int v) {
+            int i = find(v);
+            card--;
+            int e = end(i);
+            if (lengths[i] == 0) {
+                delete(i);
+            } else if (v == starts[i]) {
+                starts[i]++;
+                lengths[i]--;
+            } else if (v == e) {
+                lengths[i]--;
+            } else {
+                // split the run
+                lengths[i] = (char) (v - starts[i] - 1);
+                insert(i + 1, v + 1, e - v - 1);
+                return 4 * size > Math.min(2 * card, 8 * NB_WORDS) ? optimize() : this;
+            }
+            return this;
+        }
+
+        @Override
+        int first() {
+            return starts[0];
+        }
+
+        @Override
+        int last() {
+            return end(size - 1);
+        }
+
+        @Override
+        int next(int from) {
+            if (from > 0xFFFF) {
+                return -1;
+            }
+            int i = find(from);
+            if (i >= 0 && from <= end(i)) {
+                return from;
+            }
+            return i + 1 < size ? starts[i + 1] : -1;
+        }
+
+        @Override
+        long word(int i) {
+            int lo = i << 6, hi = lo + 63;
+            int r = Math.max(0, find(lo));
+            long w = 0L;
+            for (; r < size && starts[r] <= hi; r++) {
+                int s = Math.max(lo, starts[r]);
+                int e = Math.min(hi, end(r));
+                if (s <= e) {
+                    // bits s..e of the word
+                    w |= (-1L >>> (63 - (e - s))) << s;
+                }
+            }
+            return w;
+        }
+
+        @Override
+        Container copy() {
+            return new Run(Arrays.copyOf(starts, starts.length), Arrays.copyOf(lengths, lengths.length), size, card);
+        }
+
+        @Override
+        int nbRuns() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.setDataStructures.roaring;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.objects.setDataStructures.Set_ReadOnly;
+import org.chocosolver.util.procedure.IntProcedure;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitset implementation for a set of integers, following the Roaring bitmap layout.
+ * Supports negative numbers if offset is set properly.
+ * <br/>
+ * Values are split into chunks of 2^16 consecutive integers, indexed by their high bits.
+ * Each non-empty chunk is stored in a {@link Container} which is either a sorted array, a bitmap
+ * or a list of runs, whichever is the most compact.
+ * Large and sparse or clustered sets thus need much less memory than with {@link SetType#BITSET}.
+ * <br/>
+ * Chunks are never removed, even when they become empty.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class Set_Roaring implements ISet {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	/**
+	 * Smallest allowed value in the set
+	 */
+	protected final int offset;
+	/**
+	 * Sorted high bits of the chunks
+	 */
+	protected int[] keys;
+	/**
+	 * Containers of the chunks, in the same order as {@link #keys}
+	 */
+	protected Container[] containers;
+	/**
+	 * Number of chunks
+	 */
+	protected int nbKeys;
+	/**
+	 * Cardinality of the set
+	 */
+	protected int card;
+	/**
+	 * Reusable buffer for {@link #forEachNotIn(ISet, ISet, IntProcedure)} and
+	 * {@link #forEachIn(ISet, ISet, IntProcedure)}
+	 */
+	private int[] buffer = new int[0];
+	private ISetIterator iter = newIterator();
+
+	//***********************************************************************************
+	// CONSTRUCTOR
+	//***********************************************************************************
+
+	/**
+	 * Creates an empty set having numbers greater or equal than <code>offSet</code> (possibly < 0)
+	 *
+	 * @param offSet smallest allowed value in the set
+	 */
+	public Set_Roaring(int offSet) {
+		this.offset = offSet;
+		this.keys = new int[2];
+		this.containers = new Container[2];
+	}
+
+	//***********************************************************************************
+	// HOOKS
+	//***********************************************************************************
+
+	/**
+	 * Called before the container at position <i>idx</i> is modified.
+	 *
+	 * @param idx position of a chunk
+	 * @return the container to modify
+	 */
+	protected Container beforeUpdate(int idx) {
+		return containers[idx];
+	}
+
+	/**
+	 * Called after a new chunk has been inserted at position <i>idx</i>.
+	 *
+	 * @param idx position of the new chunk
+	 */
+	protected void afterInsert(int idx) {
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	/**
+	 * @return the position of chunk <i>key</i> if it exists, <code>-(insertion point) - 1</code>
+	 * otherwise
+	 */
+	protected final int indexOf(int key) {
+		return Arrays.binarySearch(keys, 0, nbKeys, key);
+	}
+
+	/**
+	 * Inserts an empty chunk <i>key</i> at position <i>idx</i>.
+	 */
+	protected final void insert(int idx, int key) {
+		if (nbKeys == keys.length) {
+			int n = nbKeys + (nbKeys >> 1) + 1;
+			keys = Arrays.copyOf(keys, n);
+			containers = Arrays.copyOf(containers, n);
+		}
+		System.arraycopy(keys, idx, keys, idx + 1, nbKeys - idx);
+		System.arraycopy(containers, idx, containers, idx + 1, nbKeys - idx);
+		keys[idx] = key;
+		containers[idx] = new Container.Array();
+		nbKeys++;
+		afterInsert(idx);
+	}
+
+	/**
+	 * Deletes the chunk at position <i>idx</i>, which must be empty.
+	 */
+	protected final void delete(int idx) {
+		System.arraycopy(keys, idx + 1, keys, idx, nbKeys - idx - 1);
+		System.arraycopy(containers, idx + 1, containers, idx, nbKeys - idx - 1);
+		nbKeys--;
+		containers[nbKeys] = null;
+	}
+
+	@Override
+	public boolean add(int element) {
+		if (element < offset) throw new IllegalStateException("Cannot add " + element + " to set of offset " + offset);
+		int v = element - offset;
+		int idx = indexOf(v >>> 16);
+		if (idx < 0) {
+			idx = -idx - 1;
+			insert(idx, v >>> 16);
+		} else if (containers[idx].contains(v & 0xFFFF)) {
+			return false;
+		}
+		Container c = beforeUpdate(idx);
+		containers[idx] = c.add(v & 0xFFFF);
+		card++;
+		return true;
+	}
+
+	@Override
+	public boolean remove(int element) {
+		if (!contains(element)) {
+			return false;
+		}
+		int v = element - offset;
+		int idx = indexOf(v >>> 16);
+		Container c = beforeUpdate(idx);
+		containers[idx] = c.remove(v & 0xFFFF);
+		card--;
+		return true;
+	}
+
+	@Override
+	public boolean contains(int element) {
+		if (element < offset) {
+			return false;
+		}
+		int v = element - offset;
+		int idx = indexOf(v >>> 16);
+		return idx >= 0 && containers[idx].contains(v & 0xFFFF);
+	}
+
+	@Override
+	public int size() {
+		return card;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < nbKeys; i++) {
+			if (containers[i].card > 0) {
+				Container c = beforeUpdate(i);
+				card -= c.card;
+				Container e = new Container.Array();
+				e.stamp = c.stamp;
+				containers[i] = e;
+			}
+		}
+	}
+
+	@Override
+	public SetType getSetType() {
+		return SetType.COMPRESSED_BITSET;
+	}
+
+	@Override
+	public int min() {
+		if (isEmpty()) throw new IllegalStateException("cannot find minimum of an empty set");
+		int i = 0;
+		while (containers[i].card == 0) {
+			i++;
+		}
+		return offset + (keys[i] << 16) + containers[i].first();
+	}
+
+	@Override
+	public int max() {
+		if (isEmpty()) throw new IllegalStateException("cannot find maximum of an empty set");
+		int i = nbKeys - 1;
+		while (containers[i].card == 0) {
+			i--;
+		}
+		return offset + (keys[i] << 16) + containers[i].last();
+	}
+
+	/**
+	 * Converts each container to its most compact representation.
+	 * The set is not modified.
+	 */
+	public void runOptimize() {
+		for (int i = 0; i < nbKeys; i++) {
+			containers[i] = containers[i].optimize();
+		}
+	}
+
+	/**
+	 * @param v a value, offset excluded
+	 * @return the smallest value of the set greater or equal to <i>v</i>, offset excluded, or -1
+	 */
+	private int nextValue(int v) {
+		int idx = indexOf(v >>> 16);
+		if (idx >= 0) {
+			int n = containers[idx].next(v & 0xFFFF);
+			if (n >= 0) {
+				return (keys[idx] << 16) | n;
+			}
+			idx++;
+		} else {
+			idx = -idx - 1;
+		}
+		for (; idx < nbKeys; idx++) {
+			if (containers[idx].card > 0) {
+				return (keys[idx] << 16) | containers[idx].first();
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder st = new StringBuilder("{");
+		ISetIterator iter = newIterator();
+		while (iter.hasNext()) {
+			st.append(iter.nextInt()).append(", ");
+		}
+		st.append("}");
+		return st.toString().replace(", }", "}");
+	}
+
+	//***********************************************************************************
+	// ITERATOR
+	//***********************************************************************************
+
+	@Override
+	public ISetIterator iterator() {
+		iter.reset();
+		return iter;
+	}
+
+	@Override
+	public ISetIterator newIterator() {
+		return new ISetIterator() {
+			private int current = -1;
+
+			@Override
+			public void reset() {
+				current = -1;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return current != Integer.MAX_VALUE && nextValue(current + 1) >= 0;
+			}
+
+			@Override
+			public int nextInt() {
+				current = nextValue(current + 1);
+				return current + offset;
+			}
+		};
+	}
+
+	//***********************************************************************************
+	// BULK OPERATIONS
+	//***********************************************************************************
+
+	/**
+	 * Unwraps <i>set</i> as a roaring set, if possible.
+	 */
+	private static Set_Roaring unwrap(ISet set) {
+		while (set instanceof Set_ReadOnly) {
+			set = ((Set_ReadOnly) set).getSet();
+		}
+		return set instanceof Set_Roaring ? (Set_Roaring) set : null;
+	}
+
+	/**
+	 * Calls <i>proc</i> on each value of <i>a</i> which is not in <i>b</i>.
+	 * When both sets are roaring sets with the same offset, the difference is computed chunk by
+	 * chunk, with word-level operations on bitmaps; otherwise <i>a</i> is simply iterated.
+	 * <br/>
+	 * <i>proc</i> may modify <i>a</i> and <i>b</i>: the values are collected before being processed.
+	 *
+	 * @param a    a set
+	 * @param b    another set
+	 * @param proc procedure to execute on each value of <i>a</i> \ <i>b</i>
+	 * @throws ContradictionException if <i>proc</i> fails
+	 */
+	public static void forEachNotIn(ISet a, ISet b, IntProcedure proc) throws ContradictionException {
+		bulk(a, b, proc, false);
+	}
+
+	/**
+	 * Calls <i>proc</i> on each value of <i>a</i> which is also in <i>b</i>.
+	 * When both sets are roaring sets with the same offset, the intersection is computed chunk by
+	 * chunk, with word-level operations on bitmaps; otherwise <i>a</i> is simply iterated.
+	 * <br/>
+	 * <i>proc</i> may modify <i>a</i> and <i>b</i>: the values are collected before being processed.
+	 *
+	 * @param a    a set
+	 * @param b    another set
+	 * @param proc procedure to execute on each value of <i>a</i> &cap; <i>b</i>
+	 * @throws ContradictionException if <i>proc</i> fails
+	 */
+	public static void forEachIn(ISet a, ISet b, IntProcedure proc) throws ContradictionException {
+		bulk(a, b, proc, true);
+	}
+
+	private static void bulk(ISet a, ISet b, IntProcedure proc, boolean in) throws ContradictionException {
+		Set_Roaring ra = unwrap(a);
+		Set_Roaring rb = unwrap(b);
+		if (ra == null || rb == null || ra.offset != rb.offset) {
+			ISetIterator it = a.iterator();
+			while (it.hasNext()) {
+				int v = it.nextInt();
+				if (b.contains(v) == in) {
+					proc.execute(v);
+				}
+			}
+			return;
+		}
+		if (ra.buffer.length < ra.card) {
+			ra.buffer = new int[ra.card];
+		}
+		int[] buf = ra.buffer;
+		int n = 0;
+		for (int i = 0; i < ra.nbKeys; i++) {
+			Container ca = ra.containers[i];
+			if (ca.card == 0) {
+				continue;
+			}
+			int hi = ra.offset + (ra.keys[i] << 16);
+			int j = rb.indexOf(ra.keys[i]);
+			Container cb = j >= 0 ? rb.containers[j] : null;
+			if (cb == null || cb.card == 0) {
+				if (!in) {
+					for (int v = ca.next(0); v >= 0; v = ca.next(v + 1)) {
+						buf[n++] = hi + v;
+					}
+				}
+			} else if (ca instanceof Container.Bitmap && cb instanceof Container.Bitmap) {
+				long[] wa = ((Container.Bitmap) ca).words;
+				long[] wb = ((Container.Bitmap) cb).words;
+				for (int k = 0; k < Container.NB_WORDS; k++) {
+					long w = in ? wa[k] & wb[k] : wa[k] & ~wb[k];
+					while (w != 0) {
+						buf[n++] = hi + (k << 6) + Long.numberOfTrailingZeros(w);
+						w &= w - 1;
+					}
+				}
+			} else {
+				for (int v = ca.next(0); v >= 0; v = ca.next(v + 1)) {
+					if (cb.contains(v) == in) {
+						buf[n++] = hi + v;
+					}
+				}
+			}
+		}
+		for (int k = 0; k < n; k++) {
+			proc.execute(buf[k]);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.setDataStructures.roaring;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.structure.IOperation;
+
+/**
+ * Backtrackable compressed bitset implementation for a set of integers.
+ * Supports negative numbers if offset is set properly.
+ * <br/>
+ * Instead of trailing each modification, containers are copied on write: the first time a
+ * container is modified in a given world, the current version is saved and a copy is modified
+ * instead. Upon backtrack, saved versions are restored.
+ * This trades one copy per container and per world for no trailing on subsequent modifications,
+ * which pays off when many values of a same chunk are removed at once.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class Set_Std_Roaring extends Set_Roaring {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final IEnvironment environment;
+
+	//***********************************************************************************
+	// CONSTRUCTOR
+	//***********************************************************************************
+
+	/**
+	 * Creates an empty backtrackable set having numbers greater or equal than <code>offSet</code> (possibly < 0)
+	 *
+	 * @param environment backtracking environment
+	 * @param offSet smallest allowed value in the set
+	 */
+	public Set_Std_Roaring(IEnvironment environment, int offSet) {
+		super(offSet);
+		this.environment = environment;
+	}
+
+	//***********************************************************************************
+	// HOOKS
+	//***********************************************************************************
+
+	@Override
+	protected Container beforeUpdate(int idx) {
+		Container c = containers[idx];
+		int world = environment.getWorldIndex();
+		if (c.stamp != world) {
+			environment.save(new Restore(keys[idx], c));
+			c = c.copy();
+			c.stamp = world;
+			containers[idx] = c;
+		}
+		return c;
+	}
+
+	@Override
+	protected void afterInsert(int idx) {
+		containers[idx].stamp = environment.getWorldIndex();
+		int key = keys[idx];
+		environment.save(() -> {
+			int i = indexOf(key);
+			card -= containers[i].card;
+			delete(i);
+		});
+	}
+
+	//***********************************************************************************
+	// TRAILING OPERATIONS
+	//***********************************************************************************
+
+	/**
+	 * Restores a previous version of a container
+	 */
+	private final class Restore implements IOperation {
+
+		private final int key;
+		private final Container old;
+
+		Restore(int key, Container old) {
+			this.key = key;
+			this.old = old;
+		}
+
+		@Override
+		public void undo() {
+			int i = indexOf(key);
+			card += old.card - containers[i].card;
+			containers[i] = old;
+		}
+	}
+}
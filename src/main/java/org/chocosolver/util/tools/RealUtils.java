@@ -0,0 +1,293 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.tools;
+
+/**
+ * Interval arithmetic over doubles with outward rounding.
+ * <br/>
+ * Each operation on intervals is split into a method computing the lower bound of the result and a
+ * method computing its upper bound. Since Java's floating-point operations are rounded to nearest,
+ * lower bounds are rounded down to the previous double and upper bounds are rounded up to the
+ * next double: the resulting interval is always a superset of the exact one.
+ * <p>
+ * None of the methods allocates, they are designed to be called in propagation loops.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public final class RealUtils {
+
+    private RealUtils() {
+    }
+
+    /**
+     * @param x a double
+     * @return the largest double strictly smaller than <i>x</i>, or <i>x</i> if it is infinite.
+     */
+    public static double prevFloat(double x) {
+        if (x == Double.NEGATIVE_INFINITY || x == Double.POSITIVE_INFINITY) {
+            return x;
+        }
+        return Math.nextDown(x);
+    }
+
+    /**
+     * @param x a double
+     * @return the smallest double strictly greater than <i>x</i>, or <i>x</i> if it is infinite.
+     */
+    public static double nextFloat(double x) {
+        if (x == Double.NEGATIVE_INFINITY || x == Double.POSITIVE_INFINITY) {
+            return x;
+        }
+        return Math.nextUp(x);
+    }
+
+    /**
+     * Multiplication where 0 * inf = 0, as expected in interval arithmetic.
+     */
+    private static double imul(double a, double b) {
+        if (a == 0. || b == 0.) {
+            return 0.;
+        }
+        return a * b;
+    }
+
+    //***********************************************************************************
+    // ADDITION, SUBTRACTION, NEGATION
+    //***********************************************************************************
+
+    /**
+     * @return lower bound of [al,au] + [bl,bu]
+     */
+    public static double addLB(double al, double bl) {
+        return prevFloat(al + bl);
+    }
+
+    /**
+     * @return upper bound of [al,au] + [bl,bu]
+     */
+    public static double addUB(double au, double bu) {
+        return nextFloat(au + bu);
+    }
+
+    /**
+     * @return lower bound of [al,au] - [bl,bu]
+     */
+    public static double subLB(double al, double bu) {
+        return prevFloat(al - bu);
+    }
+
+    /**
+     * @return upper bound of [al,au] - [bl,bu]
+     */
+    public static double subUB(double au, double bl) {
+        return nextFloat(au - bl);
+    }
+
+    //***********************************************************************************
+    // MULTIPLICATION, DIVISION
+    //***********************************************************************************
+
+    /**
+     * @return lower bound of [al,au] * [bl,bu]
+     */
+    public static double mulLB(double al, double au, double bl, double bu) {
+        return prevFloat(Math.min(Math.min(imul(al, bl), imul(al, bu)), Math.min(imul(au, bl), imul(au, bu))));
+    }
+
+    /**
+     * @return upper bound of [al,au] * [bl,bu]
+     */
+    public static double mulUB(double al, double au, double bl, double bu) {
+        return nextFloat(Math.max(Math.max(imul(al, bl), imul(al, bu)), Math.max(imul(au, bl), imul(au, bu))));
+    }
+
+    /**
+     * @return lower bound of [al,au] / [bl,bu].
+     * When the divisor contains 0, the result may be unbounded.
+     */
+    public static double divLB(double al, double au, double bl, double bu) {
+        if (bl > 0. || bu < 0.) {
+            return mulLB(al, au, inv(bu, false), inv(bl, true));
+        }
+        // the divisor has 0 as a bound: the result is only bounded when the dividend excludes 0
+        if (bl == 0. && bu > 0.) {
+            if (al > 0.) {
+                return prevFloat(al / bu);
+            }
+        } else if (bu == 0. && bl < 0.) {
+            if (au < 0.) {
+                return prevFloat(au / bl);
+            }
+        }
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * @return upper bound of [al,au] / [bl,bu].
+     * When the divisor contains 0, the result may be unbounded.
+     */
+    public static double divUB(double al, double au, double bl, double bu) {
+        if (bl > 0. || bu < 0.) {
+            return mulUB(al, au, inv(bu, false), inv(bl, true));
+        }
+        if (bl == 0. && bu > 0.) {
+            if (au < 0.) {
+                return nextFloat(au / bu);
+            }
+        } else if (bu == 0. && bl < 0.) {
+            if (al > 0.) {
+                return nextFloat(al / bl);
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private static double inv(double x, boolean up) {
+        return up ? nextFloat(1. / x) : prevFloat(1. / x);
+    }
+
+    //***********************************************************************************
+    // POWER, SQUARE ROOT
+    //***********************************************************************************
+
+    /**
+     * @return lower bound of [al,au]^n, for a natural <i>n</i>
+     */
+    public static double powLB(double al, double au, int n) {
+        if (n == 0) {
+            return 1.;
+        }
+        if (n % 2 == 1 || al >= 0.) {
+            return prevFloat(Math.pow(al, n));
+        } else if (au <= 0.) {
+            return prevFloat(Math.pow(au, n));
+        }
+        return 0.;
+    }
+
+    /**
+     * @return upper bound of [al,au]^n, for a natural <i>n</i>
+     */
+    public static double powUB(double al, double au, int n) {
+        if (n == 0) {
+            return 1.;
+        }
+        if (n % 2 == 1 || al >= 0.) {
+            return nextFloat(Math.pow(au, n));
+        } else if (au <= 0.) {
+            return nextFloat(Math.pow(al, n));
+        }
+        return nextFloat(Math.max(Math.pow(al, n), Math.pow(au, n)));
+    }
+
+    /**
+     * @return the positive <i>n</i>-th root of <i>x</i>, rounded down
+     */
+    public static double rootLB(double x, int n) {
+        double r = prevFloat(root(x, n));
+        // Math.pow(x, 1/n) suffers from an additional rounding of 1/n
+        return Math.max(0., n > 3 ? prevFloat(r) : r);
+    }
+
+    /**
+     * @return the positive <i>n</i>-th root of <i>x</i>, rounded up
+     */
+    public static double rootUB(double x, int n) {
+        double r = nextFloat(root(x, n));
+        return n > 3 ? nextFloat(r) : r;
+    }
+
+    private static double root(double x, int n) {
+        if (x <= 0.) {
+            return 0.;
+        }
+        if (n == 2) {
+            return Math.sqrt(x);
+        } else if (n == 3) {
+            return Math.cbrt(x);
+        }
+        return Math.pow(x, 1. / n);
+    }
+
+    //***********************************************************************************
+    // MONOTONIC FUNCTIONS
+    //***********************************************************************************
+
+    /**
+     * @return exp(x) rounded down
+     */
+    public static double expLB(double x) {
+        return Math.max(0., prevFloat(Math.exp(x)));
+    }
+
+    /**
+     * @return exp(x) rounded up
+     */
+    public static double expUB(double x) {
+        return nextFloat(Math.exp(x));
+    }
+
+    /**
+     * @return ln(x) rounded down, -inf when x is not strictly positive
+     */
+    public static double logLB(double x) {
+        return x <= 0. ? Double.NEGATIVE_INFINITY : prevFloat(Math.log(x));
+    }
+
+    /**
+     * @return ln(x) rounded up, -inf when x is not strictly positive
+     */
+    public static double logUB(double x) {
+        return x <= 0. ? Double.NEGATIVE_INFINITY : nextFloat(Math.log(x));
+    }
+
+    //***********************************************************************************
+    // TRIGONOMETRIC FUNCTIONS
+    //***********************************************************************************
+
+    /**
+     * @return lower bound of sin([l,u])
+     */
+    public static double sinLB(double l, double u) {
+        return -sinUB(-u, -l);
+    }
+
+    /**
+     * @return upper bound of sin([l,u])
+     */
+    public static double sinUB(double l, double u) {
+        return cosUB(l - Math.PI / 2, u - Math.PI / 2);
+    }
+
+    /**
+     * @return lower bound of cos([l,u])
+     */
+    public static double cosLB(double l, double u) {
+        return -cosUB(l - Math.PI, u - Math.PI);
+    }
+
+    /**
+     * @return upper bound of cos([l,u])
+     */
+    public static double cosUB(double l, double u) {
+        if (Double.isInfinite(l) || Double.isInfinite(u) || u - l >= 2 * Math.PI) {
+            return 1.;
+        }
+        // is there a multiple of 2pi in [l,u] (modulo rounding errors) ?
+        double k = Math.ceil(prevFloat(l / (2 * Math.PI)));
+        if (k * 2 * Math.PI <= nextFloat(u)) {
+            return 1.;
+        }
+        // shifting the bounds by pi may have introduced an error of one ulp of the operands
+        return Math.min(1., Math.max(Math.cos(l), Math.cos(u)) + 2 * (Math.ulp(l) + Math.ulp(u)) + Math.ulp(1.));
+    }
+}
@@ -26,7 +26,8 @@ public class BasicIndexBipartiteSetTest {
     public Object[][] getEnvs(){
         return new EnvironmentTrailing[][]{
                 {new EnvironmentBuilder().fromFlat().build()},
-                {new EnvironmentBuilder().fromChunk().build()}
+                {new EnvironmentBuilder().fromChunk().build()},
+                {new EnvironmentBuilder().fromPool().build()}
         };
     }
 
@@ -8,10 +8,17 @@
  */
 package org.chocosolver.memory;
 
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.lns.neighbors.RandomNeighborhood;
+import org.chocosolver.solver.variables.IntVar;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 /**
  * <p> Project: choco-solver.
  *
@@ -24,7 +31,8 @@ public class EnvironmentTest {
     private Object[][] env() {
         return new IEnvironment[][]{
                 {new EnvironmentBuilder().fromFlat().build()},
-                {new EnvironmentBuilder().fromChunk().build()}
+                {new EnvironmentBuilder().fromChunk().build()},
+                {new EnvironmentBuilder().fromPool().build()}
         };
     }
 
@@ -147,5 +155,150 @@ public class EnvironmentTest {
         }catch (IndexOutOfBoundsException e){}
     }
 
-}
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPoolRandom() {
+        IEnvironment flat = new EnvironmentBuilder().fromFlat().build();
+        IEnvironment pool = new EnvironmentBuilder().fromPool().build();
+        Random rnd = new Random(0);
+        int n = 50;
+        IStateInt[] fi = new IStateInt[n], pi = new IStateInt[n];
+        IStateLong[] fl = new IStateLong[n], pl = new IStateLong[n];
+        IStateBool[] fb = new IStateBool[n], pb = new IStateBool[n];
+        for (int i = 0; i < n; i++) {
+            fi[i] = flat.makeInt(i);
+            pi[i] = pool.makeInt(i);
+            fl[i] = flat.makeLong(-i);
+            pl[i] = pool.makeLong(-i);
+            fb[i] = flat.makeBool(i % 2 == 0);
+            pb[i] = pool.makeBool(i % 2 == 0);
+        }
+        for (int k = 0; k < 10000; k++) {
+            int op = rnd.nextInt(10);
+            if (op == 0 && flat.getWorldIndex() < 20) {
+                flat.worldPush();
+                pool.worldPush();
+            } else if (op == 1 && flat.getWorldIndex() > 0) {
+                flat.worldPop();
+                pool.worldPop();
+            } else if (op == 2 && flat.getWorldIndex() > 0) {
+                flat.worldCommit();
+                pool.worldCommit();
+            } else {
+                int i = rnd.nextInt(n);
+                int v = rnd.nextInt(100);
+                fi[i].set(v);
+                pi[i].add(v - pi[i].get());
+                fl[i].set(v * 1_000_000_000L);
+                pl[i].set(v * 1_000_000_000L);
+                fb[i].set(v % 2 == 0);
+                pb[i].set(v % 2 == 0);
+            }
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(pi[i].get(), fi[i].get());
+                Assert.assertEquals(pl[i].get(), fl[i].get());
+                Assert.assertEquals(pb[i].get(), fb[i].get());
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPoolModel() {
+        long[] counts = new long[2];
+        IEnvironment[] envs = {new EnvironmentBuilder().fromFlat().build(), new EnvironmentBuilder().fromPool().build()};
+        for (int k = 0; k < 2; k++) {
+            Model model = new Model(envs[k], "pool");
+            IntVar[] xs = model.intVarArray("x", 6, 0, 6, false);
+            model.allDifferent(xs).post();
+            model.sum(xs, "=", 18).post();
+            model.arithm(xs[0], "<", xs[5]).post();
+            counts[k] = model.getSolver().streamSolutions().count();
+        }
+        Assert.assertTrue(counts[0] > 0);
+        Assert.assertEquals(counts[1], counts[0]);
+    }
 
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPoolCheckpoint() {
+        IEnvironment flat = new EnvironmentBuilder().fromFlat().build();
+        IEnvironment pool = new EnvironmentBuilder().fromPool().build();
+        Random rnd = new Random(0);
+        int n = 200;
+        IStateInt[] fi = new IStateInt[n], pi = new IStateInt[n];
+        IStateLong[] fl = new IStateLong[n], pl = new IStateLong[n];
+        for (int i = 0; i < n; i++) {
+            fi[i] = flat.makeInt(i);
+            pi[i] = pool.makeInt(i);
+            fl[i] = flat.makeLong(-i);
+            pl[i] = pool.makeLong(-i);
+        }
+        flat.worldPush();
+        pool.worldPush();
+        for (int i = 0; i < n; i += 3) {
+            fi[i].set(-i);
+            pi[i].set(-i);
+        }
+        pool.checkpoint();
+        int root = pool.getWorldIndex();
+        for (int k = 0; k < 2000; k++) {
+            int op = rnd.nextInt(20);
+            if (op == 0) {
+                // restart: few or many updates to revert, depending on k
+                flat.worldPopUntil(root);
+                pool.worldPopUntil(root);
+            } else if (op < 4) {
+                flat.worldPush();
+                pool.worldPush();
+            } else if (op == 4 && flat.getWorldIndex() > root) {
+                flat.worldPop();
+                pool.worldPop();
+            } else if (flat.getWorldIndex() > root) {
+                for (int j = rnd.nextInt(k % 100 + 1); j >= 0; j--) {
+                    int i = rnd.nextInt(n);
+                    int v = rnd.nextInt(100);
+                    fi[i].set(v);
+                    pi[i].set(v);
+                    fl[i].set(v * 1_000_000_000L);
+                    pl[i].set(v * 1_000_000_000L);
+                }
+            }
+            Assert.assertEquals(pool.getWorldIndex(), flat.getWorldIndex());
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(pi[i].get(), fi[i].get());
+                Assert.assertEquals(pl[i].get(), fl[i].get());
+            }
+        }
+        // the checkpoint is forgotten when backtracking further
+        flat.worldPopUntil(0);
+        pool.worldPopUntil(0);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(pi[i].get(), i);
+            Assert.assertEquals(pl[i].get(), -i);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPoolRestarts() {
+        int[] volumes = {54, 12, 47, 33, 30, 65, 56, 57, 91, 88, 77, 99, 29, 23, 39, 86, 12, 85, 22, 64};
+        int[] energies = {38, 57, 69, 90, 79, 89, 28, 70, 38, 71, 46, 41, 49, 43, 36, 68, 92, 33, 84, 90};
+        long[][] measures = new long[2][];
+        IEnvironment[] envs = {new EnvironmentBuilder().fromFlat().build(), new EnvironmentBuilder().fromPool().build()};
+        for (int k = 0; k < 2; k++) {
+            Model model = new Model(envs[k], "restarts");
+            IntVar[] objects = model.intVarArray("o", volumes.length, 0, 10, true);
+            IntVar power = model.intVar("power", 0, 99999, true);
+            IntVar weight = model.intVar("weight", 99, 1101, true);
+            model.knapsack(objects, weight, power, volumes, energies).post();
+            model.setObjective(Model.MAXIMIZE, power);
+            Solver solver = model.getSolver();
+            solver.setLNS(new RandomNeighborhood(objects, 200, 0L), new FailCounter(model, 20));
+            solver.limitFail(5000);
+            int best = 0;
+            while (solver.solve()) {
+                best = power.getValue();
+            }
+            measures[k] = new long[]{best, solver.getSolutionCount(), solver.getNodeCount(), solver.getRestartCount()};
+        }
+        Assert.assertTrue(measures[0][3] > 100);
+        Assert.assertEquals(measures[1], measures[0]);
+    }
+}
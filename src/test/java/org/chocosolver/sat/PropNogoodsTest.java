@@ -11,6 +11,7 @@ package org.chocosolver.sat;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.DefaultSettings;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.exception.ContradictionException;
@@ -308,4 +309,36 @@ public class PropNogoodsTest {
             Assert.assertEquals(ivalue(lvalue), value);
         }
     }
-}
\ No newline at end of file
+
+    @Test(groups="1s", timeOut=60000)
+    public void testReduceLearnts() throws ContradictionException {
+        Model model = new Model("nogoods", new DefaultSettings()
+                .setMaxLearntClauses(10).setLearntClausesIncrement(5).setMaxLBDToKeep(2));
+        IntVar[] xs = model.intVarArray("X", 8, 0, 3, false);
+        PNG = model.getNogoodStore().getPropNogoods();
+        for (IntVar x : xs) {
+            PNG.Literal(x, 0, true);
+        }
+        model.getSolver().propagate();
+        // never removed
+        PNG.addLearnt(new int[]{
+                SatSolver.negated(PNG.Literal(xs[0], 0, true)),
+                SatSolver.negated(PNG.Literal(xs[1], 0, true)),
+                PNG.Literal(xs[2], 3, true)}, PropNogoods.PERMANENT);
+        PNG.addLearnt(new int[]{PNG.Literal(xs[2], 1, true), PNG.Literal(xs[2], 3, true)}, 2);
+        Random rnd = new Random(0);
+        for (int i = 0; i < 40; i++) {
+            PNG.addLearnt(PNG.Literal(xs[3 + rnd.nextInt(5)], rnd.nextInt(4), true),
+                    PNG.Literal(xs[3 + rnd.nextInt(5)], rnd.nextInt(4), true),
+                    PNG.Literal(xs[3 + rnd.nextInt(5)], rnd.nextInt(4), false));
+        }
+        Assert.assertTrue(PNG.getNbReductions() > 0);
+        Assert.assertTrue(PNG.getNbRemovedLearnts() > 0);
+        Assert.assertTrue(PNG.getNbLearnt() <= 10 + 5 * PNG.getNbReductions());
+        // the permanent clause is still there
+        xs[0].instantiateTo(0, Cause.Null);
+        xs[1].instantiateTo(0, Cause.Null);
+        PNG.propagate(2);
+        Assert.assertTrue(xs[2].isInstantiatedTo(3));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.lns.neighbors.ExplainingCut;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.loop.lns.neighbors.PropagationGuidedNeighborhood;
+import org.chocosolver.solver.search.loop.lns.neighbors.RandomNeighborhood;
+import org.chocosolver.solver.search.loop.lns.neighbors.ReversePropagationGuidedNeighborhood;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static java.lang.Math.ceil;
+import static org.chocosolver.solver.search.strategy.Search.domOverWDegSearch;
+import static org.chocosolver.solver.search.strategy.Search.lastConflict;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class ParallelLNSTest {
+
+    private static Model knapsack20() {
+        int[] capacities = {99, 1101};
+        int[] volumes = {54, 12, 47, 33, 30, 65, 56, 57, 91, 88, 77, 99, 29, 23, 39, 86, 12, 85, 22, 64};
+        int[] energies = {38, 57, 69, 90, 79, 89, 28, 70, 38, 71, 46, 41, 49, 43, 36, 68, 92, 33, 84, 90};
+        Model model = new Model("knapsack20");
+        IntVar[] objects = new IntVar[volumes.length];
+        for (int i = 0; i < volumes.length; i++) {
+            objects[i] = model.intVar("o_" + (i + 1), 0, (int) ceil(capacities[1] / volumes[i]), true);
+        }
+        IntVar power = model.intVar("power", 0, 99999, true);
+        IntVar scalar = model.intVar("weight", capacities[0], capacities[1], true);
+        model.scalar(objects, volumes, "=", scalar).post();
+        model.scalar(objects, energies, "=", power).post();
+        model.knapsack(objects, scalar, power, volumes, energies).post();
+        model.setObjective(Model.MAXIMIZE, power);
+        model.getSolver().setSearch(lastConflict(domOverWDegSearch(objects)));
+        return model;
+    }
+
+    private static IntVar[] objects(Model model) {
+        IntVar[] objects = new IntVar[20];
+        System.arraycopy(model.retrieveIntVars(true), 0, objects, 0, 20);
+        return objects;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testKnapsack() {
+        ParallelLNS plns = new ParallelLNS();
+        for (int i = 0; i < 4; i++) {
+            Model model = knapsack20();
+            IntVar[] objects = objects(model);
+            INeighbor neighbor;
+            switch (i) {
+                case 0:
+                    neighbor = new RandomNeighborhood(objects, 200, i);
+                    break;
+                case 1:
+                    neighbor = new PropagationGuidedNeighborhood(objects, 100, 10, i);
+                    break;
+                case 2:
+                    neighbor = new ReversePropagationGuidedNeighborhood(objects, 100, 10, i);
+                    break;
+                default:
+                    // cannot load the incumbent, only its bound
+                    neighbor = new ExplainingCut(model, 200, i);
+                    break;
+            }
+            model.getSolver().limitTime(900);
+            plns.addModel(model, neighbor, new FailCounter(model, 100));
+        }
+        Assert.assertTrue(plns.solve());
+        Solution best = plns.getBestSolution();
+        Model finder = plns.getBestModel();
+        Assert.assertNotNull(finder);
+        Assert.assertEquals(finder.getSolver().getObjectiveManager().getBestSolutionValue(), 8372);
+        // the incumbent can be read with the variables of any model
+        for (Model model : plns.getModels()) {
+            IntVar power = (IntVar) model.getObjective();
+            Assert.assertEquals(best.getIntVal(power), 8372);
+            int weight = 0;
+            int[] volumes = {54, 12, 47, 33, 30, 65, 56, 57, 91, 88, 77, 99, 29, 23, 39, 86, 12, 85, 22, 64};
+            IntVar[] objects = objects(model);
+            for (int i = 0; i < objects.length; i++) {
+                weight += best.getIntVal(objects[i]) * volumes[i];
+            }
+            Assert.assertEquals(weight, best.getIntVal(model.retrieveIntVars(true)[21]));
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSharedBound() {
+        ParallelLNS plns = new ParallelLNS();
+        for (int i = 0; i < 3; i++) {
+            Model model = knapsack20();
+            model.getSolver().limitTime(1000);
+            plns.addModel(model, new RandomNeighborhood(objects(model), 200, i), new FailCounter(model, 100));
+        }
+        Assert.assertTrue(plns.solve());
+        Assert.assertEquals(plns.getBestSolution().getIntVal((IntVar) plns.getBestModel().getObjective()), 8372);
+        for (Model model : plns.getModels()) {
+            // every worker has picked up the incumbent
+            Assert.assertEquals(model.getSolver().getObjectiveManager().getBestSolutionValue(), 8372);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testSatisfaction() {
+        Model model = knapsack20();
+        model.clearObjective();
+        new ParallelLNS().addModel(model, new RandomNeighborhood(objects(model), 200, 0));
+    }
+}
@@ -9,7 +9,9 @@
 package org.chocosolver.solver.constraints.nary;
 
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
@@ -19,8 +21,10 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -91,6 +95,79 @@ public class BinPackingTest {
 		assertEquals(0, model.getSolver().getSolutionCount());
 	}
 
+	@Test(groups="1s", timeOut=60000)
+	public void testKnapsackLoads() throws ContradictionException {
+		Model model = new Model();
+		int[] itemSize = new int[]{3,5,4};
+		IntVar[] itemBin = model.intVarArray("bin",3,0,1);
+		IntVar[] binLoad = new IntVar[]{model.intVar("l0",1,7), model.intVar("l1",0,12)};
+		model.binPacking(itemBin,itemSize,binLoad,0,true).post();
+		model.getSolver().propagate();
+		// the sums lower than 7 are 3, 4, 5 and 7
+		assertEquals(binLoad[0].getLB(), 3);
+		assertEquals(binLoad[0].getUB(), 7);
+		model.getEnvironment().worldPush();
+		binLoad[0].removeValue(7, Cause.Null);
+		model.getSolver().propagate();
+		assertEquals(binLoad[0].getUB(), 5);
+		model.getEnvironment().worldPop();
+		// 8 = 3 + 5, item 2 cannot be in bin 1
+		binLoad[1].instantiateTo(8, Cause.Null);
+		model.getSolver().propagate();
+		assertTrue(itemBin[2].isInstantiatedTo(0));
+		assertEquals(binLoad[0].getValue(), 4);
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testL2() {
+		for (boolean knapsack : new boolean[]{false, true}) {
+			Model model = new Model();
+			// 6 items larger than half a bin, 5 bins
+			int[] itemSize = new int[]{6,6,6,6,6,6,2,2};
+			IntVar[] itemBin = model.intVarArray("bin",8,0,4);
+			IntVar[] binLoad = model.intVarArray("load",5,0,10);
+			model.binPacking(itemBin,itemSize,binLoad,0,knapsack).post();
+			model.getSolver().setSearch(Search.inputOrderLBSearch(itemBin));
+			assertFalse(model.getSolver().solve());
+			if (knapsack) {
+				assertEquals(model.getSolver().getNodeCount(), 0);
+			} else {
+				assertTrue(model.getSolver().getNodeCount() > 0);
+			}
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testRandomKnapsack() {
+		for (int seed = 0; seed < 30; seed++) {
+			long[] counts = new long[2];
+			for (int k = 0; k < 2; k++) {
+				Random rnd = new Random(seed);
+				Model model = new Model();
+				int nbItems = 4 + rnd.nextInt(3), nbBins = 2 + rnd.nextInt(2);
+				int[] itemSize = new int[nbItems];
+				for (int i = 0; i < nbItems; i++) {
+					itemSize[i] = rnd.nextInt(6);
+				}
+				IntVar[] itemBin = model.intVarArray("bin", nbItems, 0, nbBins - 1);
+				IntVar[] binLoad = new IntVar[nbBins];
+				for (int b = 0; b < nbBins; b++) {
+					int lb = rnd.nextInt(5);
+					binLoad[b] = model.intVar("load" + b, lb, lb + rnd.nextInt(8), rnd.nextBoolean());
+				}
+				if (k == 0) {
+					bpDecomposition(itemBin, itemSize, binLoad, 0).post();
+				} else {
+					model.binPacking(itemBin, itemSize, binLoad, 0, true).post();
+				}
+				model.getSolver().setSearch(Search.randomSearch(ArrayUtils.append(itemBin, binLoad), seed));
+				while (model.getSolver().solve()) ;
+				counts[k] = model.getSolver().getSolutionCount();
+			}
+			assertEquals(counts[1], counts[0], "seed " + seed);
+		}
+	}
+
 	private static Constraint bpDecomposition(IntVar[] itemBin, int[] itemSize, IntVar[] binLoad, int offset){
 		int nbBins = binLoad.length;
 		int nbItems = itemBin.length;
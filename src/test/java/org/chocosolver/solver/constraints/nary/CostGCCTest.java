@@ -0,0 +1,179 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffAC;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class CostGCCTest {
+
+    private static final int[][] WEIGHTS = {
+            {9, 2, 7, 8},
+            {6, 4, 3, 7},
+            {5, 8, 1, 8},
+            {7, 6, 9, 4}
+    };
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testMinWeightAllDifferent() throws ContradictionException {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 4, 0, 3);
+        IntVar w = model.intVar("w", 0, 100);
+        Constraint c = model.minWeightAllDifferent(x, WEIGHTS, w);
+        Assert.assertTrue(Arrays.stream(c.getPropagators()).anyMatch(p -> p instanceof PropAllDiffAC));
+        c.post();
+        model.getSolver().propagate();
+        // 2 + 6 + 1 + 4
+        Assert.assertEquals(w.getLB(), 13);
+        model.arithm(w, "<=", 13).post();
+        model.getSolver().propagate();
+        // the optimal assignment is unique
+        Assert.assertTrue(x[0].isInstantiatedTo(1));
+        Assert.assertTrue(x[1].isInstantiatedTo(0));
+        Assert.assertTrue(x[2].isInstantiatedTo(2));
+        Assert.assertTrue(x[3].isInstantiatedTo(3));
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testMinWeightAllDifferentOptimization() {
+        Random rnd = new Random(0);
+        for (int run = 0; run < 10; run++) {
+            int n = 6;
+            int[][] weights = new int[n][n + 1];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j <= n; j++) {
+                    weights[i][j] = rnd.nextInt(20) - 5;
+                }
+            }
+            Model model = new Model();
+            IntVar[] x = model.intVarArray("x", n, 0, n);
+            IntVar w = model.intVar("w", -100, 200);
+            model.minWeightAllDifferent(x, weights, w).post();
+            model.setObjective(Model.MINIMIZE, w);
+            Solver solver = model.getSolver();
+            int best = Integer.MAX_VALUE;
+            while (solver.solve()) {
+                best = w.getValue();
+            }
+            Assert.assertEquals(best, bruteForce(weights, new boolean[n + 1], 0), "run " + run);
+            // the first solution is optimal, the others prove it
+            Assert.assertEquals(solver.getSolutionCount(), 1, "run " + run);
+        }
+    }
+
+    private static int bruteForce(int[][] weights, boolean[] used, int i) {
+        if (i == weights.length) {
+            return 0;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int j = 0; j < weights[i].length; j++) {
+            if (!used[j]) {
+                used[j] = true;
+                int rest = bruteForce(weights, used, i + 1);
+                if (rest != Integer.MAX_VALUE) {
+                    best = Math.min(best, weights[i][j] + rest);
+                }
+                used[j] = false;
+            }
+        }
+        return best;
+    }
+
+    private static Model costGCC(long seed, boolean decomposition, int maxCost) {
+        Random rnd = new Random(seed);
+        int n = 5, m = 3;
+        Model model = new Model();
+        IntVar[] x = new IntVar[n];
+        int[][] costs = new int[n][m];
+        for (int i = 0; i < n; i++) {
+            x[i] = model.intVar("x" + i, 0, m - 1);
+            for (int j = 0; j < m; j++) {
+                costs[i][j] = rnd.nextInt(10) - 3;
+            }
+        }
+        int[] values = {0, 1, 2};
+        IntVar[] occ = new IntVar[m];
+        for (int j = 0; j < m; j++) {
+            int lo = rnd.nextInt(2);
+            occ[j] = model.intVar("o" + j, lo, lo + 1 + rnd.nextInt(3));
+        }
+        IntVar cost = model.intVar("cost", -20, maxCost);
+        if (decomposition) {
+            model.globalCardinality(x, values, occ, true).post();
+            IntVar[] c = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                c[i] = model.intVar("c" + i, -3, 6);
+                model.element(c[i], costs[i], x[i]).post();
+            }
+            model.sum(c, "=", cost).post();
+        } else {
+            model.costGCC(x, values, occ, costs, cost).post();
+        }
+        return model;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCostGCCVsDecomposition() {
+        for (long seed = 0; seed < 20; seed++) {
+            for (int maxCost : new int[]{40, 5}) {
+                Model model = costGCC(seed, false, maxCost);
+                Model deco = costGCC(seed, true, maxCost);
+                Assert.assertEquals(model.getSolver().findAllSolutions().size(),
+                        deco.getSolver().findAllSolutions().size(), "seed " + seed);
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCostGCCConsistency() {
+        for (long seed = 0; seed < 20; seed++) {
+            Model model = costGCC(seed, false, 5);
+            IntVar[] x = model.retrieveIntVars(true);
+            try {
+                model.getSolver().propagate();
+            } catch (ContradictionException e) {
+                Assert.assertNull(costGCC(seed, true, 5).getSolver().findSolution(), "seed " + seed);
+                continue;
+            }
+            // every remaining value of a variable belongs to a solution
+            for (int i = 0; i < 5; i++) {
+                for (int v = x[i].getLB(); v <= x[i].getUB(); v = x[i].nextValue(v)) {
+                    Model deco = costGCC(seed, true, 5);
+                    deco.arithm(deco.retrieveIntVars(true)[i], "=", v).post();
+                    Solution s = deco.getSolver().findSolution();
+                    Assert.assertNotNull(s, "seed " + seed + ", x" + i + " = " + v);
+                }
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testWrongCosts() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 2, 0, 1);
+        model.costGCC(x, new int[]{0, 1}, model.intVarArray("o", 2, 0, 2), new int[][]{{1, 2}, {1}}, model.intVar(0, 5));
+    }
+}
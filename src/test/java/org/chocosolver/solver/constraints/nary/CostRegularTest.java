@@ -22,6 +22,7 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.chocosolver.solver.constraints.nary.automata.FA.CostAutomaton.makeSingleResource;
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
@@ -437,4 +438,57 @@ public class CostRegularTest {
 
         return CostAutomaton.makeSingleResource(fa,costmatrix,0,taille);
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testRandomCostsByState() {
+        // equivalent states are merged only when their costs are the same
+        Random rnd = new Random(0);
+        int n = 5;
+        for (int run = 0; run < 50; run++) {
+            FiniteAutomaton auto = new FiniteAutomaton();
+            int nbStates = 2 + rnd.nextInt(4);
+            for (int q = 0; q < nbStates; q++) {
+                auto.addState();
+            }
+            auto.setInitialState(0);
+            auto.setFinal(rnd.nextInt(nbStates));
+            int[][] delta = new int[nbStates][3];
+            for (int q = 0; q < nbStates; q++) {
+                for (int v = 0; v < 3; v++) {
+                    delta[q][v] = rnd.nextInt(nbStates + 1) - 1;
+                    if (delta[q][v] >= 0) {
+                        auto.addTransition(q, delta[q][v], v);
+                    }
+                }
+            }
+            int[][][] costs = new int[n][3][nbStates];
+            for (int i = 0; i < n; i++) {
+                for (int v = 0; v < 3; v++) {
+                    for (int q = 0; q < nbStates; q++) {
+                        costs[i][v][q] = rnd.nextInt(3);
+                    }
+                }
+            }
+            int lo = rnd.nextInt(4), hi = lo + rnd.nextInt(4);
+            int expected = 0;
+            for (int w = 0; w < 243; w++) {
+                int q = 0, cost = 0;
+                for (int i = 0, c = w; i < n && q >= 0; i++, c /= 3) {
+                    cost += costs[i][c % 3][q];
+                    q = delta[q][c % 3];
+                }
+                if (q >= 0 && auto.isFinal(q) && lo <= cost && cost <= hi) {
+                    expected++;
+                }
+            }
+            Model model = new Model();
+            IntVar[] vars = model.intVarArray("x", n, 0, 2);
+            IntVar z = model.intVar("z", lo, hi);
+            if (expected == 0) {
+                continue; // the graph may be empty
+            }
+            model.costRegular(vars, z, makeSingleResource(auto, costs, lo, hi)).post();
+            Assert.assertEquals(model.getSolver().findAllSolutions().size(), expected, "run " + run);
+        }
+    }
 }
@@ -0,0 +1,122 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class DiffNTest {
+
+    private static long[] solve(long seed, String filter, boolean cumulative) {
+        Random rnd = new Random(seed);
+        Model model = new Model();
+        int n = 3;
+        IntVar[] x = new IntVar[n], y = new IntVar[n], w = new IntVar[n], h = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = model.intVar("x" + i, 0, 2, rnd.nextBoolean());
+            y[i] = model.intVar("y" + i, 0, 2, rnd.nextBoolean());
+            w[i] = model.intVar("w" + i, 1, 1 + rnd.nextInt(2), false);
+            h[i] = model.intVar("h" + i, i == 0 ? 0 : 1, 1 + rnd.nextInt(2), false); // a height may be null
+        }
+        model.diffN(x, y, w, h, cumulative, filter).post();
+        Solver solver = model.getSolver();
+        IntVar[] vars = ArrayUtils.append(x, y, w, h);
+        solver.setSearch(randomSearch(vars, seed));
+        while (solver.solve()) {
+            Assert.assertEquals(model.getCstrs()[0].isSatisfied(), ESat.TRUE);
+        }
+        return new long[]{solver.getSolutionCount(), solver.getNodeCount()};
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSweepVsPairwise() {
+        for (long seed = 0; seed < 10; seed++) {
+            for (boolean cumulative : new boolean[]{false, true}) {
+                long[] pairwise = solve(seed, "PAIRWISE", cumulative);
+                long[] sweep = solve(seed, "SWEEP", cumulative);
+                Assert.assertEquals(sweep[0], pairwise[0], "seed " + seed);
+                Assert.assertTrue(pairwise[0] > 0, "seed " + seed);
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSweepPruning() {
+        Model model = new Model();
+        // a fixed 2x2 square in the middle of a 6x6 area
+        IntVar[] x = {model.intVar(2), model.intVar("x", 0, 5)};
+        IntVar[] y = {model.intVar(2), model.intVar("y", 2, 3)};
+        IntVar[] w = {model.intVar(2), model.intVar(2)};
+        IntVar[] h = {model.intVar(2), model.intVar(1)};
+        model.diffN(x, y, w, h, false, "SWEEP").post();
+        try {
+            model.getSolver().propagate();
+        } catch (Exception e) {
+            Assert.fail();
+        }
+        // x in [1,3] overlaps the square
+        Assert.assertEquals(x[1].getLB(), 0);
+        Assert.assertEquals(x[1].getUB(), 5);
+        y[1].eq(3).post();
+        model.arithm(x[1], ">=", 1).post();
+        Assert.assertTrue(model.getSolver().solve());
+        Assert.assertEquals(x[1].getValue(), 4);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testLargeSweep() {
+        Model model = new Model();
+        int n = 500, side = 60;
+        Random rnd = new Random(0);
+        IntVar[] x = new IntVar[n], y = new IntVar[n], w = new IntVar[n], h = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            int s = 1 + rnd.nextInt(2);
+            w[i] = model.intVar(s);
+            h[i] = model.intVar(s);
+            x[i] = model.intVar("x" + i, 0, side - s, true);
+            y[i] = model.intVar("y" + i, 0, side - s, true);
+        }
+        model.diffN(x, y, w, h, false, "SWEEP").post();
+        Solver solver = model.getSolver();
+        IntVar[] xy = new IntVar[2 * n];
+        for (int i = 0; i < n; i++) {
+            xy[2 * i] = x[i];
+            xy[2 * i + 1] = y[i];
+        }
+        solver.setSearch(inputOrderLBSearch(xy));
+        Assert.assertTrue(solver.solve());
+        Assert.assertEquals(model.getCstrs()[0].isSatisfied(), ESat.TRUE);
+        // the sweep always pushes y out of the columns already filled
+        Assert.assertEquals(solver.getFailCount(), 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testUnknownFilter() {
+        Model model = new Model();
+        IntVar[] v = model.intVarArray(1, 0, 1);
+        model.diffN(v, v, v, v, false, "FOO");
+    }
+}
@@ -8,8 +8,10 @@
  */
 package org.chocosolver.solver.constraints.nary;
 
+import org.chocosolver.solver.DefaultSettings;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.search.strategy.selectors.values.IntDomainBest;
 import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMax;
@@ -20,6 +22,8 @@ import org.chocosolver.util.tools.MathUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 /**
  * @author Jean-Guillaume FAGES (cosling)
  * @since 05/04/2017.
@@ -82,4 +86,98 @@ public class KnapsackTest {
 		s.printShortStatistics();
 		Assert.assertEquals(16537,s.getBestSolutionValue());
 	}
+
+	private static Model random(long seed, boolean dp) {
+		return random(seed, dp, new int[5], new int[5]);
+	}
+
+	/**
+	 * Builds a random knapsack over 5 items, whose weights and energies are stored in <i>w</i> and <i>e</i>
+	 */
+	private static Model random(long seed, boolean dp, int[] w, int[] e) {
+		Random rnd = new Random(seed);
+		Model m = new Model(new DefaultSettings().setMaxSizeForKnapsackDP(dp ? Integer.MAX_VALUE : 0));
+		int n = 5;
+		IntVar[] x = new IntVar[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = m.intVar("x" + i, 0, 1 + rnd.nextInt(2), rnd.nextBoolean());
+			w[i] = rnd.nextInt(6);
+			e[i] = rnd.nextInt(7);
+		}
+		IntVar load = m.intVar("load", 0, 4 + rnd.nextInt(8));
+		IntVar profit = m.intVar("profit", rnd.nextInt(10), 30);
+		m.knapsack(x, load, profit, w, e).post();
+		return m;
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testDPvsRelaxation() {
+		for (long seed = 0; seed < 30; seed++) {
+			Model dp = random(seed, true);
+			Assert.assertTrue(dp.getCstrs()[0].getPropagators()[2] instanceof PropKnapsackDP);
+			int[] w = new int[5], e = new int[5];
+			Model lr = random(seed, false, w, e);
+			Assert.assertTrue(lr.getCstrs()[0].getPropagators()[2] instanceof PropKnapsack);
+			// occurrences supported by an assignment of all the items, enumerated over the initial domains
+			IntVar[] init = lr.retrieveIntVars(true);
+			boolean[][] supported = new boolean[5][4];
+			enumerate(init, w, e, 0, 0, 0, new int[5], supported);
+			IntVar[] vars = dp.retrieveIntVars(true);
+			boolean feasible = true;
+			try {
+				dp.getSolver().propagate();
+			} catch (ContradictionException ex) {
+				feasible = false;
+			}
+			boolean any = false;
+			for (int v = 0; v < 4; v++) {
+				any |= supported[0][v];
+			}
+			Assert.assertEquals(feasible, any, "seed " + seed);
+			for (int i = 0; i < 5 && feasible; i++) {
+				for (int v = vars[i].getLB(); v <= vars[i].getUB(); v = vars[i].nextValue(v)) {
+					Assert.assertTrue(supported[i][v], "seed " + seed + ", x" + i + " = " + v);
+				}
+			}
+			dp = random(seed, true);
+			Assert.assertEquals(dp.getSolver().findAllSolutions().size(),
+					lr.getSolver().findAllSolutions().size(), "seed " + seed);
+		}
+	}
+
+	/**
+	 * Marks the occurrences of each assignment of the items <i>x[i..5)</i> whose weight and energy, added to
+	 * <i>weight</i> and <i>energy</i>, fit in the load and profit variables, <i>x[5]</i> and <i>x[6]</i>
+	 */
+	private static void enumerate(IntVar[] x, int[] w, int[] e, int i, int weight, int energy, int[] t,
+								  boolean[][] supported) {
+		if (i == 5) {
+			if (x[5].contains(weight) && x[6].contains(energy)) {
+				for (int k = 0; k < 5; k++) {
+					supported[k][t[k]] = true;
+				}
+			}
+			return;
+		}
+		for (int v = x[i].getLB(); v <= x[i].getUB(); v++) {
+			t[i] = v;
+			enumerate(x, w, e, i + 1, weight + w[i] * v, energy + e[i] * v, t, supported);
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testDPPruning() throws ContradictionException {
+		Model m = new Model();
+		BoolVar[] x = m.boolVarArray("x", 3);
+		IntVar load = m.intVar("load", 0, 8);
+		IntVar profit = m.intVar("profit", 10, 20);
+		m.knapsack(x, load, profit, new int[]{3, 4, 5}, new int[]{4, 5, 6}).post();
+		m.getSolver().propagate();
+		// {0, 2} is the only set of items of load at most 8 and profit at least 10
+		Assert.assertTrue(x[0].isInstantiatedTo(1));
+		Assert.assertTrue(x[1].isInstantiatedTo(0));
+		Assert.assertTrue(x[2].isInstantiatedTo(1));
+		Assert.assertTrue(load.isInstantiatedTo(8));
+		Assert.assertTrue(profit.isInstantiatedTo(10));
+	}
 }
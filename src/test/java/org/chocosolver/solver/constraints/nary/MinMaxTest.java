@@ -11,6 +11,7 @@ package org.chocosolver.solver.constraints.nary;
 import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.checker.DomainBuilder;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.limits.BacktrackCounter;
@@ -26,6 +27,7 @@ import java.util.List;
 import java.util.Random;
 
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.testng.Assert.*;
 
 /**
@@ -542,4 +544,64 @@ public class MinMaxTest {
         }
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testMaxWatches() throws ContradictionException {
+        Model model = new Model();
+        BoolVar[] bvars = model.boolVarArray("b", 6);
+        model.max(model.boolVar(true), bvars).post();
+        model.min(model.boolVar(false), bvars).post();
+        model.getSolver().propagate();
+        for (int k = 0; k < 2; k++) {
+            Propagator p = model.getCstrs()[k].getPropagator(0);
+            int watched = 0;
+            for (int i = 0; i < bvars.length; i++) {
+                if (p.isWatched(i)) {
+                    watched++;
+                }
+            }
+            assertEquals(watched, 2);
+            for (int i = 0; i < bvars.length; i++) {
+                assertEquals(bvars[i].getPropagator(p.getVIndice(i)), p);
+            }
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testMaxMinClauses() {
+        for (int seed = 0; seed < 30; seed++) {
+            long[] nbsols = new long[2];
+            for (int m = 0; m < 2; m++) {
+                Random rnd = new Random(seed);
+                Model model = new Model();
+                BoolVar[] bvars = model.boolVarArray("b", 12);
+                for (int c = 0; c < 20; c++) {
+                    BoolVar[] clause = new BoolVar[3 + rnd.nextInt(3)];
+                    for (int i = 0; i < clause.length; i++) {
+                        clause[i] = bvars[rnd.nextInt(bvars.length)];
+                        if (rnd.nextBoolean()) {
+                            clause[i] = clause[i].not();
+                        }
+                    }
+                    boolean nand = rnd.nextBoolean();
+                    if (m == 0) {
+                        // watched literals
+                        if (nand) {
+                            model.min(model.boolVar(false), clause).post();
+                        } else {
+                            model.max(model.boolVar(true), clause).post();
+                        }
+                    } else {
+                        model.sum(clause, nand ? "<" : ">", nand ? clause.length : 0).post();
+                    }
+                }
+                Solver solver = model.getSolver();
+                solver.setSearch(randomSearch(bvars, seed));
+                solver.setLubyRestart(4, new BacktrackCounter(model, 0), 100);
+                solver.setNoGoodRecordingFromRestarts();
+                nbsols[m] = solver.findAllSolutions().size();
+            }
+            assertEquals(nbsols[0], nbsols[1]);
+        }
+    }
+
 }
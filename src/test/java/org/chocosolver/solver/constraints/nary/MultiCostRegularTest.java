@@ -9,11 +9,14 @@
 package org.chocosolver.solver.constraints.nary;
 
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.variables.IntVar;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 import static org.chocosolver.solver.constraints.nary.automata.FA.CostAutomaton.makeMultiResources;
 import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.chocosolver.util.tools.ArrayUtils.append;
@@ -132,4 +135,84 @@ public class MultiCostRegularTest {
             assertEquals(model.getSolver().getSolutionCount(), 85, "seed:" + (seed + i));
         }
     }
+
+    private Model makeRandom(int period, long seed, boolean decomposition) {
+        Random rnd = new Random(seed);
+        Model model = new Model();
+        IntVar[] sequence = model.intVarArray("x", period, 0, 2, false);
+        IntVar[] bounds = new IntVar[3];
+        bounds[0] = model.intVar("z_0", 0, 5 * period, true);
+        bounds[1] = model.intVar("z_1", rnd.nextInt(2), 2 + rnd.nextInt(period - 1), true);
+        bounds[2] = model.intVar("z_2", rnd.nextInt(2), 2 + rnd.nextInt(period - 1), true);
+
+        FiniteAutomaton auto = new FiniteAutomaton();
+        int idx = auto.addState();
+        auto.setInitialState(idx);
+        auto.setFinal(idx);
+        idx = auto.addState();
+        auto.setFinal(idx);
+        // no two 1 in a row
+        auto.addTransition(auto.getInitialState(), auto.getInitialState(), 0, 2);
+        auto.addTransition(auto.getInitialState(), idx, 1);
+        auto.addTransition(idx, auto.getInitialState(), 0, 2);
+
+        int[][][] costs = new int[period][3][3];
+        for (int i = 0; i < period; i++) {
+            for (int j = 0; j < 3; j++) {
+                costs[i][j][0] = rnd.nextInt(6);
+                costs[i][j][1] = j == 0 ? 1 : 0;
+                costs[i][j][2] = rnd.nextInt(2);
+            }
+        }
+        if (decomposition) {
+            model.regular(sequence, auto).post();
+            for (int r = 0; r < 3; r++) {
+                IntVar[] c = new IntVar[period];
+                for (int i = 0; i < period; i++) {
+                    int[] values = new int[3];
+                    for (int j = 0; j < 3; j++) {
+                        values[j] = costs[i][j][r];
+                    }
+                    c[i] = model.intVar("c_" + r + "_" + i, 0, 5);
+                    model.element(c[i], values, sequence[i]).post();
+                }
+                model.sum(c, "=", bounds[r]).post();
+            }
+        } else {
+            model.multiCostRegular(sequence, bounds, makeMultiResources(auto, costs, bounds)).post();
+            model.getSolver().setSearch(randomSearch(append(sequence, bounds), seed));
+        }
+        return model;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testVsDecomposition() {
+        // random search backtracks a lot, and so the paths are often computed incrementally
+        for (long seed = 0; seed < 20; seed++) {
+            Model model = makeRandom(8, seed, false);
+            Model deco = makeRandom(8, seed, true);
+            assertEquals(model.getSolver().findAllSolutions().size(),
+                    deco.getSolver().findAllSolutions().size(), "seed:" + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOptimizationVsDecomposition() {
+        for (long seed = 0; seed < 20; seed++) {
+            Model model = makeRandom(10, seed, false);
+            Model deco = makeRandom(10, seed, true);
+            int[] best = new int[2];
+            Model[] models = {model, deco};
+            for (int m = 0; m < 2; m++) {
+                IntVar z0 = models[m].retrieveIntVars(true)[10];
+                Solver solver = models[m].getSolver();
+                models[m].setObjective(Model.MAXIMIZE, z0);
+                best[m] = -1;
+                while (solver.solve()) {
+                    best[m] = z0.getValue();
+                }
+            }
+            assertEquals(best[0], best[1], "seed:" + seed);
+        }
+    }
 }
@@ -18,6 +18,7 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.graphs.LayeredGraph;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -27,6 +28,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import dk.brics.automaton.Automaton;
 import dk.brics.automaton.RegExp;
@@ -439,4 +441,113 @@ public class RegularTest {
         return null;
     }
 
-}
\ No newline at end of file
+    @Test(groups="1s", timeOut=60000)
+    public void testLayeredGraphMinimized() {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("x", 6, 0, 1);
+        // no two 1 in a row, with two copies of each state
+        FiniteAutomaton auto = new FiniteAutomaton();
+        int a = auto.addState(), b = auto.addState(), a2 = auto.addState(), b2 = auto.addState();
+        int dead = auto.addState();
+        auto.setInitialState(a);
+        auto.setFinal(a, b, a2, b2);
+        auto.addTransition(a, a2, 0);
+        auto.addTransition(a, b2, 1);
+        auto.addTransition(b, a2, 0);
+        auto.addTransition(a2, a, 0);
+        auto.addTransition(a2, b, 1);
+        auto.addTransition(b2, a, 0);
+        // a state from which no final state is reachable
+        auto.addTransition(b, dead, 1);
+        auto.addTransition(dead, dead, 0, 1);
+        LayeredGraph graph = auto.getLayeredGraph(vars);
+        // 'a' and 'b' nodes, except for the first and the last layers
+        Assert.assertEquals(graph.nbNodes, 1 + 2 * 5 + 1);
+        Assert.assertEquals(graph.layerStart[1] - graph.layerStart[0], 1);
+        Assert.assertEquals(graph.layerStart[7] - graph.layerStart[6], 1);
+        Assert.assertEquals(graph.nbArcs, 2 + 3 * 5);
+        model.regular(vars, auto).post();
+        Assert.assertEquals(model.getSolver().findAllSolutions().size(), 21);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testLayeredGraphShared() {
+        FiniteAutomaton auto = new FiniteAutomaton("(0|1)*2(0|1)*", 0, 2);
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 5, 0, 2);
+        IntVar[] y = model.intVarArray("y", 5, 0, 2);
+        IntVar[] z = model.intVarArray("z", 5, 0, 1);
+        Assert.assertSame(auto.getLayeredGraph(x), auto.getLayeredGraph(y));
+        Assert.assertNotSame(auto.getLayeredGraph(x), auto.getLayeredGraph(z));
+        // no 2 in z
+        Assert.assertTrue(auto.getLayeredGraph(z).isEmpty());
+        LayeredGraph before = auto.getLayeredGraph(x);
+        auto.addTransition(auto.getInitialState(), auto.getInitialState(), 2);
+        auto.setDeterministic(false);
+        Assert.assertNotSame(auto.getLayeredGraph(x), before);
+        model.regular(x, auto).post();
+        model.regular(y, auto).post();
+        model.arithm(x[0], "=", y[4]).post();
+        Solver solver = model.getSolver();
+        while (solver.solve()) {
+            int[] wx = new int[5], wy = new int[5];
+            for (int i = 0; i < 5; i++) {
+                wx[i] = x[i].getValue();
+                wy[i] = y[i].getValue();
+            }
+            Assert.assertTrue(auto.run(wx) && auto.run(wy));
+        }
+        Assert.assertTrue(solver.getSolutionCount() > 0);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testLayeredGraphCacheBounded() {
+        FiniteAutomaton auto = new FiniteAutomaton("(0|1)*2(0|1)*", 0, 2);
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 3, 0, 2);
+        LayeredGraph first = auto.getLayeredGraph(x);
+        for (int n = 4; n < 20; n++) {
+            auto.getLayeredGraph(model.intVarArray("y" + n, n, 0, 2));
+        }
+        // the graph of the least recently used domains has been dropped
+        Assert.assertNotSame(auto.getLayeredGraph(x), first);
+        Assert.assertSame(auto.getLayeredGraph(x), auto.getLayeredGraph(x));
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testRandomAutomata() {
+        Random rnd = new Random(0);
+        int n = 5;
+        for (int run = 0; run < 50; run++) {
+            // non deterministic automata, with equivalent and dead states
+            FiniteAutomaton auto = new FiniteAutomaton();
+            auto.setDeterministic(false);
+            int nbStates = 2 + rnd.nextInt(5);
+            for (int q = 0; q < nbStates; q++) {
+                auto.addState();
+                if (rnd.nextInt(3) == 0) {
+                    auto.setFinal(q);
+                }
+            }
+            auto.setInitialState(0);
+            for (int t = 0; t < nbStates * 3; t++) {
+                auto.addTransition(rnd.nextInt(nbStates), rnd.nextInt(nbStates), rnd.nextInt(3));
+            }
+            int expected = 0;
+            int[] word = new int[n];
+            for (int w = 0; w < 243; w++) {
+                for (int i = 0, c = w; i < n; i++, c /= 3) {
+                    word[i] = c % 3;
+                }
+                if (auto.run(word)) {
+                    expected++;
+                }
+            }
+            Model model = new Model();
+            IntVar[] vars = model.intVarArray("x", n, 0, 2);
+            model.regular(vars, auto).post();
+            Assert.assertEquals(model.getSolver().findAllSolutions().size(), expected, "run " + run);
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.lp;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+
+/**
+ * Tests for {@link DualSimplex} and {@link PropLinearRelaxation}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class LinearRelaxationTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSimplex() {
+        // min -x0 - x1 s.t. x0 + 2.x1 <= 4, 3.x0 + x1 <= 6, 0 <= x0,x1 <= 10
+        DualSimplex lp = new DualSimplex(
+                new int[][]{{0, 1}, {0, 1}},
+                new double[][]{{1, 2}, {3, 1}},
+                new double[]{-1, -1});
+        lp.setBounds(0, 0, 10);
+        lp.setBounds(1, 0, 10);
+        lp.setBounds(2, -100, 4);
+        lp.setBounds(3, -100, 6);
+        Assert.assertEquals(lp.solve(100), DualSimplex.OPTIMAL);
+        Assert.assertEquals(lp.getValue(0), 1.6, 1e-6);
+        Assert.assertEquals(lp.getValue(1), 1.2, 1e-6);
+        Assert.assertEquals(lp.lagrangianBound(), -2.8, 1e-6);
+        // warm start, with x1 <= 1
+        lp.setBounds(1, 0, 1);
+        Assert.assertEquals(lp.solve(100), DualSimplex.OPTIMAL);
+        Assert.assertEquals(lp.lagrangianBound(), -8. / 3, 1e-6);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSimplexInfeasible() {
+        // x0 + x1 >= 5 with x0, x1 in [0,2]
+        DualSimplex lp = new DualSimplex(new int[][]{{0, 1}}, new double[][]{{1, 1}}, new double[]{1, 0});
+        lp.setBounds(0, 0, 2);
+        lp.setBounds(1, 0, 2);
+        lp.setBounds(2, 5, 100);
+        Assert.assertEquals(lp.solve(100), DualSimplex.INFEASIBLE);
+        Assert.assertTrue(lp.certifyInfeasibility());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRootBound() throws ContradictionException {
+        // max 3.x + 2.y + w s.t. x + y + w <= 4, x + 3.y + w <= 6, x <= 3: LP optimum is 11 at (3, 1, 0)
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 3, true);
+        IntVar y = model.intVar("y", 0, 10, true);
+        IntVar w = model.intVar("w", 0, 10, true);
+        IntVar z = model.intVar("z", 0, 100, true);
+        model.scalar(new IntVar[]{x, y, w}, new int[]{1, 1, 1}, "<=", 4).post();
+        model.scalar(new IntVar[]{x, y, w}, new int[]{1, 3, 1}, "<=", 6).post();
+        model.scalar(new IntVar[]{x, y, w}, new int[]{3, 2, 1}, "=", z).post();
+        model.setObjective(Model.MAXIMIZE, z);
+        model.linearRelaxation(0, false).post();
+        model.getSolver().propagate();
+        Assert.assertEquals(z.getUB(), 11);
+    }
+
+    private static Model knapsack(int seed, boolean relax) {
+        Random rnd = new Random(seed);
+        int n = 10;
+        int[] w = new int[n], p = new int[n];
+        int tw = 0;
+        for (int i = 0; i < n; i++) {
+            w[i] = 5 + rnd.nextInt(20);
+            p[i] = 5 + rnd.nextInt(20);
+            tw += w[i];
+        }
+        Model model = new Model();
+        IntVar[] xs = model.intVarArray("x", n, 0, 2, true);
+        IntVar[] ys = model.intVarArray("y", 3, 0, 5, true);
+        IntVar profit = model.intVar("p", 0, 1000, true);
+        model.scalar(xs, w, "<=", tw / 2).post();
+        model.scalar(new IntVar[]{xs[0], xs[1], ys[0]}, new int[]{1, 1, -1}, ">=", 0).post();
+        model.sum(new IntVar[]{ys[0], ys[1], ys[2]}, "<=", 6).post();
+        model.scalar(new IntVar[]{ys[1], xs[2], xs[3]}, new int[]{2, -1, -1}, "<=", 1).post();
+        IntVar[] all = new IntVar[n + 3];
+        int[] ps = new int[n + 3];
+        System.arraycopy(xs, 0, all, 0, n);
+        System.arraycopy(p, 0, ps, 0, n);
+        System.arraycopy(ys, 0, all, n, 3);
+        ps[n] = 3;
+        ps[n + 1] = 7;
+        ps[n + 2] = 1;
+        model.scalar(all, ps, "=", profit).post();
+        model.setObjective(Model.MAXIMIZE, profit);
+        if (relax) {
+            model.linearRelaxation(1, true).post();
+        }
+        model.getSolver().setSearch(inputOrderLBSearch(all));
+        return model;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testKnapsack() {
+        for (int seed = 0; seed < 10; seed++) {
+            Model m1 = knapsack(seed, false);
+            Solution s1 = m1.getSolver().findOptimalSolution(m1.getObjective().asIntVar(), true);
+            Model m2 = knapsack(seed, true);
+            Solution s2 = m2.getSolver().findOptimalSolution(m2.getObjective().asIntVar(), true);
+            Assert.assertEquals(s2.getIntVal(m2.getObjective().asIntVar()), s1.getIntVal(m1.getObjective().asIntVar()),
+                    "seed " + seed);
+            Assert.assertTrue(m2.getSolver().getNodeCount() <= m1.getSolver().getNodeCount(), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testMinimize() {
+        for (int seed = 0; seed < 10; seed++) {
+            long[] best = new long[2];
+            for (int k = 0; k < 2; k++) {
+                Random rnd = new Random(seed);
+                Model model = new Model();
+                IntVar[] xs = model.intVarArray("x", 6, -3, 5, true);
+                for (int r = 0; r < 4; r++) {
+                    int[] cs = new int[6];
+                    for (int i = 0; i < 6; i++) {
+                        cs[i] = rnd.nextInt(7) - 3;
+                    }
+                    model.scalar(xs, cs, rnd.nextBoolean() ? "<=" : ">=", rnd.nextInt(7) - 3).post();
+                }
+                IntVar cost = model.intVar("c", -200, 200, true);
+                model.scalar(xs, new int[]{1, -2, 3, -1, 2, 1}, "=", cost).post();
+                model.setObjective(Model.MINIMIZE, cost);
+                if (k == 1) {
+                    model.linearRelaxation(5, false).post();
+                }
+                Solver solver = model.getSolver();
+                solver.setSearch(inputOrderLBSearch(xs));
+                Solution s = solver.findOptimalSolution(cost, false);
+                best[k] = s == null ? Long.MIN_VALUE : s.getIntVal(cost);
+            }
+            Assert.assertEquals(best[1], best[0], "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testInfeasible() {
+        Model model = new Model();
+        IntVar[] xs = model.intVarArray("x", 3, 0, 4, true);
+        IntVar cost = model.intVar("c", 0, 20, true);
+        // 2.(x0 + x1 + x2) = 7 has no integer solution, 2.x0 + 2.x1 <= 1 and x2 <= 2 make it LP infeasible
+        model.scalar(xs, new int[]{2, 2, 2}, "=", 7).post();
+        model.scalar(new IntVar[]{xs[0], xs[1]}, new int[]{2, 2}, "<=", 1).post();
+        model.arithm(xs[2], "<=", 2).post();
+        model.sum(xs, "=", cost).post();
+        model.setObjective(Model.MINIMIZE, cost);
+        model.linearRelaxation(1, false).post();
+        Assert.assertFalse(model.getSolver().solve());
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testNoObjective() {
+        Model model = new Model();
+        IntVar[] xs = model.intVarArray("x", 3, 0, 4, true);
+        model.sum(xs, "<=", 5).post();
+        model.linearRelaxation(0, false);
+    }
+}
@@ -1076,4 +1076,98 @@ public class IntLinCombTest {
         model.getSolver().findAllSolutions();
         Assert.assertEquals(model.getSolver().getSolutionCount(), 772);
     }
+
+    private static long[] scalarIncr(int seed, String op, boolean incr) {
+        Random rnd = new Random(seed);
+        Model model = new Model(new DefaultSettings().setEnableIncrementalityOnSum(i -> incr));
+        int n = 4 + rnd.nextInt(4);
+        IntVar[] vars = model.intVarArray("x", n, -2, 3, true);
+        int[] coeffs = new int[n];
+        for (int i = 0; i < n; i++) {
+            coeffs[i] = (rnd.nextInt(5) + 1) * (rnd.nextBoolean() ? 1 : -1);
+        }
+        Constraint c = model.scalar(vars, coeffs, op, rnd.nextInt(7) - 3);
+        Assert.assertEquals(c.getPropagator(0) instanceof PropScalarIncr, incr);
+        c.post();
+        model.getSolver().setSearch(inputOrderLBSearch(vars));
+        model.getSolver().findAllSolutions();
+        return new long[]{model.getSolver().getSolutionCount(), model.getSolver().getNodeCount()};
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testScalarIncr() {
+        for (String op : new String[]{"=", "<=", ">=", "<", ">"}) {
+            for (int seed = 0; seed < 20; seed++) {
+                Assert.assertEquals(scalarIncr(seed, op, true), scalarIncr(seed, op, false), op + " " + seed);
+            }
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testScalarIncrReif() {
+        for (int seed = 0; seed < 20; seed++) {
+            long[] counts = new long[2];
+            for (int k = 0; k < 2; k++) {
+                boolean incr = k == 0;
+                Random rnd = new Random(seed);
+                Model model = new Model(new DefaultSettings().setEnableIncrementalityOnSum(i -> incr));
+                IntVar[] vars = model.intVarArray("x", 5, 0, 3, false);
+                BoolVar b1 = model.sum(vars, "=", rnd.nextInt(10)).reify();
+                BoolVar b2 = model.scalar(vars, new int[]{1, -2, 3, -1, 2}, "<=", rnd.nextInt(6)).reify();
+                model.arithm(b1, "!=", b2).post();
+                counts[k] = model.getSolver().streamSolutions().count();
+            }
+            Assert.assertEquals(counts[0], counts[1], "seed " + seed);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testScalarIncrOverflow() throws ContradictionException {
+        // sums exceed Integer.MAX_VALUE
+        Model model = new Model(new DefaultSettings().setEnableIncrementalityOnSum(i -> true));
+        IntVar[] vars = model.intVarArray("x", 3, 0, 30000, true);
+        model.scalar(vars, new int[]{50000, 50000, 50000}, ">=", 2_000_000_000).post();
+        model.arithm(vars[1], "<=", 5000).post();
+        model.getSolver().propagate();
+        Assert.assertEquals(vars[0].getLB(), 5000);
+        Assert.assertEquals(vars[2].getLB(), 5000);
+        vars[0].updateUpperBound(5000, Cause.Null);
+        model.getSolver().propagate();
+        Assert.assertEquals(vars[2].getLB(), 30000);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testScalarIncrOppositeOverflow() throws ContradictionException {
+        // the opposite of a sum bounded by Integer.MAX_VALUE
+        Model model = new Model(new DefaultSettings().setEnableIncrementalityOnSum(i -> true));
+        IntVar[] vars = model.intVarArray("x", 3, 0, 30000, true);
+        BoolVar b = new SumConstraint(new PropScalarIncr(vars, new int[]{50000, 50000, 50000}, 3, Operator.LE, Integer.MAX_VALUE)).reify();
+        model.arithm(vars[1], "<=", 20000).post();
+        model.arithm(vars[2], "<=", 20000).post();
+        model.getSolver().propagate();
+        b.setToFalse(Cause.Null);
+        model.getSolver().propagate();
+        Assert.assertEquals(vars[0].getLB(), 2950);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testScalarIncrLarge() {
+        // 200 variables, one modified at a time
+        long[] counts = new long[2];
+        for (int k = 0; k < 2; k++) {
+            boolean incr = k == 0;
+            Model model = new Model(new DefaultSettings().setEnableIncrementalityOnSum(i -> incr));
+            IntVar[] vars = model.intVarArray("x", 200, 0, 3, false);
+            int[] coeffs = new int[200];
+            for (int i = 0; i < 200; i++) {
+                coeffs[i] = i % 3 == 0 ? -(i % 7 + 1) : i % 5 + 1;
+            }
+            model.scalar(vars, coeffs, "=", 123).post();
+            model.allDifferent(vars[0], vars[1], vars[2], vars[3]).post();
+            model.getSolver().setSearch(inputOrderLBSearch(vars));
+            model.getSolver().limitSolution(50);
+            counts[k] = model.getSolver().streamSolutions().count() + model.getSolver().getNodeCount();
+        }
+        Assert.assertEquals(counts[0], counts[1]);
+    }
 }
@@ -0,0 +1,137 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.real;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.util.tools.RealUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Tests for the pure-Java HC4 propagator, {@link PropEquation}.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class PropEquationTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSquare() {
+        Model model = new Model();
+        RealVar x = model.realVar("x", 0., 5., 1.e-6);
+        x.pow(2).eq(2.).equation().post();
+        Solver solver = model.getSolver();
+        solver.setSearch(Search.realVarSearch(x));
+        Assert.assertTrue(solver.solve());
+        Assert.assertTrue(x.getLB() <= Math.sqrt(2.));
+        Assert.assertTrue(x.getUB() >= Math.sqrt(2.));
+        Assert.assertEquals(x.getLB(), Math.sqrt(2.), 1.e-5);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSystem() {
+        Model model = new Model();
+        RealVar x = model.realVar("x", -10., 10., 1.e-4);
+        RealVar y = model.realVar("y", -10., 10., 1.e-4);
+        x.add(y).eq(1.).equation().post();
+        x.sub(y).ge(.5).equation().post();
+        Solver solver = model.getSolver();
+        solver.setSearch(Search.realVarSearch(x, y));
+        Assert.assertTrue(solver.solve());
+        Assert.assertEquals(x.getLB() + y.getLB(), 1., 1.e-3);
+        Assert.assertTrue(x.getUB() - y.getLB() >= .5 - 1.e-3);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testInequality() throws ContradictionException {
+        Model model = new Model();
+        RealVar x = model.realVar("x", 0., 10., 1.e-4);
+        RealVar y = model.realVar("y", 0., 10., 1.e-4);
+        x.mul(y).le(4.).equation().post();
+        y.ge(2.).equation().post();
+        model.getSolver().propagate();
+        Assert.assertEquals(y.getLB(), 2., 1.e-6);
+        Assert.assertTrue(x.getUB() >= 2.);
+        Assert.assertEquals(x.getUB(), 2., 1.e-6);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFail() {
+        Model model = new Model();
+        RealVar x = model.realVar("x", 0., 1., 1.e-4);
+        x.exp().eq(5.).equation().post();
+        Assert.assertFalse(model.getSolver().solve());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBox() throws ContradictionException {
+        // with HC4 only, the two occurrences of x are projected independently
+        Model model = new Model();
+        RealVar x = model.realVar("x", -10., 10., 1.e-4);
+        x.mul(x).sub(x).eq(2.).equation(false).post();
+        model.getSolver().propagate();
+        double w1 = x.getUB() - x.getLB();
+
+        model = new Model();
+        x = model.realVar("x", -10., 10., 1.e-4);
+        x.mul(x).sub(x).eq(2.).equation(true).post();
+        model.getSolver().propagate();
+        double w2 = x.getUB() - x.getLB();
+        Assert.assertTrue(w2 <= w1);
+        Assert.assertTrue(x.getLB() <= -1.);
+        Assert.assertTrue(x.getUB() >= 2.);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNoIbex() {
+        Model model = new Model();
+        RealVar x = model.realVar("x", 0., 5., 1.e-2);
+        RealVar y = model.realVar("y", 0., 5., 1.e-2);
+        x.sqrt().add(y.ln()).eq(1.).equation().post();
+        x.min(y).ge(1.).equation().post();
+        Solver solver = model.getSolver();
+        solver.setSearch(Search.realVarSearch(x, y));
+        Assert.assertTrue(solver.solve());
+        Assert.assertEquals(Math.sqrt(x.getLB()) + Math.log(y.getLB()), 1., 1.e-1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testUnsupported() {
+        Model model = new Model();
+        RealVar x = model.realVar("x", 0., 1., 1.e-4);
+        x.tan().eq(.5).equation();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOutwardRounding() {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 10000; k++) {
+            double al = rnd.nextDouble() * 20 - 10, au = al + rnd.nextDouble() * 5;
+            double bl = rnd.nextDouble() * 20 - 10, bu = bl + rnd.nextDouble() * 5;
+            double a = al + (au - al) * rnd.nextDouble();
+            double b = bl + (bu - bl) * rnd.nextDouble();
+            Assert.assertTrue(RealUtils.addLB(al, bl) <= a + b && a + b <= RealUtils.addUB(au, bu));
+            Assert.assertTrue(RealUtils.subLB(al, bu) <= a - b && a - b <= RealUtils.subUB(au, bl));
+            Assert.assertTrue(RealUtils.mulLB(al, au, bl, bu) <= a * b && a * b <= RealUtils.mulUB(al, au, bl, bu));
+            Assert.assertTrue(RealUtils.divLB(al, au, bl, bu) <= a / b && a / b <= RealUtils.divUB(al, au, bl, bu));
+            Assert.assertTrue(RealUtils.powLB(al, au, 3) <= Math.pow(a, 3) && Math.pow(a, 3) <= RealUtils.powUB(al, au, 3));
+            Assert.assertTrue(RealUtils.cosLB(al, au) <= Math.cos(a) && Math.cos(a) <= RealUtils.cosUB(al, au));
+            Assert.assertTrue(RealUtils.sinLB(al, au) <= Math.sin(a) && Math.sin(a) <= RealUtils.sinUB(al, au));
+        }
+    }
+}
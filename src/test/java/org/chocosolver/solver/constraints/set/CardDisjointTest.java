@@ -0,0 +1,127 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.SetVar;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests for set variables with a cardinality, see {@link PropCardDisjoint}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class CardDisjointTest {
+
+    private static final int[] UB = {0, 1, 2, 3, 4, 5, 6, 7};
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = ContradictionException.class)
+    public void testAllDisjointFails() throws ContradictionException {
+        Model model = new Model();
+        SetVar[] sets = model.setVarArray("s", 3, new int[]{}, new int[]{0, 1, 2, 3, 4}, 2, 5);
+        model.allDisjoint(sets).post();
+        model.getSolver().propagate();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testAllDisjointForces() throws ContradictionException {
+        Model model = new Model();
+        SetVar a = model.setVar("a", new int[]{}, new int[]{0, 1, 2}, 2, 2);
+        SetVar b = model.setVar("b", new int[]{}, new int[]{2, 3}, 2, 2);
+        model.allDisjoint(a, b).post();
+        model.getSolver().propagate();
+        // 4 elements for 4 slots: 0, 1 are in a, 3 is in b, hence 2 is in b
+        assertTrue(a.isInstantiated());
+        assertTrue(b.isInstantiated());
+        assertEquals(a.getValue().toArray(), new int[]{0, 1});
+        assertEquals(b.getValue().toArray(), new int[]{2, 3});
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCardinalities() throws ContradictionException {
+        Model model = new Model();
+        SetVar x = model.setVar("x", new int[]{}, UB, 0, 8);
+        SetVar y = model.setVar("y", new int[]{}, UB, 3, 8);
+        SetVar u = model.setVar("u", new int[]{}, UB, 0, 5);
+        SetVar i = model.setVar("i", new int[]{}, UB, 2, 8);
+        model.subsetEq(y, x).post();
+        model.union(new SetVar[]{x, y}, u).post();
+        model.intersection(new SetVar[]{x, y}, i).post();
+        model.getSolver().propagate();
+        assertEquals(x.getCard().getLB(), 3);
+        assertEquals(x.getCard().getUB(), 5);
+        assertEquals(y.getCard().getUB(), 5);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNoCardCreated() throws ContradictionException {
+        // only the cardinalities which exist are linked
+        Model model = new Model();
+        SetVar x = model.setVar("x", new int[]{}, UB);
+        SetVar y = model.setVar("y", new int[]{}, UB, 6, 8);
+        SetVar u = model.setVar("u", new int[]{}, UB);
+        SetVar i = model.setVar("i", new int[]{}, UB);
+        int nbVars = model.getNbVars(), nbCstrs = model.getNbCstrs();
+        model.union(new SetVar[]{x, y}, u).post();
+        model.intersection(new SetVar[]{x, y}, i).post();
+        model.subsetEq(x, y, u).post();
+        model.allDisjoint(x, i).post();
+        assertEquals(model.getNbVars(), nbVars);
+        assertEquals(model.getNbCstrs(), nbCstrs + 4);
+        assertFalse(x.hasCard());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPartitionWithoutCard() throws ContradictionException {
+        Model model = new Model();
+        SetVar x = model.setVar("x", new int[]{0, 1}, UB);
+        SetVar y = model.setVar("y", new int[]{}, UB, 3, 8);
+        model.partition(new SetVar[]{x, y}, model.setVar(UB)).post();
+        model.getSolver().propagate();
+        // the kernel of x bounds its cardinality
+        assertEquals(y.getCard().getUB(), 6);
+        assertFalse(x.hasCard());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPartition() {
+        // partition of 8 elements into 3 groups of 2 to 3 elements
+        long[] plain = partition(false);
+        long[] card = partition(true);
+        assertEquals(card[0], plain[0]);
+        assertTrue(card[0] > 0);
+        assertTrue(card[1] <= plain[1]);
+    }
+
+    private static long[] partition(boolean withCard) {
+        Model model = new Model();
+        SetVar[] sets;
+        if (withCard) {
+            sets = model.setVarArray("s", 3, new int[]{}, UB, 2, 3);
+        } else {
+            sets = model.setVarArray("s", 3, new int[]{}, UB);
+        }
+        SetVar universe = model.setVar(UB);
+        model.partition(sets, universe).post();
+        if (!withCard) {
+            for (SetVar s : sets) {
+                model.arithm(s.getCard(), ">=", 2).post();
+                model.arithm(s.getCard(), "<=", 3).post();
+            }
+        }
+        Solver solver = model.getSolver();
+        while (solver.solve()) ;
+        return new long[]{solver.getSolutionCount(), solver.getNodeCount()};
+    }
+}
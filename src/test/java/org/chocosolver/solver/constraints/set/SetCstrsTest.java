@@ -14,6 +14,8 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.impl.SetVarImpl;
+import org.chocosolver.util.objects.setDataStructures.SetType;
 import org.testng.annotations.Test;
 
 import static java.lang.System.out;
@@ -97,4 +99,26 @@ public class SetCstrsTest {
 			case "allEqual":return x.getModel().allEqual(x, y);
 		}
 	}
+
+	@Test(groups="1s", timeOut=60000)
+	public static void testCompressedBitset() {
+		// same solutions with compressed and plain bitsets, values spread over several chunks
+		assertEquals(unionInterSubset(SetType.COMPRESSED_BITSET), unionInterSubset(SetType.BITSET));
+	}
+
+	private static long unionInterSubset(SetType type) {
+		Model s = new Model();
+		int[] ub = {-3, 0, 70000, 70001, 200000};
+		SetVar[] sets = new SetVar[3];
+		for (int i = 0; i < 3; i++) {
+			sets[i] = new SetVarImpl("s" + i, new int[]{}, type, ub, type, s);
+		}
+		SetVar union = new SetVarImpl("u", new int[]{70000}, type, ub, type, s);
+		SetVar inter = new SetVarImpl("i", new int[]{}, type, ub, type, s);
+		s.union(new SetVar[]{sets[0], sets[1]}, union).post();
+		s.intersection(new SetVar[]{sets[1], sets[2]}, inter).post();
+		s.subsetEq(sets[2], sets[0]).post();
+		while (s.getSolver().solve()) ;
+		return s.getSolver().getSolutionCount();
+	}
 }
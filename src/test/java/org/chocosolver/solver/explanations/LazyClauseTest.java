@@ -0,0 +1,193 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.explanations;
+
+import org.chocosolver.sat.PropNogoods;
+import org.chocosolver.solver.DefaultSettings;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.loop.learn.LearnLazyClause;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Task;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * Tests for {@link LearnLazyClause}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class LazyClauseTest {
+
+    private static Model arithm(int seed) {
+        Random rnd = new Random(seed);
+        Model model = new Model();
+        IntVar[] xs = model.intVarArray("x", 6, 0, 5, false);
+        for (int k = 0; k < 8; k++) {
+            int i = rnd.nextInt(6), j = rnd.nextInt(6);
+            if (i != j) {
+                model.arithm(xs[i], rnd.nextBoolean() ? "!=" : "<=", xs[j], "+", rnd.nextInt(3) - 1).post();
+            }
+        }
+        model.sum(new IntVar[]{xs[0], xs[1], xs[2]}, "<=", xs[3]).post();
+        model.getSolver().setSearch(randomSearch(xs, seed));
+        return model;
+    }
+
+    private static Model globals(int seed) {
+        return globals(seed, new DefaultSettings());
+    }
+
+    private static Model globals(int seed, Settings settings) {
+        Random rnd = new Random(seed);
+        Model model = new Model(settings);
+        IntVar[] xs = model.intVarArray("x", 5, 0, 5, false);
+        IntVar idx = model.intVar("i", 0, 4, false);
+        IntVar val = model.intVar("v", 0, 5, false);
+        int[] table = new int[5];
+        for (int k = 0; k < 5; k++) {
+            table[k] = rnd.nextInt(6);
+        }
+        model.allDifferent(xs).post();
+        model.element(val, table, idx).post();
+        model.arithm(val, "<=", xs[0]).post();
+        model.scalar(xs, new int[]{1, 2, 1, 2, 1}, ">=", 10 + rnd.nextInt(10)).post();
+        model.getSolver().setSearch(randomSearch(new IntVar[]{xs[0], xs[1], xs[2], xs[3], xs[4], idx, val}, seed));
+        return model;
+    }
+
+    private static Model cumulative(int seed) {
+        Random rnd = new Random(seed);
+        Model model = new Model();
+        int n = 4;
+        IntVar[] starts = model.intVarArray("s", n, 0, 6, false);
+        Task[] tasks = new Task[n];
+        IntVar[] heights = new IntVar[n];
+        for (int k = 0; k < n; k++) {
+            int d = 1 + rnd.nextInt(3);
+            tasks[k] = new Task(starts[k], model.intVar(d), model.intVar("e" + k, d, 6 + d, false));
+            heights[k] = model.intVar(1 + rnd.nextInt(2));
+        }
+        model.cumulative(tasks, heights, model.intVar(2)).post();
+        model.getSolver().setSearch(inputOrderLBSearch(starts));
+        return model;
+    }
+
+    private static long count(Model model, boolean learn) {
+        Solver solver = model.getSolver();
+        if (learn) {
+            solver.setLazyClauseLearning();
+        }
+        return solver.streamSolutions().count();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testArithm() {
+        for (int seed = 0; seed < 20; seed++) {
+            Assert.assertEquals(count(arithm(seed), true), count(arithm(seed), false), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testGlobals() {
+        for (int seed = 0; seed < 20; seed++) {
+            Assert.assertEquals(count(globals(seed), true), count(globals(seed), false), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCumulative() {
+        for (int seed = 0; seed < 10; seed++) {
+            Assert.assertEquals(count(cumulative(seed), true), count(cumulative(seed), false), "seed " + seed);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPigeons() {
+        for (int n = 4; n < 8; n++) {
+            Model model = new Model();
+            IntVar[] xs = model.intVarArray("x", n, 0, n - 2, false);
+            for (int i = 0; i < n - 1; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    model.arithm(xs[i], "!=", xs[j]).post();
+                }
+            }
+            Solver solver = model.getSolver();
+            solver.setSearch(inputOrderLBSearch(xs));
+            solver.setLazyClauseLearning();
+            Assert.assertFalse(solver.solve());
+            Assert.assertTrue(((LearnLazyClause) solver.getLearner()).getNbClauses() > 0);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBounds() {
+        // x + y >= 8 and x, y <= 4 force x = 4, then z >= x contradicts z < 4
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 9, true);
+        IntVar y = model.intVar("y", 0, 9, true);
+        IntVar z = model.intVar("z", 0, 9, true);
+        model.sum(new IntVar[]{x, y}, ">=", 8).post();
+        model.arithm(x, "<=", 4).post();
+        model.arithm(y, "<=", 4).post();
+        model.arithm(z, ">=", x).post();
+        model.arithm(z, "<", 4).post();
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(z, x, y));
+        solver.setLazyClauseLearning();
+        Assert.assertFalse(solver.solve());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testReduction() {
+        for (int seed = 0; seed < 10; seed++) {
+            // same model, with a tiny nogood store
+            Model small = globals(seed, new DefaultSettings()
+                    .setMaxLearntClauses(5).setLearntClausesIncrement(1).setMaxLBDToKeep(0));
+            Assert.assertEquals(count(small, true), count(globals(seed), false), "seed " + seed);
+            PropNogoods ng = small.getNogoodStore().getPropNogoods();
+            if (((LearnLazyClause) small.getSolver().getLearner()).getNbClauses() > 5) {
+                Assert.assertTrue(ng.getNbReductions() > 0);
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBackjump() {
+        // the conflicts on z do not depend on x, decided in between
+        Model model = new Model();
+        IntVar[] xs = model.intVarArray("x", 4, 0, 1, false);
+        IntVar[] zs = model.intVarArray("z", 4, 0, 2, false);
+        for (int i = 0; i < zs.length; i++) {
+            for (int j = i + 1; j < zs.length; j++) {
+                model.arithm(zs[i], "!=", zs[j]).post();
+            }
+        }
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(zs[0], xs[0], xs[1], xs[2], xs[3], zs[1], zs[2], zs[3]));
+        solver.setLazyClauseLearning();
+        Assert.assertFalse(solver.solve());
+        Assert.assertTrue(((LearnLazyClause) solver.getLearner()).getNbBackjumps() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBackjumpCount() {
+        for (int seed = 0; seed < 20; seed++) {
+            Model model = arithm(seed);
+            Assert.assertEquals(count(model, true), count(arithm(seed), false), "seed " + seed);
+        }
+    }
+}
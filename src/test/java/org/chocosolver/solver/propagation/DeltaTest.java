@@ -20,6 +20,7 @@ import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.solver.variables.delta.EnumDelta;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.IntList;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -124,6 +125,24 @@ public class DeltaTest {
         }
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testBulk() {
+        for (int k = 0; k < 20; k++) {
+            Model s = new Model();
+            final IntVar[] vars = {
+                    s.intVar("e", -3, 3, false),
+                    s.intVar("b", -3, 3, true),
+                    s.boolVar("o"),
+                    s.intMinusView(s.intVar("v", -3, 3, false))
+            };
+            s.getSolver().setSearch(randomSearch(vars, k));
+            new Constraint("Constraint", new PropTestDM3(vars), new PropTestDM2(vars[0], vars[1])).post();
+            s.allDifferent(vars[0], vars[3]).post();
+            while (s.getSolver().solve()) ;
+            Assert.assertTrue(s.getSolver().getSolutionCount() > 0);
+        }
+    }
+
     private static class PropTestDM1 extends Propagator<IntVar> {
         IntVar i, j;
         IIntDeltaMonitor iD;
@@ -170,6 +189,48 @@ public class DeltaTest {
         }
     }
 
+    /**
+     * Checks that removed values collected in bulk are the ones iterated over one by one
+     */
+    private static class PropTestDM3 extends Propagator<IntVar> {
+        IIntDeltaMonitor[] monitors;
+        IntList expected = new IntList(), collected = new IntList();
+
+        private PropTestDM3(IntVar[] vars) {
+            super(vars, PropagatorPriority.UNARY, true);
+            monitors = new IIntDeltaMonitor[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                monitors[i] = vars[i].monitorDelta(this);
+            }
+        }
+
+        @Override
+        public void propagate(int evtmask) throws ContradictionException {
+            for (IIntDeltaMonitor monitor : monitors) {
+                monitor.unfreeze();
+            }
+        }
+
+        @Override
+        public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+            monitors[idxVarInProp].freeze();
+            expected.clear();
+            monitors[idxVarInProp].forEachRemVal((IntProcedure) expected::add);
+            int n = monitors[idxVarInProp].collectRemVals(collected);
+            monitors[idxVarInProp].unfreeze();
+            Assert.assertEquals(n, expected.size());
+            Assert.assertEquals(collected.toArray(), expected.toArray());
+            for (int k = 0; k < n; k++) {
+                assertFalse(vars[idxVarInProp].contains(collected.get(k)));
+            }
+        }
+
+        @Override
+        public ESat isEntailed() {
+            return ESat.TRUE;
+        }
+    }
+
     private static class PropTestDM2 extends Propagator<IntVar> {
         IntVar i, j;
 
@@ -27,6 +27,9 @@ import static org.chocosolver.solver.constraints.PropagatorPriority.UNARY;
 import static org.chocosolver.solver.search.strategy.Search.minDomLBSearch;
 import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.chocosolver.solver.variables.events.IEventType.ALL_EVENTS;
+import static org.chocosolver.solver.variables.events.IntEventType.DECUPP;
+import static org.chocosolver.solver.variables.events.IntEventType.INCLOW;
+import static org.chocosolver.solver.variables.events.IntEventType.REMOVE;
 import static org.chocosolver.solver.variables.events.IntEventType.VOID;
 import static org.chocosolver.util.ESat.TRUE;
 import static org.chocosolver.util.ProblemMaker.makeNQueenWithBinaryConstraints;
@@ -209,4 +212,66 @@ public class PropEngineTest {
         solver.getEngine().clear();
         solver.reset(); // error (null)
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testEngineModes() {
+        int[] sizes = {8, 8, 7, 6, 3, 10};
+        for (int m = 0; m < PropagationEngineBenchmark.MODELS.length; m++) {
+            PropagationEngineBenchmark.Result ref = PropagationEngineBenchmark.solve(m, sizes[m], (byte) 0b00);
+            for (byte mode : PropagationEngineBenchmark.MODES) {
+                PropagationEngineBenchmark.Result res = PropagationEngineBenchmark.solve(m, sizes[m], mode);
+                assertEquals(res.solutions, ref.solutions, PropagationEngineBenchmark.MODELS[m] + ", mode " + mode);
+            }
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testHybridMergedEvents() throws ContradictionException {
+        Model model = new Model(new DefaultSettings().setHybridizationOfPropagationEngine((byte) 0b01));
+        IntVar x = model.intVar("x", 0, 10, false);
+        IntVar y = model.intVar("y", 0, 1, false);
+        // modifies x three times when y is instantiated
+        new Constraint("modifier", new Propagator<IntVar>(new IntVar[]{y, x}, UNARY, true) {
+            @Override
+            public void propagate(int evtmask) {
+            }
+
+            @Override
+            public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+                if (idxVarInProp == 0) {
+                    vars[1].removeValue(5, this);
+                    vars[1].updateUpperBound(8, this);
+                    vars[1].updateLowerBound(2, this);
+                }
+            }
+
+            @Override
+            public ESat isEntailed() {
+                return TRUE;
+            }
+        }).post();
+        int[] calls = new int[2];
+        new Constraint("observer", new Propagator<IntVar>(new IntVar[]{x}, UNARY, true) {
+            @Override
+            public void propagate(int evtmask) {
+            }
+
+            @Override
+            public void propagate(int idxVarInProp, int mask) {
+                calls[0]++;
+                calls[1] |= mask;
+            }
+
+            @Override
+            public ESat isEntailed() {
+                return TRUE;
+            }
+        }).post();
+        model.getSolver().propagate();
+        y.instantiateTo(1, Null);
+        model.getSolver().propagate();
+        assertEquals(calls[0], 1);
+        assertEquals(calls[1], REMOVE.getMask() | INCLOW.getMask() | DECUPP.getMask());
+        assertEquals(x.getDomainSize(), 6);
+    }
 }
@@ -15,6 +15,7 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.limits.BacktrackCounter;
 import org.chocosolver.solver.search.loop.lns.INeighborFactory;
+import org.chocosolver.solver.search.loop.lns.neighbors.BanditNeighborhood;
 import org.chocosolver.solver.search.loop.lns.neighbors.ExplainingCut;
 import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
 import org.chocosolver.solver.search.loop.lns.neighbors.PropagationGuidedNeighborhood;
@@ -95,6 +96,16 @@ public class LNSTest {
                 r.setNoGoodRecordingFromRestarts();
                 r.setLNS(new RandomNeighborhood(objects, 200, 123456L));
                 break;
+            case 7:
+            case 8:
+            case 9:
+                r.setLNS(new BanditNeighborhood(model, BanditNeighborhood.Policy.values()[lns - 7],
+                        lns == 8 ? BanditNeighborhood.Reward.FAILS : BanditNeighborhood.Reward.TIME, 123456L,
+                        new PropagationGuidedNeighborhood(objects, 100, 10, 123456L),
+                        new ReversePropagationGuidedNeighborhood(objects, 100, 10, 123456L),
+                        new RandomNeighborhood(objects, 200, 123456L)
+                ));
+                break;
         }
         model.setObjective(Model.MAXIMIZE, power);
         int bw = 0, bp = 0;
@@ -108,7 +119,7 @@ public class LNSTest {
 
     @DataProvider(name = "lns")
     public Object[][] createData() {
-        return new Object[][]{{0}, {1}, {2}, {3}, {4}, {5}, {6}};
+        return new Object[][]{{0}, {1}, {2}, {3}, {4}, {5}, {6}, {7}, {8}, {9}};
     }
 
 
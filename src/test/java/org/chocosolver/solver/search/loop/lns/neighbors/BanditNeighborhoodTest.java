@@ -0,0 +1,89 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.lns.neighbors;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class BanditNeighborhoodTest {
+
+    /**
+     * A neighbor which only counts its runs
+     */
+    private static class Dummy implements INeighbor {
+        int runs;
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void recordSolution() {
+        }
+
+        @Override
+        public void fixSomeVariables(DecisionPath decisionPath) {
+            runs++;
+        }
+
+        @Override
+        public void restrictLess() {
+        }
+
+        @Override
+        public boolean isSearchComplete() {
+            return false;
+        }
+
+        @Override
+        public void loadFromSolution(Solution solution) {
+        }
+    }
+
+    @DataProvider(name = "policies")
+    public Object[][] policies() {
+        return new Object[][]{{BanditNeighborhood.Policy.UCB1}, {BanditNeighborhood.Policy.THOMPSON}, {BanditNeighborhood.Policy.EXP3}};
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "policies")
+    public void testBestArm(BanditNeighborhood.Policy policy) {
+        Model model = new Model();
+        Dummy[] arms = {new Dummy(), new Dummy(), new Dummy()};
+        BanditNeighborhood bandit = new BanditNeighborhood(model, policy, BanditNeighborhood.Reward.FAILS, 0, arms);
+        bandit.init();
+        DecisionPath dp = model.getSolver().getDecisionPath();
+        int n = 500;
+        for (int k = 0; k < n; k++) {
+            int before = arms[1].runs;
+            bandit.fixSomeVariables(dp);
+            if (arms[1].runs > before) {
+                // only the second arm finds solutions
+                bandit.recordSolution();
+            }
+        }
+        Assert.assertEquals(arms[0].runs + arms[1].runs + arms[2].runs, n);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(bandit.getNbSelections(i), arms[i].runs);
+            Assert.assertEquals(bandit.getFailCount(i), 0);
+        }
+        Assert.assertTrue(arms[1].runs > 3 * n / 4, bandit.toString());
+        Assert.assertEquals(bandit.getImprovement(0), 0.);
+        Assert.assertEquals(bandit.getAverageReward(1), 1., 1e-9);
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.monitors;
+
+import com.github.cpprofiler.Connector;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests for {@link SearchTreeRecorder} and {@link SearchTreeTrace}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class SearchTreeRecorderTest {
+
+    private static int count(SearchTreeTrace trace, Connector.NodeStatus status) {
+        int c = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            if (trace.getStatus(i) == status) {
+                c++;
+            }
+        }
+        return c;
+    }
+
+    private static void record(int capacity) throws IOException {
+        Path file = Files.createTempFile("choco", ".trace");
+        try {
+            Model model = ProblemMaker.makeCostasArrays(7);
+            Solver solver = model.getSolver();
+            long nodes;
+            try (SearchTreeRecorder recorder = new SearchTreeRecorder(model, file, capacity)) {
+                while (solver.solve()) ;
+                nodes = recorder.getNbRecords();
+            }
+            SearchTreeTrace trace = SearchTreeTrace.read(file);
+            Assert.assertEquals(trace.size(), nodes);
+            Assert.assertEquals(trace.getName(), model.getName());
+            Assert.assertEquals(trace.getId(0), 0);
+            Assert.assertEquals(trace.getParentId(0), -1);
+            Assert.assertEquals(trace.getLabel(0), "ROOT");
+            Assert.assertEquals(count(trace, Connector.NodeStatus.SOLVED), solver.getSolutionCount());
+            Assert.assertEquals(count(trace, Connector.NodeStatus.FAILED), solver.getFailCount());
+            int children = 0;
+            for (int i = 0; i < trace.size(); i++) {
+                if (i > 0) {
+                    Assert.assertTrue(trace.getParentId(i) < trace.getId(i));
+                    Assert.assertNotEquals(trace.getLabel(i), "ROOT");
+                }
+                children += trace.getNbChildren(i);
+            }
+            // each node but the root is a child of another one
+            Assert.assertEquals(children, trace.size() - 1);
+            StringWriter json = new StringWriter();
+            trace.toJSON(json);
+            Assert.assertTrue(json.toString().startsWith("{\"name\":\"" + model.getName() + "\",\"nodes\":[{\"id\":0,\"pid\":-1"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCostas() throws IOException {
+        record(1 << 16);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSmallRing() throws IOException {
+        record(4);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRestarts() throws IOException {
+        Path file = Files.createTempFile("choco", ".trace");
+        try {
+            Model model = ProblemMaker.makeCostasArrays(7);
+            Solver solver = model.getSolver();
+            solver.setLubyRestart(4, new FailCounter(model, 0), 100);
+            solver.setNoGoodRecordingFromRestarts();
+            solver.limitSolution(10);
+            try (SearchTreeRecorder recorder = new SearchTreeRecorder(model, file)) {
+                while (solver.solve()) ;
+            }
+            SearchTreeTrace trace = SearchTreeTrace.read(file);
+            Assert.assertEquals(count(trace, Connector.NodeStatus.SOLVED), solver.getSolutionCount());
+            Assert.assertTrue(trace.getRestartId(trace.size() - 1) > 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
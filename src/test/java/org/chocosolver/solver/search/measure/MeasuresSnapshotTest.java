@@ -0,0 +1,99 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.measure;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.SearchState;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests for {@link MeasuresRecorder#getSnapshot()}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class MeasuresSnapshotTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStates() {
+        Model model = ProblemMaker.makeCostasArrays(7);
+        Solver solver = model.getSolver();
+        IMeasures s0 = solver.getMeasures().getSnapshot();
+        Assert.assertEquals(s0.getSearchState(), SearchState.NEW);
+        Assert.assertEquals(s0.getNodeCount(), 0);
+        while (solver.solve()) ;
+        IMeasures s1 = solver.getMeasures().getSnapshot();
+        Assert.assertEquals(s1.getSearchState(), SearchState.TERMINATED);
+        Assert.assertEquals(s1.getSolutionCount(), solver.getSolutionCount());
+        Assert.assertEquals(s1.getNodeCount(), solver.getNodeCount());
+        Assert.assertEquals(s1.getFailCount(), solver.getFailCount());
+        Assert.assertEquals(s1.getBackTrackCount(), solver.getBackTrackCount());
+        // snapshots are immutable
+        Assert.assertEquals(s0.getNodeCount(), 0);
+        solver.reset();
+        Assert.assertEquals(solver.getMeasures().getSnapshot().getNodeCount(), 0);
+        Assert.assertTrue(s1.getNodeCount() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testObjective() {
+        Model model = new Model();
+        IntVar[] xs = model.intVarArray("x", 6, 0, 5);
+        IntVar sum = model.intVar("s", 0, 30);
+        model.allDifferent(xs).post();
+        model.sum(xs, "=", sum).post();
+        model.setObjective(Model.MAXIMIZE, sum);
+        Solver solver = model.getSolver();
+        while (solver.solve()) ;
+        IMeasures s = solver.getMeasures().getSnapshot();
+        Assert.assertTrue(s.hasObjective());
+        Assert.assertEquals(s.getBestSolutionValue().intValue(), 15);
+        Assert.assertTrue(s.toOneLineString().contains("MAXIMIZE s = 15"));
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testConcurrentReads() throws InterruptedException {
+        Model model = ProblemMaker.makeCostasArrays(9);
+        Solver solver = model.getSolver();
+        MeasuresRecorder measures = solver.getMeasures();
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            IMeasures prev = measures.getSnapshot();
+            int fresh = 0;
+            while (prev.getSearchState() != SearchState.TERMINATED && error.get() == null) {
+                IMeasures cur = measures.getSnapshot();
+                if (cur != prev) {
+                    fresh++;
+                    // a search node is either a decision or a solution, every failure is followed by a backtrack
+                    if (cur.getNodeCount() < prev.getNodeCount()
+                            || cur.getFailCount() < prev.getFailCount()
+                            || cur.getDecisionCount() < 0
+                            || cur.getBackTrackCount() > cur.getNodeCount() + cur.getFailCount()) {
+                        error.set("inconsistent snapshot " + cur.toOneLineString());
+                    }
+                }
+                prev = cur;
+                Thread.yield();
+            }
+            if (fresh == 0) {
+                error.set("no snapshot published");
+            }
+        });
+        reader.start();
+        while (solver.solve()) ;
+        reader.join();
+        Assert.assertNull(error.get());
+    }
+}
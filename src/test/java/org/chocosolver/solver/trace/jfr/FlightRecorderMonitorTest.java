@@ -0,0 +1,85 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.trace.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tests for {@link FlightRecorderMonitor}.
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class FlightRecorderMonitorTest {
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).count();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testEvents() throws IOException {
+        Assert.assertTrue(FlightRecorderMonitor.isAvailable());
+        Model model = ProblemMaker.makeCostasArrays(7);
+        Solver solver = model.getSolver();
+        solver.setLubyRestart(4, new FailCounter(model, 0), 100);
+        solver.setNoGoodRecordingFromRestarts();
+        solver.limitSolution(5);
+        solver.emitFlightRecorderEvents();
+        Path file = Files.createTempFile("choco", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(SolutionEvent.class);
+                recording.enable(RestartEvent.class);
+                recording.enable(FixpointEvent.class).withThreshold(Duration.ZERO);
+                recording.enable(PropagatorEvent.class).withThreshold(Duration.ZERO);
+                recording.start();
+                while (solver.solve()) ;
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Assert.assertEquals(count(events, "org.chocosolver.Solution"), solver.getSolutionCount());
+            Assert.assertEquals(count(events, "org.chocosolver.Restart"), solver.getRestartCount());
+            Assert.assertTrue(count(events, "org.chocosolver.Fixpoint") > solver.getNodeCount());
+            Assert.assertTrue(count(events, "org.chocosolver.Propagator") > 0);
+            long failed = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("org.chocosolver.Fixpoint"))
+                    .filter(e -> e.getBoolean("failed")).count();
+            Assert.assertEquals(failed, solver.getFailCount());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNoRecording() {
+        Model ref = ProblemMaker.makeCostasArrays(7);
+        while (ref.getSolver().solve()) ;
+        Model model = ProblemMaker.makeCostasArrays(7);
+        Solver solver = model.getSolver();
+        solver.emitFlightRecorderEvents();
+        while (solver.solve()) ;
+        Assert.assertEquals(solver.getSolutionCount(), ref.getSolver().getSolutionCount());
+        Assert.assertEquals(solver.getNodeCount(), ref.getSolver().getNodeCount());
+    }
+}
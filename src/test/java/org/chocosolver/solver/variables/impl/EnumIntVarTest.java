@@ -11,12 +11,17 @@ package org.chocosolver.solver.variables.impl;
 import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSet;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -86,6 +91,94 @@ public class EnumIntVarTest extends IntVarTest {
         enumDomainNotIn(2, 3);
     }
 
+    //------------------------------------
+    //-------   Word-level API  ----------
+    //------------------------------------
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testRemoveValuesWordsInner() throws ContradictionException {
+        assertTrue(var.removeValues(new long[]{0b1100L}, 0, Cause.Null));
+        enumDomainIn(1, 4);
+        enumDomainNotIn(2, 3);
+        assertFalse(var.removeValues(new long[]{0b1100L}, 0, Cause.Null));
+    }
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testRemoveValuesButWordsInner() throws ContradictionException {
+        assertTrue(var.removeAllValuesBut(new long[]{0b1001L}, 1, Cause.Null));
+        enumDomainIn(1, 4);
+        enumDomainNotIn(2, 3);
+        assertEquals(var.getDomainSize(), 2);
+    }
+
+    @Test(groups = "1s", timeOut=60000, expectedExceptions = ContradictionException.class)
+    public void testRemoveValuesButWordsEmpty() throws ContradictionException {
+        var.removeAllValuesBut(new long[]{0b1L}, 10, Cause.Null);
+    }
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testDomainWord() throws ContradictionException {
+        var.removeValue(3, Cause.Null);
+        assertEquals(var.getDomainWord(0), 0b10110L);
+        assertEquals(var.getDomainWord(2), 0b101L);
+        assertEquals(var.getDomainWord(-62), 1L << 63);
+        assertEquals(var.getDomainWord(5), 0L);
+    }
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testWordsRandom() throws ContradictionException {
+        for (int seed = 0; seed < 50; seed++) {
+            Random rnd = new Random(seed);
+            Model model = new Model();
+            IntVar x = model.intVar("x", -70, 150, false);
+            // a view relies on the default implementation
+            IntVar y = model.intOffsetView(model.intVar("y", -70, 150, false), 0);
+            BitSet expected = new BitSet();
+            expected.set(0, 221);
+            model.getEnvironment().worldPush();
+            for (int k = 0; k < 8 && expected.cardinality() > 1; k++) {
+                long[] words = new long[1 + rnd.nextInt(4)];
+                for (int w = 0; w < words.length; w++) {
+                    words[w] = rnd.nextLong() | rnd.nextLong();
+                }
+                int offset = -100 + rnd.nextInt(250);
+                BitSet bits = new BitSet();
+                for (int i = 0; i < words.length * 64; i++) {
+                    if ((words[i >> 6] & (1L << i)) != 0 && offset + i + 70 >= 0) {
+                        bits.set(offset + i + 70);
+                    }
+                }
+                BitSet next = (BitSet) expected.clone();
+                boolean keep = rnd.nextBoolean();
+                if (keep) {
+                    next.and(bits);
+                } else {
+                    next.andNot(bits);
+                }
+                if (next.isEmpty()) {
+                    continue;
+                }
+                boolean changed = !next.equals(expected);
+                expected = next;
+                for (IntVar v : new IntVar[]{x, y}) {
+                    assertEquals(keep ? v.removeAllValuesBut(words, offset, Cause.Null)
+                            : v.removeValues(words, offset, Cause.Null), changed);
+                    assertEquals(v.getDomainSize(), expected.cardinality());
+                    assertEquals(v.getLB(), expected.nextSetBit(0) - 70);
+                    assertEquals(v.getUB(), expected.previousSetBit(220) - 70);
+                    for (int i = -70; i <= 150; i++) {
+                        assertEquals(v.contains(i), expected.get(i + 70));
+                    }
+                    for (int from = -140; from <= 150; from += 13) {
+                        assertEquals(v.getDomainWord(from), x.getDomainWord(from));
+                    }
+                }
+            }
+            model.getEnvironment().worldPop();
+            assertEquals(x.getDomainSize(), 221);
+        }
+    }
+
     //------------------------------------
     //----------- Utilities  -------------
     //------------------------------------
@@ -10,13 +10,19 @@ package org.chocosolver.util;
 
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.constraints.extension.nary.PropLargeMDDC;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.graphs.LayeredGraph;
 import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 
 /**
  * Created by cprudhom on 04/11/14.
@@ -201,4 +207,76 @@ public class MDDTest {
         Assert.assertEquals(mdd.getDiagram(), new int[]{3, 3, 11, 0, 0, 6, 0, 0, -1, 0, 0, 6, 0, 0});
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testReduceLarge() {
+        // the cartesian product of the domains is too large for the isomorphism detection
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("X", 8, 0, 9, false);
+        Tuples tuples = new Tuples();
+        Random rnd = new Random(0);
+        for (int t = 0; t < 500; t++) {
+            int[] tuple = new int[8];
+            for (int i = 0; i < 8; i++) {
+                // the last layers only depend on the parity of the first one
+                tuple[i] = i < 4 ? rnd.nextInt(10) : (tuple[0] % 2) * 2 + (i % 2);
+            }
+            tuples.add(tuple);
+        }
+        MultivaluedDecisionDiagram reduced = new MultivaluedDecisionDiagram(vars, tuples);
+        MultivaluedDecisionDiagram raw = new MultivaluedDecisionDiagram(vars, tuples, false, false);
+        Assert.assertTrue(reduced.getDiagram().length < raw.getDiagram().length / 2);
+        for (int t = 0; t < tuples.nbTuples(); t++) {
+            Assert.assertTrue(reduced.exists(tuples.get(t)));
+        }
+        Assert.assertFalse(reduced.exists(1, 1, 1, 1, 0, 1, 0, 1));
+        // two nodes per layer from the 5th one: one per parity of the first value
+        LayeredGraph graph = reduced.getLayeredGraph();
+        for (int l = 5; l < 8; l++) {
+            Assert.assertEquals(graph.layerStart[l + 1] - graph.layerStart[l], 2);
+        }
+        Assert.assertSame(reduced.getLayeredGraph(), graph);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testIncremental() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            Tuples tuples = new Tuples();
+            for (int t = 0; t < 60; t++) {
+                tuples.add(rnd.nextInt(4), rnd.nextInt(5) - 1, rnd.nextInt(4), rnd.nextInt(3), rnd.nextInt(4));
+            }
+            long[][] stats = new long[2][];
+            for (int k = 0; k < 2; k++) {
+                Model model = new Model();
+                IntVar[] vars = new IntVar[5];
+                vars[0] = model.intVar("a", 0, 3, false);
+                vars[1] = model.intVar("b", -1, 3, seed % 2 == 0); // bounded domain, every other seed
+                vars[2] = model.intVar("c", 0, 3, false);
+                vars[3] = model.intVar("d", new int[]{0, 2});
+                vars[4] = model.intVar("e", 1, 3, false);
+                MultivaluedDecisionDiagram mdd = new MultivaluedDecisionDiagram(vars, tuples);
+                if (k == 0) {
+                    new Constraint("MDDC", new PropLargeMDDC(mdd, vars)).post();
+                } else {
+                    model.mddc(vars, mdd).post();
+                    // a second propagator sharing the MDD
+                    model.mddc(vars, mdd).post();
+                }
+                Solver solver = model.getSolver();
+                solver.setSearch(randomSearch(vars, seed));
+                while (solver.solve()) {
+                    Assert.assertTrue(mdd.exists(Arrays.stream(vars).mapToInt(IntVar::getValue).toArray()));
+                }
+                stats[k] = new long[]{solver.getSolutionCount(), solver.getNodeCount()};
+            }
+            Assert.assertEquals(stats[1][0], stats[0][0], "seed " + seed);
+            if (seed % 2 == 0) {
+                // the bounds are always supported
+                Assert.assertTrue(stats[1][1] <= stats[0][1], "seed " + seed);
+            } else {
+                // both maintain GAC
+                Assert.assertEquals(stats[1][1], stats[0][1], "seed " + seed);
+            }
+        }
+    }
 }
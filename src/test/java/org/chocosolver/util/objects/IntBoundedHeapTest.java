@@ -0,0 +1,112 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.testng.Assert.*;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class IntBoundedHeapTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNominal() {
+        IntBoundedHeap heap = new IntBoundedHeap(3, 10);
+        assertTrue(heap.isEmpty());
+        assertTrue(heap.offer(4, 5));
+        assertTrue(heap.offer(2, 7));
+        assertTrue(heap.offer(7, 1));
+        // full, worse than the worst one
+        assertFalse(heap.offer(1, 8));
+        // full, evicts 2
+        assertTrue(heap.offer(9, 5));
+        assertFalse(heap.contains(2));
+        assertEquals(heap.size(), 3);
+        assertEquals(heap.pollFirst(), 7);
+        // ties are broken by the smallest element
+        assertEquals(heap.pollFirst(), 4);
+        assertEquals(heap.pollFirst(), 9);
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testUpdateAndRemove() {
+        IntBoundedHeap heap = new IntBoundedHeap(4, 10);
+        heap.offer(0, 3);
+        heap.offer(1, 4);
+        heap.offer(2, 5);
+        heap.offer(3, 6);
+        assertTrue(heap.offer(3, 0));
+        assertTrue(heap.remove(1));
+        assertFalse(heap.remove(1));
+        assertTrue(heap.offer(0, 9));
+        assertEquals(heap.pollFirst(), 3);
+        assertEquals(heap.pollFirst(), 2);
+        assertEquals(heap.pollFirst(), 0);
+        heap.offer(5, 1);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(5));
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOfferEvicting() {
+        IntBoundedHeap heap = new IntBoundedHeap(2, 10);
+        assertEquals(heap.offerEvicting(4, 5), -1);
+        assertEquals(heap.offerEvicting(2, 7), -1);
+        assertEquals(heap.offerEvicting(2, 6), -1);
+        assertEquals(heap.offerEvicting(1, 8), 1);
+        assertEquals(heap.offerEvicting(9, 3), 2);
+        assertFalse(heap.contains(2));
+        assertEquals(heap.size(), 2);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = IndexOutOfBoundsException.class)
+    public void testEmpty() {
+        new IntBoundedHeap(2, 2).pollFirst();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        int n = 50, k = 8;
+        for (int run = 0; run < 100; run++) {
+            IntBoundedHeap heap = new IntBoundedHeap(k, n);
+            int[] keys = new int[n];
+            TreeSet<Long> kept = new TreeSet<>();
+            for (int t = 0; t < 200; t++) {
+                int e = rnd.nextInt(n);
+                int key = rnd.nextInt(30);
+                if (heap.contains(e)) {
+                    kept.remove((long) keys[e] * n + e);
+                }
+                keys[e] = key;
+                boolean in = heap.offer(e, key);
+                // the element is stored iff it is among the k best ones
+                kept.add((long) key * n + e);
+                if (kept.size() > k) {
+                    kept.pollLast();
+                }
+                assertEquals(in, kept.contains((long) key * n + e));
+                assertEquals(heap.size(), kept.size());
+            }
+            while (!kept.isEmpty()) {
+                assertEquals(heap.pollFirst(), (int) (kept.pollFirst() % n));
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+/**
+ * <br/>
+ *
+ * @author agent
+ * @since 4.0.9
+ */
+public class IntIntervalTreeTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNominal() {
+        IntIntervalTree tree = new IntIntervalTree(5);
+        tree.set(0, 0, 3);
+        tree.set(1, 5, 8);
+        tree.set(2, 2, 6);
+        tree.set(3, 7, 7); // empty
+        tree.build();
+        IntList result = new IntList();
+        tree.query(3, 5, result);
+        assertEquals(result.toArray(), new int[]{2});
+        result.clear();
+        tree.query(0, 10, result);
+        int[] all = result.toArray();
+        Arrays.sort(all);
+        // the empty interval too
+        assertEquals(all, new int[]{0, 1, 2, 3});
+        result.clear();
+        tree.query(8, 12, result);
+        assertTrue(result.isEmpty());
+        tree.remove(2);
+        tree.set(4, -5, 1);
+        tree.build();
+        result.clear();
+        tree.query(0, 4, result);
+        all = result.toArray();
+        Arrays.sort(all);
+        assertEquals(all, new int[]{0, 4});
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = IllegalStateException.class)
+    public void testNotBuilt() {
+        IntIntervalTree tree = new IntIntervalTree(2);
+        tree.set(0, 0, 3);
+        tree.query(0, 1, new IntList());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        int n = 40;
+        IntIntervalTree tree = new IntIntervalTree(n);
+        int[] lo = new int[n], hi = new int[n];
+        IntList result = new IntList();
+        for (int run = 0; run < 200; run++) {
+            // intervals change a little between two builds, some are removed
+            int m = rnd.nextInt(n + 1);
+            for (int i = 0; i < n; i++) {
+                if (run == 0 || rnd.nextInt(4) == 0) {
+                    lo[i] = rnd.nextInt(50);
+                    hi[i] = lo[i] + rnd.nextInt(10) - 2;
+                }
+                if (i < m) {
+                    tree.set(i, lo[i], hi[i]);
+                } else {
+                    tree.remove(i);
+                }
+            }
+            tree.build();
+            for (int q = 0; q < 20; q++) {
+                int l = rnd.nextInt(60) - 5;
+                int h = l + rnd.nextInt(15);
+                result.clear();
+                tree.query(l, h, result);
+                int[] found = result.toArray();
+                Arrays.sort(found);
+                int[] expected = new int[m];
+                int k = 0;
+                for (int i = 0; i < m; i++) {
+                    if (lo[i] < h && hi[i] > l) {
+                        expected[k++] = i;
+                    }
+                }
+                assertEquals(found, Arrays.copyOf(expected, k));
+            }
+        }
+    }
+}
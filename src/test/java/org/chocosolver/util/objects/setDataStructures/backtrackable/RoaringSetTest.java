@@ -0,0 +1,76 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.setDataStructures.backtrackable;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author agent
+ * @since 4.0.9
+ */
+public class RoaringSetTest extends BacktrackableSetTest {
+
+    @Override
+    public ISet create(int offset) {
+        return SetFactory.makeStoredSet(SetType.COMPRESSED_BITSET, offset, model);
+    }
+
+    @Override
+    public ISet create() {
+        return SetFactory.makeStoredSet(SetType.COMPRESSED_BITSET, 0, model);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "params")
+    public void testRandomBacktrack(boolean exp) {
+        SetFactory.HARD_CODED = exp;
+        Random rnd = new Random(0);
+        ISet set = create(-10);
+        IEnvironment environment = model.getEnvironment();
+        Deque<BitSet> refs = new ArrayDeque<>();
+        BitSet ref = new BitSet();
+        for (int k = 0; k < 200; k++) {
+            if (refs.isEmpty() || rnd.nextInt(3) > 0) {
+                environment.worldPush();
+                refs.push((BitSet) ref.clone());
+                // many modifications of a few chunks, so that containers change representation
+                for (int i = 0; i < 500; i++) {
+                    int v = rnd.nextInt(4) == 0 ? rnd.nextInt(200_000) : rnd.nextInt(10_000);
+                    if (rnd.nextBoolean()) {
+                        set.add(v - 10);
+                        ref.set(v);
+                    } else {
+                        set.remove(v - 10);
+                        ref.clear(v);
+                    }
+                }
+            } else {
+                environment.worldPop();
+                ref = refs.pop();
+            }
+            assertEquals(set.size(), ref.cardinality());
+            for (int i = ref.nextSetBit(0); i >= 0; i = ref.nextSetBit(i + 1)) {
+                assertTrue(set.contains(i - 10));
+            }
+            assertEquals(set.toArray().length, ref.cardinality());
+        }
+        environment.worldPopUntil(0);
+        assertTrue(set.isEmpty());
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.setDataStructures.nonbacktrackable;
+
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.chocosolver.util.objects.setDataStructures.roaring.Set_Roaring;
+import org.testng.annotations.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author agent
+ * @since 4.0.9
+ */
+public class RoaringSetTest extends SetTest {
+
+    @Override
+    public ISet create(int offset) {
+        return SetFactory.makeRoaringSet(offset);
+    }
+
+    private static void check(ISet set, BitSet ref, int offset) {
+        assertEquals(set.size(), ref.cardinality());
+        ISetIterator iter = set.iterator();
+        for (int i = ref.nextSetBit(0); i >= 0; i = ref.nextSetBit(i + 1)) {
+            assertTrue(iter.hasNext());
+            assertEquals(iter.nextInt(), i + offset);
+        }
+        assertFalse(iter.hasNext());
+        if (!ref.isEmpty()) {
+            assertEquals(set.min(), ref.nextSetBit(0) + offset);
+            assertEquals(set.max(), ref.length() - 1 + offset);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        for (int offset : new int[]{0, -100_000}) {
+            ISet set = create(offset);
+            BitSet ref = new BitSet();
+            for (int k = 0; k < 50_000; k++) {
+                // dense values in the first chunk, sparse elsewhere
+                int v = rnd.nextInt(3) == 0 ? rnd.nextInt(300_000) : rnd.nextInt(10_000);
+                if (rnd.nextInt(3) == 0) {
+                    assertEquals(set.remove(v + offset), ref.get(v));
+                    ref.clear(v);
+                } else {
+                    assertEquals(set.add(v + offset), !ref.get(v));
+                    ref.set(v);
+                }
+                assertEquals(set.contains(v + offset), ref.get(v));
+            }
+            check(set, ref, offset);
+            set.clear();
+            assertTrue(set.isEmpty());
+            assertFalse(set.iterator().hasNext());
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testConversions() {
+        ISet set = create(0);
+        BitSet ref = new BitSet();
+        // array, then bitmap
+        for (int i = 0; i < 10_000; i += 2) {
+            set.add(i);
+            ref.set(i);
+        }
+        check(set, ref, 0);
+        // back to array
+        for (int i = 0; i < 10_000; i += 4) {
+            set.remove(i);
+            ref.clear(i);
+        }
+        check(set, ref, 0);
+        // runs
+        for (int i = 100_000; i < 160_000; i++) {
+            set.add(i);
+            ref.set(i);
+        }
+        ((Set_Roaring) set).runOptimize();
+        check(set, ref, 0);
+        for (int i = 100_000; i < 160_000; i += 1000) {
+            set.remove(i);
+            ref.clear(i);
+        }
+        check(set, ref, 0);
+        for (int i = 100_000; i < 160_000; i += 3) {
+            set.remove(i);
+            ref.clear(i);
+        }
+        check(set, ref, 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testForEach() throws Exception {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 10; k++) {
+            ISet a = create(-5), b = create(-5), c = SetFactory.makeBitSet(-5);
+            for (int i = 0; i < 20_000; i++) {
+                int v = rnd.nextInt(200_000) - 5;
+                a.add(v);
+                if (rnd.nextBoolean()) {
+                    b.add(v);
+                    c.add(v);
+                }
+                v = rnd.nextInt(200_000) - 5;
+                b.add(v);
+                c.add(v);
+            }
+            ISet in1 = create(-5), in2 = create(-5), out1 = create(-5), out2 = create(-5);
+            Set_Roaring.forEachIn(a, b, in1::add);
+            Set_Roaring.forEachIn(a, c, in2::add);
+            Set_Roaring.forEachNotIn(a, b, out1::add);
+            Set_Roaring.forEachNotIn(a, c, out2::add);
+            assertEquals(in1.toArray(), in2.toArray());
+            assertEquals(out1.toArray(), out2.toArray());
+            assertEquals(in1.size() + out1.size(), a.size());
+        }
+    }
+}